@@ -0,0 +1,79 @@
+package org.openstreetmap.atlas.geography.atlas.change;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.openstreetmap.atlas.geography.Polygon;
+import org.openstreetmap.atlas.geography.atlas.complete.CompleteArea;
+import org.openstreetmap.atlas.utilities.collections.Maps;
+import org.openstreetmap.atlas.utilities.threads.Pool;
+import org.openstreetmap.atlas.utilities.time.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Contention benchmark for {@link ConcurrentChangeBuilder}: many threads adding
+ * {@link FeatureChange}s, some of which collide and have to be merged, compared to the
+ * {@link ChangeBuilder} single lock.
+ *
+ * @author agent
+ */
+public class ConcurrentChangeBuilderPerformanceTest
+{
+    private static final Logger logger = LoggerFactory
+            .getLogger(ConcurrentChangeBuilderPerformanceTest.class);
+    private static final int THREADS = 48;
+    private static final int BATCHES = 400;
+    private static final int BATCH_SIZE = 1_000;
+    // Every entity gets that many feature changes, with different tags
+    private static final int COLLISIONS = 4;
+
+    @Ignore
+    @Test
+    public void testContention()
+    {
+        final List<List<FeatureChange>> batches = new ArrayList<>(BATCHES);
+        for (int batch = 0; batch < BATCHES; batch++)
+        {
+            final List<FeatureChange> featureChanges = new ArrayList<>(BATCH_SIZE);
+            for (int index = 0; index < BATCH_SIZE; index++)
+            {
+                final long identifier = ((long) batch * BATCH_SIZE + index) / COLLISIONS;
+                featureChanges.add(new FeatureChange(ChangeType.ADD,
+                        new CompleteArea(identifier, Polygon.TEST_BUILDING,
+                                Maps.hashMap("key" + index % COLLISIONS, "value"), null)));
+            }
+            batches.add(featureChanges);
+        }
+        for (int threads = 1; threads <= THREADS; threads *= 2)
+        {
+            final ChangeBuilder single = new ChangeBuilder();
+            run("ChangeBuilder", threads, batches, single::add, single::get);
+            final ConcurrentChangeBuilder concurrent = new ConcurrentChangeBuilder();
+            run("ConcurrentChangeBuilder", threads, batches, concurrent::add, concurrent::get);
+        }
+    }
+
+    private void run(final String name, final int threads, final List<List<FeatureChange>> batches,
+            final Consumer<FeatureChange> adder, final Supplier<Change> getter)
+    {
+        final Time start = Time.now();
+        try (Pool pool = new Pool(threads, name))
+        {
+            for (final List<FeatureChange> batch : batches)
+            {
+                pool.queue(() -> batch.forEach(adder));
+            }
+        }
+        final Change change = getter.get();
+        final long milliseconds = Math.max(start.elapsedSince().asMilliseconds(), 1L);
+        Assert.assertEquals(BATCHES * BATCH_SIZE / COLLISIONS, change.changeCount());
+        logger.info("{} with {} threads: {} feature changes/s", name, threads,
+                BATCHES * BATCH_SIZE * 1000L / milliseconds);
+    }
+}
@@ -0,0 +1,73 @@
+package org.openstreetmap.atlas.geography.atlas.geojson;
+
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlas;
+import org.openstreetmap.atlas.streaming.compression.Decompressor;
+import org.openstreetmap.atlas.streaming.resource.InputStreamResource;
+import org.openstreetmap.atlas.streaming.resource.StringResource;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
+import org.openstreetmap.atlas.utilities.scalars.Duration;
+import org.openstreetmap.atlas.utilities.time.Time;
+import org.openstreetmap.atlas.utilities.vectortiles.TippecanoeSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the features per second of {@link StreamingGeoJsonWriter} against
+ * {@link Atlas#saveAsLineDelimitedGeoJsonFeatures}.
+ *
+ * @author agent
+ */
+public class StreamingGeoJsonWriterPerformanceTest
+{
+    private static final Logger logger = LoggerFactory
+            .getLogger(StreamingGeoJsonWriterPerformanceTest.class);
+    private static final int ITERATIONS = 5;
+
+    public static Atlas loadNewZealand()
+    {
+        final InputStreamResource resource = new InputStreamResource(
+                () -> Atlas.class.getResourceAsStream("NZL_9-506-316.atlas.gz"));
+        resource.setDecompressor(Decompressor.GZIP);
+        return PackedAtlas.load(resource);
+    }
+
+    @Ignore
+    @Test
+    public void testPerformance()
+    {
+        final Atlas atlas = loadNewZealand();
+        final long features = Iterables.size(atlas.entities());
+
+        double treeMilliseconds = 0;
+        double streamingMilliseconds = 0;
+        for (int iteration = 0; iteration < ITERATIONS; iteration++)
+        {
+            final StringResource tree = new StringResource();
+            final Time treeTime = Time.now();
+            atlas.saveAsLineDelimitedGeoJsonFeatures(tree, TippecanoeSettings.JSON_MUTATOR);
+            treeMilliseconds += treeTime.elapsedSince().asMilliseconds();
+
+            final StringResource streaming = new StringResource();
+            final Time streamingTime = Time.now();
+            try (StreamingGeoJsonWriter writer = new StreamingGeoJsonWriter(streaming))
+            {
+                atlas.entities().forEach(
+                        entity -> writer.writeFeature(entity, TippecanoeSettings.JSON_MUTATOR));
+            }
+            streamingMilliseconds += streamingTime.elapsedSince().asMilliseconds();
+
+            Assert.assertEquals(tree.writtenString(), streaming.writtenString());
+        }
+
+        final double secondsPerMillisecond = 1.0 / Duration.ONE_SECOND.asMilliseconds();
+        logger.info("{} features, {} iterations", features, ITERATIONS);
+        logger.info("JsonObject path: {} features per second",
+                features * ITERATIONS / (treeMilliseconds * secondsPerMillisecond));
+        logger.info("Streaming path: {} features per second",
+                features * ITERATIONS / (streamingMilliseconds * secondsPerMillisecond));
+    }
+}
@@ -0,0 +1,68 @@
+package org.openstreetmap.atlas.geography.atlas.packed;
+
+import java.nio.file.FileSystems;
+
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlas.AtlasFieldCompression;
+import org.openstreetmap.atlas.streaming.compression.Decompressor;
+import org.openstreetmap.atlas.streaming.resource.File;
+import org.openstreetmap.atlas.streaming.resource.InputStreamResource;
+import org.openstreetmap.atlas.streaming.resource.TemporaryFile;
+import org.openstreetmap.atlas.utilities.time.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Size and full load time benchmark of a real shard saved with each {@link AtlasFieldCompression}.
+ *
+ * @author agent
+ */
+public class PackedAtlasCompressionPerformanceTest
+{
+    private static final Logger logger = LoggerFactory
+            .getLogger(PackedAtlasCompressionPerformanceTest.class);
+    private static final String SHARD = "/org/openstreetmap/atlas/geography/atlas/"
+            + "NZL_9-506-316.atlas.gz";
+    private static final int LOADS = 10;
+
+    @Ignore
+    @Test
+    public void testFieldCompression()
+    {
+        final PackedAtlas shard = PackedAtlas.load(new InputStreamResource(
+                () -> PackedAtlasCompressionPerformanceTest.class.getResourceAsStream(SHARD))
+                        .withDecompressor(Decompressor.GZIP));
+        for (final AtlasFieldCompression compression : AtlasFieldCompression.values())
+        {
+            if (compression == AtlasFieldCompression.ZSTANDARD
+                    && !ZstdUtils.isZstdCompressionAvailable())
+            {
+                logger.warn("{}: not available on this platform, skipping", compression);
+                continue;
+            }
+            try (TemporaryFile file = File.temporary(FileSystems.getDefault()))
+            {
+                shard.setSaveFieldCompression(compression);
+                Time start = Time.now();
+                shard.save(file);
+                logger.info("{}: saved {} bytes in {}", compression, file.length(),
+                        start.elapsedSince());
+                start = Time.now();
+                for (int load = 0; load < LOADS; load++)
+                {
+                    // Loading is lazy: deserialize all the fields, so that all of them are
+                    // decompressed, and not only the ones needed to count the items
+                    final PackedAtlas loaded = PackedAtlas.load(file);
+                    loaded.getSerializer()
+                            .ifPresent(PackedAtlasSerializer::deserializeAllFieldsIfNeeded);
+                    Assert.assertEquals(shard.size(), loaded.size());
+                }
+                logger.info("{}: loaded in {} on average", compression,
+                        start.elapsedSince().times(1.0 / LOADS));
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.openstreetmap.atlas.geography.converters;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.PolyLine;
+import org.openstreetmap.atlas.geography.Polygon;
+import org.openstreetmap.atlas.geography.atlas.raw.RawAtlasIntegrationTest;
+import org.openstreetmap.atlas.geography.boundary.CountryBoundaryMap;
+import org.openstreetmap.atlas.geography.converters.jts.JtsPolygonConverter;
+import org.openstreetmap.atlas.streaming.compression.Decompressor;
+import org.openstreetmap.atlas.streaming.resource.InputStreamResource;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
+import org.openstreetmap.atlas.utilities.time.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark the ring assembly of {@link MultiplePolyLineToPolygonsConverter} on real country
+ * boundaries, cut in way-sized {@link PolyLine}s and shuffled like relation members.
+ *
+ * @author agent
+ */
+public class MultiplePolyLineToPolygonsConverterPerformanceTest
+{
+    private static final Logger logger = LoggerFactory
+            .getLogger(MultiplePolyLineToPolygonsConverterPerformanceTest.class);
+    private static final int WAY_SIZE = 20;
+    private static final MultiplePolyLineToPolygonsConverter CONVERTER = new MultiplePolyLineToPolygonsConverter();
+    private static final JtsPolygonConverter JTS_POLYGON_CONVERTER = new JtsPolygonConverter();
+
+    @Ignore
+    @Test
+    public void testBoundaries()
+    {
+        final CountryBoundaryMap boundaries = CountryBoundaryMap
+                .fromPlainText(new InputStreamResource(() -> RawAtlasIntegrationTest.class
+                        .getResourceAsStream("CIV_GIN_LBR_osm_boundaries_with_grid_index.txt.gz"))
+                                .withDecompressor(Decompressor.GZIP));
+        final Random random = new Random(1L);
+        for (final String country : new String[] { "LBR", "GIN", "CIV" })
+        {
+            // Only the outer rings are used, one per country polygon
+            final List<Polygon> rings = boundaries.countryBoundary(country).stream()
+                    .map(JTS_POLYGON_CONVERTER::backwardConvert).collect(Collectors.toList());
+            final List<PolyLine> members = new ArrayList<>();
+            rings.forEach(ring -> members.addAll(ways(ring, random)));
+            Collections.shuffle(members, random);
+            logger.info("{}: {} rings, {} members", country, rings.size(), members.size());
+            final long expected = run(country + " indexed", members, CONVERTER::convertIndexed);
+            Assert.assertEquals(rings.size(), expected);
+            Assert.assertEquals(expected,
+                    run(country + " polygonizer", members, CONVERTER::convertAttemptPolygonizer));
+            Assert.assertEquals(expected,
+                    run(country + " legacy", members, CONVERTER::convertLegacy));
+        }
+    }
+
+    private long run(final String name, final List<PolyLine> members,
+            final Function<Iterable<PolyLine>, Iterable<Polygon>> converter)
+    {
+        final Time start = Time.now();
+        final long result = Iterables.size(converter.apply(members));
+        logger.info("{}: {}", name, start.elapsedSince());
+        return result;
+    }
+
+    private List<PolyLine> ways(final Polygon ring, final Random random)
+    {
+        final List<PolyLine> result = new ArrayList<>();
+        final List<Location> closed = Iterables.asList(ring.closedLoop());
+        for (int start = 0; start < closed.size() - 1; start += WAY_SIZE)
+        {
+            final PolyLine way = new PolyLine(
+                    closed.subList(start, Math.min(start + WAY_SIZE + 1, closed.size())));
+            result.add(random.nextBoolean() ? way.reversed() : way);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,83 @@
+package org.openstreetmap.atlas.utilities.collections;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.Rectangle;
+import org.openstreetmap.atlas.geography.sharding.SlippyTile;
+import org.openstreetmap.atlas.utilities.scalars.Distance;
+import org.openstreetmap.atlas.utilities.threads.Pool;
+import org.openstreetmap.atlas.utilities.time.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Contention benchmark for {@link ShardBucketCollection}: many threads pushing located items in,
+ * either one by one or in batches, compared to a single lock around the whole collection.
+ *
+ * @author agent
+ */
+public class ShardBucketCollectionPerformanceTest
+{
+    private static final Logger logger = LoggerFactory
+            .getLogger(ShardBucketCollectionPerformanceTest.class);
+    private static final int THREADS = 8;
+    private static final int BATCHES = 200;
+    private static final int BATCH_SIZE = 1_000;
+    private static final int ZOOM = 6;
+
+    @Ignore
+    @Test
+    public void testContention()
+    {
+        final Rectangle maxBounds = SlippyTile.forName("1-0-0").bounds()
+                .contract(Distance.ONE_METER);
+        final List<List<Location>> batches = Stream
+                .generate(() -> Stream.generate(() -> Location.random(maxBounds))
+                        .limit(BATCH_SIZE).collect(Collectors.toList()))
+                .limit(BATCHES).collect(Collectors.toList());
+        final Object globalLock = new Object();
+        for (int threads = 1; threads <= THREADS; threads *= 2)
+        {
+            run("single lock", threads, maxBounds, batches, (buckets, batch) ->
+            {
+                for (final Location location : batch)
+                {
+                    synchronized (globalLock)
+                    {
+                        buckets.add(location);
+                    }
+                }
+            });
+            run("add", threads, maxBounds, batches,
+                    (buckets, batch) -> batch.forEach(buckets::add));
+            run("addAll", threads, maxBounds, batches, ShardBucketCollection::addAll);
+        }
+    }
+
+    private void run(final String name, final int threads, final Rectangle maxBounds,
+            final List<List<Location>> batches,
+            final BiConsumer<ShardBucketCollectionTestClasses.LocationBuckets, List<Location>> adder)
+    {
+        final ShardBucketCollectionTestClasses.LocationBuckets buckets = new ShardBucketCollectionTestClasses.LocationBuckets(
+                maxBounds, ZOOM);
+        final Time start = Time.now();
+        try (Pool pool = new Pool(threads, name))
+        {
+            for (final List<Location> batch : batches)
+            {
+                pool.queue(() -> adder.accept(buckets, batch));
+            }
+        }
+        final long milliseconds = Math.max(start.elapsedSince().asMilliseconds(), 1L);
+        Assert.assertEquals(BATCHES * BATCH_SIZE, buckets.size());
+        logger.info("{} with {} threads: {} items/s", name, threads,
+                BATCHES * BATCH_SIZE * 1000L / milliseconds);
+    }
+}
@@ -0,0 +1,275 @@
+package org.openstreetmap.atlas.geography;
+
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.utilities.scalars.Angle;
+import org.openstreetmap.atlas.utilities.scalars.Distance;
+
+/**
+ * Distance, bounds and snapping computations over {@link Location}s stored as dm7 concatenations
+ * (see {@link Location#asConcatenation()} and {@link PackedLocationList}). The loops work on the
+ * primitive values only, without any intermediate {@link Location}, {@link Segment} or
+ * {@link Distance} object.
+ * <p>
+ * Those return exactly the same values as their object counterparts: distances are in millimeters,
+ * rounded the same way {@link Distance#scaleBy(double)} does, and {@link Location#distanceTo},
+ * {@link Location#haversineDistanceTo} and {@link Location#equirectangularDistanceTo} delegate
+ * here.
+ *
+ * @author agent
+ */
+public final class GeometryKernels
+{
+    private static final int INT_SIZE = 32;
+    private static final double EARTH_RADIUS_MILLIMETERS = Distance.AVERAGE_EARTH_RADIUS
+            .asMillimeters();
+    private static final long HALF_REVOLUTION_DM7 = Angle.REVOLUTION_DM7 / 2;
+
+    /**
+     * Compute the bounds of a list of locations.
+     *
+     * @param concatenations
+     *            The location concatenations
+     * @param size
+     *            The number of locations to consider, from the start of the array
+     * @return The smallest {@link Rectangle} containing all the locations
+     */
+    public static Rectangle bounds(final long[] concatenations, final int size)
+    {
+        if (size == 0)
+        {
+            throw new CoreException("Cannot compute the bounds of an empty list of locations.");
+        }
+        int lower = Integer.MAX_VALUE;
+        int upper = Integer.MIN_VALUE;
+        int left = Integer.MAX_VALUE;
+        int right = Integer.MIN_VALUE;
+        for (int index = 0; index < size; index++)
+        {
+            final long concatenation = concatenations[index];
+            final int latitude = latitude(concatenation);
+            final int longitude = longitude(concatenation);
+            lower = Math.min(lower, latitude);
+            upper = Math.max(upper, latitude);
+            left = Math.min(left, longitude);
+            right = Math.max(right, longitude);
+        }
+        return Rectangle.forCorners(new Location(Latitude.dm7(lower), Longitude.dm7(left)),
+                new Location(Latitude.dm7(upper), Longitude.dm7(right)));
+    }
+
+    /**
+     * Same as {@link Location#distanceTo(Location)}: haversine distance when the two locations are
+     * closer through the antimeridian, equirectangular distance otherwise.
+     *
+     * @param origin
+     *            The first location's concatenation
+     * @param destination
+     *            The second location's concatenation
+     * @return The distance in millimeters
+     */
+    public static long distance(final long origin, final long destination)
+    {
+        if (Math.abs((long) longitude(origin) - longitude(destination)) > HALF_REVOLUTION_DM7)
+        {
+            return haversineDistance(origin, destination);
+        }
+        return equirectangularDistance(origin, destination);
+    }
+
+    /**
+     * @param origin
+     *            The first location's concatenation
+     * @param destination
+     *            The second location's concatenation
+     * @return The equirectangular distance in millimeters
+     * @see Location#equirectangularDistanceTo(Location)
+     */
+    public static long equirectangularDistance(final long origin, final long destination)
+    {
+        final double lat1 = radians(latitude(origin));
+        final double lon1 = radians(longitude(origin));
+        final double lat2 = radians(latitude(destination));
+        final double lon2 = radians(longitude(destination));
+
+        final double xAxis = (lon2 - lon1) * Math.cos((lat1 + lat2) / 2);
+        final double yAxis = lat2 - lat1;
+
+        return Math.round(EARTH_RADIUS_MILLIMETERS * Math.sqrt(xAxis * xAxis + yAxis * yAxis));
+    }
+
+    /**
+     * @param origin
+     *            The first location's concatenation
+     * @param destination
+     *            The second location's concatenation
+     * @return The haversine distance in millimeters
+     * @see Location#haversineDistanceTo(Location)
+     */
+    public static long haversineDistance(final long origin, final long destination)
+    {
+        final double lat1 = radians(latitude(origin));
+        final double lon1 = radians(longitude(origin));
+        final double lat2 = radians(latitude(destination));
+        final double lon2 = radians(longitude(destination));
+
+        final double deltaLat = lat2 - lat1;
+        final double deltaLon = lon2 - lon1;
+
+        final double hav = Math.pow(Math.sin(deltaLat / 2), 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.pow(Math.sin(deltaLon / 2), 2);
+        final double result = 2 * Math.atan2(Math.sqrt(hav), Math.sqrt(1 - hav));
+        return Math.round(EARTH_RADIUS_MILLIMETERS * result);
+    }
+
+    /**
+     * Compute the length of a line, using {@link #distance(long, long)} for each segment.
+     *
+     * @param concatenations
+     *            The location concatenations
+     * @param size
+     *            The number of locations to consider, from the start of the array
+     * @param closed
+     *            True to also count the segment from the last location back to the first one, like
+     *            {@link Polygon#segments()} does
+     * @return The length in millimeters
+     */
+    public static long length(final long[] concatenations, final int size, final boolean closed)
+    {
+        long result = 0L;
+        for (int index = 1; index < size; index++)
+        {
+            result += distance(concatenations[index - 1], concatenations[index]);
+        }
+        if (closed && size > 0)
+        {
+            result += distance(concatenations[size - 1], concatenations[0]);
+        }
+        return result;
+    }
+
+    /**
+     * Compute the length of each segment of a line, using {@link #distance(long, long)}.
+     *
+     * @param concatenations
+     *            The location concatenations
+     * @param size
+     *            The number of locations to consider, from the start of the array
+     * @param closed
+     *            True to also add the segment from the last location back to the first one, like
+     *            {@link Polygon#segments()} does
+     * @param result
+     *            The array to fill with the segment lengths in millimeters. It needs to hold at
+     *            least size - 1 values, or size values when closed.
+     * @return The number of segments
+     */
+    public static int segmentLengths(final long[] concatenations, final int size,
+            final boolean closed, final long[] result)
+    {
+        int count = 0;
+        for (int index = 1; index < size; index++)
+        {
+            result[count++] = distance(concatenations[index - 1], concatenations[index]);
+        }
+        if (closed && size > 0)
+        {
+            result[count++] = distance(concatenations[size - 1], concatenations[0]);
+        }
+        return count;
+    }
+
+    /**
+     * Snap a location to the closest point of a line, the same way {@link Snapper} does with each
+     * of the line's {@link Segment}s: the projection is done in dm7 space, and the closest of the
+     * projections wins (the first one in case of a tie).
+     *
+     * @param origin
+     *            The concatenation of the location to snap
+     * @param concatenations
+     *            The location concatenations of the line
+     * @param size
+     *            The number of locations to consider, from the start of the array
+     * @param closed
+     *            True to also snap to the segment from the last location back to the first one
+     * @return The concatenation of the snapped location
+     */
+    public static long snap(final long origin, final long[] concatenations, final int size,
+            final boolean closed)
+    {
+        if (size == 0)
+        {
+            throw new CoreException("Cannot snap to an empty list of locations.");
+        }
+        if (size == 1)
+        {
+            return concatenations[0];
+        }
+        long best = 0L;
+        long bestDistance = Long.MAX_VALUE;
+        final int segments = closed ? size : size - 1;
+        for (int index = 0; index < segments; index++)
+        {
+            final long candidate = snapToSegment(origin, concatenations[index],
+                    concatenations[index + 1 == size ? 0 : index + 1]);
+            final long candidateDistance = distance(origin, candidate);
+            if (candidateDistance < bestDistance)
+            {
+                best = candidate;
+                bestDistance = candidateDistance;
+            }
+        }
+        return best;
+    }
+
+    private static int latitude(final long concatenation)
+    {
+        return (int) (concatenation >>> INT_SIZE);
+    }
+
+    private static int longitude(final long concatenation)
+    {
+        return (int) concatenation;
+    }
+
+    private static double radians(final int dm7)
+    {
+        return dm7 / Angle.DM7_PER_RADIAN_DOUBLE;
+    }
+
+    /**
+     * Same computation as {@link Snapper}'s segment snapping, using the dot product to find out if
+     * the projected point is within the segment or at one of its ends.
+     */
+    private static long snapToSegment(final long origin, final long start, final long end)
+    {
+        final long startLatitude = latitude(start);
+        final long startLongitude = longitude(start);
+        final double latitudeSpan = (double) (latitude(end) - startLatitude);
+        final double longitudeSpan = (double) (longitude(end) - startLongitude);
+        final double variableLatitudeSpan = (double) (latitude(origin) - startLatitude);
+        final double variableLongitudeSpan = (double) (longitude(origin) - startLongitude);
+        final double dotProduct = latitudeSpan * variableLatitudeSpan
+                + longitudeSpan * variableLongitudeSpan;
+        if (dotProduct <= 0)
+        {
+            return start;
+        }
+        final double shapeDotProduct = latitudeSpan * latitudeSpan + longitudeSpan * longitudeSpan;
+        if (dotProduct >= shapeDotProduct)
+        {
+            return end;
+        }
+        final double shapeLength = Math.sqrt(shapeDotProduct);
+        final double variableLength = Math.sqrt(variableLatitudeSpan * variableLatitudeSpan
+                + variableLongitudeSpan * variableLongitudeSpan);
+        final double cosAlpha = dotProduct / (shapeLength * variableLength);
+        final double offsetDistance = cosAlpha * variableLength;
+        final double latitude = startLatitude + offsetDistance / shapeLength * latitudeSpan;
+        final double longitude = startLongitude + offsetDistance / shapeLength * longitudeSpan;
+        return PackedLocationList.concatenate(Math.toIntExact(Math.round(latitude)),
+                Math.toIntExact(Math.round(longitude)));
+    }
+
+    private GeometryKernels()
+    {
+    }
+}
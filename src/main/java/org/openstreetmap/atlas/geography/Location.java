@@ -224,13 +224,10 @@ public class Location implements Located, Iterable<Location>, Serializable, Geom
      */
     public Distance distanceTo(final Location that)
     {
-        // Do a quick check on Longitude
-        if (this.getLongitude().isCloserViaAntimeridianTo(that.getLongitude()))
-        {
-            // Use the method that is not annoyed by the antimeridian
-            return haversineDistanceTo(that);
-        }
-        return equirectangularDistanceTo(that);
+        // Uses the haversine distance, which is not annoyed by the antimeridian, only when the
+        // two locations are closer through the antimeridian.
+        return Distance.millimeters(
+                GeometryKernels.distance(asConcatenation(), that.asConcatenation()));
     }
 
     @Override
@@ -257,16 +254,8 @@ public class Location implements Located, Iterable<Location>, Serializable, Geom
      */
     public Distance equirectangularDistanceTo(final Location that)
     {
-        // convert to radians
-        final double lat1 = this.getLatitude().asRadians();
-        final double lon1 = this.getLongitude().asRadians();
-        final double lat2 = that.getLatitude().asRadians();
-        final double lon2 = that.getLongitude().asRadians();
-
-        final double xAxis = (lon2 - lon1) * Math.cos((lat1 + lat2) / 2);
-        final double yAxis = lat2 - lat1;
-
-        return Distance.AVERAGE_EARTH_RADIUS.scaleBy(Math.sqrt(xAxis * xAxis + yAxis * yAxis));
+        return Distance.millimeters(
+                GeometryKernels.equirectangularDistance(asConcatenation(), that.asConcatenation()));
     }
 
     @Override
@@ -334,19 +323,8 @@ public class Location implements Located, Iterable<Location>, Serializable, Geom
      */
     public Distance haversineDistanceTo(final Location that)
     {
-        // convert to radians
-        final double lat1 = this.getLatitude().asRadians();
-        final double lon1 = this.getLongitude().asRadians();
-        final double lat2 = that.getLatitude().asRadians();
-        final double lon2 = that.getLongitude().asRadians();
-
-        final double deltaLat = lat2 - lat1;
-        final double deltaLon = lon2 - lon1;
-
-        final double hav = Math.pow(Math.sin(deltaLat / 2), 2)
-                + Math.cos(lat1) * Math.cos(lat2) * Math.pow(Math.sin(deltaLon / 2), 2);
-        final double result = 2 * Math.atan2(Math.sqrt(hav), Math.sqrt(1 - hav));
-        return Distance.AVERAGE_EARTH_RADIUS.scaleBy(result);
+        return Distance.millimeters(
+                GeometryKernels.haversineDistance(asConcatenation(), that.asConcatenation()));
     }
 
     /**
@@ -0,0 +1,150 @@
+package org.openstreetmap.atlas.geography;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.utilities.scalars.Angle;
+
+/**
+ * Immutable list of {@link Location}s stored as their dm7 concatenations (see
+ * {@link Location#asConcatenation()}) in a single primitive array. {@link Location} objects are
+ * only created when {@link #get(int)} is called, and the primitive accessors allow geometric
+ * kernels to work directly on the dm7 values.
+ *
+ * @author agent
+ */
+public final class PackedLocationList extends AbstractList<Location>
+        implements RandomAccess, Serializable
+{
+    private static final long serialVersionUID = 2395563097591014473L;
+    private static final int INT_SIZE = 32;
+    private static final long INT_FULL_MASK_AS_LONG = 0xFFFFFFFFL;
+
+    private final long[] concatenations;
+
+    /**
+     * Concatenate a dm7 latitude and a dm7 longitude the same way {@link Location} does.
+     *
+     * @param latitude
+     *            The dm7 latitude
+     * @param longitude
+     *            The dm7 longitude
+     * @return The concatenation
+     * @throws CoreException
+     *             if any of the two values is out of range
+     */
+    public static long concatenate(final int latitude, final int longitude)
+    {
+        if (latitude < Latitude.MINIMUM_DM7 || latitude > Latitude.MAXIMUM_DM7)
+        {
+            throw new CoreException("Latitude dm7 value {} is invalid.", latitude);
+        }
+        if (longitude < Angle.MINIMUM_DM7 || longitude > Angle.MAXIMUM_DM7)
+        {
+            throw new CoreException("Longitude dm7 value {} is invalid.", longitude);
+        }
+        return (long) latitude << INT_SIZE | (longitude & INT_FULL_MASK_AS_LONG);
+    }
+
+    /**
+     * @param locations
+     *            The {@link Location}s to pack
+     * @return The packed version of the {@link Location}s, or the same object if it already is
+     *         packed
+     */
+    public static PackedLocationList forLocations(final Iterable<? extends Location> locations)
+    {
+        if (locations instanceof PackedLocationList)
+        {
+            return (PackedLocationList) locations;
+        }
+        long[] concatenations = new long[locations instanceof Collection
+                ? ((Collection<?>) locations).size()
+                : 0];
+        int size = 0;
+        for (final Location location : locations)
+        {
+            if (size == concatenations.length)
+            {
+                concatenations = Arrays.copyOf(concatenations, Math.max(2 * size, 1));
+            }
+            concatenations[size++] = location.asConcatenation();
+        }
+        return new PackedLocationList(
+                size == concatenations.length ? concatenations
+                        : Arrays.copyOf(concatenations, size));
+    }
+
+    /**
+     * @param concatenations
+     *            The dm7 concatenations of each location. The array is not copied, and is not to be
+     *            modified afterwards.
+     */
+    public PackedLocationList(final long[] concatenations)
+    {
+        this.concatenations = concatenations;
+    }
+
+    /**
+     * @return The smallest {@link Rectangle} containing all the locations, computed without
+     *         creating intermediate {@link Location} objects.
+     */
+    public Rectangle bounds()
+    {
+        return GeometryKernels.bounds(this.concatenations, this.concatenations.length);
+    }
+
+    /**
+     * @param index
+     *            The index of the location
+     * @return The dm7 concatenation of the location at that index
+     */
+    public long concatenation(final int index)
+    {
+        return this.concatenations[index];
+    }
+
+    @Override
+    public Location get(final int index)
+    {
+        return new Location(this.concatenations[index]);
+    }
+
+    /**
+     * @param index
+     *            The index of the location
+     * @return The dm7 latitude of the location at that index
+     */
+    public int latitudeDm7(final int index)
+    {
+        return (int) (this.concatenations[index] >>> INT_SIZE);
+    }
+
+    /**
+     * @param index
+     *            The index of the location
+     * @return The dm7 longitude of the location at that index
+     */
+    public int longitudeDm7(final int index)
+    {
+        return (int) this.concatenations[index];
+    }
+
+    @Override
+    public int size()
+    {
+        return this.concatenations.length;
+    }
+
+    /**
+     * @return The backing array, for {@link GeometryKernels}. Not to be modified.
+     */
+    long[] concatenations()
+    {
+        return this.concatenations;
+    }
+}
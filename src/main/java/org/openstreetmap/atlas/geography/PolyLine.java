@@ -147,7 +147,15 @@ public class PolyLine implements Collection<Location>, Located, Serializable, Ge
         {
             throw new CoreException("Cannot have an empty PolyLine or Polygon.");
         }
-        this.points = new ArrayList<>(points);
+        if (points instanceof PackedLocationList)
+        {
+            // Immutable, so it can be shared as is
+            this.points = (PackedLocationList) points;
+        }
+        else
+        {
+            this.points = new ArrayList<>(points);
+        }
     }
 
     public PolyLine(final Location... points)
@@ -361,6 +369,10 @@ public class PolyLine implements Collection<Location>, Located, Serializable, Ge
     @Override
     public Rectangle bounds()
     {
+        if (this.points instanceof PackedLocationList)
+        {
+            return ((PackedLocationList) this.points).bounds();
+        }
         return Rectangle.forLocations(this);
     }
 
@@ -655,6 +667,15 @@ public class PolyLine implements Collection<Location>, Located, Serializable, Ge
         return this.points.isEmpty();
     }
 
+    /**
+     * @return True if the points of this {@link PolyLine} are stored as primitive dm7 values (see
+     *         {@link PackedLocationList})
+     */
+    public boolean isPacked()
+    {
+        return this.points instanceof PackedLocationList;
+    }
+
     /**
      * @return True if this {@link PolyLine} is a single point, i.e. all the points are the same.
      */
@@ -698,13 +719,9 @@ public class PolyLine implements Collection<Location>, Located, Serializable, Ge
 
     public Distance length()
     {
-        Distance result = Distance.ZERO;
-        final List<Segment> segments = this.segments();
-        for (final Segment segment : segments)
-        {
-            result = result.add(segment.length());
-        }
-        return result;
+        final PackedLocationList packed = packed();
+        return Distance.millimeters(GeometryKernels.length(packed.concatenations(), packed.size(),
+                this instanceof Polygon));
     }
 
     /**
@@ -830,25 +847,39 @@ public class PolyLine implements Collection<Location>, Located, Serializable, Ge
 
     public Location offsetFromStart(final Ratio ratio)
     {
-        final Distance length = length();
-        final Distance stop = length.scaleBy(ratio);
-        Distance accumulated = Distance.ZERO;
-        final List<Segment> segments = this.segments();
-
-        for (final Segment segment : segments)
+        final PackedLocationList packed = packed();
+        final int size = packed.size();
+        if (size == 1)
+        {
+            return first();
+        }
+        final boolean closed = this instanceof Polygon;
+        final long[] segmentLengths = new long[closed ? size : size - 1];
+        GeometryKernels.segmentLengths(packed.concatenations(), size, closed, segmentLengths);
+        long length = 0L;
+        for (final long segmentLength : segmentLengths)
         {
-            if (accumulated.add(segment.length()).isGreaterThan(stop))
+            length += segmentLength;
+        }
+        final double stop = Distance.millimeters(length).scaleBy(ratio).asMillimeters();
+        long accumulated = 0L;
+        for (int index = 0; index < segmentLengths.length; index++)
+        {
+            final long segmentLength = segmentLengths[index];
+            final Location end = packed.get(index + 1 == size ? 0 : index + 1);
+            if (accumulated + segmentLength > stop)
             {
                 // This is the proper segment
                 final Ratio segmentRatio = Ratio.ratio(
-                        stop.substract(accumulated).asMeters() / segment.length().asMeters());
-                return segment.offsetFromStart(segmentRatio);
+                        Distance.millimeters(stop - accumulated).asMeters()
+                                / Distance.millimeters(segmentLength).asMeters());
+                return new Segment(packed.get(index), end).offsetFromStart(segmentRatio);
             }
-            if (accumulated.add(segment.length()).equals(stop))
+            if (accumulated + segmentLength == stop)
             {
-                return segment.end();
+                return end;
             }
-            accumulated = accumulated.add(segment.length());
+            accumulated += segmentLength;
         }
         throw new CoreException("This exception should never be thrown.");
     }
@@ -907,6 +938,15 @@ public class PolyLine implements Collection<Location>, Located, Serializable, Ge
         return true;
     }
 
+    /**
+     * @return The points of this {@link PolyLine} as primitive dm7 values. This is free if the
+     *         {@link PolyLine} is already packed, and copies the points otherwise.
+     */
+    public PackedLocationList packed()
+    {
+        return PackedLocationList.forLocations(this.points);
+    }
+
     /**
      * Prepends the given {@link PolyLine} to this one, if possible.
      *
@@ -1120,13 +1160,28 @@ public class PolyLine implements Collection<Location>, Located, Serializable, Ge
      */
     public Distance shortestOneWayDistanceTo(final PolyLine other)
     {
-        Distance shortest = Distance.MAXIMUM;
+        if (other.size() < 2)
+        {
+            Distance shortest = Distance.MAXIMUM;
+            for (final Location shapePoint : this)
+            {
+                final Distance current = shapePoint.snapTo(other).getDistance();
+                shortest = current.isLessThan(shortest) ? current : shortest;
+            }
+            return shortest;
+        }
+        // Pack the other shape once, and snap all the shape points with no intermediate objects
+        final PackedLocationList otherPacked = other.packed();
+        final boolean otherClosed = other instanceof Polygon;
+        long shortest = Long.MAX_VALUE;
         for (final Location shapePoint : this)
         {
-            final Distance current = shapePoint.snapTo(other).getDistance();
-            shortest = current.isLessThan(shortest) ? current : shortest;
+            final long origin = shapePoint.asConcatenation();
+            final long snapped = GeometryKernels.snap(origin, otherPacked.concatenations(),
+                    otherPacked.size(), otherClosed);
+            shortest = Math.min(shortest, GeometryKernels.distance(origin, snapped));
         }
-        return shortest;
+        return Distance.millimeters(shortest);
     }
 
     @Override
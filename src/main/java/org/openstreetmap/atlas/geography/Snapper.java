@@ -122,17 +122,12 @@ public class Snapper
             {
                 target = new PolyLine(shape);
             }
-            SnappedLocation best = null;
-            for (final Segment segment : target.segments())
-            {
-                final SnappedLocation candidate = snap(origin, segment);
-                if (best == null || candidate.getDistance().isLessThan(best.getDistance()))
-                {
-                    best = candidate;
-                }
-            }
+            // Snap to each segment without building them
+            final PackedLocationList packed = target.packed();
+            final long best = GeometryKernels.snap(origin.asConcatenation(),
+                    packed.concatenations(), packed.size(), target instanceof Polygon);
             // Return a SnappedLocation with the full shape
-            return new SnappedLocation(origin, best, target);
+            return new SnappedLocation(origin, new Location(best), target);
         }
         else if (Iterables.size(shape) == 1)
         {
@@ -3,8 +3,7 @@ package org.openstreetmap.atlas.geography;
 import java.io.Serializable;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import org.openstreetmap.atlas.exception.CoreException;
 import org.slf4j.Logger;
@@ -101,7 +100,7 @@ public class StringCompressedPolyLine implements Serializable
             try
             {
                 encodedString = new String(this.encoding, CHARSET);
-                return asPolyLine(encodedString, PRECISION);
+                return asPolyLine(encodedString);
             }
             catch (final Exception exception)
             {
@@ -139,14 +138,15 @@ public class StringCompressedPolyLine implements Serializable
         }
     }
 
-    private PolyLine asPolyLine(final String encoded, final int precision)
+    private PolyLine asPolyLine(final String encoded)
     {
-        final double precision2 = Math.pow(10, -precision);
         final int length = encoded.length();
         int index = 0;
         int latitude = 0;
         int longitude = 0;
-        final List<Location> array = new ArrayList<>();
+        // Each location takes at least two characters
+        long[] concatenations = new long[length / 2];
+        int size = 0;
         while (index < length)
         {
             int byteEncoded;
@@ -172,10 +172,14 @@ public class StringCompressedPolyLine implements Serializable
             while (byteEncoded >= SIXTH_BIT_MASK);
             final int deltalongitude = (result & 1) > 0 ? ~(result >>> 1) : result >>> 1;
             longitude += deltalongitude;
-            array.add(new Location(Latitude.degrees(latitude * precision2),
-                    Longitude.degrees(longitude * precision2)));
+            // With a dm7 precision, the decoded values are already dm7
+            concatenations[size++] = PackedLocationList.concatenate(latitude, longitude);
         }
-        return new PolyLine(array);
+        if (size < concatenations.length)
+        {
+            concatenations = Arrays.copyOf(concatenations, size);
+        }
+        return new PolyLine(new PackedLocationList(concatenations));
     }
 
     private String compress(final PolyLine points, final int precision0)
@@ -21,6 +21,6 @@ public class StringCompressedPolygon extends StringCompressedPolyLine
 
     public Polygon asPolygon()
     {
-        return new Polygon(asPolyLine());
+        return new Polygon(asPolyLine().packed());
     }
 }
@@ -32,6 +32,8 @@ import org.openstreetmap.atlas.geography.index.SpatialIndex;
 import org.openstreetmap.atlas.streaming.resource.Resource;
 import org.openstreetmap.atlas.streaming.resource.WritableResource;
 import org.openstreetmap.atlas.utilities.collections.Iterables;
+import org.openstreetmap.atlas.utilities.metrics.LatencyHistogram;
+import org.openstreetmap.atlas.utilities.metrics.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,6 +61,8 @@ public abstract class AbstractAtlas extends BareAtlas
     private static final Object LINE_LOCK = new Object();
     private static final Object POINT_LOCK = new Object();
     private static final Object RELATION_LOCK = new Object();
+    private static final LatencyHistogram SPATIAL_INDEX_BUILD = MetricsRegistry.global()
+            .latency("atlas.spatial.index.build");
 
     // Spatial indices
     // Transient: Those are not serialized, and re-generated on the fly
@@ -558,9 +562,11 @@ public abstract class AbstractAtlas extends BareAtlas
                 if (localIndex == null)
                 {
                     logger.info("Re-Building {} Spatial Index...", type);
+                    final long start = SPATIAL_INDEX_BUILD.start();
                     final SpatialIndex<M> temporaryIndex = newIndexSupplier.get();
                     Iterables.stream(this.entities(type, type.getMemberClass()))
                             .map(entity -> (M) entity).forEach(temporaryIndex::add);
+                    SPATIAL_INDEX_BUILD.stop(start);
                     globalIndexConsumer.accept(temporaryIndex);
                 }
             }
@@ -0,0 +1,171 @@
+package org.openstreetmap.atlas.geography.atlas;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.tags.Taggable;
+
+/**
+ * Declare which parts of an {@link Atlas} a job needs, so that loading can skip the rest. A
+ * projection has:
+ * <ul>
+ * <li>The {@link ItemType}s to load. The other types do not exist in the loaded {@link Atlas}: they
+ * are not listed, and the entities that would reference them (relation members, parent relations,
+ * edges of a node) do not show them. {@link ItemType#EDGE} always brings {@link ItemType#NODE}
+ * along, as an edge cannot exist without its nodes.</li>
+ * <li>The {@link Content}s to load for each entity. The contents that are not loaded can not be
+ * accessed, and doing so throws a {@link CoreException}.</li>
+ * <li>An optional tag {@link Predicate}. Only the entities matching it are kept, along with what
+ * they depend on, like a {@link org.openstreetmap.atlas.geography.atlas.sub.AtlasCutType#SOFT_CUT}
+ * would: the nodes of the edges, the reverse edges, and the members of the relations.</li>
+ * </ul>
+ * See {@link AtlasResourceLoader#withProjection(AtlasProjection)}, or
+ * {@code PackedAtlas.load(Resource, AtlasProjection)} which only reads the parts of the atlas file
+ * the projection needs.
+ *
+ * @author agent
+ */
+public final class AtlasProjection
+{
+    /**
+     * The contents of each entity that can be left out.
+     *
+     * @author agent
+     */
+    public enum Content
+    {
+        // Locations, PolyLines and Polygons
+        GEOMETRY,
+        TAGS,
+        // The parent relations of each entity
+        RELATIONS
+    }
+
+    private final Set<ItemType> itemTypes;
+    private final Set<Content> contents;
+    private final Predicate<Taggable> tagPredicate;
+
+    /**
+     * @return A projection that loads everything
+     */
+    public static AtlasProjection all()
+    {
+        return new AtlasProjection(EnumSet.allOf(ItemType.class), EnumSet.allOf(Content.class),
+                null);
+    }
+
+    /**
+     * @param itemTypes
+     *            The {@link ItemType}s to load
+     * @return A projection that loads all the contents of the provided {@link ItemType}s
+     */
+    public static AtlasProjection forItemTypes(final ItemType... itemTypes)
+    {
+        if (itemTypes.length == 0)
+        {
+            throw new CoreException("A projection needs at least one ItemType");
+        }
+        return new AtlasProjection(EnumSet.copyOf(Arrays.asList(itemTypes)),
+                EnumSet.allOf(Content.class), null);
+    }
+
+    private AtlasProjection(final Set<ItemType> itemTypes, final Set<Content> contents,
+            final Predicate<Taggable> tagPredicate)
+    {
+        final Set<ItemType> types = EnumSet.copyOf(itemTypes);
+        if (types.contains(ItemType.EDGE))
+        {
+            types.add(ItemType.NODE);
+        }
+        this.itemTypes = Collections.unmodifiableSet(types);
+        this.contents = Collections.unmodifiableSet(contents);
+        this.tagPredicate = tagPredicate;
+    }
+
+    public Set<Content> getContents()
+    {
+        return this.contents;
+    }
+
+    public Set<ItemType> getItemTypes()
+    {
+        return this.itemTypes;
+    }
+
+    public Optional<Predicate<Taggable>> getTagPredicate()
+    {
+        return Optional.ofNullable(this.tagPredicate);
+    }
+
+    public boolean includes(final Content content)
+    {
+        return this.contents.contains(content);
+    }
+
+    public boolean includes(final ItemType itemType)
+    {
+        return this.itemTypes.contains(itemType);
+    }
+
+    /**
+     * @return True if this projection loads everything
+     */
+    public boolean isAll()
+    {
+        return this.itemTypes.size() == ItemType.values().length
+                && this.contents.size() == Content.values().length && this.tagPredicate == null;
+    }
+
+    /**
+     * Test an entity of an {@link Atlas} that was loaded fully. This does not pull in the
+     * dependencies of the matching entities, which is left to a
+     * {@link org.openstreetmap.atlas.geography.atlas.sub.AtlasCutType#SOFT_CUT}.
+     *
+     * @param entity
+     *            The entity to test
+     * @return True if the entity is of a projected {@link ItemType}, and matches the tag predicate
+     *         if any.
+     */
+    public boolean matches(final AtlasEntity entity)
+    {
+        return includes(entity.getType())
+                && (this.tagPredicate == null || this.tagPredicate.test(entity));
+    }
+
+    @Override
+    public String toString()
+    {
+        return "AtlasProjection [itemTypes=" + this.itemTypes + ", contents=" + this.contents
+                + ", tagPredicate=" + this.tagPredicate + "]";
+    }
+
+    /**
+     * @param contents
+     *            The only {@link Content}s to load
+     * @return A copy of this projection, which loads only the provided {@link Content}s
+     */
+    public AtlasProjection withContents(final Content... contents)
+    {
+        final Set<Content> result = EnumSet.noneOf(Content.class);
+        result.addAll(Arrays.asList(contents));
+        return new AtlasProjection(this.itemTypes, result, this.tagPredicate);
+    }
+
+    /**
+     * @param tagPredicate
+     *            The predicate the entities have to match, for example a
+     *            {@link org.openstreetmap.atlas.tags.filters.TaggableFilter}
+     * @return A copy of this projection, which keeps only the matching entities
+     */
+    public AtlasProjection withTagPredicate(final Predicate<Taggable> tagPredicate)
+    {
+        return new AtlasProjection(this.itemTypes, this.contents, tagPredicate);
+    }
+}
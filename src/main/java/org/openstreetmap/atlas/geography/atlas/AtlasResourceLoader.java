@@ -11,6 +11,7 @@ import org.openstreetmap.atlas.exception.CoreException;
 import org.openstreetmap.atlas.geography.atlas.builder.text.TextAtlasBuilder;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
 import org.openstreetmap.atlas.geography.atlas.multi.MultiAtlas;
+import org.openstreetmap.atlas.geography.atlas.multi.ParallelAtlasLoader;
 import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlas;
 import org.openstreetmap.atlas.geography.atlas.sub.AtlasCutType;
 import org.openstreetmap.atlas.streaming.compression.Decompressor;
@@ -33,10 +34,15 @@ public class AtlasResourceLoader
 {
     public static final Predicate<Resource> HAS_TEXT_ATLAS_EXTENSION = FileSuffix
             .resourceFilter(FileSuffix.ATLAS, FileSuffix.TEXT)
-            .or(FileSuffix.resourceFilter(FileSuffix.ATLAS, FileSuffix.TEXT, FileSuffix.GZIP));
+            .or(FileSuffix.resourceFilter(FileSuffix.ATLAS, FileSuffix.TEXT, FileSuffix.GZIP))
+            .or(FileSuffix.resourceFilter(FileSuffix.ATLAS, FileSuffix.TEXT, FileSuffix.LZ4))
+            .or(FileSuffix.resourceFilter(FileSuffix.ATLAS, FileSuffix.TEXT,
+                    FileSuffix.ZSTANDARD));
     public static final Predicate<Resource> HAS_ATLAS_EXTENSION = FileSuffix
             .resourceFilter(FileSuffix.ATLAS)
-            .or(FileSuffix.resourceFilter(FileSuffix.ATLAS, FileSuffix.GZIP));
+            .or(FileSuffix.resourceFilter(FileSuffix.ATLAS, FileSuffix.GZIP))
+            .or(FileSuffix.resourceFilter(FileSuffix.ATLAS, FileSuffix.LZ4))
+            .or(FileSuffix.resourceFilter(FileSuffix.ATLAS, FileSuffix.ZSTANDARD));
 
     private static final Logger logger = LoggerFactory.getLogger(AtlasResourceLoader.class);
 
@@ -50,6 +56,9 @@ public class AtlasResourceLoader
     private Predicate<Resource> resourceFilter;
     private Predicate<AtlasEntity> atlasEntityFilter;
     private String multiAtlasName;
+    private AtlasProjection projection;
+    private int threads;
+    private boolean skipFailedResources;
 
     private static void checkFileExistsAndIsNotDirectory(final Resource resource)
     {
@@ -72,11 +81,13 @@ public class AtlasResourceLoader
 
     private static void setDecompressorFor(final Resource resource)
     {
-        if (FileSuffix.GZIP.matches(resource))
+        final Optional<Decompressor> decompressor = FileSuffix
+                .decompressorFor(resource.getName());
+        if (decompressor.isPresent())
         {
             if (resource instanceof AbstractResource)
             {
-                ((AbstractResource) resource).setDecompressor(Decompressor.GZIP);
+                ((AbstractResource) resource).setDecompressor(decompressor.get());
             }
             else
             {
@@ -91,6 +102,9 @@ public class AtlasResourceLoader
     {
         this.resourceFilter = resource -> true;
         this.atlasEntityFilter = null;
+        this.projection = AtlasProjection.all();
+        this.threads = 1;
+        this.skipFailedResources = false;
     }
 
     /**
@@ -131,7 +145,8 @@ public class AtlasResourceLoader
         }
         else if (atlasResources.size() == 1)
         {
-            resultAtlasOptional = loadAtlasResource(atlasResources.get(0));
+            resultAtlasOptional = Optional.of(loadAtlasResource(atlasResources.get(0)).orElseThrow(
+                    () -> new CoreException("Projection resulted in an empty atlas")));
         }
         else
         {
@@ -313,6 +328,23 @@ public class AtlasResourceLoader
         return this;
     }
 
+    /**
+     * Optionally load only parts of the {@link Atlas}. Binary atlases only read the parts the
+     * {@link AtlasProjection} needs, and filter the entities without copying them. Text atlases are
+     * fully read and then cut like a {@link AtlasCutType#SOFT_CUT}, ignoring the projected
+     * contents. Loading more than one binary {@link Atlas} requires the geometry, which the
+     * {@link MultiAtlas} indexes.
+     *
+     * @param projection
+     *            the parts of the {@link Atlas} to load
+     * @return instance of {@link AtlasResourceLoader} for method chaining
+     */
+    public AtlasResourceLoader withProjection(final AtlasProjection projection)
+    {
+        this.projection = projection;
+        return this;
+    }
+
     /**
      * Optionally add a {@link Resource} filter
      *
@@ -326,6 +358,41 @@ public class AtlasResourceLoader
         return this;
     }
 
+    /**
+     * Optionally isolate the failures of each {@link Resource} when loading more than one. Like
+     * {@link #safeLoad(Resource...)} does for the whole load, a {@link Resource} that fails to load
+     * is logged and left out of the {@link MultiAtlas}. The load still fails when no
+     * {@link Resource} could be loaded.
+     *
+     * @param skipFailedResources
+     *            true to leave out the {@link Resource}s that fail to load
+     * @return instance of {@link AtlasResourceLoader} for method chaining
+     */
+    public AtlasResourceLoader withSkipFailedResources(final boolean skipFailedResources)
+    {
+        this.skipFailedResources = skipFailedResources;
+        return this;
+    }
+
+    /**
+     * Optionally load many {@link Resource}s at the same time, when loading more than one. The
+     * {@link MultiAtlas} keeps the order of the {@link Resource}s. The load time of each
+     * {@link Resource} is logged. See {@link ParallelAtlasLoader}.
+     *
+     * @param threads
+     *            the number of {@link Resource}s to load at the same time
+     * @return instance of {@link AtlasResourceLoader} for method chaining
+     */
+    public AtlasResourceLoader withThreads(final int threads)
+    {
+        if (threads < 1)
+        {
+            throw new CoreException("Invalid number of threads: {}", threads);
+        }
+        this.threads = threads;
+        return this;
+    }
+
     private Atlas applyEntityFilter(final Atlas atlasToFilter)
     {
         if (this.atlasEntityFilter != null)
@@ -357,10 +424,7 @@ public class AtlasResourceLoader
         {
             file.listFilesRecursively().forEach(child ->
             {
-                if (child.isGzipped())
-                {
-                    child.setDecompressor(Decompressor.GZIP);
-                }
+                FileSuffix.decompressorFor(child.getName()).ifPresent(child::setDecompressor);
                 result.add(child);
             });
         }
@@ -402,13 +466,13 @@ public class AtlasResourceLoader
         if (CONTENTS_LOOK_LIKE_TEXT_ATLAS.test(resource))
         {
             setDecompressorFor(resource);
-            result = new TextAtlasBuilder().read(resource);
+            result = projectTextAtlas(new TextAtlasBuilder().read(resource)).orElse(null);
         }
         else
         {
             try
             {
-                result = PackedAtlas.load(resource);
+                result = PackedAtlas.load(resource, this.projection);
             }
             catch (final Exception exception)
             {
@@ -421,6 +485,10 @@ public class AtlasResourceLoader
 
     private Optional<Atlas> loadMultipleAtlasResources(final List<Resource> atlasResources)
     {
+        if (this.threads > 1 || this.skipFailedResources)
+        {
+            return loadMultipleAtlasResourcesInParallel(atlasResources);
+        }
         atlasResources.forEach(resource ->
         {
             if (resource instanceof File)
@@ -449,7 +517,7 @@ public class AtlasResourceLoader
         MultiAtlas resultAtlas = null;
         if (!binaryResources.isEmpty())
         {
-            resultAtlas = MultiAtlas.loadFromPackedAtlas(binaryResources);
+            resultAtlas = MultiAtlas.loadFromPackedAtlas(binaryResources, this.projection);
         }
         if (!textResources.isEmpty())
         {
@@ -483,6 +551,31 @@ public class AtlasResourceLoader
         return Optional.ofNullable(resultAtlas);
     }
 
+    private Optional<Atlas> loadMultipleAtlasResourcesInParallel(
+            final List<Resource> atlasResources)
+    {
+        // Like MultiAtlas.loadFromPackedAtlas, fail before loading anything
+        if (!this.projection.includes(AtlasProjection.Content.GEOMETRY))
+        {
+            throw new CoreException("A MultiAtlas cannot be loaded without geometry: {}",
+                    this.projection);
+        }
+        // Each task checks, sniffs and loads its resource, text or binary
+        final List<Atlas> atlases = new ParallelAtlasLoader(this.threads)
+                .withSkipFailures(this.skipFailedResources)
+                .loadAtlases(atlasResources, resource -> loadAtlasResource(resource).orElse(null));
+        if (atlases.isEmpty())
+        {
+            throw new CoreException("No loadable Resources were found.");
+        }
+        final MultiAtlas resultAtlas = new MultiAtlas(atlases);
+        if (this.multiAtlasName != null)
+        {
+            resultAtlas.setName(this.multiAtlasName);
+        }
+        return Optional.of(resultAtlas);
+    }
+
     private List<Atlas> loadTextAtlases(final List<Resource> textAtlasResources)
     {
         final List<Atlas> textAtlases = new ArrayList<>();
@@ -490,11 +583,20 @@ public class AtlasResourceLoader
         {
             setDecompressorFor(textResource);
             final Atlas atlas = new TextAtlasBuilder().read(textResource);
-            textAtlases.add(atlas);
+            projectTextAtlas(atlas).ifPresent(textAtlases::add);
         }
         return textAtlases;
     }
 
+    private Optional<Atlas> projectTextAtlas(final Atlas atlas)
+    {
+        if (this.projection.isAll())
+        {
+            return Optional.of(atlas);
+        }
+        return atlas.subAtlas(this.projection::matches, AtlasCutType.SOFT_CUT);
+    }
+
     private List<Resource> upcastAndRemoveNullResources(final Resource resource)
     {
         final List<Resource> result = new ArrayList<>();
@@ -0,0 +1,363 @@
+package org.openstreetmap.atlas.geography.atlas.arrow;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.locationtech.jts.io.WKBWriter;
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.Area;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.geography.atlas.items.LineItem;
+import org.openstreetmap.atlas.geography.atlas.items.LocationItem;
+import org.openstreetmap.atlas.geography.atlas.items.Relation;
+import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlas;
+import org.openstreetmap.atlas.streaming.resource.WritableResource;
+import org.openstreetmap.atlas.utilities.compression.StringDictionary;
+import org.openstreetmap.atlas.utilities.time.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Export the entities of an {@link Atlas} to a single Apache Arrow IPC file, so downstream tools
+ * can memory-map it instead of re-parsing GeoJSON or text atlases. Each {@link ItemType} is written
+ * as its own run of record batches, all sharing the same {@link #schema()}:
+ * <ul>
+ * <li>{@value #ITEM_TYPE}: the {@link ItemType#getValue()} of the entity</li>
+ * <li>{@value #IDENTIFIER} and {@value #OSM_IDENTIFIER}</li>
+ * <li>{@value #GEOMETRY}: the WKB geometry, null for relations that are not multipolygons</li>
+ * <li>{@value #TAG_KEYS} and {@value #TAG_VALUES}: aligned lists of tag codes, both encoded
+ * against the same string dictionary</li>
+ * </ul>
+ * For a {@link PackedAtlas}, the tag dictionary and the tag codes are copied straight from the
+ * atlas' own {@link StringDictionary}. Other atlases go through a first pass that builds one.
+ *
+ * @author agent
+ */
+public class ArrowAtlasExporter
+{
+    /**
+     * Provides the tag dictionary and the codes of each entity's tags
+     *
+     * @author agent
+     */
+    private interface TagCodes
+    {
+        StringDictionary dictionary();
+
+        int[] keys(ItemType type, long index, AtlasEntity entity);
+
+        int[] values(ItemType type, long index, AtlasEntity entity);
+    }
+
+    /**
+     * Reads the codes directly from the tag stores of a {@link PackedAtlas}. The entity index is
+     * the position in the iteration, as {@link PackedAtlas} iterates its entities in array order,
+     * unless it is projected.
+     *
+     * @author agent
+     */
+    private static final class PackedTagCodes implements TagCodes
+    {
+        private final PackedAtlas atlas;
+
+        PackedTagCodes(final PackedAtlas atlas)
+        {
+            this.atlas = atlas;
+        }
+
+        @Override
+        public StringDictionary dictionary()
+        {
+            return this.atlas.tagDictionary();
+        }
+
+        @Override
+        public int[] keys(final ItemType type, final long index, final AtlasEntity entity)
+        {
+            return this.atlas.tagKeyCodes(type, index);
+        }
+
+        @Override
+        public int[] values(final ItemType type, final long index, final AtlasEntity entity)
+        {
+            return this.atlas.tagValueCodes(type, index);
+        }
+    }
+
+    /**
+     * Builds a dictionary of all the tag keys and values of any {@link Atlas} upfront, as the
+     * Arrow file format needs the whole dictionary before the first record batch.
+     *
+     * @author agent
+     */
+    private static final class DictionaryTagCodes implements TagCodes
+    {
+        private final StringDictionary dictionary = new StringDictionary();
+        private int[] currentValues;
+
+        DictionaryTagCodes(final Atlas atlas)
+        {
+            for (final AtlasEntity entity : atlas.entities())
+            {
+                for (final Map.Entry<String, String> tag : entity.getTags().entrySet())
+                {
+                    this.dictionary.add(tag.getKey());
+                    this.dictionary.add(tag.getValue());
+                }
+            }
+        }
+
+        @Override
+        public StringDictionary dictionary()
+        {
+            return this.dictionary;
+        }
+
+        @Override
+        public int[] keys(final ItemType type, final long index, final AtlasEntity entity)
+        {
+            final Map<String, String> tags = entity.getTags();
+            final int[] keys = new int[tags.size()];
+            this.currentValues = new int[tags.size()];
+            int position = 0;
+            for (final Map.Entry<String, String> tag : tags.entrySet())
+            {
+                // All the words are already in, so this only looks the codes up
+                keys[position] = this.dictionary.add(tag.getKey());
+                this.currentValues[position] = this.dictionary.add(tag.getValue());
+                position++;
+            }
+            return keys;
+        }
+
+        @Override
+        public int[] values(final ItemType type, final long index, final AtlasEntity entity)
+        {
+            // Always called right after keys() for the same entity
+            return this.currentValues;
+        }
+    }
+
+    public static final String ITEM_TYPE = "itemType";
+    public static final String IDENTIFIER = "identifier";
+    public static final String OSM_IDENTIFIER = "osmIdentifier";
+    public static final String GEOMETRY = "geometry";
+    public static final String TAG_KEYS = "tagKeys";
+    public static final String TAG_VALUES = "tagValues";
+    public static final String TAG_DICTIONARY = "tags";
+    public static final long TAG_DICTIONARY_IDENTIFIER = 0L;
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+
+    private static final Logger logger = LoggerFactory.getLogger(ArrowAtlasExporter.class);
+    private static final int BYTE_WIDTH = 8;
+    private static final int INTEGER_WIDTH = 32;
+    private static final int LONG_WIDTH = 64;
+    private static final DictionaryEncoding TAG_ENCODING = new DictionaryEncoding(
+            TAG_DICTIONARY_IDENTIFIER, false, new ArrowType.Int(INTEGER_WIDTH, true));
+
+    private final int batchSize;
+
+    /**
+     * @return The schema shared by all the record batches of an export
+     */
+    public static Schema schema()
+    {
+        return new Schema(Arrays.asList(
+                Field.notNullable(ITEM_TYPE, new ArrowType.Int(BYTE_WIDTH, true)),
+                Field.notNullable(IDENTIFIER, new ArrowType.Int(LONG_WIDTH, true)),
+                Field.notNullable(OSM_IDENTIFIER, new ArrowType.Int(LONG_WIDTH, true)),
+                Field.nullable(GEOMETRY, ArrowType.Binary.INSTANCE), tagCodesField(TAG_KEYS),
+                tagCodesField(TAG_VALUES)));
+    }
+
+    private static Field tagCodesField(final String name)
+    {
+        final Field codes = new Field(ListVector.DATA_VECTOR_NAME,
+                new FieldType(false, TAG_ENCODING.getIndexType(), TAG_ENCODING), null);
+        return new Field(name, FieldType.notNullable(ArrowType.List.INSTANCE),
+                Collections.singletonList(codes));
+    }
+
+    public ArrowAtlasExporter()
+    {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    public ArrowAtlasExporter(final int batchSize)
+    {
+        if (batchSize <= 0)
+        {
+            throw new CoreException("Invalid batch size {}", batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Export an {@link Atlas} to an Arrow IPC file
+     *
+     * @param atlas
+     *            The atlas to export
+     * @param output
+     *            The resource to write the Arrow file to
+     * @return The number of rows written
+     */
+    public long export(final Atlas atlas, final WritableResource output)
+    {
+        final Time start = Time.now();
+        // The entity indices of a projected PackedAtlas are not the array indices of its tags
+        final TagCodes tagCodes = atlas instanceof PackedAtlas
+                && !((PackedAtlas) atlas).isProjected() ? new PackedTagCodes((PackedAtlas) atlas)
+                        : new DictionaryTagCodes(atlas);
+        long rows = 0;
+        try (BufferAllocator allocator = new RootAllocator();
+                VarCharVector words = dictionaryVector(tagCodes.dictionary(), allocator);
+                VectorSchemaRoot root = VectorSchemaRoot.create(schema(), allocator);
+                WritableByteChannel channel = Channels.newChannel(output.write());
+                ArrowFileWriter writer = new ArrowFileWriter(root,
+                        new DictionaryProvider.MapDictionaryProvider(
+                                new Dictionary(words, TAG_ENCODING)),
+                        channel))
+        {
+            writer.start();
+            for (final ItemType type : ItemType.values())
+            {
+                rows += writeType(atlas, type, tagCodes, root, writer);
+            }
+            writer.end();
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("Unable to export {} to {}", atlas.getName(), output.getName(),
+                    exception);
+        }
+        logger.info("Exported {} rows of {} to {} in {}", rows, atlas.getName(), output.getName(),
+                start.elapsedSince());
+        return rows;
+    }
+
+    private VarCharVector dictionaryVector(final StringDictionary dictionary,
+            final BufferAllocator allocator)
+    {
+        final VarCharVector words = new VarCharVector(TAG_DICTIONARY, allocator);
+        final int size = dictionary.size();
+        words.allocateNew(size);
+        for (int code = 0; code < size; code++)
+        {
+            // The arena already holds UTF-8, no need to decode and encode again
+            final byte[] word = dictionary.bytes(code);
+            if (word == null)
+            {
+                // PackedTagStore also registers the null keys and values it skips
+                words.setNull(code);
+            }
+            else
+            {
+                words.setSafe(code, word);
+            }
+        }
+        words.setValueCount(size);
+        return words;
+    }
+
+    private byte[] geometry(final AtlasEntity entity)
+    {
+        if (entity instanceof LocationItem)
+        {
+            return ((LocationItem) entity).getLocation().toWkb();
+        }
+        if (entity instanceof LineItem)
+        {
+            return ((LineItem) entity).asPolyLine().toWkb();
+        }
+        if (entity instanceof Area)
+        {
+            return ((Area) entity).asPolygon().toWkb();
+        }
+        if (entity instanceof Relation)
+        {
+            return ((Relation) entity).asMultiPolygon(true)
+                    .map(multiPolygon -> new WKBWriter().write(multiPolygon)).orElse(null);
+        }
+        throw new CoreException("Unknown entity {}", entity);
+    }
+
+    private void setCodes(final ListVector list, final int row, final int[] codes)
+    {
+        final IntVector data = (IntVector) list.getDataVector();
+        final int offset = list.startNewValue(row);
+        for (int index = 0; index < codes.length; index++)
+        {
+            data.setSafe(offset + index, codes[index]);
+        }
+        list.endValue(row, codes.length);
+    }
+
+    private long writeType(final Atlas atlas, final ItemType type, final TagCodes tagCodes,
+            final VectorSchemaRoot root, final ArrowFileWriter writer) throws IOException
+    {
+        final TinyIntVector itemTypes = (TinyIntVector) root.getVector(ITEM_TYPE);
+        final BigIntVector identifiers = (BigIntVector) root.getVector(IDENTIFIER);
+        final BigIntVector osmIdentifiers = (BigIntVector) root.getVector(OSM_IDENTIFIER);
+        final VarBinaryVector geometries = (VarBinaryVector) root.getVector(GEOMETRY);
+        final ListVector keys = (ListVector) root.getVector(TAG_KEYS);
+        final ListVector values = (ListVector) root.getVector(TAG_VALUES);
+        long index = 0;
+        int row = 0;
+        root.allocateNew();
+        for (final AtlasEntity entity : atlas.entities(type, type.getMemberClass()))
+        {
+            itemTypes.setSafe(row, type.getValue());
+            identifiers.setSafe(row, entity.getIdentifier());
+            osmIdentifiers.setSafe(row, entity.getOsmIdentifier());
+            final byte[] geometry = geometry(entity);
+            if (geometry == null)
+            {
+                geometries.setNull(row);
+            }
+            else
+            {
+                geometries.setSafe(row, geometry);
+            }
+            setCodes(keys, row, tagCodes.keys(type, index, entity));
+            setCodes(values, row, tagCodes.values(type, index, entity));
+            index++;
+            row++;
+            if (row == this.batchSize)
+            {
+                root.setRowCount(row);
+                writer.writeBatch();
+                root.allocateNew();
+                row = 0;
+            }
+        }
+        if (row > 0)
+        {
+            root.setRowCount(row);
+            writer.writeBatch();
+        }
+        return index;
+    }
+}
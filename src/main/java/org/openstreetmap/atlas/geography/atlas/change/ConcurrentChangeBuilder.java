@@ -0,0 +1,174 @@
+package org.openstreetmap.atlas.geography.atlas.change;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.atlas.change.validators.ChangeValidator;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+
+/**
+ * Construct a {@link Change} from many threads at once. Unlike {@link ChangeBuilder}, which merges
+ * all the {@link FeatureChange}s under one lock, the {@link FeatureChange}s are striped by
+ * {@link AtlasEntityKey} into independent partitions. Colliding {@link FeatureChange}s are merged
+ * within their partition, and only block the other {@link FeatureChange}s of the same hash bin.
+ * The partitions are combined in parallel when calling {@link #get()}.
+ * <p>
+ * The {@link FeatureChange}s of the resulting {@link Change} are sorted by partition, then by item
+ * type and identifier, so the result does not depend on the order the producers added them in.
+ * {@link #get()} has to be called once all the producers are done.
+ *
+ * @author agent
+ */
+public class ConcurrentChangeBuilder
+{
+    private static final int DEFAULT_PARTITIONS_PER_PROCESSOR = 4;
+    private static final Comparator<FeatureChange> KEY_ORDER = Comparator
+            .comparing(FeatureChange::getItemType).thenComparingLong(FeatureChange::getIdentifier);
+    // Spread the identifiers, as consecutive identifiers are common
+    private static final long MIXER = 0x9E3779B97F4A7C15L;
+    private static final int HIGH_BITS = 32;
+    private static final int ITEM_TYPES = ItemType.values().length;
+
+    private final List<ConcurrentHashMap<AtlasEntityKey, FeatureChange>> partitions;
+    private volatile boolean open;
+    private String name;
+
+    public static ConcurrentChangeBuilder newInstance()
+    {
+        return new ConcurrentChangeBuilder();
+    }
+
+    public ConcurrentChangeBuilder()
+    {
+        this(Runtime.getRuntime().availableProcessors() * DEFAULT_PARTITIONS_PER_PROCESSOR);
+    }
+
+    /**
+     * @param partitions
+     *            The number of independent partitions to stripe the {@link FeatureChange}s into
+     */
+    public ConcurrentChangeBuilder(final int partitions)
+    {
+        if (partitions < 1)
+        {
+            throw new CoreException("Invalid number of partitions: {}", partitions);
+        }
+        this.partitions = new ArrayList<>(partitions);
+        for (int index = 0; index < partitions; index++)
+        {
+            this.partitions.add(new ConcurrentHashMap<>());
+        }
+        this.open = true;
+    }
+
+    /**
+     * @param featureChange
+     *            - the {@link FeatureChange} to add to the builder. If there is already a
+     *            {@link FeatureChange} for the same entity, both are merged.
+     * @return ConcurrentChangeBuilder - returns itself to allow fluency in calls.
+     */
+    public ConcurrentChangeBuilder add(final FeatureChange featureChange)
+    {
+        if (!this.open)
+        {
+            throw new CoreException(
+                    "Cannot append to a Change object that has already been validated");
+        }
+        final AtlasEntityKey key = AtlasEntityKey.from(featureChange);
+        this.partitions.get(partition(key)).merge(key, featureChange, FeatureChange::merge);
+        return this;
+    }
+
+    /**
+     * @see #addAll(Stream)
+     * @param featureChanges
+     *            - The featureChanges to add.
+     * @return ConcurrentChangeBuilder - returns itself to allow fluency in calls.
+     */
+    public ConcurrentChangeBuilder addAll(final FeatureChange... featureChanges)
+    {
+        return addAll(Arrays.stream(featureChanges));
+    }
+
+    /**
+     * @see #addAll(Stream)
+     * @param featureChanges
+     *            - The featureChanges to add.
+     * @return ConcurrentChangeBuilder - returns itself to allow fluency in calls.
+     */
+    public ConcurrentChangeBuilder addAll(final Iterable<FeatureChange> featureChanges)
+    {
+        return addAll(StreamSupport.stream(featureChanges.spliterator(), false));
+    }
+
+    /**
+     * Iteratively {@link #add(FeatureChange)} all the FeatureChanges.
+     *
+     * @param featureChanges
+     *            - The featureChanges to add.
+     * @return ConcurrentChangeBuilder - returns itself to allow fluency in calls.
+     */
+    public ConcurrentChangeBuilder addAll(final Stream<FeatureChange> featureChanges)
+    {
+        featureChanges.forEach(this::add);
+        return this;
+    }
+
+    /**
+     * Combine all the partitions, and validate the resulting {@link Change}. No
+     * {@link FeatureChange} can be added after this.
+     *
+     * @return The {@link Change}
+     */
+    public synchronized Change get()
+    {
+        this.open = false;
+        // Each partition has different keys, so combining them does not merge anything
+        final List<List<FeatureChange>> sorted = IntStream.range(0, this.partitions.size())
+                .parallel().mapToObj(index ->
+                {
+                    final List<FeatureChange> partition = new ArrayList<>(
+                            this.partitions.get(index).values());
+                    partition.sort(KEY_ORDER);
+                    return partition;
+                }).collect(Collectors.toList());
+        final Change change = Change.newInstance().withName(this.name);
+        sorted.forEach(partition -> partition.forEach(change::add));
+        new ChangeValidator(change).validate();
+        return change;
+    }
+
+    public int peekNumberOfChanges()
+    {
+        return this.partitions.stream().mapToInt(ConcurrentHashMap::size).sum();
+    }
+
+    /**
+     * Assign a name to the change being constructed.
+     *
+     * @param name
+     *            - a name for the change.
+     * @return ConcurrentChangeBuilder - returns itself to allow fluency in calls.
+     */
+    public ConcurrentChangeBuilder withName(final String name)
+    {
+        this.name = name;
+        return this;
+    }
+
+    private int partition(final AtlasEntityKey key)
+    {
+        // Do not use the key's hash code, which depends on the identity hash code of the ItemType
+        final long mixed = (key.getIdentifier() * ITEM_TYPES + key.getItemType().ordinal())
+                * MIXER;
+        return (int) Math.floorMod(mixed ^ mixed >>> HIGH_BITS, (long) this.partitions.size());
+    }
+}
@@ -0,0 +1,25 @@
+package org.openstreetmap.atlas.geography.atlas.change.serializer;
+
+import org.openstreetmap.atlas.geography.atlas.change.Change;
+import org.openstreetmap.atlas.geography.atlas.change.ChangeBuilder;
+import org.openstreetmap.atlas.streaming.resource.Resource;
+import org.openstreetmap.atlas.utilities.conversion.Converter;
+
+/**
+ * Read a {@link Change} written by a {@link ChangeProtoSerializer}.
+ *
+ * @author agent
+ */
+public class ChangeProtoDeserializer implements Converter<Resource, Change>
+{
+    @Override
+    public Change convert(final Resource resource)
+    {
+        try (FeatureChangeProtoReader reader = new FeatureChangeProtoReader(resource))
+        {
+            final ChangeBuilder builder = new ChangeBuilder().withName(reader.getName());
+            reader.forEachRemaining(builder::add);
+            return builder.get();
+        }
+    }
+}
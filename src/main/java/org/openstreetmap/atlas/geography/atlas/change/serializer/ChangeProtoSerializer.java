@@ -0,0 +1,25 @@
+package org.openstreetmap.atlas.geography.atlas.change.serializer;
+
+import java.util.function.BiConsumer;
+
+import org.openstreetmap.atlas.geography.atlas.change.Change;
+import org.openstreetmap.atlas.streaming.resource.WritableResource;
+
+/**
+ * Write a {@link Change} as a stream of length-delimited protobuf {@link FeatureChangeProtoWriter}
+ * messages. Read it back with a {@link ChangeProtoDeserializer}.
+ *
+ * @author agent
+ */
+public class ChangeProtoSerializer implements BiConsumer<Change, WritableResource>
+{
+    @Override
+    public void accept(final Change change, final WritableResource resource)
+    {
+        try (FeatureChangeProtoWriter writer = new FeatureChangeProtoWriter(resource,
+                change.getName()))
+        {
+            change.changes().forEach(writer);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package org.openstreetmap.atlas.geography.atlas.change.serializer;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.Latitude;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.Longitude;
+import org.openstreetmap.atlas.geography.PolyLine;
+import org.openstreetmap.atlas.geography.Polygon;
+import org.openstreetmap.atlas.geography.Rectangle;
+import org.openstreetmap.atlas.geography.atlas.builder.RelationBean;
+import org.openstreetmap.atlas.geography.atlas.change.ChangeType;
+import org.openstreetmap.atlas.geography.atlas.change.FeatureChange;
+import org.openstreetmap.atlas.geography.atlas.complete.CompleteArea;
+import org.openstreetmap.atlas.geography.atlas.complete.CompleteEdge;
+import org.openstreetmap.atlas.geography.atlas.complete.CompleteLine;
+import org.openstreetmap.atlas.geography.atlas.complete.CompleteNode;
+import org.openstreetmap.atlas.geography.atlas.complete.CompletePoint;
+import org.openstreetmap.atlas.geography.atlas.complete.CompleteRelation;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.proto.ProtoChangeHeader;
+import org.openstreetmap.atlas.proto.ProtoCompleteEntity;
+import org.openstreetmap.atlas.proto.ProtoDeltaLocations;
+import org.openstreetmap.atlas.proto.ProtoDictionaryTags;
+import org.openstreetmap.atlas.proto.ProtoFeatureChange;
+import org.openstreetmap.atlas.proto.ProtoIdentifiers;
+import org.openstreetmap.atlas.proto.ProtoRelationBean;
+import org.openstreetmap.atlas.streaming.resource.Resource;
+
+import com.google.protobuf.ByteString;
+
+/**
+ * Reads the {@link FeatureChange}s written by a {@link FeatureChangeProtoWriter} one at a time.
+ *
+ * @author agent
+ */
+public class FeatureChangeProtoReader implements Iterator<FeatureChange>, Closeable
+{
+    private final Resource resource;
+    private final InputStream input;
+    private final String name;
+    private final List<String> dictionary = new ArrayList<>();
+    private final WKBReader wkbReader = new WKBReader();
+    private ProtoFeatureChange next;
+
+    /**
+     * @param resource
+     *            The {@link Resource} to read from
+     */
+    public FeatureChangeProtoReader(final Resource resource)
+    {
+        this.resource = resource;
+        this.input = new BufferedInputStream(resource.read());
+        final ProtoChangeHeader header;
+        try
+        {
+            header = ProtoChangeHeader.parseDelimitedFrom(this.input);
+        }
+        catch (final IOException exception)
+        {
+            close();
+            throw new CoreException("Unable to read the header of {}", resource.getName(),
+                    exception);
+        }
+        if (header == null || header.getVersion() != FeatureChangeProtoWriter.VERSION)
+        {
+            close();
+            throw new CoreException("{} is not a version {} stream of feature changes",
+                    resource.getName(), FeatureChangeProtoWriter.VERSION);
+        }
+        this.name = header.hasName() ? header.getName() : null;
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            this.input.close();
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("Unable to close {}", this.resource.getName(), exception);
+        }
+    }
+
+    /**
+     * @return The name of the change written in the header of the stream, or null
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        if (this.next == null)
+        {
+            try
+            {
+                this.next = ProtoFeatureChange.parseDelimitedFrom(this.input);
+            }
+            catch (final IOException exception)
+            {
+                throw new CoreException("Unable to read from {}", this.resource.getName(),
+                        exception);
+            }
+        }
+        return this.next != null;
+    }
+
+    @Override
+    public FeatureChange next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException();
+        }
+        final ProtoFeatureChange message = this.next;
+        this.next = null;
+        this.dictionary.addAll(message.getWordsList());
+        final AtlasEntity beforeView = message.hasBeforeView() ? entity(message.getBeforeView())
+                : null;
+        final FeatureChange result = new FeatureChange(
+                ChangeType.values()[message.getChangeType()], entity(message.getAfterView()),
+                beforeView);
+        tags(message.getMetaData()).forEach(result::addMetaData);
+        return result;
+    }
+
+    private CompleteArea area(final ProtoCompleteEntity message)
+    {
+        return new CompleteArea(message.getIdentifier(),
+                message.hasGeometry() ? new Polygon(locations(message.getGeometry())) : null,
+                tags(message), identifiers(message.hasRelationIdentifiers(),
+                        message.getRelationIdentifiers()))
+                                .withGeometricRelationIdentifiers(identifiers(
+                                        message.hasGeometricRelationIdentifiers(),
+                                        message.getGeometricRelationIdentifiers()));
+    }
+
+    private CompleteEdge edge(final ProtoCompleteEntity message)
+    {
+        return new CompleteEdge(message.getIdentifier(),
+                message.hasGeometry() ? new PolyLine(locations(message.getGeometry())) : null,
+                tags(message),
+                message.hasStartNodeIdentifier() ? message.getStartNodeIdentifier() : null,
+                message.hasEndNodeIdentifier() ? message.getEndNodeIdentifier() : null,
+                identifiers(message.hasRelationIdentifiers(), message.getRelationIdentifiers()))
+                        .withGeometricRelationIdentifiers(
+                                identifiers(message.hasGeometricRelationIdentifiers(),
+                                        message.getGeometricRelationIdentifiers()));
+    }
+
+    private AtlasEntity entity(final ProtoCompleteEntity message)
+    {
+        final Rectangle bounds = message.hasBounds()
+                ? Rectangle.forLocated(locations(message.getBounds()))
+                : null;
+        switch (ItemType.forValue(message.getItemType()))
+        {
+            case NODE:
+                return node(message).withBoundsExtendedBy(bounds);
+            case EDGE:
+                return edge(message).withBoundsExtendedBy(bounds);
+            case AREA:
+                return area(message).withBoundsExtendedBy(bounds);
+            case LINE:
+                return line(message).withBoundsExtendedBy(bounds);
+            case POINT:
+                return new CompletePoint(message.getIdentifier(),
+                        message.hasGeometry() ? locations(message.getGeometry()).get(0) : null,
+                        tags(message), identifiers(message.hasRelationIdentifiers(),
+                                message.getRelationIdentifiers()))
+                                        .withBoundsExtendedBy(bounds);
+            case RELATION:
+                return relation(message, bounds);
+            default:
+                throw new CoreException("Unknown ItemType {}", message.getItemType());
+        }
+    }
+
+    private Set<Long> identifiers(final boolean present, final ProtoIdentifiers identifiers)
+    {
+        return present ? new HashSet<>(identifiers.getIdentifiersList()) : null;
+    }
+
+    private CompleteLine line(final ProtoCompleteEntity message)
+    {
+        return new CompleteLine(message.getIdentifier(),
+                message.hasGeometry() ? new PolyLine(locations(message.getGeometry())) : null,
+                tags(message), identifiers(message.hasRelationIdentifiers(),
+                        message.getRelationIdentifiers()))
+                                .withGeometricRelationIdentifiers(identifiers(
+                                        message.hasGeometricRelationIdentifiers(),
+                                        message.getGeometricRelationIdentifiers()));
+    }
+
+    private LineString lineString(final ByteString wkb)
+    {
+        return (LineString) wkb(wkb);
+    }
+
+    private List<Location> locations(final ProtoDeltaLocations message)
+    {
+        final List<Location> result = new ArrayList<>(message.getLatitudesCount());
+        long latitude = 0;
+        long longitude = 0;
+        for (int index = 0; index < message.getLatitudesCount(); index++)
+        {
+            latitude += message.getLatitudes(index);
+            longitude += message.getLongitudes(index);
+            result.add(new Location(Latitude.dm7(latitude), Longitude.dm7(longitude)));
+        }
+        return result;
+    }
+
+    private RelationBean members(final ProtoRelationBean message)
+    {
+        final RelationBean result = new RelationBean();
+        for (int index = 0; index < message.getIdentifiersCount(); index++)
+        {
+            result.addItem(message.getIdentifiers(index),
+                    this.dictionary.get(message.getRoles(index)),
+                    ItemType.forValue(message.getTypes(index)));
+        }
+        for (int index = 0; index < message.getExcludedIdentifiersCount(); index++)
+        {
+            result.addItemExplicitlyExcluded(message.getExcludedIdentifiers(index),
+                    this.dictionary.get(message.getExcludedRoles(index)),
+                    ItemType.forValue(message.getExcludedTypes(index)));
+        }
+        return result;
+    }
+
+    private CompleteNode node(final ProtoCompleteEntity message)
+    {
+        final CompleteNode result = new CompleteNode(message.getIdentifier(),
+                message.hasGeometry() ? locations(message.getGeometry()).get(0) : null,
+                tags(message),
+                sortedIdentifiers(message.hasInEdgeIdentifiers(), message.getInEdgeIdentifiers()),
+                sortedIdentifiers(message.hasOutEdgeIdentifiers(),
+                        message.getOutEdgeIdentifiers()),
+                identifiers(message.hasRelationIdentifiers(), message.getRelationIdentifiers()));
+        if (message.hasExplicitlyExcludedInEdgeIdentifiers())
+        {
+            result.setExplicitlyExcludedInEdgeIdentifiers(
+                    identifiers(true, message.getExplicitlyExcludedInEdgeIdentifiers()));
+        }
+        if (message.hasExplicitlyExcludedOutEdgeIdentifiers())
+        {
+            result.setExplicitlyExcludedOutEdgeIdentifiers(
+                    identifiers(true, message.getExplicitlyExcludedOutEdgeIdentifiers()));
+        }
+        return result;
+    }
+
+    private CompleteRelation relation(final ProtoCompleteEntity message, final Rectangle bounds)
+    {
+        final CompleteRelation result = new CompleteRelation(message.getIdentifier(),
+                tags(message), bounds,
+                message.hasMembers() ? members(message.getMembers()) : null,
+                message.hasAllRelationsWithSameOsmIdentifier()
+                        ? new ArrayList<>(message.getAllRelationsWithSameOsmIdentifier()
+                                .getIdentifiersList())
+                        : null,
+                message.hasAllKnownOsmMembers() ? members(message.getAllKnownOsmMembers())
+                        : null,
+                message.hasOsmRelationIdentifier() ? message.getOsmRelationIdentifier() : null,
+                identifiers(message.hasRelationIdentifiers(), message.getRelationIdentifiers()),
+                message.hasStoredGeometry() && !message.getOverrideGeometry()
+                        ? (MultiPolygon) wkb(message.getStoredGeometry())
+                        : null);
+        if (message.getOverrideGeometry())
+        {
+            result.withMultiPolygonGeometry(message.hasStoredGeometry()
+                    ? (MultiPolygon) wkb(message.getStoredGeometry())
+                    : null).withBounds(bounds);
+        }
+        message.getAddedGeometryList()
+                .forEach(wkb -> result.getAddedGeometry().add(lineString(wkb)));
+        message.getRemovedGeometryList()
+                .forEach(wkb -> result.getRemovedGeometry().add(lineString(wkb)));
+        return result;
+    }
+
+    private TreeSet<Long> sortedIdentifiers(final boolean present,
+            final ProtoIdentifiers identifiers)
+    {
+        return present ? new TreeSet<>(identifiers.getIdentifiersList()) : null;
+    }
+
+    private Map<String, String> tags(final ProtoCompleteEntity message)
+    {
+        return message.hasTags() ? tags(message.getTags()) : null;
+    }
+
+    private Map<String, String> tags(final ProtoDictionaryTags message)
+    {
+        final Map<String, String> result = new HashMap<>();
+        for (int index = 0; index < message.getKeysCount(); index++)
+        {
+            result.put(this.dictionary.get(message.getKeys(index)),
+                    this.dictionary.get(message.getValues(index)));
+        }
+        return result;
+    }
+
+    private Geometry wkb(final ByteString wkb)
+    {
+        try
+        {
+            return this.wkbReader.read(wkb.toByteArray());
+        }
+        catch (final ParseException exception)
+        {
+            throw new CoreException("Unable to read relation geometry from {}",
+                    this.resource.getName(), exception);
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package org.openstreetmap.atlas.geography.atlas.change.serializer;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKBWriter;
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.Rectangle;
+import org.openstreetmap.atlas.geography.atlas.builder.RelationBean;
+import org.openstreetmap.atlas.geography.atlas.builder.RelationBean.RelationBeanItem;
+import org.openstreetmap.atlas.geography.atlas.change.FeatureChange;
+import org.openstreetmap.atlas.geography.atlas.complete.CompleteArea;
+import org.openstreetmap.atlas.geography.atlas.complete.CompleteEdge;
+import org.openstreetmap.atlas.geography.atlas.complete.CompleteLine;
+import org.openstreetmap.atlas.geography.atlas.complete.CompleteNode;
+import org.openstreetmap.atlas.geography.atlas.complete.CompletePoint;
+import org.openstreetmap.atlas.geography.atlas.complete.CompleteRelation;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.RelationMemberList;
+import org.openstreetmap.atlas.proto.ProtoChangeHeader;
+import org.openstreetmap.atlas.proto.ProtoCompleteEntity;
+import org.openstreetmap.atlas.proto.ProtoDeltaLocations;
+import org.openstreetmap.atlas.proto.ProtoDictionaryTags;
+import org.openstreetmap.atlas.proto.ProtoFeatureChange;
+import org.openstreetmap.atlas.proto.ProtoIdentifiers;
+import org.openstreetmap.atlas.proto.ProtoRelationBean;
+import org.openstreetmap.atlas.streaming.resource.WritableResource;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.MessageLite;
+
+/**
+ * Writes {@link FeatureChange}s one at a time to a stream of length-delimited protobuf messages,
+ * which {@link FeatureChangeProtoReader} reads back. The tag keys and values, the meta-data and
+ * the relation member roles are encoded against a dictionary that grows with the stream: each
+ * message carries the words it adds to it. The locations of each geometry are delta-encoded in
+ * dm7. The fields a {@link FeatureChange} computes from an atlas context, like its OSC, are not
+ * written.
+ *
+ * @author agent
+ */
+public class FeatureChangeProtoWriter implements Consumer<FeatureChange>, Closeable
+{
+    public static final int VERSION = 1;
+
+    private final WritableResource resource;
+    private final OutputStream output;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> newWords = new ArrayList<>();
+    private final WKBWriter wkbWriter = new WKBWriter();
+
+    /**
+     * @param resource
+     *            The {@link WritableResource} to write to
+     * @param name
+     *            The name of the change, can be null
+     */
+    public FeatureChangeProtoWriter(final WritableResource resource, final String name)
+    {
+        this.resource = resource;
+        this.output = new BufferedOutputStream(resource.write());
+        final ProtoChangeHeader.Builder header = ProtoChangeHeader.newBuilder()
+                .setVersion(VERSION);
+        if (name != null)
+        {
+            header.setName(name);
+        }
+        write(header.build());
+    }
+
+    @Override
+    public void accept(final FeatureChange featureChange)
+    {
+        final ProtoFeatureChange.Builder builder = ProtoFeatureChange.newBuilder()
+                .setChangeType(featureChange.getChangeType().ordinal())
+                .setAfterView(entity(featureChange.getAfterView()))
+                .setMetaData(tags(featureChange.getMetaData()));
+        if (featureChange.getBeforeView() != null)
+        {
+            builder.setBeforeView(entity(featureChange.getBeforeView()));
+        }
+        builder.addAllWords(this.newWords);
+        this.newWords.clear();
+        write(builder.build());
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            this.output.close();
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("Unable to close {}", this.resource.getName(), exception);
+        }
+    }
+
+    private int code(final String word)
+    {
+        return this.dictionary.computeIfAbsent(word, newWord ->
+        {
+            this.newWords.add(newWord);
+            return this.dictionary.size();
+        });
+    }
+
+    private void edge(final CompleteEdge edge, final ProtoCompleteEntity.Builder builder)
+    {
+        if (edge.asPolyLine() != null)
+        {
+            builder.setGeometry(locations(edge.asPolyLine()));
+        }
+        if (edge.startNodeIdentifier() != null)
+        {
+            builder.setStartNodeIdentifier(edge.startNodeIdentifier());
+        }
+        if (edge.endNodeIdentifier() != null)
+        {
+            builder.setEndNodeIdentifier(edge.endNodeIdentifier());
+        }
+        if (edge.geometricRelationIdentifiers() != null)
+        {
+            builder.setGeometricRelationIdentifiers(
+                    identifiers(edge.geometricRelationIdentifiers()));
+        }
+        setRelationIdentifiers(edge.relationIdentifiers(), builder);
+    }
+
+    private ProtoCompleteEntity entity(final AtlasEntity entity)
+    {
+        final ProtoCompleteEntity.Builder builder = ProtoCompleteEntity.newBuilder()
+                .setItemType(entity.getType().getValue()).setIdentifier(entity.getIdentifier());
+        final Rectangle bounds = entity.bounds();
+        if (bounds != null)
+        {
+            builder.setBounds(locations(Arrays.asList(bounds.lowerLeft(), bounds.upperRight())));
+        }
+        if (entity.getTags() != null)
+        {
+            builder.setTags(tags(entity.getTags()));
+        }
+        switch (entity.getType())
+        {
+            case NODE:
+                node((CompleteNode) entity, builder);
+                break;
+            case EDGE:
+                edge((CompleteEdge) entity, builder);
+                break;
+            case AREA:
+                final CompleteArea area = (CompleteArea) entity;
+                if (area.asPolygon() != null)
+                {
+                    builder.setGeometry(locations(area.asPolygon()));
+                }
+                if (area.geometricRelationIdentifiers() != null)
+                {
+                    builder.setGeometricRelationIdentifiers(
+                            identifiers(area.geometricRelationIdentifiers()));
+                }
+                setRelationIdentifiers(area.relationIdentifiers(), builder);
+                break;
+            case LINE:
+                final CompleteLine line = (CompleteLine) entity;
+                if (line.asPolyLine() != null)
+                {
+                    builder.setGeometry(locations(line.asPolyLine()));
+                }
+                if (line.geometricRelationIdentifiers() != null)
+                {
+                    builder.setGeometricRelationIdentifiers(
+                            identifiers(line.geometricRelationIdentifiers()));
+                }
+                setRelationIdentifiers(line.relationIdentifiers(), builder);
+                break;
+            case POINT:
+                final CompletePoint point = (CompletePoint) entity;
+                if (point.getLocation() != null)
+                {
+                    builder.setGeometry(locations(Arrays.asList(point.getLocation())));
+                }
+                setRelationIdentifiers(point.relationIdentifiers(), builder);
+                break;
+            case RELATION:
+                relation((CompleteRelation) entity, builder);
+                break;
+            default:
+                throw new CoreException("Unknown ItemType {}", entity.getType());
+        }
+        return builder.build();
+    }
+
+    private ProtoIdentifiers identifiers(final Iterable<Long> identifiers)
+    {
+        final ProtoIdentifiers.Builder builder = ProtoIdentifiers.newBuilder();
+        identifiers.forEach(builder::addIdentifiers);
+        return builder.build();
+    }
+
+    private ProtoDeltaLocations locations(final Iterable<Location> locations)
+    {
+        final ProtoDeltaLocations.Builder builder = ProtoDeltaLocations.newBuilder();
+        long latitude = 0;
+        long longitude = 0;
+        for (final Location location : locations)
+        {
+            builder.addLatitudes(location.getLatitude().asDm7() - latitude);
+            builder.addLongitudes(location.getLongitude().asDm7() - longitude);
+            latitude = location.getLatitude().asDm7();
+            longitude = location.getLongitude().asDm7();
+        }
+        return builder.build();
+    }
+
+    private ProtoRelationBean members(final RelationMemberList members)
+    {
+        final RelationBean bean = members.asBean();
+        final ProtoRelationBean.Builder builder = ProtoRelationBean.newBuilder();
+        for (final RelationBeanItem item : bean)
+        {
+            builder.addIdentifiers(item.getIdentifier());
+            builder.addRoles(code(item.getRole()));
+            builder.addTypes(item.getType().getValue());
+        }
+        for (final RelationBeanItem item : bean.getExplicitlyExcluded())
+        {
+            builder.addExcludedIdentifiers(item.getIdentifier());
+            builder.addExcludedRoles(code(item.getRole()));
+            builder.addExcludedTypes(item.getType().getValue());
+        }
+        return builder.build();
+    }
+
+    private void node(final CompleteNode node, final ProtoCompleteEntity.Builder builder)
+    {
+        if (node.getLocation() != null)
+        {
+            builder.setGeometry(locations(Arrays.asList(node.getLocation())));
+        }
+        if (node.inEdgeIdentifiers() != null)
+        {
+            builder.setInEdgeIdentifiers(identifiers(node.inEdgeIdentifiers()));
+        }
+        if (node.outEdgeIdentifiers() != null)
+        {
+            builder.setOutEdgeIdentifiers(identifiers(node.outEdgeIdentifiers()));
+        }
+        if (node.explicitlyExcludedInEdgeIdentifiers() != null)
+        {
+            builder.setExplicitlyExcludedInEdgeIdentifiers(
+                    identifiers(node.explicitlyExcludedInEdgeIdentifiers()));
+        }
+        if (node.explicitlyExcludedOutEdgeIdentifiers() != null)
+        {
+            builder.setExplicitlyExcludedOutEdgeIdentifiers(
+                    identifiers(node.explicitlyExcludedOutEdgeIdentifiers()));
+        }
+        setRelationIdentifiers(node.relationIdentifiers(), builder);
+    }
+
+    private void relation(final CompleteRelation relation,
+            final ProtoCompleteEntity.Builder builder)
+    {
+        if (relation.members() != null)
+        {
+            builder.setMembers(members(relation.members()));
+        }
+        if (relation.allRelationsWithSameOsmIdentifier() != null)
+        {
+            final ProtoIdentifiers.Builder identifiers = ProtoIdentifiers.newBuilder();
+            relation.allRelationsWithSameOsmIdentifier()
+                    .forEach(sameOsm -> identifiers.addIdentifiers(sameOsm.getIdentifier()));
+            builder.setAllRelationsWithSameOsmIdentifier(identifiers);
+        }
+        if (relation.allKnownOsmMembers() != null)
+        {
+            builder.setAllKnownOsmMembers(members(relation.allKnownOsmMembers()));
+        }
+        if (relation.osmRelationIdentifier() != null)
+        {
+            builder.setOsmRelationIdentifier(relation.osmRelationIdentifier());
+        }
+        relation.asMultiPolygon()
+                .ifPresent(geometry -> builder.setStoredGeometry(wkb(geometry)));
+        builder.setOverrideGeometry(relation.isOverrideGeometry());
+        relation.getAddedGeometry().forEach(geometry -> builder.addAddedGeometry(wkb(geometry)));
+        relation.getRemovedGeometry()
+                .forEach(geometry -> builder.addRemovedGeometry(wkb(geometry)));
+        setRelationIdentifiers(relation.relationIdentifiers(), builder);
+    }
+
+    private void setRelationIdentifiers(final Iterable<Long> relationIdentifiers,
+            final ProtoCompleteEntity.Builder builder)
+    {
+        if (relationIdentifiers != null)
+        {
+            builder.setRelationIdentifiers(identifiers(relationIdentifiers));
+        }
+    }
+
+    private ProtoDictionaryTags tags(final Map<String, String> tags)
+    {
+        final ProtoDictionaryTags.Builder builder = ProtoDictionaryTags.newBuilder();
+        for (final Map.Entry<String, String> entry : tags.entrySet())
+        {
+            builder.addKeys(code(entry.getKey()));
+            builder.addValues(code(entry.getValue()));
+        }
+        return builder.build();
+    }
+
+    private ByteString wkb(final Geometry geometry)
+    {
+        return ByteString.copyFrom(this.wkbWriter.write(geometry));
+    }
+
+    private void write(final MessageLite message)
+    {
+        try
+        {
+            message.writeDelimitedTo(this.output);
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("Unable to write to {}", this.resource.getName(), exception);
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package org.openstreetmap.atlas.geography.atlas.dynamic;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -37,6 +42,9 @@ import org.openstreetmap.atlas.geography.sharding.Sharding;
 import org.openstreetmap.atlas.utilities.collections.Iterables;
 import org.openstreetmap.atlas.utilities.collections.StreamIterable;
 import org.openstreetmap.atlas.utilities.collections.StringList;
+import org.openstreetmap.atlas.utilities.metrics.Counter;
+import org.openstreetmap.atlas.utilities.metrics.LatencyHistogram;
+import org.openstreetmap.atlas.utilities.metrics.MetricsRegistry;
 import org.openstreetmap.atlas.utilities.time.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +55,14 @@ import org.slf4j.LoggerFactory;
 class DynamicAtlasExpander
 {
     private static final Logger logger = LoggerFactory.getLogger(DynamicAtlasExpander.class);
+    private static final LatencyHistogram EXPANSION = MetricsRegistry.global()
+            .latency("atlas.dynamic.expansion");
+    private static final LatencyHistogram SHARD_FETCH = MetricsRegistry.global()
+            .latency("atlas.dynamic.shard.fetch");
+    private static final Counter EMPTY_SHARD_FETCH = MetricsRegistry.global()
+            .counter("atlas.dynamic.shard.fetch.empty");
+    private static final Counter MULTI_ATLAS_BUILD = MetricsRegistry.global()
+            .counter("atlas.dynamic.multi.atlas.build");
 
     private final DynamicAtlas dynamicAtlas;
 
@@ -146,6 +162,7 @@ class DynamicAtlasExpander
                 }
                 this.dynamicAtlas.swapCurrentAtlas(new MultiAtlas(nonNullAtlasShards));
                 this.timesMultiAtlasWasBuiltUnderneath++;
+                MULTI_ATLAS_BUILD.increment();
             }
             this.shardsUsedForCurrent = nonNullShards;
             if (this.initialized)
@@ -185,6 +202,7 @@ class DynamicAtlasExpander
     <V extends AtlasEntity, T> Iterable<T> expand(final Supplier<Iterable<V>> entitiesSupplier,
             final Predicate<V> entityCoveredPredicate, final Function<V, T> mapper)
     {
+        final long start = EXPANSION.start();
         StreamIterable<V> result = Iterables.stream(entitiesSupplier.get())
                 .filter(Objects::nonNull);
         final boolean shouldStopExploring = this.policy.isDeferLoading() && this.preemptiveLoadDone;
@@ -192,7 +210,9 @@ class DynamicAtlasExpander
         {
             result = Iterables.stream(entitiesSupplier.get()).filter(Objects::nonNull);
         }
-        return result.map(mapper).collect();
+        final Iterable<T> expanded = result.map(mapper).collect();
+        EXPANSION.stop(start);
+        return expanded;
     }
 
     Map<Shard, Atlas> getLoadedShards()
@@ -352,14 +372,24 @@ class DynamicAtlasExpander
     private void addNewShards(final Iterable<? extends Shard> shards)
     {
         final Set<Shard> initialNonEmptyLoadedShards = nonNullShards();
+        final Set<Shard> newShards = new LinkedHashSet<>();
         for (final Shard shard : shards)
         {
             if (!this.loadedShards.containsKey(shard))
             {
-                this.loadedShards.put(shard, this.atlasFetcher.apply(shard).orElse(null));
-                addNewShardLog(shard);
+                newShards.add(shard);
             }
         }
+        final Optional<Executor> shardFetchExecutor = this.policy.getShardFetchExecutor();
+        if (newShards.size() > 1 && shardFetchExecutor.isPresent())
+        {
+            fetchConcurrently(newShards, shardFetchExecutor.get());
+        }
+        else
+        {
+            newShards.forEach(shard -> this.loadedShards.put(shard, fetch(shard)));
+        }
+        newShards.forEach(this::addNewShardLog);
         final List<Atlas> nonNullAtlasShards = getNonNullAtlasShards();
         if (!nonNullAtlasShards.isEmpty())
         {
@@ -494,6 +524,53 @@ class DynamicAtlasExpander
         }
     }
 
+    private Atlas fetch(final Shard shard)
+    {
+        final long start = SHARD_FETCH.start();
+        final Atlas fetched = this.atlasFetcher.apply(shard).orElse(null);
+        SHARD_FETCH.stop(start);
+        if (fetched == null)
+        {
+            EMPTY_SHARD_FETCH.increment();
+        }
+        return fetched;
+    }
+
+    /**
+     * Fetch shards concurrently, for atlas fetchers that block on I/O. The atlas fetcher of the
+     * policy has to be thread safe, see
+     * {@link DynamicAtlasPolicy#withShardFetchExecutor(Executor)}.
+     *
+     * @param shards
+     *            The shards to fetch
+     * @param executor
+     *            The executor to fetch them on
+     */
+    private void fetchConcurrently(final Set<Shard> shards, final Executor executor)
+    {
+        final List<CompletableFuture<Atlas>> fetches = new ArrayList<>();
+        shards.forEach(shard -> fetches
+                .add(CompletableFuture.supplyAsync(() -> fetch(shard), executor)));
+        int index = 0;
+        for (final Shard shard : shards)
+        {
+            try
+            {
+                this.loadedShards.put(shard, fetches.get(index++).join());
+            }
+            catch (final CompletionException exception)
+            {
+                fetches.forEach(fetch -> fetch.cancel(false));
+                if (exception.getCause() instanceof RuntimeException)
+                {
+                    throw (RuntimeException) exception.getCause();
+                }
+                throw new CoreException("{}: Unable to fetch shard {}",
+                        this.dynamicAtlas.getName(), shard.getName(), exception.getCause());
+            }
+        }
+    }
+
     private List<Atlas> getNonNullAtlasShards()
     {
         return this.loadedShards.values().stream().filter(Objects::nonNull)
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -13,8 +14,10 @@ import org.openstreetmap.atlas.geography.Polygon;
 import org.openstreetmap.atlas.geography.atlas.Atlas;
 import org.openstreetmap.atlas.geography.atlas.dynamic.DynamicAtlas;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlas;
 import org.openstreetmap.atlas.geography.sharding.Shard;
 import org.openstreetmap.atlas.geography.sharding.Sharding;
+import org.openstreetmap.atlas.utilities.compression.StringDictionary;
 import org.openstreetmap.atlas.utilities.maps.MultiMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,6 +44,8 @@ public class DynamicAtlasPolicy
     // provide the initial shards shape. This will be useful to not over-extend when using
     // extendIndefinitely=false
     private Optional<MultiPolygon> shapeCoveringInitialShards = Optional.empty();
+    private Optional<StringDictionary> sharedTagDictionary = Optional.empty();
+    private Optional<Executor> shardFetchExecutor = Optional.empty();
 
     public DynamicAtlasPolicy(final Function<Shard, Optional<Atlas>> atlasFetcher,
             final Sharding sharding, final MultiPolygon shapeCoveringInitialShards,
@@ -98,7 +103,16 @@ public class DynamicAtlasPolicy
         {
             if (this.maximumBounds.overlaps(shard.bounds()))
             {
-                return this.atlasFetcher.apply(shard);
+                return this.atlasFetcher.apply(shard).map(atlas ->
+                {
+                    // The fetcher returns fresh atlases, see withSharedTagDictionary
+                    if (atlas instanceof PackedAtlas)
+                    {
+                        this.sharedTagDictionary
+                                .ifPresent(((PackedAtlas) atlas)::shareTagDictionary);
+                    }
+                    return atlas;
+                });
             }
             else
             {
@@ -133,6 +147,11 @@ public class DynamicAtlasPolicy
         return this.maximumBounds;
     }
 
+    public Optional<Executor> getShardFetchExecutor()
+    {
+        return this.shardFetchExecutor;
+    }
+
     public Consumer<Set<Shard>> getShardSetChecker()
     {
         return this.shardSetChecker;
@@ -217,6 +236,23 @@ public class DynamicAtlasPolicy
         return this;
     }
 
+    /**
+     * @param shardFetchExecutor
+     *            An executor to fetch the shards on. When a {@link DynamicAtlas} expands to more
+     *            than one new shard at once, it then fetches them concurrently, which helps atlas
+     *            fetchers that block on I/O. For example
+     *            {@link org.openstreetmap.atlas.utilities.threads.VirtualThreads#shared()}. The
+     *            atlas fetcher of this policy is then called from several threads at once, and has
+     *            to be thread safe. Null to fetch the shards one by one on the calling thread,
+     *            which is the default.
+     * @return The modified policy
+     */
+    public DynamicAtlasPolicy withShardFetchExecutor(final Executor shardFetchExecutor)
+    {
+        this.shardFetchExecutor = Optional.ofNullable(shardFetchExecutor);
+        return this;
+    }
+
     /**
      * @param shardSetChecker
      *            A function that will inspect the shards prior to loading them in a MultiAtlas. The
@@ -230,4 +266,19 @@ public class DynamicAtlasPolicy
         this.shardSetChecker = shardSetChecker;
         return this;
     }
+
+    /**
+     * @param sharedTagDictionary
+     *            A tag dictionary that all the {@link PackedAtlas} shards fetched will share, to
+     *            hold a single copy of each tag key and value across shards. See
+     *            {@link PackedAtlas#shareTagDictionary(StringDictionary)}. The sharing re-writes
+     *            the tags of each fetched {@link PackedAtlas} in place, so the atlas fetcher has to
+     *            return freshly loaded atlases, that are not cached or used anywhere else.
+     * @return The modified policy
+     */
+    public DynamicAtlasPolicy withSharedTagDictionary(final StringDictionary sharedTagDictionary)
+    {
+        this.sharedTagDictionary = Optional.of(sharedTagDictionary);
+        return this;
+    }
 }
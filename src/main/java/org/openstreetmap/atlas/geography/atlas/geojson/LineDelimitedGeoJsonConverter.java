@@ -5,12 +5,17 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
+import org.openstreetmap.atlas.exception.CoreException;
 import org.openstreetmap.atlas.geography.atlas.Atlas;
 import org.openstreetmap.atlas.geography.atlas.AtlasResourceLoader;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
@@ -23,6 +28,7 @@ import org.openstreetmap.atlas.tags.RelationTypeTag;
 import org.openstreetmap.atlas.tags.annotations.validation.Validators;
 import org.openstreetmap.atlas.utilities.runtime.Command;
 import org.openstreetmap.atlas.utilities.runtime.CommandMap;
+import org.openstreetmap.atlas.utilities.scalars.Duration;
 import org.openstreetmap.atlas.utilities.threads.Pool;
 import org.openstreetmap.atlas.utilities.time.Time;
 import org.openstreetmap.atlas.utilities.vectortiles.TippecanoeCommands;
@@ -34,11 +40,34 @@ import com.google.gson.JsonObject;
 /**
  * This CLI takes a directory of atlas files and turns them into line-delimited GeoJSON. If you
  * would also like to convert into MBTiles with tippecanoe, use TippecanoeExporter.
+ * <p>
+ * Atlases are loaded by a pool of loader threads into a bounded buffer, which a pool of writer
+ * threads drains. When the writers fall behind, the loaders block, so the number of atlases held in
+ * memory stays bounded regardless of how many shards are in the directory.
  *
  * @author hallahan
  */
 public class LineDelimitedGeoJsonConverter extends Command
 {
+    /**
+     * A loaded atlas waiting in the buffer to be written.
+     *
+     * @author agent
+     */
+    private static final class LoadedAtlas
+    {
+        private static final LoadedAtlas END = new LoadedAtlas(null, null);
+
+        private final File atlasFile;
+        private final Atlas atlas;
+
+        LoadedAtlas(final File atlasFile, final Atlas atlas)
+        {
+            this.atlasFile = atlasFile;
+            this.atlas = atlas;
+        }
+    }
+
     /**
      * After all of your files are converted to LD GeoJSON, it is then concatenated into
      * EVERYTHING.geojson
@@ -60,6 +89,17 @@ public class LineDelimitedGeoJsonConverter extends Command
     private static final Switch<Integer> THREADS = new Switch<>("threads",
             "The number of threads to work on processing atlas shards.", Integer::valueOf,
             Optionality.OPTIONAL, String.valueOf(DEFAULT_THREADS));
+    private static final Switch<Integer> BUFFER = new Switch<>("buffer",
+            "The maximum number of loaded atlases waiting to be written. Loading pauses when full.",
+            Integer::valueOf, Optionality.OPTIONAL, String.valueOf(DEFAULT_THREADS));
+    private static final Switch<Boolean> STREAMING = new Switch<>("streaming",
+            "Write features straight to the output, without building a Json tree for each one. "
+                    + "The Json mutator then gets an empty feature to add members to.",
+            Boolean::parseBoolean, Optionality.OPTIONAL, Boolean.FALSE.toString());
+    private static final BiConsumer<AtlasEntity, JsonObject> NO_MUTATION = (atlasEntity,
+            feature) ->
+    {
+    };
 
     /**
      * We only want positive (main) edges, because the negative edge can be derived at the
@@ -100,21 +140,51 @@ public class LineDelimitedGeoJsonConverter extends Command
      * your vector tile renderer, as well as map data visualization needs, you can override this
      * BiConsumer to mutate your JSON object as you see fit.
      */
-    private BiConsumer<AtlasEntity, JsonObject> jsonMutator = (atlasEntity, feature) ->
-    {
-    };
+    private BiConsumer<AtlasEntity, JsonObject> jsonMutator = NO_MUTATION;
 
     public static void main(final String[] args)
     {
         new LineDelimitedGeoJsonConverter().run(args);
     }
 
+    private static long featuresPerSecond(final long features, final Duration duration)
+    {
+        final long milliseconds = Math.max(duration.asMilliseconds(), 1L);
+        return features * Duration.ONE_SECOND.asMilliseconds() / milliseconds;
+    }
+
     private static List<File> fetchAtlasFilesInDirectory(final Path directory)
     {
         return new File(directory.toFile()).listFilesRecursively().stream()
                 .filter(AtlasResourceLoader.HAS_ATLAS_EXTENSION).collect(Collectors.toList());
     }
 
+    private static void put(final BlockingQueue<LoadedAtlas> buffer, final LoadedAtlas loadedAtlas)
+    {
+        try
+        {
+            buffer.put(loadedAtlas);
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new CoreException("Interrupted while buffering a loaded atlas", e);
+        }
+    }
+
+    private static LoadedAtlas take(final BlockingQueue<LoadedAtlas> buffer)
+    {
+        try
+        {
+            return buffer.take();
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new CoreException("Interrupted while waiting for a loaded atlas", e);
+        }
+    }
+
     @Override
     protected int onRun(final CommandMap command)
     {
@@ -149,18 +219,48 @@ public class LineDelimitedGeoJsonConverter extends Command
         logger.info("About to convert {} atlas shards into line-delimited GeoJSON...",
                 atlases.size());
 
-        // Execute in a pool of threads so we limit how many atlases get loaded in parallel.
-        try (Pool pool = new Pool(threads, "atlas-converter-worker"))
+        final int workers = Math.max(threads, 1);
+        final BlockingQueue<LoadedAtlas> buffer = new ArrayBlockingQueue<>(
+                Math.max((Integer) command.get(BUFFER), 1));
+        final boolean streaming = (Boolean) command.get(STREAMING);
+        final AtomicLong features = new AtomicLong();
+        final AtomicInteger failures = new AtomicInteger();
+
+        // The writers are started first, so the loaders always have someone draining the buffer.
+        try (Pool writers = new Pool(workers, "atlas-converter-writer"))
+        {
+            for (int index = 0; index < workers; index++)
+            {
+                writers.queue(() -> this.writeAtlases(buffer, geojsonDirectory, streaming,
+                        features, failures));
+            }
+            try (Pool loaders = new Pool(workers, "atlas-converter-loader"))
+            {
+                atlases.forEach(atlasFile -> loaders
+                        .queue(() -> this.loadAtlas(atlasFile, buffer, failures)));
+            }
+            finally
+            {
+                // One end marker per writer, queued after all the loaded atlases
+                for (int index = 0; index < workers; index++)
+                {
+                    put(buffer, LoadedAtlas.END);
+                }
+            }
+        }
+
+        if (failures.get() > 0)
         {
-            atlases.forEach(
-                    atlasFile -> pool.queue(() -> this.convertAtlas(atlasFile, geojsonDirectory)));
+            throw new CoreException("{} of {} atlas shards could not be converted.",
+                    failures.get(), atlases.size());
         }
 
         TippecanoeCommands.concatenate(geojsonDirectory);
 
+        final Duration elapsed = time.elapsedSince();
         logger.info(
-                "Finished converting directory of atlas shards into line-delimited GeoJSON in {}!",
-                time.elapsedSince());
+                "Finished converting directory of atlas shards into line-delimited GeoJSON in {}! ({} features, {} features per second)",
+                elapsed, features.get(), featuresPerSecond(features.get(), elapsed));
 
         return 0;
     }
@@ -173,17 +273,86 @@ public class LineDelimitedGeoJsonConverter extends Command
     @Override
     protected SwitchList switches()
     {
-        return new SwitchList().with(ATLAS_DIRECTORY, GEOJSON_DIRECTORY, OVERWRITE, THREADS);
+        return new SwitchList().with(ATLAS_DIRECTORY, GEOJSON_DIRECTORY, OVERWRITE, THREADS,
+                BUFFER, STREAMING);
     }
 
-    private void convertAtlas(final File atlasFile, final Path geojsonDirectory)
+    private long convertAtlas(final File atlasFile, final Atlas atlas,
+            final Path geojsonDirectory, final boolean streaming)
     {
         final Time time = Time.now();
-        final Atlas atlas = ATLAS_RESOURCE_LOADER.load(atlasFile);
         final String name = FilenameUtils.removeExtension(atlasFile.getName())
                 + FileSuffix.GEO_JSON.toString();
         final File geojsonFile = new File(geojsonDirectory.resolve(name).toFile());
-        atlas.saveAsLineDelimitedGeoJsonFeatures(geojsonFile, ENTITY_PREDICATE, this.jsonMutator);
-        logger.info("Saved {} in {}.", name, time.elapsedSince());
+        final long features;
+        if (streaming)
+        {
+            features = this.streamAtlas(atlas, geojsonFile);
+        }
+        else
+        {
+            final AtomicLong counter = new AtomicLong();
+            atlas.saveAsLineDelimitedGeoJsonFeatures(geojsonFile, ENTITY_PREDICATE,
+                    (entity, feature) ->
+                    {
+                        counter.incrementAndGet();
+                        this.jsonMutator.accept(entity, feature);
+                    });
+            features = counter.get();
+        }
+        final Duration elapsed = time.elapsedSince();
+        logger.info("Saved {} in {} ({} features, {} features per second).", name, elapsed,
+                features, featuresPerSecond(features, elapsed));
+        return features;
+    }
+
+    private void loadAtlas(final File atlasFile, final BlockingQueue<LoadedAtlas> buffer,
+            final AtomicInteger failures)
+    {
+        final Atlas atlas;
+        try
+        {
+            atlas = ATLAS_RESOURCE_LOADER.load(atlasFile);
+        }
+        catch (final Exception e)
+        {
+            logger.error("Unable to load {}", atlasFile, e);
+            failures.incrementAndGet();
+            return;
+        }
+        put(buffer, new LoadedAtlas(atlasFile, atlas));
+    }
+
+    private long streamAtlas(final Atlas atlas, final File geojsonFile)
+    {
+        final BiConsumer<AtlasEntity, JsonObject> mutator = this.jsonMutator == NO_MUTATION ? null
+                : this.jsonMutator;
+        try (StreamingGeoJsonWriter writer = new StreamingGeoJsonWriter(geojsonFile))
+        {
+            atlas.entities(ENTITY_PREDICATE).forEach(entity -> writer.writeFeature(entity, mutator));
+            return writer.getFeatureCount();
+        }
+    }
+
+    private void writeAtlases(final BlockingQueue<LoadedAtlas> buffer,
+            final Path geojsonDirectory, final boolean streaming, final AtomicLong features,
+            final AtomicInteger failures)
+    {
+        LoadedAtlas loadedAtlas = take(buffer);
+        while (loadedAtlas != LoadedAtlas.END)
+        {
+            try
+            {
+                features.addAndGet(this.convertAtlas(loadedAtlas.atlasFile, loadedAtlas.atlas,
+                        geojsonDirectory, streaming));
+            }
+            catch (final Exception e)
+            {
+                // Keep draining the buffer, otherwise the loaders would block forever
+                logger.error("Unable to convert {}", loadedAtlas.atlasFile, e);
+                failures.incrementAndGet();
+            }
+            loadedAtlas = take(buffer);
+        }
     }
 }
@@ -0,0 +1,371 @@
+package org.openstreetmap.atlas.geography.atlas.geojson;
+
+import static org.openstreetmap.atlas.geography.geojson.GeoJsonConstants.COORDINATES;
+import static org.openstreetmap.atlas.geography.geojson.GeoJsonConstants.GEOMETRY;
+import static org.openstreetmap.atlas.geography.geojson.GeoJsonConstants.PROPERTIES;
+import static org.openstreetmap.atlas.geography.geojson.GeoJsonConstants.TYPE;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.atlas.items.Area;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.ConnectedEdgeType;
+import org.openstreetmap.atlas.geography.atlas.items.ConnectedNodeType;
+import org.openstreetmap.atlas.geography.atlas.items.Edge;
+import org.openstreetmap.atlas.geography.atlas.items.LineItem;
+import org.openstreetmap.atlas.geography.atlas.items.LocationItem;
+import org.openstreetmap.atlas.geography.atlas.items.Node;
+import org.openstreetmap.atlas.geography.atlas.items.Relation;
+import org.openstreetmap.atlas.geography.atlas.items.RelationMember;
+import org.openstreetmap.atlas.geography.geojson.GeoJsonType;
+import org.openstreetmap.atlas.geography.geojson.GeoJsonUtils;
+import org.openstreetmap.atlas.streaming.resource.WritableResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Writes {@link AtlasEntity}s as line-delimited GeoJSON features straight to a buffered stream,
+ * without building an intermediate {@link JsonObject} tree for each feature. The output is the
+ * same as {@link AtlasEntity#asGeoJson()} written one feature per line, which is what
+ * {@link org.openstreetmap.atlas.geography.atlas.Atlas#saveAsLineDelimitedGeoJsonFeatures} does.
+ * <p>
+ * Relation geometries still go through the multipolygon converter of {@link Relation}, and are
+ * then streamed from the resulting {@link JsonObject}.
+ * <p>
+ * Feature mutators are supported for mutators that only add top level members to the feature
+ * (like {@link org.openstreetmap.atlas.utilities.vectortiles.TippecanoeSettings#JSON_MUTATOR}):
+ * the mutator is handed an empty {@link JsonObject}, and whatever members it adds are appended to
+ * the feature after its properties.
+ *
+ * @author agent
+ */
+public class StreamingGeoJsonWriter implements Closeable
+{
+    private static final Logger logger = LoggerFactory.getLogger(StreamingGeoJsonWriter.class);
+    private static final Gson GSON = new Gson();
+    private static final String RELATIONS = "relations";
+    private static final String MEMBERS = "members";
+    private static final String ROLE = "role";
+    private static final String MISSING = "MISSING";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BufferedWriter output;
+    private final JsonWriter writer;
+    // Buffers reused from one feature to the next
+    private final List<String> propertyNames = new ArrayList<>();
+    private final Set<String> writtenPropertyNames = new HashSet<>();
+    private long featureCount;
+
+    public StreamingGeoJsonWriter(final WritableResource resource)
+    {
+        this.output = new BufferedWriter(
+                new OutputStreamWriter(resource.write(), StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.writer = new JsonWriter(this.output);
+        // Same settings as JsonElement.toString(), so the output matches the JsonObject path.
+        this.writer.setLenient(true);
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            // Close the underlying output, as the JsonWriter refuses to close an empty document
+            this.output.close();
+        }
+        catch (final IOException e)
+        {
+            throw new CoreException("Cannot close StreamingGeoJsonWriter", e);
+        }
+    }
+
+    public void flush()
+    {
+        try
+        {
+            this.writer.flush();
+        }
+        catch (final IOException e)
+        {
+            close();
+            throw new CoreException("Cannot flush StreamingGeoJsonWriter", e);
+        }
+    }
+
+    /**
+     * @return The number of features written so far
+     */
+    public long getFeatureCount()
+    {
+        return this.featureCount;
+    }
+
+    /**
+     * Write an {@link AtlasEntity} as a single line GeoJSON feature
+     *
+     * @param entity
+     *            The entity to write
+     */
+    public void writeFeature(final AtlasEntity entity)
+    {
+        writeFeature(entity, null);
+    }
+
+    /**
+     * Write an {@link AtlasEntity} as a single line GeoJSON feature
+     *
+     * @param entity
+     *            The entity to write
+     * @param jsonMutator
+     *            An optional mutator, which can add top level members to the feature. Can be null.
+     */
+    public void writeFeature(final AtlasEntity entity,
+            final BiConsumer<AtlasEntity, JsonObject> jsonMutator)
+    {
+        try
+        {
+            this.writer.beginObject();
+            this.writer.name(TYPE).value(GeoJsonType.FEATURE.getTypeString());
+            this.writer.name(GEOMETRY);
+            writeGeometry(entity);
+            this.writer.name(PROPERTIES);
+            writeProperties(entity);
+            if (jsonMutator != null)
+            {
+                final JsonObject extension = new JsonObject();
+                jsonMutator.accept(entity, extension);
+                for (final Map.Entry<String, JsonElement> member : extension.entrySet())
+                {
+                    this.writer.name(member.getKey());
+                    GSON.toJson(member.getValue(), this.writer);
+                }
+            }
+            this.writer.endObject();
+            // The JsonWriter does not buffer, so the line break can go straight to the output.
+            this.output.newLine();
+            this.featureCount++;
+        }
+        catch (final IOException e)
+        {
+            close();
+            throw new CoreException("Could not write feature {} to StreamingGeoJsonWriter", e,
+                    entity.getIdentifier());
+        }
+    }
+
+    /**
+     * Fill the names of the properties {@link AtlasEntity#getGeoJsonProperties()} (and its
+     * overrides) adds on top of the tags, in the order they are added.
+     */
+    private void fillPropertyNames(final AtlasEntity entity, final Set<Relation> relations)
+    {
+        this.propertyNames.clear();
+        this.propertyNames.add(GeoJsonUtils.IDENTIFIER);
+        this.propertyNames.add(GeoJsonUtils.OSM_IDENTIFIER);
+        this.propertyNames.add(GeoJsonUtils.ITEM_TYPE);
+        if (!relations.isEmpty())
+        {
+            this.propertyNames.add(RELATIONS);
+        }
+        if (entity instanceof Node)
+        {
+            this.propertyNames.add(ConnectedEdgeType.IN.getPropertyName());
+            this.propertyNames.add(ConnectedEdgeType.OUT.getPropertyName());
+        }
+        else if (entity instanceof Edge)
+        {
+            this.propertyNames.add(ConnectedNodeType.START.getPropertyName());
+            this.propertyNames.add(ConnectedNodeType.END.getPropertyName());
+        }
+        else if (entity instanceof Relation)
+        {
+            this.propertyNames.add(MEMBERS);
+        }
+    }
+
+    private void writeCoordinate(final Location location) throws IOException
+    {
+        this.writer.beginArray();
+        this.writer.value(location.getLongitude().asDegrees());
+        this.writer.value(location.getLatitude().asDegrees());
+        this.writer.endArray();
+    }
+
+    private void writeCoordinates(final Iterable<Location> locations) throws IOException
+    {
+        this.writer.beginArray();
+        for (final Location location : locations)
+        {
+            writeCoordinate(location);
+        }
+        this.writer.endArray();
+    }
+
+    private void writeGeometry(final AtlasEntity entity) throws IOException
+    {
+        if (entity instanceof LocationItem)
+        {
+            this.writer.beginObject();
+            this.writer.name(TYPE).value(GeoJsonType.POINT.getTypeString());
+            this.writer.name(COORDINATES);
+            writeCoordinate(((LocationItem) entity).getLocation());
+            this.writer.endObject();
+        }
+        else if (entity instanceof LineItem)
+        {
+            this.writer.beginObject();
+            this.writer.name(TYPE).value(GeoJsonType.LINESTRING.getTypeString());
+            this.writer.name(COORDINATES);
+            writeCoordinates(((LineItem) entity).asPolyLine());
+            this.writer.endObject();
+        }
+        else if (entity instanceof Area)
+        {
+            this.writer.beginObject();
+            this.writer.name(TYPE).value(GeoJsonType.POLYGON.getTypeString());
+            this.writer.name(COORDINATES);
+            this.writer.beginArray();
+            writeCoordinates(((Area) entity).asPolygon().closedLoop());
+            this.writer.endArray();
+            this.writer.endObject();
+        }
+        else
+        {
+            GSON.toJson(entity.asGeoJsonGeometry(), this.writer);
+        }
+    }
+
+    private void writeIdentifiers(final String name, final Iterable<? extends AtlasEntity> entities)
+            throws IOException
+    {
+        this.writer.name(name);
+        this.writer.beginArray();
+        for (final AtlasEntity entity : entities)
+        {
+            this.writer.value(entity.getIdentifier());
+        }
+        this.writer.endArray();
+    }
+
+    private void writeMembers(final Relation relation) throws IOException
+    {
+        this.writer.name(MEMBERS);
+        this.writer.beginArray();
+        for (final RelationMember member : relation.members())
+        {
+            this.writer.beginObject();
+            final AtlasEntity entity = member.getEntity();
+            if (entity != null)
+            {
+                this.writer.name(GeoJsonUtils.IDENTIFIER).value(entity.getIdentifier());
+                this.writer.name(GeoJsonUtils.ITEM_TYPE).value(entity.getType().name());
+            }
+            else
+            {
+                this.writer.name(GeoJsonUtils.IDENTIFIER).value(MISSING);
+                logger.warn("Missing identifier for relation entity: Relation ID: {}",
+                        relation.getIdentifier());
+            }
+            final String role = member.getRole();
+            if (role != null)
+            {
+                this.writer.name(ROLE).value(role);
+            }
+            this.writer.endObject();
+        }
+        this.writer.endArray();
+    }
+
+    /**
+     * Mirrors {@link AtlasEntity#getGeoJsonProperties()} and its overrides in {@link Node},
+     * {@link Edge} and {@link Relation}. A tag which has the same key as one of those properties
+     * is overridden in the {@link JsonObject}, which keeps the position of the tag: the property
+     * is written in place of the tag here too.
+     */
+    private void writeProperties(final AtlasEntity entity) throws IOException
+    {
+        final Set<Relation> relations = entity.relations();
+        fillPropertyNames(entity, relations);
+        this.writtenPropertyNames.clear();
+        this.writer.beginObject();
+        for (final Map.Entry<String, String> tag : entity.getTags().entrySet())
+        {
+            final String key = tag.getKey();
+            if (this.propertyNames.contains(key))
+            {
+                writeProperty(entity, relations, key);
+                this.writtenPropertyNames.add(key);
+            }
+            else
+            {
+                this.writer.name(key).value(tag.getValue());
+            }
+        }
+        for (final String propertyName : this.propertyNames)
+        {
+            if (!this.writtenPropertyNames.contains(propertyName))
+            {
+                writeProperty(entity, relations, propertyName);
+            }
+        }
+        this.writer.endObject();
+    }
+
+    private void writeProperty(final AtlasEntity entity, final Set<Relation> relations,
+            final String name) throws IOException
+    {
+        if (GeoJsonUtils.IDENTIFIER.equals(name))
+        {
+            this.writer.name(name).value(entity.getIdentifier());
+        }
+        else if (GeoJsonUtils.OSM_IDENTIFIER.equals(name))
+        {
+            this.writer.name(name).value(entity.getOsmIdentifier());
+        }
+        else if (GeoJsonUtils.ITEM_TYPE.equals(name))
+        {
+            this.writer.name(name).value(String.valueOf(entity.getType()));
+        }
+        else if (RELATIONS.equals(name))
+        {
+            writeIdentifiers(name, relations);
+        }
+        else if (ConnectedEdgeType.IN.getPropertyName().equals(name))
+        {
+            writeIdentifiers(name, ((Node) entity).inEdges());
+        }
+        else if (ConnectedEdgeType.OUT.getPropertyName().equals(name))
+        {
+            writeIdentifiers(name, ((Node) entity).outEdges());
+        }
+        else if (ConnectedNodeType.START.getPropertyName().equals(name))
+        {
+            this.writer.name(name).value(((Edge) entity).start().getIdentifier());
+        }
+        else if (ConnectedNodeType.END.getPropertyName().equals(name))
+        {
+            this.writer.name(name).value(((Edge) entity).end().getIdentifier());
+        }
+        else
+        {
+            writeMembers((Relation) entity);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.openstreetmap.atlas.geography.atlas.items.complex;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+
+/**
+ * A {@link Finder} that converts each {@link AtlasEntity} independently from the others, which
+ * allows the {@link ParallelFinderRunner} to split the work, and to run multiple finders in the
+ * same pass over an {@link org.openstreetmap.atlas.geography.atlas.Atlas}.
+ *
+ * @author agent
+ * @param <T>
+ *            the type of ComplexEntity we'll be searching for
+ */
+public interface EntityFinder<T extends ComplexEntity> extends Finder<T>
+{
+    /**
+     * Convert one {@link AtlasEntity}. This is called with every entity of the atlas, and has to be
+     * thread safe.
+     *
+     * @param entity
+     *            The {@link AtlasEntity} to convert
+     * @return The complex entity made from that {@link AtlasEntity}, or empty if the
+     *         {@link AtlasEntity} is not a candidate for this {@link Finder}.
+     */
+    Optional<T> convert(AtlasEntity entity);
+
+    /**
+     * @return The {@link ItemType}s this finder converts, in the order {@link #find} returns them.
+     *         All of them by default.
+     */
+    default List<ItemType> itemTypes()
+    {
+        return Arrays.asList(ItemType.values());
+    }
+}
@@ -0,0 +1,169 @@
+package org.openstreetmap.atlas.geography.atlas.items.complex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+
+/**
+ * Run one or more {@link EntityFinder}s on an {@link Atlas}, in parallel. The atlas is browsed
+ * once, its entities are split in partitions of a single {@link ItemType}, and each partition is
+ * converted by all the finders interested in that type on a {@link ForkJoinPool}.
+ * <p>
+ * The results of each finder are in the same order as the ones of its sequential
+ * {@link Finder#find(Atlas)}, following {@link EntityFinder#itemTypes()}. For example
+ * {@link org.openstreetmap.atlas.geography.atlas.items.complex.boundaries.ComplexBoundaryFinder}
+ * returns the relations first, then the areas.
+ *
+ * @author agent
+ */
+public class ParallelFinderRunner
+{
+    private static final int DEFAULT_PARTITION_SIZE = 1_000;
+
+    private final int threads;
+    private int partitionSize = DEFAULT_PARTITION_SIZE;
+
+    /**
+     * Use as many threads as available processors
+     */
+    public ParallelFinderRunner()
+    {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads
+     *            The number of threads to convert the entities with
+     */
+    public ParallelFinderRunner(final int threads)
+    {
+        if (threads < 1)
+        {
+            throw new CoreException("Invalid number of threads: {}", threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * @param atlas
+     *            The {@link Atlas} to browse
+     * @param finder
+     *            The {@link EntityFinder} to run
+     * @param <T>
+     *            The type of complex entity
+     * @return All the complex entities found, in the order of {@link Finder#find(Atlas)}
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends ComplexEntity> List<T> find(final Atlas atlas, final EntityFinder<T> finder)
+    {
+        return (List<T>) find(atlas, Collections.singletonList(finder)).get(0);
+    }
+
+    /**
+     * Run multiple {@link EntityFinder}s in a single pass over the {@link Atlas}.
+     *
+     * @param atlas
+     *            The {@link Atlas} to browse
+     * @param finders
+     *            The {@link EntityFinder}s to run
+     * @return The complex entities found by each finder, in the same order as the finders. The
+     *         entities found by each finder are in the order of its {@link Finder#find(Atlas)}.
+     */
+    public List<List<ComplexEntity>> find(final Atlas atlas,
+            final List<? extends EntityFinder<?>> finders)
+    {
+        final Set<ItemType> types = EnumSet.noneOf(ItemType.class);
+        finders.forEach(finder -> types.addAll(finder.itemTypes()));
+        final ForkJoinPool pool = new ForkJoinPool(this.threads);
+        try
+        {
+            final Map<ItemType, List<ForkJoinTask<List<List<ComplexEntity>>>>> tasks = new EnumMap<>(
+                    ItemType.class);
+            for (final ItemType type : types)
+            {
+                final List<ForkJoinTask<List<List<ComplexEntity>>>> typeTasks = new ArrayList<>();
+                List<AtlasEntity> partition = new ArrayList<>(this.partitionSize);
+                for (final AtlasEntity entity : atlas.entities(type, type.getMemberClass()))
+                {
+                    partition.add(entity);
+                    if (partition.size() == this.partitionSize)
+                    {
+                        final List<AtlasEntity> full = partition;
+                        typeTasks.add(pool.submit(() -> convert(type, full, finders)));
+                        partition = new ArrayList<>(this.partitionSize);
+                    }
+                }
+                if (!partition.isEmpty())
+                {
+                    final List<AtlasEntity> last = partition;
+                    typeTasks.add(pool.submit(() -> convert(type, last, finders)));
+                }
+                tasks.put(type, typeTasks);
+            }
+
+            final List<List<ComplexEntity>> result = new ArrayList<>(finders.size());
+            for (int index = 0; index < finders.size(); index++)
+            {
+                final List<ComplexEntity> found = new ArrayList<>();
+                for (final ItemType type : finders.get(index).itemTypes())
+                {
+                    for (final ForkJoinTask<List<List<ComplexEntity>>> task : tasks.get(type))
+                    {
+                        found.addAll(task.join().get(index));
+                    }
+                }
+                result.add(found);
+            }
+            return result;
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * @param partitionSize
+     *            The number of entities each task converts
+     * @return This {@link ParallelFinderRunner}
+     */
+    public ParallelFinderRunner withPartitionSize(final int partitionSize)
+    {
+        if (partitionSize < 1)
+        {
+            throw new CoreException("Invalid partition size: {}", partitionSize);
+        }
+        this.partitionSize = partitionSize;
+        return this;
+    }
+
+    private List<List<ComplexEntity>> convert(final ItemType type,
+            final List<AtlasEntity> partition, final List<? extends EntityFinder<?>> finders)
+    {
+        final List<List<ComplexEntity>> result = new ArrayList<>(finders.size());
+        for (final EntityFinder<?> finder : finders)
+        {
+            final List<ComplexEntity> found = new ArrayList<>();
+            if (finder.itemTypes().contains(type))
+            {
+                for (final AtlasEntity entity : partition)
+                {
+                    finder.convert(entity).ifPresent(found::add);
+                }
+            }
+            result.add(found);
+        }
+        return result;
+    }
+}
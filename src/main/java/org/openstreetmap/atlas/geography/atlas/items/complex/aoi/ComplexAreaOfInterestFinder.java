@@ -1,11 +1,17 @@
 package org.openstreetmap.atlas.geography.atlas.items.complex.aoi;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import org.openstreetmap.atlas.geography.atlas.Atlas;
-import org.openstreetmap.atlas.geography.atlas.items.complex.Finder;
+import org.openstreetmap.atlas.geography.atlas.items.Area;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.geography.atlas.items.Relation;
+import org.openstreetmap.atlas.geography.atlas.items.complex.EntityFinder;
 import org.openstreetmap.atlas.tags.filters.TaggableFilter;
 import org.openstreetmap.atlas.utilities.collections.Iterables;
 import org.openstreetmap.atlas.utilities.collections.MultiIterable;
@@ -15,8 +21,18 @@ import org.openstreetmap.atlas.utilities.collections.MultiIterable;
  *
  * @author sayas01
  */
-public class ComplexAreaOfInterestFinder implements Finder<ComplexAreaOfInterest>
+public class ComplexAreaOfInterestFinder implements EntityFinder<ComplexAreaOfInterest>
 {
+    @Override
+    public Optional<ComplexAreaOfInterest> convert(final AtlasEntity entity)
+    {
+        if (entity instanceof Relation || entity instanceof Area)
+        {
+            return ComplexAreaOfInterest.getComplexAOI(entity);
+        }
+        return Optional.empty();
+    }
+
     /**
      * Finds all relations and areas that are candidates for {@link ComplexAreaOfInterest} and
      * converts them into {@link ComplexAreaOfInterest}.
@@ -60,4 +76,10 @@ public class ComplexAreaOfInterestFinder implements Finder<ComplexAreaOfInterest
                 .filter(Optional::isPresent).map(Optional::get).collect(Collectors.toList());
         return new MultiIterable<>(iterableOfComplexAOIRelations, iterableOfComplexAOIAreas);
     }
+
+    @Override
+    public List<ItemType> itemTypes()
+    {
+        return Arrays.asList(ItemType.RELATION, ItemType.AREA);
+    }
 }
@@ -4,6 +4,7 @@ import static org.openstreetmap.atlas.tags.names.NameFinder.STANDARD_TAGS;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -15,12 +16,12 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.CompareToBuilder;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.openstreetmap.atlas.exception.CoreException;
 import org.openstreetmap.atlas.geography.Heading;
 import org.openstreetmap.atlas.geography.atlas.Atlas;
@@ -31,6 +32,7 @@ import org.openstreetmap.atlas.geography.atlas.items.complex.Finder;
 import org.openstreetmap.atlas.geography.atlas.items.complex.bignode.BigNode.Type;
 import org.openstreetmap.atlas.geography.geojson.GeoJsonBuilder;
 import org.openstreetmap.atlas.geography.geojson.GeoJsonBuilder.LocationIterableProperties;
+import org.openstreetmap.atlas.geography.sharding.SlippyTile;
 import org.openstreetmap.atlas.streaming.resource.WritableResource;
 import org.openstreetmap.atlas.tags.HighwayTag;
 import org.openstreetmap.atlas.tags.JunctionTag;
@@ -78,51 +80,46 @@ public class BigNodeFinder implements Finder<BigNode>
      */
     public static final class BigNodeCandidate implements Comparable<BigNodeCandidate>, Serializable
     {
-        private static final long serialVersionUID = 7225634482602225746L;
-        private final Set<Long> nodeIdentifiers;
+        private static final long serialVersionUID = -1360305862577394410L;
+        // Sorted, without duplicates
+        private long[] nodeIdentifiers;
 
         public static BigNodeCandidate from(final Set<Node> nodes)
         {
             return new BigNodeCandidate(
-                    nodes.stream().map(Node::getIdentifier).collect(Collectors.toSet()));
+                    nodes.stream().mapToLong(Node::getIdentifier).sorted().distinct().toArray());
         }
 
         public BigNodeCandidate()
         {
-            this.nodeIdentifiers = new TreeSet<>();
+            this.nodeIdentifiers = new long[0];
         }
 
         public BigNodeCandidate(final Set<Long> nodeIds)
         {
-            this.nodeIdentifiers = new TreeSet<>(nodeIds);
+            this(nodeIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray());
+        }
+
+        private BigNodeCandidate(final long[] nodeIdentifiers)
+        {
+            this.nodeIdentifiers = nodeIdentifiers;
         }
 
         @Override
         public int compareTo(final BigNodeCandidate bigNodeCandidate)
         {
-            final Iterator<Long> iterator2 = bigNodeCandidate.nodeIdentifiers.iterator();
-            for (final Long identifier : this.nodeIdentifiers)
+            final long[] others = bigNodeCandidate.nodeIdentifiers;
+            final int size = Math.min(this.nodeIdentifiers.length, others.length);
+            for (int index = 0; index < size; index++)
             {
-                // Shorter sets sort first.
-                if (!iterator2.hasNext())
-                {
-                    return 1;
-                }
-                final int comparison = identifier.compareTo(iterator2.next());
+                final int comparison = Long.compare(this.nodeIdentifiers[index], others[index]);
                 if (comparison != 0)
                 {
                     return comparison;
                 }
             }
             // Shorter sets sort first
-            if (iterator2.hasNext())
-            {
-                return -1;
-            }
-            else
-            {
-                return 0;
-            }
+            return Integer.signum(this.nodeIdentifiers.length - others.length);
         }
 
         @Override
@@ -131,25 +128,25 @@ public class BigNodeFinder implements Finder<BigNode>
             if (other instanceof BigNodeCandidate)
             {
                 final BigNodeCandidate that = (BigNodeCandidate) other;
-                if (this.nodeIdentifiers.size() == that.nodeIdentifiers.size())
-                {
-                    return new EqualsBuilder().append(this.nodeIdentifiers, that.nodeIdentifiers)
-                            .isEquals();
-                }
+                return Arrays.equals(this.nodeIdentifiers, that.nodeIdentifiers);
             }
             return false;
         }
 
+        /**
+         * @return A sorted copy of the node identifiers
+         */
         public Set<Long> getNodeIdentifiers()
         {
-            return this.nodeIdentifiers;
+            return Arrays.stream(this.nodeIdentifiers).boxed()
+                    .collect(Collectors.toCollection(TreeSet::new));
         }
 
         public long getSourceNodeIdentifier()
         {
-            if (!this.nodeIdentifiers.isEmpty())
+            if (this.nodeIdentifiers.length > 0)
             {
-                return this.nodeIdentifiers.iterator().next();
+                return this.nodeIdentifiers[0];
             }
             throw new IllegalArgumentException(
                     "Could not get source node identifier since nodesIdentifiers are empty");
@@ -158,12 +155,35 @@ public class BigNodeFinder implements Finder<BigNode>
         @Override
         public int hashCode()
         {
-            return new HashCodeBuilder().append(this.nodeIdentifiers).hashCode();
+            return Arrays.hashCode(this.nodeIdentifiers);
         }
 
         public void merge(final BigNodeCandidate mergeBigNodeCandidate)
         {
-            this.nodeIdentifiers.addAll(mergeBigNodeCandidate.nodeIdentifiers);
+            // Union of the two sorted arrays
+            final long[] others = mergeBigNodeCandidate.nodeIdentifiers;
+            final long[] merged = new long[this.nodeIdentifiers.length + others.length];
+            int index = 0;
+            int otherIndex = 0;
+            int size = 0;
+            while (index < this.nodeIdentifiers.length || otherIndex < others.length)
+            {
+                final long next;
+                if (otherIndex == others.length || index < this.nodeIdentifiers.length
+                        && this.nodeIdentifiers[index] <= others[otherIndex])
+                {
+                    next = this.nodeIdentifiers[index++];
+                }
+                else
+                {
+                    next = others[otherIndex++];
+                }
+                if (size == 0 || merged[size - 1] != next)
+                {
+                    merged[size++] = next;
+                }
+            }
+            this.nodeIdentifiers = Arrays.copyOf(merged, size);
         }
     }
 
@@ -198,15 +218,18 @@ public class BigNodeFinder implements Finder<BigNode>
         private final Atlas atlas;
         private final Iterator<Node> nodeIterator;
 
-        // We maintain a set of processed nodeIds to avoid returning duplicates
-        private final Set<Long> bigNodeIdentifiers;
+        // Sorted identifiers of all the dual carriageway nodes, which are not returned again as
+        // simple intersections
+        private final long[] bigNodeIdentifiers;
 
         public BigNodeIterator(final Atlas atlas, final Set<BigNodeCandidate> bigNodeCandidates)
         {
             this.atlas = atlas;
             this.bigNodeCandidateIterator = bigNodeCandidates.iterator();
             this.nodeIterator = this.atlas.nodes().iterator();
-            this.bigNodeIdentifiers = new HashSet<>();
+            this.bigNodeIdentifiers = bigNodeCandidates.stream()
+                    .flatMapToLong(candidate -> Arrays.stream(candidate.nodeIdentifiers)).sorted()
+                    .toArray();
         }
 
         @Override
@@ -218,29 +241,25 @@ public class BigNodeFinder implements Finder<BigNode>
 
                 // Sorting to ensure deterministic id
                 final Set<Node> nodes = new TreeSet<>(new NodeComparator());
-                bigNodeCandidate.nodeIdentifiers
-                        .forEach(nodeIdentifier -> nodes.add(this.atlas.node(nodeIdentifier)));
+                for (final long nodeIdentifier : bigNodeCandidate.nodeIdentifiers)
+                {
+                    nodes.add(this.atlas.node(nodeIdentifier));
+                }
                 if (!nodes.isEmpty())
                 {
                     final Node sourceNode = nodes.iterator().next();
-                    final BigNode bigNode = new BigNode(sourceNode, nodes, Type.DUAL_CARRIAGEWAY);
-                    nodes.stream()
-                            .forEach(node -> this.bigNodeIdentifiers.add(node.getIdentifier()));
-                    return bigNode;
+                    return new BigNode(sourceNode, nodes, Type.DUAL_CARRIAGEWAY);
                 }
             }
             while (this.nodeIterator.hasNext())
             {
                 // Next, look for simple intersections
                 final Node candidateNode = this.nodeIterator.next();
-                if (!this.bigNodeIdentifiers.contains(candidateNode.getIdentifier()))
+                if (Arrays.binarySearch(this.bigNodeIdentifiers, candidateNode.getIdentifier()) < 0
+                        && candidateNode.connectedEdges().stream()
+                                .anyMatch(HighwayTag::isCarNavigableHighway))
                 {
-                    if (candidateNode.connectedEdges().stream()
-                            .anyMatch(HighwayTag::isCarNavigableHighway))
-                    {
-                        this.bigNodeIdentifiers.add(candidateNode.getIdentifier());
-                        return new BigNode(candidateNode);
-                    }
+                    return new BigNode(candidateNode);
                 }
             }
             // We reached the end of the list
@@ -281,6 +300,10 @@ public class BigNodeFinder implements Finder<BigNode>
      * OSM ways overlap.
      */
     private static final int MAXIMUM_CANDIDATE_JUNCTION_ROUTE_SET_SIZE = 10_000;
+    /**
+     * Zoom of the {@link SlippyTile}s the edges are partitioned with in parallel mode
+     */
+    private static final int PARTITION_ZOOM = 13;
     public static final String LOWEST_JUNCTION_EDGE_CANDIDATE_HIGHWAY_KEY = "LOWEST_JUNCTION_EDGE_CANDIDATE_HIGHWAY_TAG";
     public static final String LONG_JUNCTION_ROUTE_LENGTH_KEY = "LONG_JUNCTION_ROUTE_LENGTH";
     public static final String NON_STRAIGHT_JUNCTION_EDGES_ANGLE_KEY = "NON_STRAIGHT_JUNCTION_EDGES_ANGLE";
@@ -295,6 +318,7 @@ public class BigNodeFinder implements Finder<BigNode>
     private Angle nonStraightJunctionEdgesAngle = Angle.degrees(NON_STRAIGHT_JUNCTION_EDGES_ANGLE);
     private final EdgeDirectionComparator edgeDirectionComparator = new EdgeDirectionComparator();
     private final NameFinder nameFinder = new NameFinder().withTags(STANDARD_TAGS);
+    private int threads = 1;
 
     public BigNodeFinder()
     {
@@ -328,28 +352,29 @@ public class BigNodeFinder implements Finder<BigNode>
         final Set<Long> junctionRouteEdgeIds = new TreeSet<>();
 
         // First pass through edges
-        for (final Edge candidateEdge : atlas.edges(this::isCandidateJunctionEdge))
+        if (this.threads > 1)
         {
-            // Check if the candidate edge is already part of another big Node
-            if (!junctionEdgeIds.contains(candidateEdge.getIdentifier()))
+            // The junctions are searched concurrently, and then replayed in edge order, so the
+            // result is the same as the sequential pass
+            final Map<Long, Route> junctions = junctions(atlas);
+            for (final Edge candidateEdge : atlas.edges())
             {
-                if (isDualCarriageWayJunctionEdge(candidateEdge))
+                final Route junction = junctions.get(candidateEdge.getIdentifier());
+                if (junction != null && !junctionEdgeIds.contains(candidateEdge.getIdentifier()))
                 {
-                    junctionEdgeIds.add(candidateEdge.getIdentifier());
+                    addJunction(junction, junctionEdgeIds, junctionRouteEdgeIds);
                 }
-                else
+            }
+        }
+        else
+        {
+            for (final Edge candidateEdge : atlas.edges(this::isCandidateJunctionEdge))
+            {
+                // Check if the candidate edge is already part of another big Node
+                if (!junctionEdgeIds.contains(candidateEdge.getIdentifier()))
                 {
-                    // Expand Junction Edge to Junction Route before checking for Dual Carriage
-                    // way intersection
-                    final Optional<Route> junctionRoute = isDualCarriageWayJunctionRoute(
-                            Route.forEdge(candidateEdge));
-
-                    junctionRoute.ifPresent(route ->
-                    {
-                        final Edge startEdge = route.start();
-                        junctionRouteEdgeIds.add(startEdge.getIdentifier());
-                        route.forEach(edge -> junctionEdgeIds.add(edge.getIdentifier()));
-                    });
+                    junction(candidateEdge).ifPresent(
+                            junction -> addJunction(junction, junctionEdgeIds, junctionRouteEdgeIds));
                 }
             }
         }
@@ -447,6 +472,26 @@ public class BigNodeFinder implements Finder<BigNode>
         new GeoJsonBuilder().create(features).save(writableResource);
     }
 
+    /**
+     * Search the dual carriageway junctions with multiple threads. The candidate edges are
+     * partitioned by {@link SlippyTile}, and each tile is searched concurrently. The junctions are
+     * then merged in the same order as the single threaded search, so the {@link BigNode}s are the
+     * same regardless of the number of threads.
+     *
+     * @param threads
+     *            The number of threads to search with
+     * @return This {@link BigNodeFinder}
+     */
+    public BigNodeFinder withThreads(final int threads)
+    {
+        if (threads < 1)
+        {
+            throw new CoreException("Invalid number of threads: {}", threads);
+        }
+        this.threads = threads;
+        return this;
+    }
+
     /*
      * Check if an edge contains any tags to be excluded as junction edges
      */
@@ -529,6 +574,24 @@ public class BigNodeFinder implements Finder<BigNode>
                 .anyMatch(connectedEdge -> edge.end().connectedEdges().contains(connectedEdge));
     }
 
+    /**
+     * Record a junction found by {@link #junction(Edge)}: a single junction edge, or a junction
+     * route.
+     */
+    private void addJunction(final Route junction, final Set<Long> junctionEdgeIds,
+            final Set<Long> junctionRouteEdgeIds)
+    {
+        if (junction.size() == 1)
+        {
+            junctionEdgeIds.add(junction.start().getIdentifier());
+        }
+        else
+        {
+            junctionRouteEdgeIds.add(junction.start().getIdentifier());
+            junction.forEach(edge -> junctionEdgeIds.add(edge.getIdentifier()));
+        }
+    }
+
     private void configure(final Map<String, String> configurationMap)
     {
         if (configurationMap.get(LOWEST_JUNCTION_EDGE_CANDIDATE_HIGHWAY_KEY) != null)
@@ -787,6 +850,68 @@ public class BigNodeFinder implements Finder<BigNode>
         return searchRadius(highwayTag).isGreaterThan(length);
     }
 
+    /**
+     * @param candidateEdge
+     *            A candidate junction {@link Edge}
+     * @return The {@link Route} made of the edge only if it is a dual carriageway junction edge,
+     *         or the dual carriageway junction {@link Route} it expands to, if any
+     */
+    private Optional<Route> junction(final Edge candidateEdge)
+    {
+        if (isDualCarriageWayJunctionEdge(candidateEdge))
+        {
+            return Optional.of(Route.forEdge(candidateEdge));
+        }
+        // Expand Junction Edge to Junction Route before checking for Dual Carriage way
+        // intersection
+        return isDualCarriageWayJunctionRoute(Route.forEdge(candidateEdge));
+    }
+
+    /**
+     * Search all the junctions of the {@link Atlas} concurrently, one {@link SlippyTile} at a time.
+     * Each search only reads the {@link Atlas}, so a junction crossing a tile border is found the
+     * same way as any other.
+     *
+     * @return The junctions found, by identifier of the candidate {@link Edge} they were found from
+     */
+    private Map<Long, Route> junctions(final Atlas atlas)
+    {
+        final Map<SlippyTile, List<Edge>> partitions = new HashMap<>();
+        for (final Edge edge : atlas.edges())
+        {
+            partitions.computeIfAbsent(new SlippyTile(edge.start().getLocation(), PARTITION_ZOOM),
+                    tile -> new ArrayList<>()).add(edge);
+        }
+        final ForkJoinPool pool = new ForkJoinPool(this.threads);
+        try
+        {
+            final List<ForkJoinTask<Map<Long, Route>>> tasks = new ArrayList<>();
+            for (final List<Edge> partition : partitions.values())
+            {
+                tasks.add(pool.submit(() ->
+                {
+                    final Map<Long, Route> result = new HashMap<>();
+                    for (final Edge edge : partition)
+                    {
+                        if (isCandidateJunctionEdge(edge))
+                        {
+                            junction(edge).ifPresent(
+                                    junction -> result.put(edge.getIdentifier(), junction));
+                        }
+                    }
+                    return result;
+                }));
+            }
+            final Map<Long, Route> result = new HashMap<>();
+            tasks.forEach(task -> result.putAll(task.join()));
+            return result;
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
     /**
      * Merging/coalescing connected junctionEdges together
      */
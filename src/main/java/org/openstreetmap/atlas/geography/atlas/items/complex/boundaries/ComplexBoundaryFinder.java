@@ -1,15 +1,19 @@
 package org.openstreetmap.atlas.geography.atlas.items.complex.boundaries;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import org.openstreetmap.atlas.exception.CoreException;
 import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.Area;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
 import org.openstreetmap.atlas.geography.atlas.items.Relation;
 import org.openstreetmap.atlas.geography.atlas.items.RelationMember;
 import org.openstreetmap.atlas.geography.atlas.items.RelationMemberList;
-import org.openstreetmap.atlas.geography.atlas.items.complex.Finder;
+import org.openstreetmap.atlas.geography.atlas.items.complex.EntityFinder;
 import org.openstreetmap.atlas.tags.AdministrativeLevelTag;
 import org.openstreetmap.atlas.tags.BoundaryTag;
 import org.openstreetmap.atlas.tags.RelationTypeTag;
@@ -21,7 +25,7 @@ import org.openstreetmap.atlas.utilities.collections.MultiIterable;
  *
  * @author matthieun
  */
-public class ComplexBoundaryFinder implements Finder<ComplexBoundary>
+public class ComplexBoundaryFinder implements EntityFinder<ComplexBoundary>
 {
     // If set to true, the boundaries will be structured with their sub-areas, and any
     // sub-area that has a parent area will not be standalone. If set to false, all
@@ -39,6 +43,18 @@ public class ComplexBoundaryFinder implements Finder<ComplexBoundary>
         this.administrativeLevel = Optional.empty();
     }
 
+    @Override
+    public Optional<ComplexBoundary> convert(final AtlasEntity entity)
+    {
+        if ((entity instanceof Relation || entity instanceof Area)
+                && BoundaryTag.isAdministrative(entity) && subAreaFilter(entity))
+        {
+            return Optional.of(
+                    new ComplexBoundary(entity, this.withSubAreas, this.administrativeLevel));
+        }
+        return Optional.empty();
+    }
+
     @Override
     public Iterable<ComplexBoundary> find(final Atlas atlas)
     {
@@ -50,6 +66,12 @@ public class ComplexBoundaryFinder implements Finder<ComplexBoundary>
                         this.withSubAreas, this.administrativeLevel));
     }
 
+    @Override
+    public List<ItemType> itemTypes()
+    {
+        return Arrays.asList(ItemType.RELATION, ItemType.AREA);
+    }
+
     /**
      * @param administrativeLevel
      *            If any, the administrative level to focus on only.
@@ -1,10 +1,16 @@
 package org.openstreetmap.atlas.geography.atlas.items.complex.buildings;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
 import org.openstreetmap.atlas.geography.atlas.Atlas;
 import org.openstreetmap.atlas.geography.atlas.items.Area;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
 import org.openstreetmap.atlas.geography.atlas.items.Relation;
 import org.openstreetmap.atlas.geography.atlas.items.RelationMember;
+import org.openstreetmap.atlas.geography.atlas.items.complex.EntityFinder;
 import org.openstreetmap.atlas.geography.atlas.items.complex.Finder;
 import org.openstreetmap.atlas.tags.BuildingTag;
 import org.openstreetmap.atlas.tags.RelationTypeTag;
@@ -16,8 +22,20 @@ import org.openstreetmap.atlas.utilities.collections.MultiIterable;
  *
  * @author matthieun
  */
-public class ComplexBuildingFinder implements Finder<ComplexBuilding>
+public class ComplexBuildingFinder implements EntityFinder<ComplexBuilding>
 {
+    @Override
+    public Optional<ComplexBuilding> convert(final AtlasEntity entity)
+    {
+        if (entity instanceof Area && isBuilding((Area) entity) && isSimple(entity)
+                || entity instanceof Relation && isBuilding((Relation) entity)
+                        && isSimple(entity))
+        {
+            return Optional.of(new ComplexBuilding(entity));
+        }
+        return Optional.empty();
+    }
+
     @Override
     public Iterable<ComplexBuilding> find(final Atlas atlas)
     {
@@ -35,6 +53,12 @@ public class ComplexBuildingFinder implements Finder<ComplexBuilding>
         return new MultiIterable<>(simpleEntities, complexEntities);
     }
 
+    @Override
+    public List<ItemType> itemTypes()
+    {
+        return Arrays.asList(ItemType.AREA, ItemType.RELATION);
+    }
+
     private boolean hasChildAreaAsBuilding(final Relation relation)
     {
         for (final RelationMember member : relation.members())
@@ -12,9 +12,10 @@ import java.util.stream.StreamSupport;
 import org.openstreetmap.atlas.geography.atlas.Atlas;
 import org.openstreetmap.atlas.geography.atlas.items.Area;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
 import org.openstreetmap.atlas.geography.atlas.items.Line;
 import org.openstreetmap.atlas.geography.atlas.items.Relation;
-import org.openstreetmap.atlas.geography.atlas.items.complex.Finder;
+import org.openstreetmap.atlas.geography.atlas.items.complex.EntityFinder;
 import org.openstreetmap.atlas.geography.atlas.items.complex.water.ComplexWaterEntity;
 import org.openstreetmap.atlas.geography.atlas.items.complex.water.WaterType;
 import org.openstreetmap.atlas.tags.RelationTypeTag;
@@ -28,7 +29,7 @@ import org.slf4j.LoggerFactory;
  *
  * @author sbhalekar
  */
-public class ComplexWaterEntityFinder implements Finder<ComplexWaterEntity>
+public class ComplexWaterEntityFinder implements EntityFinder<ComplexWaterEntity>
 {
     private static final Predicate<Relation> RELATION_FILTER = relation -> Validators.isOfType(
             relation, RelationTypeTag.class, RelationTypeTag.MULTIPOLYGON, RelationTypeTag.BOUNDARY,
@@ -73,6 +74,17 @@ public class ComplexWaterEntityFinder implements Finder<ComplexWaterEntity>
         this.waterConfigurationReaders = Arrays.asList(waterConfigurationReaders);
     }
 
+    @Override
+    public Optional<ComplexWaterEntity> convert(final AtlasEntity entity)
+    {
+        if (entity instanceof Line || entity instanceof Area
+                || entity instanceof Relation && RELATION_FILTER.test((Relation) entity))
+        {
+            return processEntity(entity);
+        }
+        return Optional.empty();
+    }
+
     @Override
     public Iterable<ComplexWaterEntity> find(final Atlas atlas)
     {
@@ -91,6 +103,12 @@ public class ComplexWaterEntityFinder implements Finder<ComplexWaterEntity>
         return this.waterConfigurationReaders;
     }
 
+    @Override
+    public List<ItemType> itemTypes()
+    {
+        return Arrays.asList(ItemType.LINE, ItemType.AREA, ItemType.RELATION);
+    }
+
     /**
      * Convert {@link AtlasEntity} to an Optional {@link ComplexWaterEntity}. Sometimes an
      * {@link AtlasEntity} might not pass any of the filters in the configuration files. In that
@@ -16,6 +16,8 @@ import org.openstreetmap.atlas.geography.Rectangle;
 import org.openstreetmap.atlas.geography.atlas.AbstractAtlas;
 import org.openstreetmap.atlas.geography.atlas.Atlas;
 import org.openstreetmap.atlas.geography.atlas.AtlasMetaData;
+import org.openstreetmap.atlas.geography.atlas.AtlasProjection;
+import org.openstreetmap.atlas.geography.atlas.AtlasProjection.Content;
 import org.openstreetmap.atlas.geography.atlas.builder.AtlasSize;
 import org.openstreetmap.atlas.geography.atlas.items.Area;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
@@ -33,9 +35,12 @@ import org.openstreetmap.atlas.streaming.resource.WritableResource;
 import org.openstreetmap.atlas.utilities.collections.Iterables;
 import org.openstreetmap.atlas.utilities.collections.Maps;
 import org.openstreetmap.atlas.utilities.collections.StringList;
+import org.openstreetmap.atlas.utilities.compression.StringDictionary;
 import org.openstreetmap.atlas.utilities.maps.LongToIntegerMultiMap;
 import org.openstreetmap.atlas.utilities.maps.LongToLongMap;
 import org.openstreetmap.atlas.utilities.maps.LongToLongMultiMap;
+import org.openstreetmap.atlas.utilities.metrics.LatencyHistogram;
+import org.openstreetmap.atlas.utilities.metrics.MetricsRegistry;
 import org.openstreetmap.atlas.utilities.scalars.Ratio;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -53,6 +58,8 @@ public class MultiAtlas extends AbstractAtlas
     private static final Logger logger = LoggerFactory.getLogger(MultiAtlas.class);
 
     private static final double ARRAY_SIZE_MULTIPLIER = 1.1;
+    private static final LatencyHistogram CONSTRUCTION = MetricsRegistry.global()
+            .latency("atlas.multi.construction");
 
     private final List<Atlas> atlases;
 
@@ -218,6 +225,121 @@ public class MultiAtlas extends AbstractAtlas
         return new MultiAtlas(validAtlases, lotsOfOverlap);
     }
 
+    /**
+     * Load a {@link MultiAtlas} from an {@link Iterable} of {@link PackedAtlas} serialized
+     * resources, that all share the same tag dictionary in memory. See
+     * {@link PackedAtlas#shareTagDictionary(StringDictionary)}.
+     *
+     * @param resources
+     *            The {@link Resource}s to read from (which each contain a serialized
+     *            {@link PackedAtlas}).
+     * @param lotsOfOverlap
+     *            See {@link #loadFromPackedAtlas(Iterable, boolean)}
+     * @param tagDictionary
+     *            The tag dictionary to share, usually from
+     *            {@link org.openstreetmap.atlas.geography.atlas.packed.SharedTagDictionary}
+     * @return The deserialized {@link MultiAtlas}
+     */
+    public static MultiAtlas loadFromPackedAtlas(final Iterable<? extends Resource> resources,
+            final boolean lotsOfOverlap, final StringDictionary tagDictionary)
+    {
+        if (Iterables.size(resources) == 0)
+        {
+            throw new CoreException("Can't create an atlas from zero resources");
+        }
+        return new MultiAtlas(Iterables.translate(resources, resource ->
+        {
+            final PackedAtlas atlas;
+            try
+            {
+                atlas = PackedAtlas.load(resource);
+            }
+            catch (final Exception exception)
+            {
+                throw new CoreException("Failed to load an atlas from {} with name {}",
+                        resource.getClass().getName(), resource.getName(), exception);
+            }
+            atlas.shareTagDictionary(tagDictionary);
+            return atlas;
+        }), lotsOfOverlap);
+    }
+
+    /**
+     * Load a {@link MultiAtlas} from an {@link Iterable} of {@link PackedAtlas} serialized
+     * resources, each loaded with the same projection. See
+     * {@link PackedAtlas#load(Resource, AtlasProjection)}.
+     *
+     * @param resources
+     *            The {@link Resource}s to read from (which each contain a serialized
+     *            {@link PackedAtlas}).
+     * @param projection
+     *            The parts of the {@link PackedAtlas}es to load. The {@link MultiAtlas} indexes the
+     *            geometry of all the entities, so the projection needs to include it.
+     * @return The deserialized {@link MultiAtlas}
+     */
+    public static MultiAtlas loadFromPackedAtlas(final Iterable<? extends Resource> resources,
+            final AtlasProjection projection)
+    {
+        if (!projection.includes(Content.GEOMETRY))
+        {
+            throw new CoreException("A MultiAtlas cannot be loaded without geometry: {}",
+                    projection);
+        }
+        if (Iterables.size(resources) == 0)
+        {
+            throw new CoreException("Can't create an atlas from zero resources");
+        }
+        return new MultiAtlas(Iterables.translate(resources,
+                resource -> loadPackedAtlas(resource, projection)), false);
+    }
+
+    /**
+     * Load a {@link MultiAtlas} from an {@link Iterable} of {@link PackedAtlas} serialized
+     * resources, loading many of them at the same time.
+     *
+     * @param resources
+     *            The {@link Resource}s to read from (which each contain a serialized
+     *            {@link PackedAtlas}).
+     * @param projection
+     *            See {@link #loadFromPackedAtlas(Iterable, AtlasProjection)}
+     * @param loader
+     *            The {@link ParallelAtlasLoader} to load the {@link PackedAtlas}es with
+     * @return The deserialized {@link MultiAtlas}
+     */
+    public static MultiAtlas loadFromPackedAtlas(final Iterable<? extends Resource> resources,
+            final AtlasProjection projection, final ParallelAtlasLoader loader)
+    {
+        if (!projection.includes(Content.GEOMETRY))
+        {
+            throw new CoreException("A MultiAtlas cannot be loaded without geometry: {}",
+                    projection);
+        }
+        final List<Atlas> atlases = loader.loadAtlases(resources,
+                resource -> loadPackedAtlas(resource, projection));
+        if (atlases.isEmpty())
+        {
+            throw new CoreException("Can't create an atlas from zero resources");
+        }
+        return new MultiAtlas(atlases, false);
+    }
+
+    /**
+     * Load a {@link MultiAtlas} from an {@link Iterable} of {@link PackedAtlas} serialized
+     * resources, loading many of them at the same time.
+     *
+     * @param resources
+     *            The {@link Resource}s to read from (which each contain a serialized
+     *            {@link PackedAtlas}).
+     * @param loader
+     *            The {@link ParallelAtlasLoader} to load the {@link PackedAtlas}es with
+     * @return The deserialized {@link MultiAtlas}
+     */
+    public static MultiAtlas loadFromPackedAtlas(final Iterable<? extends Resource> resources,
+            final ParallelAtlasLoader loader)
+    {
+        return loadFromPackedAtlas(resources, AtlasProjection.all(), loader);
+    }
+
     /**
      * Load a {@link MultiAtlas} from an {@link Iterable} of {@link PackedAtlas} serialized
      * resources
@@ -235,6 +357,23 @@ public class MultiAtlas extends AbstractAtlas
         return loadFromPackedAtlas(resources, false, filter);
     }
 
+    /**
+     * Load a {@link MultiAtlas} from an {@link Iterable} of {@link PackedAtlas} serialized
+     * resources, that all share the same tag dictionary in memory.
+     *
+     * @param resources
+     *            The {@link Resource}s to read from (which each contain a serialized
+     *            {@link PackedAtlas}).
+     * @param tagDictionary
+     *            The tag dictionary to share
+     * @return The deserialized {@link MultiAtlas}
+     */
+    public static MultiAtlas loadFromPackedAtlas(final Iterable<? extends Resource> resources,
+            final StringDictionary tagDictionary)
+    {
+        return loadFromPackedAtlas(resources, false, tagDictionary);
+    }
+
     /**
      * Load a {@link MultiAtlas} from {@link PackedAtlas} serialized resources
      *
@@ -248,6 +387,20 @@ public class MultiAtlas extends AbstractAtlas
         return loadFromPackedAtlas(Iterables.iterable(resources), false);
     }
 
+    private static PackedAtlas loadPackedAtlas(final Resource resource,
+            final AtlasProjection projection)
+    {
+        try
+        {
+            return PackedAtlas.load(resource, projection);
+        }
+        catch (final Exception exception)
+        {
+            throw new CoreException("Failed to load an atlas from {} with name {}",
+                    resource.getClass().getName(), resource.getName(), exception);
+        }
+    }
+
     /**
      * Create an {@link Atlas} from stitching many other {@link Atlas}
      *
@@ -335,6 +488,7 @@ public class MultiAtlas extends AbstractAtlas
         {
             throw new CoreException("An Atlas is Located, and therefore cannot be empty.");
         }
+        final long constructionStart = CONSTRUCTION.start();
         this.atlases = atlases;
         this.atlasSpatialIndex = newPackedAtlasSpatialIndex();
         long numberOfNodes;
@@ -512,6 +666,7 @@ public class MultiAtlas extends AbstractAtlas
 
         // Update the meta data.
         this.metaData = mergeMetaData();
+        CONSTRUCTION.stop(constructionStart);
     }
 
     @Override
@@ -0,0 +1,222 @@
+package org.openstreetmap.atlas.geography.atlas.multi;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.streaming.resource.Resource;
+import org.openstreetmap.atlas.utilities.scalars.Duration;
+import org.openstreetmap.atlas.utilities.time.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load many {@link Atlas} shards concurrently on a {@link ForkJoinPool}, before stitching them in
+ * a {@link MultiAtlas}. Each shard is loaded, and then its bounds are computed, which reads all the
+ * identifiers and geometry the {@link MultiAtlas} would otherwise read serially. The results keep
+ * the order of the resources.
+ * <p>
+ * By default, the first shard that fails to load fails the whole load. When skipping failures,
+ * like {@link org.openstreetmap.atlas.geography.atlas.AtlasResourceLoader#safeLoad}, each failed
+ * shard is logged and left out, and the others are still loaded.
+ *
+ * @author agent
+ */
+public class ParallelAtlasLoader
+{
+    /**
+     * The outcome of loading one {@link Resource}
+     *
+     * @author agent
+     */
+    public static final class LoadedResource
+    {
+        private final Resource resource;
+        private final Atlas atlas;
+        private final RuntimeException failure;
+        private final Duration duration;
+
+        private LoadedResource(final Resource resource, final Atlas atlas,
+                final RuntimeException failure, final Duration duration)
+        {
+            this.resource = resource;
+            this.atlas = atlas;
+            this.failure = failure;
+            this.duration = duration;
+        }
+
+        /**
+         * @return The loaded {@link Atlas}, empty if loading failed or there was nothing to load
+         */
+        public Optional<Atlas> getAtlas()
+        {
+            return Optional.ofNullable(this.atlas);
+        }
+
+        /**
+         * @return The time it took to load the {@link Atlas}, or to fail to
+         */
+        public Duration getDuration()
+        {
+            return this.duration;
+        }
+
+        public Optional<RuntimeException> getFailure()
+        {
+            return Optional.ofNullable(this.failure);
+        }
+
+        public Resource getResource()
+        {
+            return this.resource;
+        }
+
+        @Override
+        public String toString()
+        {
+            final String outcome;
+            if (this.failure != null)
+            {
+                outcome = " failed";
+            }
+            else
+            {
+                outcome = this.atlas == null ? " was empty" : " loaded";
+            }
+            return this.resource.getName() + outcome + " in " + this.duration;
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelAtlasLoader.class);
+
+    private final int threads;
+    private boolean skipFailures = false;
+
+    /**
+     * Use as many threads as available processors
+     */
+    public ParallelAtlasLoader()
+    {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads
+     *            The number of shards to load at the same time
+     */
+    public ParallelAtlasLoader(final int threads)
+    {
+        if (threads < 1)
+        {
+            throw new CoreException("Invalid number of threads: {}", threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * @param resources
+     *            The {@link Resource}s to load
+     * @param loader
+     *            How to load one {@link Atlas} from a {@link Resource}. It can return null when a
+     *            {@link Resource} has nothing to load.
+     * @return The outcome of loading each {@link Resource}, in the order of the {@link Resource}s
+     */
+    public List<LoadedResource> load(final Iterable<? extends Resource> resources,
+            final Function<Resource, Atlas> loader)
+    {
+        final Time start = Time.now();
+        final List<LoadedResource> result = new ArrayList<>();
+        final ForkJoinPool pool = new ForkJoinPool(this.threads);
+        try
+        {
+            final List<ForkJoinTask<LoadedResource>> tasks = new ArrayList<>();
+            for (final Resource resource : resources)
+            {
+                tasks.add(pool.submit(() -> loadOne(resource, loader)));
+            }
+            for (final ForkJoinTask<LoadedResource> task : tasks)
+            {
+                final LoadedResource loaded = task.join();
+                if (!this.skipFailures && loaded.getFailure().isPresent())
+                {
+                    throw loaded.getFailure().get();
+                }
+                result.add(loaded);
+            }
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+        final long loadedCount = result.stream().filter(loaded -> loaded.getAtlas().isPresent())
+                .count();
+        logger.info("Loaded {} of {} resources with {} threads in {}, slowest: {}",
+                loadedCount, result.size(), this.threads, start.elapsedSince(),
+                result.stream().max(Comparator.comparing(LoadedResource::getDuration))
+                        .map(LoadedResource::toString).orElse("none"));
+        return result;
+    }
+
+    /**
+     * @param resources
+     *            The {@link Resource}s to load
+     * @param loader
+     *            How to load one {@link Atlas} from a {@link Resource}. It can return null when a
+     *            {@link Resource} has nothing to load.
+     * @return The successfully loaded {@link Atlas}es, in the order of the {@link Resource}s
+     */
+    public List<Atlas> loadAtlases(final Iterable<? extends Resource> resources,
+            final Function<Resource, Atlas> loader)
+    {
+        return load(resources, loader).stream().map(LoadedResource::getAtlas)
+                .filter(Optional::isPresent).map(Optional::get).collect(Collectors.toList());
+    }
+
+    /**
+     * @param skipFailures
+     *            True to leave out the shards that fail to load, false to fail the whole load
+     * @return This {@link ParallelAtlasLoader}
+     */
+    public ParallelAtlasLoader withSkipFailures(final boolean skipFailures)
+    {
+        this.skipFailures = skipFailures;
+        return this;
+    }
+
+    private LoadedResource loadOne(final Resource resource,
+            final Function<Resource, Atlas> loader)
+    {
+        final Time start = Time.now();
+        try
+        {
+            final Atlas atlas = loader.apply(resource);
+            if (atlas != null)
+            {
+                // Read what the MultiAtlas needs from each shard while still in parallel
+                atlas.bounds();
+            }
+            final LoadedResource result = new LoadedResource(resource, atlas, null,
+                    start.elapsedSince());
+            logger.debug("{}", result);
+            return result;
+        }
+        catch (final RuntimeException exception)
+        {
+            final LoadedResource result = new LoadedResource(resource, null, exception,
+                    start.elapsedSince());
+            if (this.skipFailures)
+            {
+                logger.error("Could not load atlas from {}, skipping it", resource.getName(),
+                        exception);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.openstreetmap.atlas.geography.atlas.packed;
+
+import java.util.function.LongFunction;
+import java.util.function.ToIntFunction;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Thread-safe cache of decoded geometries, keyed by array index. The cache is bounded by the total
+ * number of vertices of the geometries it holds, and can optionally hold its values through soft
+ * references so the garbage collector can reclaim them under memory pressure.
+ *
+ * @param <V>
+ *            The geometry type
+ * @author agent
+ */
+public class GeometryCache<V>
+{
+    // Default bound, in total number of vertices
+    public static final long DEFAULT_MAXIMUM_VERTICES = 5_000_000L;
+
+    private final Cache<Long, V> cache;
+
+    /**
+     * @param maximumVertices
+     *            The maximum total number of vertices held by the cache
+     * @param softValues
+     *            True to hold the geometries through soft references
+     * @param vertices
+     *            The number of vertices of a geometry
+     */
+    public GeometryCache(final long maximumVertices, final boolean softValues,
+            final ToIntFunction<V> vertices)
+    {
+        final CacheBuilder<Long, V> builder = CacheBuilder.newBuilder()
+                .maximumWeight(maximumVertices)
+                .weigher((final Long index, final V geometry) -> vertices.applyAsInt(geometry))
+                .recordStats();
+        if (softValues)
+        {
+            builder.softValues();
+        }
+        this.cache = builder.build();
+    }
+
+    /**
+     * Get a geometry from the cache, or decode it and add it to the cache. Two threads asking for
+     * the same missing geometry at the same time might both decode it.
+     *
+     * @param index
+     *            The index of the geometry
+     * @param decoder
+     *            The function decoding the geometry when it is not in the cache. If it returns null,
+     *            nothing is cached.
+     * @return The geometry
+     */
+    public V get(final long index, final LongFunction<V> decoder)
+    {
+        final V cached = this.cache.getIfPresent(index);
+        if (cached != null)
+        {
+            return cached;
+        }
+        final V result = decoder.apply(index);
+        if (result != null)
+        {
+            this.cache.put(index, result);
+        }
+        return result;
+    }
+
+    public long hitCount()
+    {
+        return stats().hitCount();
+    }
+
+    public void invalidateAll()
+    {
+        this.cache.invalidateAll();
+    }
+
+    public long missCount()
+    {
+        return stats().missCount();
+    }
+
+    /**
+     * @return The approximate number of geometries in the cache
+     */
+    public long size()
+    {
+        return this.cache.size();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "GeometryCache [size=" + size() + ", " + stats() + "]";
+    }
+
+    private CacheStats stats()
+    {
+        return this.cache.stats();
+    }
+}
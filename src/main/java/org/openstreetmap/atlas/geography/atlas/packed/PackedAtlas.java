@@ -1,8 +1,11 @@
 package org.openstreetmap.atlas.geography.atlas.packed;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.EnumMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -12,6 +15,8 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import org.locationtech.jts.geom.MultiPolygon;
@@ -22,9 +27,12 @@ import org.openstreetmap.atlas.geography.Location;
 import org.openstreetmap.atlas.geography.PolyLine;
 import org.openstreetmap.atlas.geography.Polygon;
 import org.openstreetmap.atlas.geography.Rectangle;
+import org.openstreetmap.atlas.geography.StringCompressedPolyLine;
+import org.openstreetmap.atlas.geography.StringCompressedPolygon;
 import org.openstreetmap.atlas.geography.atlas.AbstractAtlas;
 import org.openstreetmap.atlas.geography.atlas.Atlas;
 import org.openstreetmap.atlas.geography.atlas.AtlasMetaData;
+import org.openstreetmap.atlas.geography.atlas.AtlasProjection;
 import org.openstreetmap.atlas.geography.atlas.builder.AtlasSize;
 import org.openstreetmap.atlas.geography.atlas.exception.AtlasIntegrityException;
 import org.openstreetmap.atlas.geography.atlas.items.Area;
@@ -42,6 +50,7 @@ import org.openstreetmap.atlas.streaming.compression.Decompressor;
 import org.openstreetmap.atlas.streaming.resource.ByteArrayResource;
 import org.openstreetmap.atlas.streaming.resource.Resource;
 import org.openstreetmap.atlas.streaming.resource.WritableResource;
+import org.openstreetmap.atlas.tags.Taggable;
 import org.openstreetmap.atlas.utilities.arrays.ByteArrayOfArrays;
 import org.openstreetmap.atlas.utilities.arrays.IntegerArrayOfArrays;
 import org.openstreetmap.atlas.utilities.arrays.LongArray;
@@ -49,7 +58,7 @@ import org.openstreetmap.atlas.utilities.arrays.LongArrayOfArrays;
 import org.openstreetmap.atlas.utilities.arrays.PolyLineArray;
 import org.openstreetmap.atlas.utilities.arrays.PolygonArray;
 import org.openstreetmap.atlas.utilities.collections.Iterables;
-import org.openstreetmap.atlas.utilities.compression.IntegerDictionary;
+import org.openstreetmap.atlas.utilities.compression.StringDictionary;
 import org.openstreetmap.atlas.utilities.maps.LongToLongMap;
 import org.openstreetmap.atlas.utilities.maps.LongToLongMultiMap;
 import org.openstreetmap.atlas.utilities.scalars.Distance;
@@ -64,6 +73,61 @@ import org.slf4j.LoggerFactory;
  */
 public final class PackedAtlas extends AbstractAtlas
 {
+    /**
+     * The codec that compresses each serialized field of a {@link PackedAtlas} when saving. Loading
+     * detects the codec of each field, so atlases saved with any codec load the same way.
+     *
+     * @author agent
+     */
+    public enum AtlasFieldCompression
+    {
+        // The zip archive deflates each field, which is the historical format
+        DEFLATE(0, Compressor.NONE, Decompressor.NONE),
+        // Much faster to decompress than deflate, but larger
+        LZ4(1, Compressor.LZ4, Decompressor.LZ4),
+        // About as small as deflate, and several times faster to decompress
+        ZSTANDARD(2, Compressor.ZSTANDARD, Decompressor.ZSTANDARD);
+
+        private final int identifier;
+        private final Compressor compressor;
+        private final Decompressor decompressor;
+
+        public static Optional<AtlasFieldCompression> forIdentifier(final int identifier)
+        {
+            for (final AtlasFieldCompression compression : values())
+            {
+                if (compression.identifier == identifier)
+                {
+                    return Optional.of(compression);
+                }
+            }
+            return Optional.empty();
+        }
+
+        AtlasFieldCompression(final int identifier, final Compressor compressor,
+                final Decompressor decompressor)
+        {
+            this.identifier = identifier;
+            this.compressor = compressor;
+            this.decompressor = decompressor;
+        }
+
+        public Compressor getCompressor()
+        {
+            return this.compressor;
+        }
+
+        public Decompressor getDecompressor()
+        {
+            return this.decompressor;
+        }
+
+        public int getIdentifier()
+        {
+            return this.identifier;
+        }
+    }
+
     /**
      * Serialization format settings for an {@link Atlas}. While the serialization interface for
      * saving is well-defined by the {@link Atlas}, the actual serialization mechanics - as well as
@@ -86,6 +150,7 @@ public final class PackedAtlas extends AbstractAtlas
     protected static final String FIELD_SERIALIZER = "serializer";
     protected static final String FIELD_SAVE_SERIALIZATION_FORMAT = "saveSerializationFormat";
     protected static final String FIELD_LOAD_SERIALIZATION_FORMAT = "loadSerializationFormat";
+    protected static final String FIELD_SAVE_FIELD_COMPRESSION = "saveFieldCompression";
     protected static final String FIELD_CONTAINS_ENHANCED_RELATION_GEOMETRY = "containsEnhancedRelationGeometry";
     protected static final String FIELD_META_DATA = "metaData";
     protected static final String FIELD_DICTIONARY = "dictionary";
@@ -169,6 +234,8 @@ public final class PackedAtlas extends AbstractAtlas
     protected static final String FIELD_RELATION_GEOMETRIES = "relationGeometries";
     private transient Object fieldRelationGeometriesLock = new Object();
     protected static final String FIELD_BUILT_RELATION_GEOMETRIES = "builtRelationGeometries";
+    protected static final String FIELD_BUILT_POLY_LINES = "builtPolyLines";
+    protected static final String FIELD_PROJECTION = "projection";
 
     private static final long serialVersionUID = -7582554057580336684L;
     private static final Logger logger = LoggerFactory.getLogger(PackedAtlas.class);
@@ -179,13 +246,14 @@ public final class PackedAtlas extends AbstractAtlas
     // Serialization formats for saving/loading this PackedAtlas
     private AtlasSerializationFormat saveSerializationFormat = AtlasSerializationFormat.PROTOBUF;
     private AtlasSerializationFormat loadSerializationFormat = AtlasSerializationFormat.PROTOBUF;
+    private AtlasFieldCompression saveFieldCompression = AtlasFieldCompression.DEFLATE;
     private boolean containsEnhancedRelationGeometry = false;
 
     // Meta-Data
     private AtlasMetaData metaData = new AtlasMetaData();
 
-    // Dictionary
-    private final IntegerDictionary<String> dictionary;
+    // Dictionary, which can be replaced by one shared with other atlases
+    private volatile StringDictionary dictionary;
 
     // The OSM (and way-sectioned) edge and node indices
     private final LongArray edgeIdentifiers;
@@ -241,7 +309,12 @@ public final class PackedAtlas extends AbstractAtlas
     private final LongToLongMultiMap relationOsmIdentifierToRelationIdentifiers;
     private final LongArray relationOsmIdentifiers;
     private ByteArrayOfArrays relationGeometries;
-    private transient Map<Long, MultiPolygon> builtRelationGeometries = new HashMap<>();
+    private transient volatile GeometryCache<MultiPolygon> builtRelationGeometries;
+    private transient Object builtRelationGeometriesLock = new Object();
+    // Decoded edge and line polylines, and area polygons. Only when opted in.
+    private transient volatile GeometryCache<PolyLine> builtPolyLines;
+    // Only when loaded with a projection
+    private transient PackedAtlasProjection projection;
 
     // Bounds of the Atlas
     private Rectangle bounds;
@@ -272,6 +345,56 @@ public final class PackedAtlas extends AbstractAtlas
         return result;
     }
 
+    /**
+     * Load a {@link PackedAtlas} from a zip entry resource, reading only the fields an
+     * {@link AtlasProjection} needs. The result is a view of the entities the projection selects,
+     * over the arrays that were read, without any copy. It cannot be saved.
+     *
+     * @param resource
+     *            The {@link Resource} to read from
+     * @param projection
+     *            The parts of the {@link PackedAtlas} to load
+     * @return The deserialized {@link PackedAtlas}
+     */
+    public static PackedAtlas load(final Resource resource, final AtlasProjection projection)
+    {
+        if (projection.isAll())
+        {
+            return load(resource);
+        }
+        final PackedAtlasProjection packedProjection = new PackedAtlasProjection(projection);
+        final PackedAtlas result = PackedAtlasSerializer.load(resource,
+                packedProjection.fields());
+        result.setName(resource.getName());
+        result.project(packedProjection);
+        return result;
+    }
+
+    /**
+     * @param geometry
+     *            A relation's geometry, or null
+     * @return The gzipped WKT encoding of the geometry, as stored in the enhanced relation
+     *         geometries. Null is encoded as an empty text.
+     */
+    static byte[] encodeRelationGeometry(final MultiPolygon geometry)
+    {
+        final ByteArrayResource compressedGeom;
+        final String text;
+        if (geometry == null)
+        {
+            compressedGeom = new ByteArrayResource();
+            text = "";
+        }
+        else
+        {
+            text = geometry.toText();
+            compressedGeom = new ByteArrayResource(text.getBytes().length * (long) Byte.SIZE);
+        }
+        compressedGeom.setCompressor(Compressor.GZIP);
+        compressedGeom.writeAndClose(text);
+        return compressedGeom.readBytesAndClose();
+    }
+
     /**
      * This constructor is used only by the serializer.
      */
@@ -369,7 +492,7 @@ public final class PackedAtlas extends AbstractAtlas
         final int relationHashSize = (int) Math
                 .max(Math.min(relationNumberEstimate / HASH_MODULO_RATIO, Integer.MAX_VALUE), 1);
 
-        this.dictionary = new IntegerDictionary<>();
+        this.dictionary = new StringDictionary();
 
         this.edgeIdentifiers = new LongArray(maximumSize, edgeMemoryBlockSize, subArraySize);
         this.nodeIdentifiers = new LongArray(maximumSize, nodeMemoryBlockSize, subArraySize);
@@ -495,18 +618,14 @@ public final class PackedAtlas extends AbstractAtlas
     @Override
     public Area area(final long identifier)
     {
-        if (this.areaIdentifierToAreaArrayIndex().containsKey(identifier))
-        {
-            return new PackedArea(this, this.areaIdentifierToAreaArrayIndex().get(identifier));
-        }
-        return null;
+        final long index = visibleArrayIndex(ItemType.AREA, identifier);
+        return index == PackedAtlasProjection.MISSING_INDEX ? null : new PackedArea(this, index);
     }
 
     @Override
     public Iterable<Area> areas()
     {
-        return Iterables.indexBasedIterable(this.areaIdentifiers().size(),
-                index -> new PackedArea(this, index));
+        return visibleEntities(ItemType.AREA, index -> new PackedArea(this, index));
     }
 
     @Override
@@ -521,6 +640,23 @@ public final class PackedAtlas extends AbstractAtlas
         return this.bounds;
     }
 
+    /**
+     * Opt in to caching the decoded {@link PolyLine}s of edges and lines, and {@link Polygon}s of
+     * areas. This is worth it when the same items are accessed over and over (routing, repeated
+     * spatial queries...).
+     *
+     * @param maximumVertices
+     *            The maximum total number of vertices to cache. 0 or less disables the cache.
+     * @param softValues
+     *            True to let the garbage collector reclaim cached geometries under memory pressure
+     */
+    public void cachePolyLines(final long maximumVertices, final boolean softValues)
+    {
+        this.builtPolyLines = maximumVertices > 0
+                ? new GeometryCache<>(maximumVertices, softValues, PolyLine::size)
+                : null;
+    }
+
     public boolean containsEnhancedRelationGeometry()
     {
         return this.containsEnhancedRelationGeometry;
@@ -529,18 +665,22 @@ public final class PackedAtlas extends AbstractAtlas
     @Override
     public Edge edge(final long identifier)
     {
-        if (this.edgeIdentifierToEdgeArrayIndex().containsKey(identifier))
-        {
-            return new PackedEdge(this, this.edgeIdentifierToEdgeArrayIndex().get(identifier));
-        }
-        return null;
+        final long index = visibleArrayIndex(ItemType.EDGE, identifier);
+        return index == PackedAtlasProjection.MISSING_INDEX ? null : new PackedEdge(this, index);
     }
 
     @Override
     public Iterable<Edge> edges()
     {
-        return Iterables.indexBasedIterable(this.edgeIdentifiers().size(),
-                index -> new PackedEdge(this, index));
+        return visibleEntities(ItemType.EDGE, index -> new PackedEdge(this, index));
+    }
+
+    /**
+     * @return The codec that compresses each field when saving this {@link PackedAtlas}
+     */
+    public AtlasFieldCompression getSaveFieldCompression()
+    {
+        return this.saveFieldCompression;
     }
 
     /**
@@ -564,21 +704,27 @@ public final class PackedAtlas extends AbstractAtlas
         return this.loadSerializationFormat;
     }
 
+    /**
+     * @return True if this {@link PackedAtlas} was loaded with an {@link AtlasProjection}. It is
+     *         then a view of part of its arrays, and the array indices of its entities do not
+     *         match their positions when iterating.
+     */
+    public boolean isProjected()
+    {
+        return this.projection != null;
+    }
+
     @Override
     public Line line(final long identifier)
     {
-        if (this.lineIdentifierToLineArrayIndex().containsKey(identifier))
-        {
-            return new PackedLine(this, this.lineIdentifierToLineArrayIndex().get(identifier));
-        }
-        return null;
+        final long index = visibleArrayIndex(ItemType.LINE, identifier);
+        return index == PackedAtlasProjection.MISSING_INDEX ? null : new PackedLine(this, index);
     }
 
     @Override
     public Iterable<Line> lines()
     {
-        return Iterables.indexBasedIterable(this.lineIdentifiers().size(),
-                index -> new PackedLine(this, index));
+        return visibleEntities(ItemType.LINE, index -> new PackedLine(this, index));
     }
 
     @Override
@@ -594,97 +740,150 @@ public final class PackedAtlas extends AbstractAtlas
     @Override
     public Node node(final long identifier)
     {
-        if (this.nodeIdentifierToNodeArrayIndex().containsKey(identifier))
-        {
-            return new PackedNode(this, this.nodeIdentifierToNodeArrayIndex().get(identifier));
-        }
-        return null;
+        final long index = visibleArrayIndex(ItemType.NODE, identifier);
+        return index == PackedAtlasProjection.MISSING_INDEX ? null : new PackedNode(this, index);
     }
 
     @Override
     public Iterable<Node> nodes()
     {
-        return Iterables.indexBasedIterable(this.nodeIdentifiers().size(),
-                index -> new PackedNode(this, index));
+        return visibleEntities(ItemType.NODE, index -> new PackedNode(this, index));
     }
 
     @Override
     public long numberOfAreas()
     {
-        return this.areaIdentifiers().size();
+        return numberOfVisible(ItemType.AREA);
     }
 
     @Override
     public long numberOfEdges()
     {
-        return this.edgeIdentifiers().size();
+        return numberOfVisible(ItemType.EDGE);
     }
 
     @Override
     public long numberOfLines()
     {
-        return this.lineIdentifiers().size();
+        return numberOfVisible(ItemType.LINE);
     }
 
     @Override
     public long numberOfNodes()
     {
-        return this.nodeIdentifiers().size();
+        return numberOfVisible(ItemType.NODE);
     }
 
     @Override
     public long numberOfPoints()
     {
-        return this.pointIdentifiers().size();
+        return numberOfVisible(ItemType.POINT);
     }
 
     @Override
     public long numberOfRelations()
     {
-        return this.relationIdentifiers().size();
+        return numberOfVisible(ItemType.RELATION);
     }
 
     @Override
     public Point point(final long identifier)
     {
-        if (this.pointIdentifierToPointArrayIndex().containsKey(identifier))
-        {
-            return new PackedPoint(this, this.pointIdentifierToPointArrayIndex().get(identifier));
-        }
-        return null;
+        final long index = visibleArrayIndex(ItemType.POINT, identifier);
+        return index == PackedAtlasProjection.MISSING_INDEX ? null : new PackedPoint(this, index);
     }
 
     @Override
     public Iterable<Point> points()
     {
-        return Iterables.indexBasedIterable(this.pointIdentifiers().size(),
-                index -> new PackedPoint(this, index));
+        return visibleEntities(ItemType.POINT, index -> new PackedPoint(this, index));
+    }
+
+    /**
+     * @return The cache of decoded edge and line {@link PolyLine}s and area {@link Polygon}s, if
+     *         {@link #cachePolyLines(long, boolean)} opted in.
+     */
+    public Optional<GeometryCache<PolyLine>> polyLineCache()
+    {
+        return Optional.ofNullable(this.builtPolyLines);
     }
 
     @Override
     public Relation relation(final long identifier)
     {
-        if (this.relationIdentifierToRelationArrayIndex().containsKey(identifier))
+        final long index = visibleArrayIndex(ItemType.RELATION, identifier);
+        return index == PackedAtlasProjection.MISSING_INDEX ? null
+                : new PackedRelation(this, index);
+    }
+
+    /**
+     * @return The cache of decoded enhanced relation geometries
+     */
+    public GeometryCache<MultiPolygon> relationGeometryCache()
+    {
+        GeometryCache<MultiPolygon> result = this.builtRelationGeometries;
+        if (result == null)
         {
-            return new PackedRelation(this,
-                    this.relationIdentifierToRelationArrayIndex().get(identifier));
+            synchronized (this.builtRelationGeometriesLock)
+            {
+                if (this.builtRelationGeometries == null)
+                {
+                    this.builtRelationGeometries = new GeometryCache<>(
+                            GeometryCache.DEFAULT_MAXIMUM_VERTICES, false,
+                            MultiPolygon::getNumPoints);
+                }
+                result = this.builtRelationGeometries;
+            }
         }
-        return null;
+        return result;
     }
 
     @Override
     public Iterable<Relation> relations()
     {
-        return Iterables.indexBasedIterable(this.relationIdentifiers().size(),
-                index -> new PackedRelation(this, index));
+        return visibleEntities(ItemType.RELATION, index -> new PackedRelation(this, index));
     }
 
     @Override
     public void save(final WritableResource writableResource)
     {
+        if (this.projection != null)
+        {
+            throw new CoreException("Cannot save {}, which was loaded with {}", this.getName(),
+                    this.projection);
+        }
         new PackedAtlasSerializer(this, writableResource).save();
     }
 
+    /**
+     * Replace the cache of decoded enhanced relation geometries.
+     *
+     * @param maximumVertices
+     *            The maximum total number of vertices to cache
+     * @param softValues
+     *            True to let the garbage collector reclaim cached geometries under memory pressure
+     */
+    public void setRelationGeometryCache(final long maximumVertices, final boolean softValues)
+    {
+        synchronized (this.builtRelationGeometriesLock)
+        {
+            this.builtRelationGeometries = new GeometryCache<>(maximumVertices, softValues,
+                    MultiPolygon::getNumPoints);
+        }
+    }
+
+    /**
+     * Set the codec that compresses each field when saving this {@link PackedAtlas}. With a codec
+     * other than {@link AtlasFieldCompression#DEFLATE}, the zip archive itself is not compressed.
+     *
+     * @param compression
+     *            The codec to use
+     */
+    public void setSaveFieldCompression(final AtlasFieldCompression compression)
+    {
+        this.saveFieldCompression = compression;
+    }
+
     /**
      * Set the serialization format for saving this {@link PackedAtlas}.
      *
@@ -700,6 +899,126 @@ public final class PackedAtlas extends AbstractAtlas
         }
     }
 
+    /**
+     * Encode the tag keys and values, and the relation member roles, of this {@link PackedAtlas}
+     * against a dictionary shared with other {@link PackedAtlas}es, adding the words it does not
+     * have yet. Then all the {@link PackedAtlas}es sharing that dictionary hold a single copy of
+     * each word, and their {@link #tagKeyCodes(ItemType, long)} and
+     * {@link #tagValueCodes(ItemType, long)} can be compared directly.
+     * <p>
+     * When the codes of this {@link PackedAtlas} already match the shared dictionary, for example
+     * when it was saved after sharing the same dictionary, the dictionary is just swapped.
+     * Otherwise all the codes are re-written, which loads all the tags of a lazily loaded
+     * {@link PackedAtlas}.
+     * <p>
+     * Calling this again with the same dictionary does nothing, and concurrent calls wait for each
+     * other. However re-writing the codes is not safe while other threads read the tags of this
+     * {@link PackedAtlas}, so this has to be called on a freshly loaded {@link PackedAtlas},
+     * before it is shared or cached.
+     *
+     * @param shared
+     *            The shared dictionary
+     */
+    public void shareTagDictionary(final StringDictionary shared)
+    {
+        synchronized (this.fieldDictionaryLock)
+        {
+            if (this.projection != null && !this.projection.includesField(FIELD_DICTIONARY))
+            {
+                // Nothing was loaded that is encoded against the dictionary
+                this.dictionary = shared;
+                return;
+            }
+            final StringDictionary current = this.dictionary();
+            if (current == shared)
+            {
+                return;
+            }
+            final int[] codes = new int[current.size()];
+            boolean identity = true;
+            for (int code = 0; code < codes.length; code++)
+            {
+                codes[code] = shared.add(current.word(code));
+                identity &= codes[code] == code;
+            }
+            if (identity)
+            {
+                // The tag stores that are not loaded yet will get the new dictionary when they are
+                for (final PackedTagStore store : new PackedTagStore[] { this.nodeTags,
+                        this.edgeTags, this.areaTags, this.lineTags, this.pointTags,
+                        this.relationTags })
+                {
+                    if (store != null)
+                    {
+                        store.setDictionary(shared);
+                    }
+                }
+            }
+            else
+            {
+                for (final ItemType type : ItemType.values())
+                {
+                    // A projection might not have loaded the tags
+                    if (this.projection == null || this.projection.includesTags(type))
+                    {
+                        this.tagStore(type).recode(codes, shared);
+                    }
+                }
+                if (this.projection == null || this.projection.includes(ItemType.RELATION))
+                {
+                    final IntegerArrayOfArrays roles = this.relationMemberRoles();
+                    for (long index = 0; index < roles.size(); index++)
+                    {
+                        final int[] roleCodes = roles.get(index);
+                        final int[] recoded = new int[roleCodes.length];
+                        for (int member = 0; member < roleCodes.length; member++)
+                        {
+                            recoded[member] = codes[roleCodes[member]];
+                        }
+                        roles.set(index, recoded);
+                    }
+                }
+            }
+            this.dictionary = shared;
+        }
+    }
+
+    /**
+     * @return The dictionary all the tag keys and values of this {@link PackedAtlas} are encoded
+     *         against. This is meant for columnar exports which re-use the codes, and should not be
+     *         modified.
+     */
+    public StringDictionary tagDictionary()
+    {
+        return this.dictionary();
+    }
+
+    /**
+     * @param type
+     *            The type of the entity
+     * @param index
+     *            The array index of the entity
+     * @return A copy of the {@link #tagDictionary()} codes of the entity's tag keys, aligned with
+     *         {@link #tagValueCodes(ItemType, long)}
+     */
+    public int[] tagKeyCodes(final ItemType type, final long index)
+    {
+        return this.tagStore(type).keyCodes(index).clone();
+    }
+
+    /**
+     * @param type
+     *            The type of the entity
+     * @param index
+     *            The array index of the entity
+     * @return A copy of the {@link #tagDictionary()} codes of the entity's tag values, aligned
+     *         with {@link #tagKeyCodes(ItemType, long)}
+     */
+    public int[] tagValueCodes(final ItemType type, final long index)
+    {
+        return this.tagStore(type).valueCodes(index).clone();
+    }
+
     /**
      * Trim this Atlas' arrays with the proper size. WARNING! This could potentially temporarily
      * double the amount of memory used by each array.
@@ -767,15 +1086,8 @@ public final class PackedAtlas extends AbstractAtlas
     {
         synchronized (this.areaIdentifiers)
         {
-            if (this.areaIdentifierToAreaArrayIndex.containsKey(areaIdentifier))
-            {
-                throw new AtlasIntegrityException(
-                        PackedAtlasLogMessages.ALREADY_EXISTS_EXCEPTION_MESSAGE, ItemType.AREA,
-                        areaIdentifier);
-            }
-            final long index = this.areaIdentifiers.size();
-            this.areaIdentifiers.add(areaIdentifier);
-            this.areaIdentifierToAreaArrayIndex.put(areaIdentifier, index);
+            final long index = register(ItemType.AREA, areaIdentifier, this.areaIdentifiers,
+                    this.areaIdentifierToAreaArrayIndex);
 
             this.areaPolygons.add(polygon);
 
@@ -786,37 +1098,45 @@ public final class PackedAtlas extends AbstractAtlas
         }
     }
 
+    /**
+     * Add an area from the raw column values of another {@link PackedAtlas}, without decoding its
+     * geometry nor its tags. Like all the other raw add methods, this does not update the spatial
+     * index, which is then built lazily. It is meant to fill a new {@link PackedAtlas} which is
+     * not queried spatially until it is built.
+     *
+     * @param areaIdentifier
+     *            The area identifier
+     * @param encoding
+     *            The {@link StringCompressedPolygon} encoding of the area's polygon
+     * @param keyCodes
+     *            The tag key codes, in this {@link PackedAtlas}' dictionary
+     * @param valueCodes
+     *            The tag value codes, in this {@link PackedAtlas}' dictionary
+     * @see #tagCodesFrom(PackedAtlas)
+     */
+    protected void addArea(final long areaIdentifier, final byte[] encoding,
+            final int[] keyCodes, final int[] valueCodes)
+    {
+        synchronized (this.areaIdentifiers)
+        {
+            final long index = register(ItemType.AREA, areaIdentifier, this.areaIdentifiers,
+                    this.areaIdentifierToAreaArrayIndex);
+            this.areaPolygons.addEncoding(encoding);
+            this.areaTags.addCodes(index, keyCodes, valueCodes);
+        }
+    }
+
     protected void addEdge(final long edgeIdentifier, final long startNodeIdentifier,
             final long endNodeIdentifier, final PolyLine polyline, final Map<String, String> tags)
     {
         synchronized (this.edgeIdentifiers)
         {
-            if (this.edgeIdentifierToEdgeArrayIndex.containsKey(edgeIdentifier))
-            {
-                throw new AtlasIntegrityException(
-                        PackedAtlasLogMessages.ALREADY_EXISTS_EXCEPTION_MESSAGE, ItemType.EDGE,
-                        edgeIdentifier);
-            }
-            final long index = this.edgeIdentifiers.size();
-            this.edgeIdentifiers.add(edgeIdentifier);
-            this.edgeIdentifierToEdgeArrayIndex.put(edgeIdentifier, index);
+            final long index = register(ItemType.EDGE, edgeIdentifier, this.edgeIdentifiers,
+                    this.edgeIdentifierToEdgeArrayIndex);
 
             this.edgePolyLines.add(polyline);
 
-            // Start Node
-            final long startNodeIndex = this.nodeIdentifierToNodeArrayIndex
-                    .get(startNodeIdentifier);
-            this.edgeStartNodeIndex.add(startNodeIndex);
-
-            // End Node
-            final long endNodeIndex = this.nodeIdentifierToNodeArrayIndex.get(endNodeIdentifier);
-            this.edgeEndNodeIndex.add(endNodeIndex);
-
-            // Node In edges
-            updateNodeEdgesReference(endNodeIndex, this.nodeInEdgesIndices, index);
-
-            // Node Out edges
-            updateNodeEdgesReference(startNodeIndex, this.nodeOutEdgesIndices, index);
+            connectEdge(index, startNodeIdentifier, endNodeIdentifier);
 
             // Spatial Index
             this.getAsNewEdgeSpatialIndex().add(new PackedEdge(this, index));
@@ -826,20 +1146,44 @@ public final class PackedAtlas extends AbstractAtlas
         }
     }
 
+    /**
+     * Add an edge from raw column values. See {@link #addArea(long, byte[], int[], int[])}. The
+     * start and end nodes have to be added already.
+     *
+     * @param edgeIdentifier
+     *            The edge identifier
+     * @param startNodeIdentifier
+     *            The start node identifier
+     * @param endNodeIdentifier
+     *            The end node identifier
+     * @param encoding
+     *            The {@link StringCompressedPolyLine} encoding of the edge's polyline
+     * @param keyCodes
+     *            The tag key codes, in this {@link PackedAtlas}' dictionary
+     * @param valueCodes
+     *            The tag value codes, in this {@link PackedAtlas}' dictionary
+     */
+    protected void addEdge(final long edgeIdentifier, final long startNodeIdentifier,
+            final long endNodeIdentifier, final byte[] encoding, final int[] keyCodes,
+            final int[] valueCodes)
+    {
+        synchronized (this.edgeIdentifiers)
+        {
+            final long index = register(ItemType.EDGE, edgeIdentifier, this.edgeIdentifiers,
+                    this.edgeIdentifierToEdgeArrayIndex);
+            this.edgePolyLines.addEncoding(encoding);
+            connectEdge(index, startNodeIdentifier, endNodeIdentifier);
+            this.edgeTags.addCodes(index, keyCodes, valueCodes);
+        }
+    }
+
     protected void addLine(final long lineIdentifier, final PolyLine polyline,
             final Map<String, String> tags)
     {
         synchronized (this.lineIdentifiers)
         {
-            if (this.lineIdentifierToLineArrayIndex.containsKey(lineIdentifier))
-            {
-                throw new AtlasIntegrityException(
-                        PackedAtlasLogMessages.ALREADY_EXISTS_EXCEPTION_MESSAGE, ItemType.LINE,
-                        lineIdentifier);
-            }
-            final long index = this.lineIdentifiers.size();
-            this.lineIdentifiers.add(lineIdentifier);
-            this.lineIdentifierToLineArrayIndex.put(lineIdentifier, index);
+            final long index = register(ItemType.LINE, lineIdentifier, this.lineIdentifiers,
+                    this.lineIdentifierToLineArrayIndex);
 
             this.linePolyLines.add(polyline);
 
@@ -850,20 +1194,37 @@ public final class PackedAtlas extends AbstractAtlas
         }
     }
 
+    /**
+     * Add a line from raw column values. See {@link #addArea(long, byte[], int[], int[])}.
+     *
+     * @param lineIdentifier
+     *            The line identifier
+     * @param encoding
+     *            The {@link StringCompressedPolyLine} encoding of the line's polyline
+     * @param keyCodes
+     *            The tag key codes, in this {@link PackedAtlas}' dictionary
+     * @param valueCodes
+     *            The tag value codes, in this {@link PackedAtlas}' dictionary
+     */
+    protected void addLine(final long lineIdentifier, final byte[] encoding,
+            final int[] keyCodes, final int[] valueCodes)
+    {
+        synchronized (this.lineIdentifiers)
+        {
+            final long index = register(ItemType.LINE, lineIdentifier, this.lineIdentifiers,
+                    this.lineIdentifierToLineArrayIndex);
+            this.linePolyLines.addEncoding(encoding);
+            this.lineTags.addCodes(index, keyCodes, valueCodes);
+        }
+    }
+
     protected void addNode(final long nodeIdentifier, final Location location,
             final Map<String, String> tags)
     {
         synchronized (this.nodeIdentifiers)
         {
-            if (this.nodeIdentifierToNodeArrayIndex.containsKey(nodeIdentifier))
-            {
-                throw new AtlasIntegrityException(
-                        PackedAtlasLogMessages.ALREADY_EXISTS_EXCEPTION_MESSAGE, ItemType.NODE,
-                        nodeIdentifier);
-            }
-            final long index = this.nodeIdentifiers.size();
-            this.nodeIdentifiers.add(nodeIdentifier);
-            this.nodeIdentifierToNodeArrayIndex.put(nodeIdentifier, index);
+            final long index = register(ItemType.NODE, nodeIdentifier, this.nodeIdentifiers,
+                    this.nodeIdentifierToNodeArrayIndex);
 
             this.nodeLocations.add(location.asConcatenation());
 
@@ -878,20 +1239,39 @@ public final class PackedAtlas extends AbstractAtlas
         }
     }
 
+    /**
+     * Add a node from raw column values. See {@link #addArea(long, byte[], int[], int[])}.
+     *
+     * @param nodeIdentifier
+     *            The node identifier
+     * @param location
+     *            The node's {@link Location#asConcatenation()}
+     * @param keyCodes
+     *            The tag key codes, in this {@link PackedAtlas}' dictionary
+     * @param valueCodes
+     *            The tag value codes, in this {@link PackedAtlas}' dictionary
+     */
+    protected void addNode(final long nodeIdentifier, final long location, final int[] keyCodes,
+            final int[] valueCodes)
+    {
+        synchronized (this.nodeIdentifiers)
+        {
+            final long index = register(ItemType.NODE, nodeIdentifier, this.nodeIdentifiers,
+                    this.nodeIdentifierToNodeArrayIndex);
+            this.nodeLocations.add(location);
+            this.nodeInEdgesIndices.add(new long[0]);
+            this.nodeOutEdgesIndices.add(new long[0]);
+            this.nodeTags.addCodes(index, keyCodes, valueCodes);
+        }
+    }
+
     protected void addPoint(final long pointIdentifier, final Location location,
             final Map<String, String> tags)
     {
         synchronized (this.pointIdentifiers)
         {
-            if (this.pointIdentifierToPointArrayIndex.containsKey(pointIdentifier))
-            {
-                throw new AtlasIntegrityException(
-                        PackedAtlasLogMessages.ALREADY_EXISTS_EXCEPTION_MESSAGE, ItemType.POINT,
-                        pointIdentifier);
-            }
-            final long index = this.pointIdentifiers.size();
-            this.pointIdentifiers.add(pointIdentifier);
-            this.pointIdentifierToPointArrayIndex.put(pointIdentifier, index);
+            final long index = register(ItemType.POINT, pointIdentifier, this.pointIdentifiers,
+                    this.pointIdentifierToPointArrayIndex);
 
             this.pointLocations.add(location.asConcatenation());
 
@@ -902,6 +1282,30 @@ public final class PackedAtlas extends AbstractAtlas
         }
     }
 
+    /**
+     * Add a point from raw column values. See {@link #addArea(long, byte[], int[], int[])}.
+     *
+     * @param pointIdentifier
+     *            The point identifier
+     * @param location
+     *            The point's {@link Location#asConcatenation()}
+     * @param keyCodes
+     *            The tag key codes, in this {@link PackedAtlas}' dictionary
+     * @param valueCodes
+     *            The tag value codes, in this {@link PackedAtlas}' dictionary
+     */
+    protected void addPoint(final long pointIdentifier, final long location,
+            final int[] keyCodes, final int[] valueCodes)
+    {
+        synchronized (this.pointIdentifiers)
+        {
+            final long index = register(ItemType.POINT, pointIdentifier, this.pointIdentifiers,
+                    this.pointIdentifierToPointArrayIndex);
+            this.pointLocations.add(location);
+            this.pointTags.addCodes(index, keyCodes, valueCodes);
+        }
+    }
+
     /**
      * Add a relation to the {@link PackedAtlas}. WARNING: This method will throw
      * {@link AtlasIntegrityException}s in the following cases:
@@ -969,43 +1373,7 @@ public final class PackedAtlas extends AbstractAtlas
                 final ItemType type = types.get(i);
                 typeValues[i] = (byte) type.getValue();
                 roleValues[i] = this.dictionary.add(roles.get(i));
-                final Long memberIdentifier = identifiers.get(i);
-                switch (type)
-                {
-                    case NODE:
-                        addRelationMember("Node", index, memberIdentifier, i, memberIndices,
-                                this.nodeIdentifierToNodeArrayIndex,
-                                this.nodeIndexToRelationIndices);
-                        break;
-                    case EDGE:
-                        addRelationMember("Edge", index, memberIdentifier, i, memberIndices,
-                                this.edgeIdentifierToEdgeArrayIndex,
-                                this.edgeIndexToRelationIndices);
-                        break;
-                    case AREA:
-                        addRelationMember("Area", index, memberIdentifier, i, memberIndices,
-                                this.areaIdentifierToAreaArrayIndex,
-                                this.areaIndexToRelationIndices);
-                        break;
-                    case LINE:
-                        addRelationMember("Line", index, memberIdentifier, i, memberIndices,
-                                this.lineIdentifierToLineArrayIndex,
-                                this.lineIndexToRelationIndices);
-                        break;
-                    case POINT:
-                        addRelationMember("Point", index, memberIdentifier, i, memberIndices,
-                                this.pointIdentifierToPointArrayIndex,
-                                this.pointIndexToRelationIndices);
-                        break;
-                    case RELATION:
-                        addRelationMember("Relation", index, memberIdentifier, i, memberIndices,
-                                this.relationIdentifierToRelationArrayIndex,
-                                this.relationIndexToRelationIndices);
-                        break;
-
-                    default:
-                        throw new CoreException("Cannot recognize ItemType {}", type);
-                }
+                addRelationMember(type, index, identifiers.get(i), i, memberIndices);
             }
 
             if (geometry != null)
@@ -1016,18 +1384,11 @@ public final class PackedAtlas extends AbstractAtlas
                             "Could not add Relation {} with enhanced geometry because it was not enabled for this atlas",
                             relationIdentifier);
                 }
-                final ByteArrayResource compressedGeom = new ByteArrayResource(
-                        geometry.toText().getBytes().length * (long) Byte.SIZE);
-                compressedGeom.setCompressor(Compressor.GZIP);
-                compressedGeom.writeAndClose(geometry.toText());
-                this.relationGeometries.add(compressedGeom.readBytesAndClose());
+                this.relationGeometries.add(encodeRelationGeometry(geometry));
             }
             else if (this.containsEnhancedRelationGeometry)
             {
-                final ByteArrayResource compressedGeom = new ByteArrayResource();
-                compressedGeom.setCompressor(Compressor.GZIP);
-                compressedGeom.writeAndClose("");
-                this.relationGeometries.add(compressedGeom.readBytesAndClose());
+                this.relationGeometries.add(encodeRelationGeometry(null));
             }
             this.relationMemberTypes.add(typeValues);
             this.relationMemberIndices.add(memberIndices);
@@ -1038,6 +1399,73 @@ public final class PackedAtlas extends AbstractAtlas
         }
     }
 
+    /**
+     * Add a relation from raw column values. See {@link #addArea(long, byte[], int[], int[])}. All
+     * the members have to be added already.
+     *
+     * @param relationIdentifier
+     *            The identifier of the relation
+     * @param relationOsmIdentifier
+     *            The original OSM identifier of the relation
+     * @param memberIdentifiers
+     *            The member identifiers
+     * @param memberTypes
+     *            The {@link ItemType} values of the members, in the same order
+     * @param memberRoleCodes
+     *            The member role codes in this {@link PackedAtlas}' dictionary, in the same order
+     * @param keyCodes
+     *            The tag key codes, in this {@link PackedAtlas}' dictionary
+     * @param valueCodes
+     *            The tag value codes, in this {@link PackedAtlas}' dictionary
+     * @param geometry
+     *            The encoded geometry of the relation, see
+     *            {@link #encodeRelationGeometry(MultiPolygon)}. It is ignored when this
+     *            {@link PackedAtlas} does not contain enhanced relation geometry.
+     */
+    protected void addRelation(final long relationIdentifier, final long relationOsmIdentifier,
+            final long[] memberIdentifiers, final byte[] memberTypes, final int[] memberRoleCodes,
+            final int[] keyCodes, final int[] valueCodes, final byte[] geometry)
+    {
+        if (memberIdentifiers.length != memberTypes.length
+                || memberTypes.length != memberRoleCodes.length)
+        {
+            throw new AtlasIntegrityException(
+                    "Different sizes for relation identifiers and types and roles.");
+        }
+        if (memberIdentifiers.length == 0)
+        {
+            throw new AtlasIntegrityException("Cannot add the relation {} with no members",
+                    relationIdentifier);
+        }
+        synchronized (this.relationIdentifiers)
+        {
+            final long index = register(ItemType.RELATION, relationIdentifier,
+                    this.relationIdentifiers, this.relationIdentifierToRelationArrayIndex);
+            this.relationOsmIdentifierToRelationIdentifiers.add(relationOsmIdentifier,
+                    relationIdentifier);
+            this.relationOsmIdentifiers.add(relationOsmIdentifier);
+            final long[] memberIndices = new long[memberIdentifiers.length];
+            for (int member = 0; member < memberIdentifiers.length; member++)
+            {
+                addRelationMember(ItemType.forValue(memberTypes[member]), index,
+                        memberIdentifiers[member], member, memberIndices);
+            }
+            if (this.containsEnhancedRelationGeometry)
+            {
+                this.relationGeometries.add(geometry);
+            }
+            this.relationMemberTypes.add(memberTypes);
+            this.relationMemberIndices.add(memberIndices);
+            this.relationMemberRoles.add(memberRoleCodes);
+            this.relationTags.addCodes(index, keyCodes, valueCodes);
+        }
+    }
+
+    protected byte[] areaEncoding(final long index)
+    {
+        return this.areaPolygons().getEncoding(index);
+    }
+
     protected long areaIdentifier(final long index)
     {
         return this.areaIdentifiers().get(index);
@@ -1045,12 +1473,18 @@ public final class PackedAtlas extends AbstractAtlas
 
     protected Polygon areaPolygon(final long index)
     {
-        return this.areaPolygons().get(index);
+        final GeometryCache<PolyLine> cache = this.builtPolyLines;
+        if (cache == null)
+        {
+            return this.areaPolygons().get(index);
+        }
+        return (Polygon) cache.get(polyLineCacheKey(ItemType.AREA, index),
+                key -> this.areaPolygons().get(index));
     }
 
     protected Set<Relation> areaRelations(final long index)
     {
-        return itemRelations(this.areaIndexToRelationIndices().get(index));
+        return itemRelations(() -> this.areaIndexToRelationIndices().get(index));
     }
 
     protected Map<String, String> areaTags(final long index)
@@ -1058,6 +1492,11 @@ public final class PackedAtlas extends AbstractAtlas
         return this.areaTags().keyValuePairs(index);
     }
 
+    protected byte[] edgeEncoding(final long index)
+    {
+        return this.edgePolyLines().getEncoding(index);
+    }
+
     protected Node edgeEndNode(final long index)
     {
         return new PackedNode(this, this.edgeEndNodeIndex().get(index));
@@ -1070,12 +1509,18 @@ public final class PackedAtlas extends AbstractAtlas
 
     protected PolyLine edgePolyLine(final long index)
     {
-        return this.edgePolyLines().get(index);
+        final GeometryCache<PolyLine> cache = this.builtPolyLines;
+        if (cache == null)
+        {
+            return this.edgePolyLines().get(index);
+        }
+        return cache.get(polyLineCacheKey(ItemType.EDGE, index),
+                key -> this.edgePolyLines().get(index));
     }
 
     protected Set<Relation> edgeRelations(final long index)
     {
-        return itemRelations(this.edgeIndexToRelationIndices().get(index));
+        return itemRelations(() -> this.edgeIndexToRelationIndices().get(index));
     }
 
     protected Node edgeStartNode(final long index)
@@ -1105,9 +1550,13 @@ public final class PackedAtlas extends AbstractAtlas
 
     protected boolean isEmpty()
     {
-        return this.nodeIdentifiers().isEmpty() && this.edgeIdentifiers().isEmpty()
-                && this.areaIdentifiers().isEmpty() && this.lineIdentifiers().isEmpty()
-                && this.pointIdentifiers().isEmpty() && this.relationIdentifiers().isEmpty();
+        return numberOfNodes() == 0 && numberOfEdges() == 0 && numberOfAreas() == 0
+                && numberOfLines() == 0 && numberOfPoints() == 0 && numberOfRelations() == 0;
+    }
+
+    protected byte[] lineEncoding(final long index)
+    {
+        return this.linePolyLines().getEncoding(index);
     }
 
     protected long lineIdentifier(final long index)
@@ -1117,12 +1566,18 @@ public final class PackedAtlas extends AbstractAtlas
 
     protected PolyLine linePolyLine(final long index)
     {
-        return this.linePolyLines().get(index);
+        final GeometryCache<PolyLine> cache = this.builtPolyLines;
+        if (cache == null)
+        {
+            return this.linePolyLines().get(index);
+        }
+        return cache.get(polyLineCacheKey(ItemType.LINE, index),
+                key -> this.linePolyLines().get(index));
     }
 
     protected Set<Relation> lineRelations(final long index)
     {
-        return itemRelations(this.lineIndexToRelationIndices().get(index));
+        return itemRelations(() -> this.lineIndexToRelationIndices().get(index));
     }
 
     protected Map<String, String> lineTags(final long index)
@@ -1224,9 +1679,16 @@ public final class PackedAtlas extends AbstractAtlas
     protected SortedSet<Edge> nodeInEdges(final long index)
     {
         final SortedSet<Edge> result = new TreeSet<>();
+        if (this.projection != null && !this.projection.includes(ItemType.EDGE))
+        {
+            return result;
+        }
         for (final long edgeIndex : this.nodeInEdgesIndices().get(index))
         {
-            result.add(new PackedEdge(this, edgeIndex));
+            if (isVisible(ItemType.EDGE, edgeIndex))
+            {
+                result.add(new PackedEdge(this, edgeIndex));
+            }
         }
         return result;
     }
@@ -1239,16 +1701,23 @@ public final class PackedAtlas extends AbstractAtlas
     protected SortedSet<Edge> nodeOutEdges(final long index)
     {
         final SortedSet<Edge> result = new TreeSet<>();
+        if (this.projection != null && !this.projection.includes(ItemType.EDGE))
+        {
+            return result;
+        }
         for (final long edgeIndex : this.nodeOutEdgesIndices().get(index))
         {
-            result.add(new PackedEdge(this, edgeIndex));
+            if (isVisible(ItemType.EDGE, edgeIndex))
+            {
+                result.add(new PackedEdge(this, edgeIndex));
+            }
         }
         return result;
     }
 
     protected Set<Relation> nodeRelations(final long index)
     {
-        return itemRelations(this.nodeIndexToRelationIndices().get(index));
+        return itemRelations(() -> this.nodeIndexToRelationIndices().get(index));
     }
 
     protected Map<String, String> nodeTags(final long index)
@@ -1268,7 +1737,7 @@ public final class PackedAtlas extends AbstractAtlas
 
     protected Set<Relation> pointRelations(final long index)
     {
-        return itemRelations(this.pointIndexToRelationIndices().get(index));
+        return itemRelations(() -> this.pointIndexToRelationIndices().get(index));
     }
 
     protected Map<String, String> pointTags(final long index)
@@ -1284,7 +1753,10 @@ public final class PackedAtlas extends AbstractAtlas
         {
             final long candidateIndex = this.relationIdentifierToRelationArrayIndex()
                     .get(candidateIdentifier);
-            result.addAll(relationMembers(candidateIndex));
+            if (isVisible(ItemType.RELATION, candidateIndex))
+            {
+                result.addAll(relationMembers(candidateIndex));
+            }
         }
         return new RelationMemberList(result);
     }
@@ -1297,37 +1769,17 @@ public final class PackedAtlas extends AbstractAtlas
         {
             final long candidateIndex = this.relationIdentifierToRelationArrayIndex()
                     .get(candidateIdentifier);
-            result.add(new PackedRelation(this, candidateIndex));
+            if (isVisible(ItemType.RELATION, candidateIndex))
+            {
+                result.add(new PackedRelation(this, candidateIndex));
+            }
         }
         return result;
     }
 
     protected MultiPolygon relationGeometry(final long index)
     {
-        if (this.builtRelationGeometries == null)
-        {
-            this.builtRelationGeometries = new HashMap<>();
-        }
-        if (this.builtRelationGeometries.containsKey(index))
-        {
-            return this.builtRelationGeometries.get(index);
-        }
-        try
-        {
-            final ByteArrayResource compressed = new ByteArrayResource(
-                    this.relationGeometries().get(index).length * (long) Byte.SIZE);
-            compressed.writeAndClose(this.relationGeometries().get(index));
-            compressed.setDecompressor(Decompressor.GZIP);
-            final MultiPolygon geom = (MultiPolygon) new WKTReader()
-                    .read(new String(compressed.readBytesAndClose()));
-            this.builtRelationGeometries.put(index, geom);
-            return geom;
-        }
-        catch (final ParseException exc)
-        {
-            logger.warn("Couldn't deserialized relation geometry for relation {}", index, exc);
-            return null;
-        }
+        return this.relationGeometryCache().get(index, this::decodeRelationGeometry);
     }
 
     protected long relationIdentifier(final long index)
@@ -1354,33 +1806,14 @@ public final class PackedAtlas extends AbstractAtlas
         {
             final ItemType type = ItemType.forValue(typeValue);
             final long memberIndex = this.relationMemberIndices().get(index)[arrayIndex];
-            final String role = this.dictionary()
-                    .word(this.relationMemberRoles().get(index)[arrayIndex]);
-            final AtlasEntity entity;
-            switch (type)
+            // Members left out by a projection are not listed
+            if (isVisible(type, memberIndex))
             {
-                case NODE:
-                    entity = new PackedNode(this, memberIndex);
-                    break;
-                case EDGE:
-                    entity = new PackedEdge(this, memberIndex);
-                    break;
-                case AREA:
-                    entity = new PackedArea(this, memberIndex);
-                    break;
-                case LINE:
-                    entity = new PackedLine(this, memberIndex);
-                    break;
-                case POINT:
-                    entity = new PackedPoint(this, memberIndex);
-                    break;
-                case RELATION:
-                    entity = new PackedRelation(this, memberIndex);
-                    break;
-                default:
-                    throw new CoreException("Invalid member type {}", type);
+                final String role = this.dictionary()
+                        .word(this.relationMemberRoles().get(index)[arrayIndex]);
+                result.add(new RelationMember(role, packedEntity(type, memberIndex),
+                        relationIdentifier(index)));
             }
-            result.add(new RelationMember(role, entity, relationIdentifier(index)));
             arrayIndex++;
         }
         return new RelationMemberList(result);
@@ -1393,7 +1826,7 @@ public final class PackedAtlas extends AbstractAtlas
 
     protected Set<Relation> relationRelations(final long index)
     {
-        return itemRelations(this.relationIndexToRelationIndices().get(index));
+        return itemRelations(() -> this.relationIndexToRelationIndices().get(index));
     }
 
     protected Map<String, String> relationTags(final long index)
@@ -1429,16 +1862,177 @@ public final class PackedAtlas extends AbstractAtlas
         super.setName(name);
     }
 
+    /**
+     * Map all the tag dictionary codes of another {@link PackedAtlas} to codes in this
+     * {@link PackedAtlas}' dictionary, adding the missing words.
+     *
+     * @param source
+     *            The other {@link PackedAtlas}
+     * @return The codes in this {@link PackedAtlas}' dictionary, indexed by the codes in the other
+     *         {@link PackedAtlas}' dictionary
+     */
+    protected int[] tagCodesFrom(final PackedAtlas source)
+    {
+        final StringDictionary sourceDictionary = source.dictionary();
+        final StringDictionary targetDictionary = this.dictionary();
+        final int[] result = new int[sourceDictionary.size()];
+        for (int code = 0; code < result.length; code++)
+        {
+            result[code] = targetDictionary.add(sourceDictionary.word(code));
+        }
+        return result;
+    }
+
+    /**
+     * @param type
+     *            The type of the entity
+     * @param identifier
+     *            The identifier of the entity
+     * @return The array index of the entity, or {@link PackedAtlasProjection#MISSING_INDEX} if it
+     *         does not exist or is not part of the projection
+     */
+    long arrayIndex(final ItemType type, final long identifier)
+    {
+        return visibleArrayIndex(type, identifier);
+    }
+
+    /**
+     * @param source
+     *            Another {@link PackedAtlas}
+     * @param code
+     *            A code in the dictionary of the other {@link PackedAtlas}
+     * @return The code of the same word in this {@link PackedAtlas}' dictionary, which is added if
+     *         missing
+     */
+    int dictionaryCodeFrom(final PackedAtlas source, final int code)
+    {
+        return this.dictionary().add(source.dictionary().word(code));
+    }
+
+    int dictionarySize()
+    {
+        return this.dictionary().size();
+    }
+
+    long edgeEndNodeArrayIndex(final long index)
+    {
+        return this.edgeEndNodeIndex().get(index);
+    }
+
+    long edgeStartNodeArrayIndex(final long index)
+    {
+        return this.edgeStartNodeIndex().get(index);
+    }
+
     ByteArrayOfArrays enhancedRelationGeometries()
     {
         return relationGeometries();
     }
 
+    long identifier(final ItemType type, final long index)
+    {
+        return this.identifiers(type).get(index);
+    }
+
+    /**
+     * @param type
+     *            The type of the entity
+     * @param index
+     *            The array index of the entity
+     * @return The array indices of the relations the entity is a member of
+     */
+    long[] relationIndices(final ItemType type, final long index)
+    {
+        final LongToLongMultiMap indexToRelationIndices;
+        switch (type)
+        {
+            case NODE:
+                indexToRelationIndices = this.nodeIndexToRelationIndices();
+                break;
+            case EDGE:
+                indexToRelationIndices = this.edgeIndexToRelationIndices();
+                break;
+            case AREA:
+                indexToRelationIndices = this.areaIndexToRelationIndices();
+                break;
+            case LINE:
+                indexToRelationIndices = this.lineIndexToRelationIndices();
+                break;
+            case POINT:
+                indexToRelationIndices = this.pointIndexToRelationIndices();
+                break;
+            case RELATION:
+                indexToRelationIndices = this.relationIndexToRelationIndices();
+                break;
+            default:
+                throw new CoreException("Unknown item type {}", type);
+        }
+        final long[] result = indexToRelationIndices.get(index);
+        return result == null ? new long[0] : result;
+    }
+
+    long[] relationMemberArrayIndices(final long index)
+    {
+        return this.relationMemberIndices().get(index);
+    }
+
+    int[] relationMemberRoleCodes(final long index)
+    {
+        return this.relationMemberRoles().get(index);
+    }
+
+    byte[] relationMemberTypeValues(final long index)
+    {
+        return this.relationMemberTypes().get(index);
+    }
+
     void setContainsEnhancedRelationGeometry(final boolean flag)
     {
         this.containsEnhancedRelationGeometry = flag;
     }
 
+    private void addRelationMember(final ItemType type, final long relationIndex,
+            final long memberIdentifier, final int relationMemberListIndex,
+            final long[] relationMemberIndexArray)
+    {
+        switch (type)
+        {
+            case NODE:
+                addRelationMember("Node", relationIndex, memberIdentifier,
+                        relationMemberListIndex, relationMemberIndexArray,
+                        this.nodeIdentifierToNodeArrayIndex, this.nodeIndexToRelationIndices);
+                break;
+            case EDGE:
+                addRelationMember("Edge", relationIndex, memberIdentifier,
+                        relationMemberListIndex, relationMemberIndexArray,
+                        this.edgeIdentifierToEdgeArrayIndex, this.edgeIndexToRelationIndices);
+                break;
+            case AREA:
+                addRelationMember("Area", relationIndex, memberIdentifier,
+                        relationMemberListIndex, relationMemberIndexArray,
+                        this.areaIdentifierToAreaArrayIndex, this.areaIndexToRelationIndices);
+                break;
+            case LINE:
+                addRelationMember("Line", relationIndex, memberIdentifier,
+                        relationMemberListIndex, relationMemberIndexArray,
+                        this.lineIdentifierToLineArrayIndex, this.lineIndexToRelationIndices);
+                break;
+            case POINT:
+                addRelationMember("Point", relationIndex, memberIdentifier,
+                        relationMemberListIndex, relationMemberIndexArray,
+                        this.pointIdentifierToPointArrayIndex, this.pointIndexToRelationIndices);
+                break;
+            case RELATION:
+                addRelationMember("Relation", relationIndex, memberIdentifier,
+                        relationMemberListIndex, relationMemberIndexArray,
+                        this.relationIdentifierToRelationArrayIndex,
+                        this.relationIndexToRelationIndices);
+                break;
+            default:
+                throw new CoreException("Cannot recognize ItemType {}", type);
+        }
+    }
+
     /**
      * Add a {@link RelationMember}
      *
@@ -1505,6 +2099,41 @@ public final class PackedAtlas extends AbstractAtlas
                 this.fieldAreaTagsLock, FIELD_AREA_TAGS);
     }
 
+    private void connectEdge(final long index, final long startNodeIdentifier,
+            final long endNodeIdentifier)
+    {
+        // Start Node
+        final long startNodeIndex = this.nodeIdentifierToNodeArrayIndex.get(startNodeIdentifier);
+        this.edgeStartNodeIndex.add(startNodeIndex);
+
+        // End Node
+        final long endNodeIndex = this.nodeIdentifierToNodeArrayIndex.get(endNodeIdentifier);
+        this.edgeEndNodeIndex.add(endNodeIndex);
+
+        // Node In edges
+        updateNodeEdgesReference(endNodeIndex, this.nodeInEdgesIndices, index);
+
+        // Node Out edges
+        updateNodeEdgesReference(startNodeIndex, this.nodeOutEdgesIndices, index);
+    }
+
+    private MultiPolygon decodeRelationGeometry(final long index)
+    {
+        try
+        {
+            final ByteArrayResource compressed = new ByteArrayResource(
+                    this.relationGeometries().get(index).length * (long) Byte.SIZE);
+            compressed.writeAndClose(this.relationGeometries().get(index));
+            compressed.setDecompressor(Decompressor.GZIP);
+            return (MultiPolygon) new WKTReader().read(new String(compressed.readBytesAndClose()));
+        }
+        catch (final ParseException exc)
+        {
+            logger.warn("Couldn't deserialized relation geometry for relation {}", index, exc);
+            return null;
+        }
+    }
+
     private <T> T deserializedIfNeeded(final Supplier<T> supplier, final Consumer<T> consumer,
             final Object lock, final String fieldName)
     {
@@ -1531,7 +2160,7 @@ public final class PackedAtlas extends AbstractAtlas
         return deserializedIfNeeded(supplier, null, lock, fieldName);
     }
 
-    private IntegerDictionary<String> dictionary()
+    private StringDictionary dictionary()
     {
         return deserializedIfNeeded(() -> this.dictionary, this.fieldDictionaryLock,
                 FIELD_DICTIONARY);
@@ -1580,16 +2209,71 @@ public final class PackedAtlas extends AbstractAtlas
                 this.fieldEdgeTagsLock, FIELD_EDGE_TAGS);
     }
 
-    private Set<Relation> itemRelations(final long[] relationIndices)
+    private LongToLongMap identifierToArrayIndex(final ItemType type)
+    {
+        switch (type)
+        {
+            case NODE:
+                return this.nodeIdentifierToNodeArrayIndex();
+            case EDGE:
+                return this.edgeIdentifierToEdgeArrayIndex();
+            case AREA:
+                return this.areaIdentifierToAreaArrayIndex();
+            case LINE:
+                return this.lineIdentifierToLineArrayIndex();
+            case POINT:
+                return this.pointIdentifierToPointArrayIndex();
+            case RELATION:
+                return this.relationIdentifierToRelationArrayIndex();
+            default:
+                throw new CoreException("Unknown item type {}", type);
+        }
+    }
+
+    private LongArray identifiers(final ItemType type)
+    {
+        switch (type)
+        {
+            case NODE:
+                return this.nodeIdentifiers();
+            case EDGE:
+                return this.edgeIdentifiers();
+            case AREA:
+                return this.areaIdentifiers();
+            case LINE:
+                return this.lineIdentifiers();
+            case POINT:
+                return this.pointIdentifiers();
+            case RELATION:
+                return this.relationIdentifiers();
+            default:
+                throw new CoreException("Unknown item type {}", type);
+        }
+    }
+
+    private boolean isVisible(final ItemType type, final long index)
+    {
+        return this.projection == null || this.projection.isVisible(type, index);
+    }
+
+    private Set<Relation> itemRelations(final Supplier<long[]> relationIndicesSupplier)
     {
         final Set<Relation> result = new LinkedHashSet<>();
+        if (this.projection != null && !this.projection.includes(ItemType.RELATION))
+        {
+            return result;
+        }
+        final long[] relationIndices = relationIndicesSupplier.get();
         if (relationIndices == null)
         {
             return result;
         }
         for (final long relationIndex : relationIndices)
         {
-            result.add(new PackedRelation(this, relationIndex));
+            if (isVisible(ItemType.RELATION, relationIndex))
+            {
+                result.add(new PackedRelation(this, relationIndex));
+            }
         }
         return result;
     }
@@ -1679,6 +2363,36 @@ public final class PackedAtlas extends AbstractAtlas
                 this.fieldNodeTagsLock, FIELD_NODE_TAGS);
     }
 
+    private long numberOfVisible(final ItemType type)
+    {
+        if (this.projection == null)
+        {
+            return this.identifiers(type).size();
+        }
+        return this.projection.size(type, () -> this.identifiers(type).size());
+    }
+
+    private AtlasEntity packedEntity(final ItemType type, final long index)
+    {
+        switch (type)
+        {
+            case NODE:
+                return new PackedNode(this, index);
+            case EDGE:
+                return new PackedEdge(this, index);
+            case AREA:
+                return new PackedArea(this, index);
+            case LINE:
+                return new PackedLine(this, index);
+            case POINT:
+                return new PackedPoint(this, index);
+            case RELATION:
+                return new PackedRelation(this, index);
+            default:
+                throw new CoreException("Unknown item type {}", type);
+        }
+    }
+
     private LongToLongMap pointIdentifierToPointArrayIndex()
     {
         return deserializedIfNeeded(() -> this.pointIdentifierToPointArrayIndex,
@@ -1710,6 +2424,94 @@ public final class PackedAtlas extends AbstractAtlas
                 this.fieldPointTagsLock, FIELD_POINT_TAGS);
     }
 
+    /**
+     * Edges, lines and areas share the same cache: the two lowest bits of the key hold the type.
+     */
+    private long polyLineCacheKey(final ItemType type, final long index)
+    {
+        return index << 2 | type.getValue();
+    }
+
+    /**
+     * Apply a projection to this freshly loaded {@link PackedAtlas}. With a tag predicate, the
+     * visible entities are the matching ones, plus what they depend on: the reverse edges and the
+     * nodes of the visible edges, and the members of the visible relations, recursively.
+     *
+     * @param projection
+     *            The projection this {@link PackedAtlas} was loaded with
+     */
+    private void project(final PackedAtlasProjection projection)
+    {
+        final Optional<Predicate<Taggable>> predicate = projection.getProjection()
+                .getTagPredicate();
+        if (!predicate.isPresent())
+        {
+            this.projection = projection;
+            return;
+        }
+        final Map<ItemType, BitSet> visible = new EnumMap<>(ItemType.class);
+        for (final ItemType type : ItemType.values())
+        {
+            if (projection.includes(type))
+            {
+                final BitSet matches = new BitSet();
+                final long size = this.identifiers(type).size();
+                for (long index = 0; index < size; index++)
+                {
+                    if (predicate.get().test(packedEntity(type, index)))
+                    {
+                        matches.set((int) index);
+                    }
+                }
+                visible.put(type, matches);
+            }
+        }
+        if (projection.includes(ItemType.RELATION))
+        {
+            final BitSet relations = visible.get(ItemType.RELATION);
+            final Deque<Long> toExpand = new ArrayDeque<>();
+            relations.stream().forEach(index -> toExpand.add((long) index));
+            while (!toExpand.isEmpty())
+            {
+                final long relationIndex = toExpand.poll();
+                final byte[] memberTypes = this.relationMemberTypes().get(relationIndex);
+                final long[] memberIndices = this.relationMemberIndices().get(relationIndex);
+                for (int member = 0; member < memberTypes.length; member++)
+                {
+                    final ItemType type = ItemType.forValue(memberTypes[member]);
+                    final int memberIndex = (int) memberIndices[member];
+                    if (visible.containsKey(type) && !visible.get(type).get(memberIndex))
+                    {
+                        visible.get(type).set(memberIndex);
+                        if (type == ItemType.RELATION)
+                        {
+                            toExpand.add((long) memberIndex);
+                        }
+                    }
+                }
+            }
+        }
+        if (projection.includes(ItemType.EDGE))
+        {
+            final BitSet edges = visible.get(ItemType.EDGE);
+            final BitSet nodes = visible.get(ItemType.NODE);
+            // Iterate over a copy, as the reverse edges are added along the way
+            ((BitSet) edges.clone()).stream().forEach(index ->
+            {
+                final long reverseIdentifier = -this.edgeIdentifiers().get(index);
+                if (this.edgeIdentifierToEdgeArrayIndex().containsKey(reverseIdentifier))
+                {
+                    edges.set(this.edgeIdentifierToEdgeArrayIndex().get(reverseIdentifier)
+                            .intValue());
+                }
+                nodes.set(this.edgeStartNodeIndex().get(index).intValue());
+                nodes.set(this.edgeEndNodeIndex().get(index).intValue());
+            });
+        }
+        visible.forEach(projection::setVisible);
+        this.projection = projection;
+    }
+
     private void readObject(final java.io.ObjectInputStream inFile)
             throws IOException, ClassNotFoundException
     {
@@ -1874,6 +2676,29 @@ public final class PackedAtlas extends AbstractAtlas
         {
             this.fieldRelationGeometriesLock = new Object();
         }
+        if (this.builtRelationGeometriesLock == null)
+        {
+            this.builtRelationGeometriesLock = new Object();
+        }
+    }
+
+    /**
+     * Check that an item is not there yet, and add its identifier.
+     *
+     * @return The array index of the new item
+     */
+    private long register(final ItemType type, final long identifier,
+            final LongArray identifiers, final LongToLongMap identifierToArrayIndex)
+    {
+        if (identifierToArrayIndex.containsKey(identifier))
+        {
+            throw new AtlasIntegrityException(
+                    PackedAtlasLogMessages.ALREADY_EXISTS_EXCEPTION_MESSAGE, type, identifier);
+        }
+        final long index = identifiers.size();
+        identifiers.add(identifier);
+        identifierToArrayIndex.put(identifier, index);
+        return index;
     }
 
     private ByteArrayOfArrays relationGeometries()
@@ -1940,6 +2765,27 @@ public final class PackedAtlas extends AbstractAtlas
                 FIELD_RELATION_TAGS);
     }
 
+    private PackedTagStore tagStore(final ItemType type)
+    {
+        switch (type)
+        {
+            case NODE:
+                return this.nodeTags();
+            case EDGE:
+                return this.edgeTags();
+            case AREA:
+                return this.areaTags();
+            case LINE:
+                return this.lineTags();
+            case POINT:
+                return this.pointTags();
+            case RELATION:
+                return this.relationTags();
+            default:
+                throw new CoreException("Unknown item type {}", type);
+        }
+    }
+
     /**
      * Update references for Node in/out edges
      *
@@ -1975,6 +2821,38 @@ public final class PackedAtlas extends AbstractAtlas
         }
     }
 
+    /**
+     * @param type
+     *            The {@link ItemType} of the entity
+     * @param identifier
+     *            The entity identifier
+     * @return The array index of the entity, or {@link PackedAtlasProjection#MISSING_INDEX} if it
+     *         does not exist or is not part of the projection
+     */
+    private long visibleArrayIndex(final ItemType type, final long identifier)
+    {
+        if (this.projection != null && !this.projection.includes(type))
+        {
+            return PackedAtlasProjection.MISSING_INDEX;
+        }
+        final LongToLongMap identifierToArrayIndex = this.identifierToArrayIndex(type);
+        if (!identifierToArrayIndex.containsKey(identifier))
+        {
+            return PackedAtlasProjection.MISSING_INDEX;
+        }
+        final long index = identifierToArrayIndex.get(identifier);
+        return isVisible(type, index) ? index : PackedAtlasProjection.MISSING_INDEX;
+    }
+
+    private <T> Iterable<T> visibleEntities(final ItemType type, final LongFunction<T> entity)
+    {
+        if (this.projection == null)
+        {
+            return Iterables.indexBasedIterable(this.identifiers(type).size(), entity);
+        }
+        return this.projection.entities(type, () -> this.identifiers(type).size(), entity);
+    }
+
     private void writeObject(final java.io.ObjectOutputStream out) throws IOException
     {
         if (this.serializer != null)
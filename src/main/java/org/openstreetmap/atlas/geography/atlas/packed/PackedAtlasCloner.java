@@ -1,5 +1,8 @@
 package org.openstreetmap.atlas.geography.atlas.packed;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -7,17 +10,52 @@ import org.locationtech.jts.geom.MultiPolygon;
 import org.openstreetmap.atlas.geography.atlas.Atlas;
 import org.openstreetmap.atlas.geography.atlas.AtlasMetaData;
 import org.openstreetmap.atlas.geography.atlas.builder.RelationBean;
+import org.openstreetmap.atlas.geography.atlas.items.Edge;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
 import org.openstreetmap.atlas.geography.atlas.items.Relation;
 import org.openstreetmap.atlas.geography.atlas.multi.MultiAtlas;
+import org.openstreetmap.atlas.utilities.threads.Pool;
+import org.openstreetmap.atlas.utilities.threads.Result;
 
 /**
  * Atlas Cloner. Mostly useful to get a {@link MultiAtlas} and clone it into one single
  * {@link PackedAtlas}
+ * <p>
+ * When the source is a {@link PackedAtlas}, or a {@link MultiAtlas} of {@link PackedAtlas}es, the
+ * nodes, edges, areas, lines and points are copied column by column: the encoded geometries are
+ * copied as is, and the tag dictionary codes are re-mapped, without building any intermediate
+ * {@link Map} or geometry. The columns of the different item types are copied in parallel.
  *
  * @author matthieun
  */
 public class PackedAtlasCloner
 {
+    /**
+     * Copy an item from the raw columns of a source {@link PackedAtlas}
+     *
+     * @author agent
+     */
+    @FunctionalInterface
+    private interface ColumnCopier
+    {
+        void copy(PackedAtlas source, long index, long identifier, int[] keyCodes,
+                int[] valueCodes);
+    }
+
+    /**
+     * Read the identifier of an item from a source {@link PackedAtlas}
+     *
+     * @author agent
+     */
+    @FunctionalInterface
+    private interface IdentifierReader
+    {
+        long identifier(PackedAtlas source, long index);
+    }
+
+    // Nodes, areas, lines and points, and then edges
+    private static final int COLUMN_THREADS = 4;
+
     private String shardName = null;
     private Optional<Map<String, String>> additionalMetaDataTags = Optional.empty();
 
@@ -60,16 +98,24 @@ public class PackedAtlasCloner
 
         builder.setMetaData(metaData);
         builder.withEnhancedRelationGeometry();
-        atlas.nodes().forEach(
-                node -> builder.addNode(node.getIdentifier(), node.getLocation(), node.getTags()));
-        atlas.edges().forEach(
-                edge -> builder.addEdge(edge.getIdentifier(), edge.asPolyLine(), edge.getTags()));
-        atlas.areas().forEach(
-                area -> builder.addArea(area.getIdentifier(), area.asPolygon(), area.getTags()));
-        atlas.lines().forEach(
-                line -> builder.addLine(line.getIdentifier(), line.asPolyLine(), line.getTags()));
-        atlas.points().forEach(point -> builder.addPoint(point.getIdentifier(), point.getLocation(),
-                point.getTags()));
+        final List<PackedAtlas> sources = packedSources(atlas);
+        if (sources.isEmpty())
+        {
+            atlas.nodes().forEach(node -> builder.addNode(node.getIdentifier(), node.getLocation(),
+                    node.getTags()));
+            atlas.edges().forEach(edge -> builder.addEdge(edge.getIdentifier(), edge.asPolyLine(),
+                    edge.getTags()));
+            atlas.areas().forEach(area -> builder.addArea(area.getIdentifier(), area.asPolygon(),
+                    area.getTags()));
+            atlas.lines().forEach(line -> builder.addLine(line.getIdentifier(), line.asPolyLine(),
+                    line.getTags()));
+            atlas.points().forEach(point -> builder.addPoint(point.getIdentifier(),
+                    point.getLocation(), point.getTags()));
+        }
+        else
+        {
+            copyColumns(atlas, sources, builder.peek());
+        }
         // It's crucial to add relations in lowest order to highest order, to avoid adding a
         // relation which may contain an un-added sub-relation.
         atlas.relationsLowerOrderFirst().forEach(relation -> addRelation(builder, relation));
@@ -112,4 +158,138 @@ public class PackedAtlasCloner
         }
 
     }
+
+    /**
+     * Copy the nodes, edges, areas, lines and points of the sources, column by column. When the same
+     * item is in multiple sources, the first one wins, like in {@link MultiAtlas}.
+     *
+     * @param atlas
+     *            The atlas being cloned, used to find the start and end nodes of the edges
+     * @param sources
+     *            The {@link PackedAtlas}es the atlas being cloned is made of
+     * @param target
+     *            The new {@link PackedAtlas}
+     */
+    private void copyColumns(final Atlas atlas, final List<PackedAtlas> sources,
+            final PackedAtlas target)
+    {
+        // The dictionary is filled here, so the columns below only read from it.
+        final List<int[]> tagCodes = new ArrayList<>(sources.size());
+        sources.forEach(source -> tagCodes.add(target.tagCodesFrom(source)));
+        final boolean deduplicate = sources.size() > 1;
+        try (Pool pool = new Pool(COLUMN_THREADS, "PackedAtlasCloner"))
+        {
+            final Result<Boolean> nodes = queue(pool,
+                    () -> copyItems(ItemType.NODE, sources, tagCodes, target, deduplicate,
+                            PackedAtlas::nodeIdentifier,
+                            (source, index, identifier, keyCodes, valueCodes) -> target.addNode(
+                                    identifier, source.nodeLocation(index).asConcatenation(),
+                                    keyCodes, valueCodes)));
+            final List<Result<Boolean>> others = new ArrayList<>();
+            others.add(queue(pool,
+                    () -> copyItems(ItemType.AREA, sources, tagCodes, target, deduplicate,
+                            PackedAtlas::areaIdentifier,
+                            (source, index, identifier, keyCodes, valueCodes) -> target.addArea(
+                                    identifier, source.areaEncoding(index), keyCodes,
+                                    valueCodes))));
+            others.add(queue(pool,
+                    () -> copyItems(ItemType.LINE, sources, tagCodes, target, deduplicate,
+                            PackedAtlas::lineIdentifier,
+                            (source, index, identifier, keyCodes, valueCodes) -> target.addLine(
+                                    identifier, source.lineEncoding(index), keyCodes,
+                                    valueCodes))));
+            others.add(queue(pool,
+                    () -> copyItems(ItemType.POINT, sources, tagCodes, target, deduplicate,
+                            PackedAtlas::pointIdentifier,
+                            (source, index, identifier, keyCodes, valueCodes) -> target.addPoint(
+                                    identifier, source.pointLocation(index).asConcatenation(),
+                                    keyCodes, valueCodes))));
+            // The edges need all their nodes
+            nodes.get();
+            others.add(queue(pool,
+                    () -> copyItems(ItemType.EDGE, sources, tagCodes, target, deduplicate,
+                            PackedAtlas::edgeIdentifier,
+                            (source, index, identifier, keyCodes, valueCodes) ->
+                            {
+                                // Use the atlas being cloned, in case it re-maps overlapping nodes
+                                final Edge edge = atlas.edge(identifier);
+                                target.addEdge(identifier, edge.start().getIdentifier(),
+                                        edge.end().getIdentifier(), source.edgeEncoding(index),
+                                        keyCodes, valueCodes);
+                            })));
+            others.forEach(Result::get);
+        }
+    }
+
+    private void copyItems(final ItemType type, final List<PackedAtlas> sources,
+            final List<int[]> tagCodes, final PackedAtlas target, final boolean deduplicate,
+            final IdentifierReader identifiers, final ColumnCopier copier)
+    {
+        for (int sourceIndex = 0; sourceIndex < sources.size(); sourceIndex++)
+        {
+            final PackedAtlas source = sources.get(sourceIndex);
+            final int[] codes = tagCodes.get(sourceIndex);
+            final long size = type.numberOfEntities(source);
+            for (long index = 0; index < size; index++)
+            {
+                final long identifier = identifiers.identifier(source, index);
+                if (deduplicate && target.entity(identifier, type) != null)
+                {
+                    continue;
+                }
+                copier.copy(source, index, identifier,
+                        remap(source.tagKeyCodes(type, index), codes),
+                        remap(source.tagValueCodes(type, index), codes));
+            }
+        }
+    }
+
+    /**
+     * @param atlas
+     *            The atlas to clone
+     * @return The {@link PackedAtlas}es that can be copied column by column to clone the atlas, or
+     *         an empty list if it needs to be cloned item by item.
+     */
+    private List<PackedAtlas> packedSources(final Atlas atlas)
+    {
+        // The entities of a projected PackedAtlas are a subset of its arrays, which cannot be
+        // copied as columns
+        if (atlas instanceof PackedAtlas && !((PackedAtlas) atlas).isProjected())
+        {
+            return Collections.singletonList((PackedAtlas) atlas);
+        }
+        if (atlas instanceof MultiAtlas)
+        {
+            final List<PackedAtlas> result = new ArrayList<>();
+            for (final Atlas subAtlas : ((MultiAtlas) atlas).subAtlases())
+            {
+                if (!(subAtlas instanceof PackedAtlas) || ((PackedAtlas) subAtlas).isProjected())
+                {
+                    return Collections.emptyList();
+                }
+                result.add((PackedAtlas) subAtlas);
+            }
+            return result;
+        }
+        return Collections.emptyList();
+    }
+
+    private Result<Boolean> queue(final Pool pool, final Runnable task)
+    {
+        return pool.queue(() ->
+        {
+            task.run();
+            return true;
+        });
+    }
+
+    private int[] remap(final int[] codes, final int[] mapping)
+    {
+        final int[] result = new int[codes.length];
+        for (int index = 0; index < codes.length; index++)
+        {
+            result[index] = mapping[codes[index]];
+        }
+        return result;
+    }
 }
@@ -0,0 +1,218 @@
+package org.openstreetmap.atlas.geography.atlas.packed;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+import org.openstreetmap.atlas.geography.atlas.AtlasProjection;
+import org.openstreetmap.atlas.geography.atlas.AtlasProjection.Content;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
+
+/**
+ * The state of a {@link PackedAtlas} loaded with an {@link AtlasProjection}: which serialized
+ * fields it needs, and which array indices of each {@link ItemType} are visible when the
+ * projection has a tag predicate.
+ *
+ * @author agent
+ */
+final class PackedAtlasProjection
+{
+    static final long MISSING_INDEX = -1L;
+
+    private static final Map<ItemType, String[]> STRUCTURE_FIELDS = new EnumMap<>(ItemType.class);
+    private static final Map<ItemType, String> TAG_FIELDS = new EnumMap<>(ItemType.class);
+    private static final Map<ItemType, String> GEOMETRY_FIELDS = new EnumMap<>(ItemType.class);
+    private static final Map<ItemType, String> PARENT_RELATION_FIELDS = new EnumMap<>(
+            ItemType.class);
+
+    static
+    {
+        STRUCTURE_FIELDS.put(ItemType.NODE, new String[] { PackedAtlas.FIELD_NODE_IDENTIFIERS,
+                PackedAtlas.FIELD_NODE_IDENTIFIER_TO_NODE_ARRAY_INDEX });
+        STRUCTURE_FIELDS.put(ItemType.EDGE,
+                new String[] { PackedAtlas.FIELD_EDGE_IDENTIFIERS,
+                        PackedAtlas.FIELD_EDGE_IDENTIFIER_TO_EDGE_ARRAY_INDEX,
+                        PackedAtlas.FIELD_EDGE_START_NODE_INDEX,
+                        PackedAtlas.FIELD_EDGE_END_NODE_INDEX,
+                        // The edges of the nodes only exist when the edges do
+                        PackedAtlas.FIELD_NODE_IN_EDGES_INDICES,
+                        PackedAtlas.FIELD_NODE_OUT_EDGES_INDICES });
+        STRUCTURE_FIELDS.put(ItemType.AREA, new String[] { PackedAtlas.FIELD_AREA_IDENTIFIERS,
+                PackedAtlas.FIELD_AREA_IDENTIFIER_TO_AREA_ARRAY_INDEX });
+        STRUCTURE_FIELDS.put(ItemType.LINE, new String[] { PackedAtlas.FIELD_LINE_IDENTIFIERS,
+                PackedAtlas.FIELD_LINE_IDENTIFIER_TO_LINE_ARRAY_INDEX });
+        STRUCTURE_FIELDS.put(ItemType.POINT, new String[] { PackedAtlas.FIELD_POINT_IDENTIFIERS,
+                PackedAtlas.FIELD_POINT_IDENTIFIER_TO_POINT_ARRAY_INDEX });
+        STRUCTURE_FIELDS.put(ItemType.RELATION,
+                new String[] { PackedAtlas.FIELD_RELATION_IDENTIFIERS,
+                        PackedAtlas.FIELD_RELATION_IDENTIFIER_TO_RELATION_ARRAY_INDEX,
+                        PackedAtlas.FIELD_RELATION_MEMBERS_INDICES,
+                        PackedAtlas.FIELD_RELATION_MEMBER_TYPES,
+                        PackedAtlas.FIELD_RELATION_MEMBER_ROLES,
+                        PackedAtlas.FIELD_RELATION_OSM_IDENTIFIERS,
+                        PackedAtlas.FIELD_RELATION_OSM_IDENTIFIER_TO_RELATION_IDENTIFIERS,
+                        // The member roles are in the dictionary
+                        PackedAtlas.FIELD_DICTIONARY });
+
+        TAG_FIELDS.put(ItemType.NODE, PackedAtlas.FIELD_NODE_TAGS);
+        TAG_FIELDS.put(ItemType.EDGE, PackedAtlas.FIELD_EDGE_TAGS);
+        TAG_FIELDS.put(ItemType.AREA, PackedAtlas.FIELD_AREA_TAGS);
+        TAG_FIELDS.put(ItemType.LINE, PackedAtlas.FIELD_LINE_TAGS);
+        TAG_FIELDS.put(ItemType.POINT, PackedAtlas.FIELD_POINT_TAGS);
+        TAG_FIELDS.put(ItemType.RELATION, PackedAtlas.FIELD_RELATION_TAGS);
+
+        GEOMETRY_FIELDS.put(ItemType.NODE, PackedAtlas.FIELD_NODE_LOCATIONS);
+        GEOMETRY_FIELDS.put(ItemType.EDGE, PackedAtlas.FIELD_EDGE_POLY_LINES);
+        GEOMETRY_FIELDS.put(ItemType.AREA, PackedAtlas.FIELD_AREA_POLYGONS);
+        GEOMETRY_FIELDS.put(ItemType.LINE, PackedAtlas.FIELD_LINE_POLYLINES);
+        GEOMETRY_FIELDS.put(ItemType.POINT, PackedAtlas.FIELD_POINT_LOCATIONS);
+        GEOMETRY_FIELDS.put(ItemType.RELATION, PackedAtlas.FIELD_RELATION_GEOMETRIES);
+
+        PARENT_RELATION_FIELDS.put(ItemType.NODE, PackedAtlas.FIELD_NODE_INDEX_TO_RELATION_INDICES);
+        PARENT_RELATION_FIELDS.put(ItemType.EDGE, PackedAtlas.FIELD_EDGE_INDEX_TO_RELATION_INDICES);
+        PARENT_RELATION_FIELDS.put(ItemType.AREA, PackedAtlas.FIELD_AREA_INDEX_TO_RELATION_INDICES);
+        PARENT_RELATION_FIELDS.put(ItemType.LINE, PackedAtlas.FIELD_LINE_INDEX_TO_RELATION_INDICES);
+        PARENT_RELATION_FIELDS.put(ItemType.POINT,
+                PackedAtlas.FIELD_POINT_INDEX_TO_RELATION_INDICES);
+        PARENT_RELATION_FIELDS.put(ItemType.RELATION,
+                PackedAtlas.FIELD_RELATION_INDEX_TO_RELATION_INDICES);
+    }
+
+    private final AtlasProjection projection;
+    private final Set<String> fields;
+    // Absent when all the indices of an included type are visible
+    private final Map<ItemType, BitSet> visibleIndices = new EnumMap<>(ItemType.class);
+    private final Map<ItemType, Long> visibleSizes = new EnumMap<>(ItemType.class);
+
+    PackedAtlasProjection(final AtlasProjection projection)
+    {
+        this.projection = projection;
+        final Set<String> result = new HashSet<>();
+        result.add(PackedAtlas.FIELD_META_DATA);
+        final boolean tags = projection.includes(Content.TAGS)
+                || projection.getTagPredicate().isPresent();
+        if (tags)
+        {
+            result.add(PackedAtlas.FIELD_DICTIONARY);
+        }
+        for (final ItemType type : projection.getItemTypes())
+        {
+            Collections.addAll(result, STRUCTURE_FIELDS.get(type));
+            if (tags)
+            {
+                result.add(TAG_FIELDS.get(type));
+            }
+            if (projection.includes(Content.GEOMETRY))
+            {
+                result.add(GEOMETRY_FIELDS.get(type));
+            }
+            if (projection.includes(Content.RELATIONS) && projection.includes(ItemType.RELATION))
+            {
+                result.add(PARENT_RELATION_FIELDS.get(type));
+            }
+        }
+        this.fields = Collections.unmodifiableSet(result);
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.projection.toString();
+    }
+
+    /**
+     * @param type
+     *            The {@link ItemType}
+     * @param size
+     *            The size of the {@link ItemType}'s arrays, only called when the type is included
+     * @param entity
+     *            The entity at an array index
+     * @param <T>
+     *            The type of the entities
+     * @return The visible entities of the {@link ItemType}
+     */
+    <T> Iterable<T> entities(final ItemType type, final LongSupplier size,
+            final LongFunction<T> entity)
+    {
+        if (!this.projection.includes(type))
+        {
+            return Collections.emptyList();
+        }
+        final BitSet visible = this.visibleIndices.get(type);
+        if (visible == null)
+        {
+            return Iterables.indexBasedIterable(size.getAsLong(), entity);
+        }
+        return () -> visible.stream().mapToObj(index -> entity.apply(index)).iterator();
+    }
+
+    Set<String> fields()
+    {
+        return this.fields;
+    }
+
+    AtlasProjection getProjection()
+    {
+        return this.projection;
+    }
+
+    boolean includes(final ItemType type)
+    {
+        return this.projection.includes(type);
+    }
+
+    boolean includesField(final String field)
+    {
+        return this.fields.contains(field);
+    }
+
+    boolean includesTags(final ItemType type)
+    {
+        return this.fields.contains(TAG_FIELDS.get(type));
+    }
+
+    boolean isVisible(final ItemType type, final long index)
+    {
+        if (!this.projection.includes(type))
+        {
+            return false;
+        }
+        final BitSet visible = this.visibleIndices.get(type);
+        return visible == null || visible.get((int) index);
+    }
+
+    /**
+     * @param type
+     *            The {@link ItemType}
+     * @param visible
+     *            The only visible array indices of that {@link ItemType}
+     */
+    void setVisible(final ItemType type, final BitSet visible)
+    {
+        this.visibleIndices.put(type, visible);
+        this.visibleSizes.put(type, (long) visible.cardinality());
+    }
+
+    /**
+     * @param type
+     *            The {@link ItemType}
+     * @param size
+     *            The size of the {@link ItemType}'s arrays, only called when the type is included
+     * @return The number of visible entities of the {@link ItemType}
+     */
+    long size(final ItemType type, final LongSupplier size)
+    {
+        if (!this.projection.includes(type))
+        {
+            return 0L;
+        }
+        final Long visible = this.visibleSizes.get(type);
+        return visible == null ? size.getAsLong() : visible;
+    }
+}
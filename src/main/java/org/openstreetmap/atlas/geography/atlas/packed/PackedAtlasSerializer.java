@@ -1,5 +1,6 @@
 package org.openstreetmap.atlas.geography.atlas.packed;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -8,9 +9,14 @@ import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
 
+import org.apache.commons.compress.utils.IOUtils;
 import org.openstreetmap.atlas.exception.CoreException;
 import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlas.AtlasFieldCompression;
 import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlas.AtlasSerializationFormat;
 import org.openstreetmap.atlas.proto.ProtoSerializable;
 import org.openstreetmap.atlas.proto.adapters.ProtoAdapter;
@@ -29,6 +35,10 @@ import org.openstreetmap.atlas.utilities.collections.Iterables;
 import org.openstreetmap.atlas.utilities.collections.MultiIterable;
 import org.openstreetmap.atlas.utilities.collections.StreamIterable;
 import org.openstreetmap.atlas.utilities.collections.StringList;
+import org.openstreetmap.atlas.utilities.compression.IntegerDictionary;
+import org.openstreetmap.atlas.utilities.compression.StringDictionary;
+import org.openstreetmap.atlas.utilities.metrics.LatencyHistogram;
+import org.openstreetmap.atlas.utilities.metrics.MetricsRegistry;
 import org.openstreetmap.atlas.utilities.time.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,16 +79,27 @@ public final class PackedAtlasSerializer
 
     public static final String META_DATA_ERROR_MESSAGE = "MetaData not here!";
     private static final Logger logger = LoggerFactory.getLogger(PackedAtlasSerializer.class);
+    /*
+     * The fields compressed with a codec start with this header, followed by the identifier of the
+     * codec. Neither Java serialization nor a non-empty protobuf message start with a 0 byte, so
+     * the fields saved without a codec are told apart.
+     */
+    private static final byte[] FIELD_CODEC_HEADER = { 0, 'A', 'F' };
     // The fields not serialized.
     private static final StringList EXCLUDED_FIELDS = new StringList(PackedAtlas.FIELD_BOUNDS,
             PackedAtlas.FIELD_SERIAL_VERSION_UID, PackedAtlas.FIELD_LOGGER, "$SWITCH_TABLE$",
             PackedAtlas.FIELD_SERIALIZER, PackedAtlas.FIELD_SAVE_SERIALIZATION_FORMAT,
             PackedAtlas.FIELD_LOAD_SERIALIZATION_FORMAT, PackedAtlas.FIELD_PREFIX,
             PackedAtlas.FIELD_CONTAINS_ENHANCED_RELATION_GEOMETRY,
-            PackedAtlas.FIELD_BUILT_RELATION_GEOMETRIES,
+            PackedAtlas.FIELD_BUILT_RELATION_GEOMETRIES, PackedAtlas.FIELD_BUILT_POLY_LINES,
+            PackedAtlas.FIELD_PROJECTION, PackedAtlas.FIELD_SAVE_FIELD_COMPRESSION,
             /* https://stackoverflow.com/a/39037512/1558687 */"$jacocoData");
+    private static final LatencyHistogram FIELD_DESERIALIZATION = MetricsRegistry.global()
+            .latency("atlas.packed.field.deserialization");
     private final PackedAtlas atlas;
     private final ZipResource source;
+    // The only fields that can be read, or null to read all of them
+    private final Set<String> projectedFields;
 
     /**
      * Use reflection to create a {@link PackedAtlas} from a serialized resource.
@@ -88,17 +109,36 @@ public final class PackedAtlasSerializer
      * @return The deserialized {@link PackedAtlas}
      */
     protected static PackedAtlas load(final Resource resource)
+    {
+        return load(resource, null);
+    }
+
+    /**
+     * Use reflection to create a {@link PackedAtlas} from a serialized resource, reading only some
+     * of its fields. When the resource does not allow random access, the other fields are skipped
+     * while reading it.
+     *
+     * @param resource
+     *            The resource
+     * @param projectedFields
+     *            The only fields to read, or null to read all of them. Accessing any other field
+     *            fails.
+     * @return The deserialized {@link PackedAtlas}
+     */
+    protected static PackedAtlas load(final Resource resource, final Set<String> projectedFields)
     {
         // Create an empty Atlas.
         final PackedAtlas atlas = new PackedAtlas();
         // Build the serializer with it
-        final PackedAtlasSerializer serializer = new PackedAtlasSerializer(atlas, resource);
+        final PackedAtlasSerializer serializer = new PackedAtlasSerializer(atlas, resource,
+                projectedFields);
         // Assign the serializer to the Atlas! Then the Atlas will load all the fields depending on
         // demand.
         serializer.assign();
 
         // This is for backwards compatibility and will slow Atlas loading
-        determineAtlasLoadFormat(atlas);
+        determineAtlasLoadFormat(atlas, projectedFields == null
+                || projectedFields.contains(PackedAtlas.FIELD_RELATION_GEOMETRIES));
 
         return atlas;
     }
@@ -107,7 +147,8 @@ public final class PackedAtlasSerializer
      * Try loading the meta data to make sure the data format is appropriate. Keep trying formats
      * until we find the right one
      */
-    private static void determineAtlasLoadFormat(final PackedAtlas atlas)
+    private static void determineAtlasLoadFormat(final PackedAtlas atlas,
+            final boolean checkEnhancedRelationGeometry)
     {
         final AtlasSerializationFormat[] possibleFormats = AtlasSerializationFormat.values();
         for (final AtlasSerializationFormat candidateFormat : possibleFormats)
@@ -131,7 +172,8 @@ public final class PackedAtlasSerializer
              * Now, if we are PROTOBUF, let's check for the enhanced relation geometry that some
              * atlases may contain.
              */
-            if (atlas.getLoadSerializationFormat() == AtlasSerializationFormat.PROTOBUF)
+            if (atlas.getLoadSerializationFormat() == AtlasSerializationFormat.PROTOBUF
+                    && checkEnhancedRelationGeometry)
             {
                 try
                 {
@@ -172,9 +214,16 @@ public final class PackedAtlasSerializer
      *            The resource where to serialize / deserialize from.
      */
     protected PackedAtlasSerializer(final PackedAtlas atlas, final Resource resource)
+    {
+        this(atlas, resource, null);
+    }
+
+    private PackedAtlasSerializer(final PackedAtlas atlas, final Resource resource,
+            final Set<String> projectedFields)
     {
         this.atlas = atlas;
-        if (resource instanceof File && !resource.isGzipped())
+        this.projectedFields = projectedFields;
+        if (resource instanceof File && !resource.isCompressed())
         {
             // Make sure to use ZipFileWritableResource to take advantage of the random access.
             this.source = new ZipFileWritableResource((File) resource);
@@ -217,6 +266,11 @@ public final class PackedAtlasSerializer
                     throw new CoreException(
                             "The PackedAtlasSerializer has not been properly assigned.");
                 }
+                if (this.projectedFields != null && !this.projectedFields.contains(name))
+                {
+                    throw new CoreException("Field {} is not part of the projection of {}",
+                            name, this.atlas.getName());
+                }
                 // If the field is not populated, this will trigger a load (partial or not,
                 // depending on the zip resource)
                 load(name);
@@ -241,6 +295,9 @@ public final class PackedAtlasSerializer
             this.atlas.getSerializer()
                     .ifPresent(PackedAtlasSerializer::deserializeAllFieldsIfNeeded);
             final ZipWritableResource destination = (ZipWritableResource) this.source;
+            // Do not deflate the fields that are already compressed
+            destination.setWriteCompression(
+                    this.atlas.getSaveFieldCompression() == AtlasFieldCompression.DEFLATE);
             // Isolate the metaData field
             final Field metaData = readField(PackedAtlas.FIELD_META_DATA);
             final Iterable<Resource> firstResource = Iterables.from(fieldTranslator(metaData));
@@ -286,14 +343,39 @@ public final class PackedAtlasSerializer
         return this.source instanceof ZipFileWritableResource;
     }
 
-    private OutputStream compress(final OutputStream out) throws IOException
+    private OutputStream compress(final OutputStream out, final String name) throws IOException
     {
-        return out;
+        final AtlasFieldCompression compression = this.atlas.getSaveFieldCompression();
+        // The meta data stays readable without a codec
+        if (compression == AtlasFieldCompression.DEFLATE
+                || PackedAtlas.FIELD_META_DATA.equals(name))
+        {
+            return out;
+        }
+        out.write(FIELD_CODEC_HEADER);
+        out.write(compression.getIdentifier());
+        return compression.getCompressor().compress(out);
     }
 
     private InputStream decompress(final InputStream input) throws IOException
     {
-        return input;
+        final InputStream buffered = new BufferedInputStream(input);
+        buffered.mark(FIELD_CODEC_HEADER.length + 1);
+        final byte[] header = new byte[FIELD_CODEC_HEADER.length];
+        if (IOUtils.readFully(buffered, header) < header.length
+                || !Arrays.equals(FIELD_CODEC_HEADER, header))
+        {
+            buffered.reset();
+            return buffered;
+        }
+        final int identifier = buffered.read();
+        final Optional<AtlasFieldCompression> compression = AtlasFieldCompression
+                .forIdentifier(identifier);
+        if (!compression.isPresent())
+        {
+            throw new CoreException("Unknown field compression {}", identifier);
+        }
+        return compression.get().getDecompressor().decompress(buffered);
     }
 
     private void deserializeAllFields()
@@ -301,6 +383,13 @@ public final class PackedAtlasSerializer
         Iterables.stream(this.source.entries()).forEach(resource ->
         {
             final String name = resource.getName();
+            if (this.projectedFields != null && !this.projectedFields.contains(name))
+            {
+                // Not projected: closing the entry lets the zip stream skip over it, without
+                // decoding it
+                Streams.close(resource.read());
+                return;
+            }
             try
             {
                 final Field field = readField(name);
@@ -375,24 +464,47 @@ public final class PackedAtlasSerializer
             throw new CoreException("{} is not ProtoSerializable", fieldClass.getName(), exception);
         }
 
-        return protoHandle.getProtoAdapter().deserialize(resource.readBytesAndClose());
+        try (InputStream input = decompress(resource.read()))
+        {
+            return protoHandle.getProtoAdapter().deserialize(IOUtils.toByteArray(input));
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("Could not read field {} from {}", fieldName, this.source,
+                    exception);
+        }
     }
 
     private Object deserializeResource(final Resource resource, final String fieldName)
     {
         final AtlasSerializationFormat loadFormat = this.atlas.getLoadSerializationFormat();
         Object result = null;
-        switch (loadFormat)
+        final long start = FIELD_DESERIALIZATION.start();
+        try
         {
-            case JAVA:
-                result = deserializeJavaResource(resource);
-                break;
-            case PROTOBUF:
-                result = deserializeProtoResource(resource, fieldName);
-                break;
-            default:
-                throw new CoreException("Unsupported serialization format {}",
-                        loadFormat.toString());
+            switch (loadFormat)
+            {
+                case JAVA:
+                    result = deserializeJavaResource(resource);
+                    if (result instanceof IntegerDictionary)
+                    {
+                        // Atlases saved before the tag dictionary was a StringDictionary
+                        @SuppressWarnings("unchecked")
+                        final IntegerDictionary<String> legacy = (IntegerDictionary<String>) result;
+                        result = StringDictionary.from(legacy);
+                    }
+                    break;
+                case PROTOBUF:
+                    result = deserializeProtoResource(resource, fieldName);
+                    break;
+                default:
+                    throw new CoreException("Unsupported serialization format {}",
+                            loadFormat.toString());
+            }
+        }
+        finally
+        {
+            FIELD_DESERIALIZATION.stop(start);
         }
         if (result == null)
         {
@@ -524,7 +636,7 @@ public final class PackedAtlasSerializer
         // First pass read, to count the size
         final CounterOutputStream counterOutputStream = new CounterOutputStream();
         try (ObjectOutputStream outCounter = new ObjectOutputStream(
-                compress(new BufferedOutputStream(counterOutputStream))))
+                compress(new BufferedOutputStream(counterOutputStream), name)))
         {
             outCounter.writeObject(field);
         }
@@ -544,7 +656,7 @@ public final class PackedAtlasSerializer
             return resource;
         }
         try (ObjectOutputStream out = new ObjectOutputStream(
-                compress(new BufferedOutputStream(resource.write()))))
+                compress(new BufferedOutputStream(resource.write()), name)))
         {
             out.writeObject(field);
         }
@@ -565,7 +677,7 @@ public final class PackedAtlasSerializer
         final ByteArrayResource resource = new ByteArrayResource(byteContents.length)
                 .withName(name);
 
-        try (BufferedOutputStream out = new BufferedOutputStream(resource.write()))
+        try (OutputStream out = compress(new BufferedOutputStream(resource.write()), name))
         {
             out.write(byteContents);
         }
@@ -0,0 +1,490 @@
+package org.openstreetmap.atlas.geography.atlas.packed;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.openstreetmap.atlas.geography.GeometricSurface;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.builder.AtlasSize;
+import org.openstreetmap.atlas.geography.atlas.items.Area;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.geography.atlas.items.LineItem;
+import org.openstreetmap.atlas.geography.atlas.items.LocationItem;
+import org.openstreetmap.atlas.geography.atlas.sub.AtlasCutType;
+import org.openstreetmap.atlas.geography.atlas.sub.SubAtlasCreator;
+import org.openstreetmap.atlas.utilities.threads.Pool;
+import org.openstreetmap.atlas.utilities.threads.Result;
+import org.openstreetmap.atlas.utilities.time.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cuts a sub {@link Atlas} out of a {@link PackedAtlas} along a boundary, with the same result as
+ * the boundary cuts of {@link SubAtlasCreator}. Instead of materializing every entity and asking
+ * the builder whether it was already added, the items are selected in {@link BitSet}s of array
+ * indices, the relations are found from the parent relations of the selected items, and the
+ * selected items are copied column by column: the encoded geometries are copied as is, and only
+ * the dictionary codes that are used are re-mapped. The work is proportional to the size of the
+ * sub {@link Atlas}, not to the size of the source {@link PackedAtlas}.
+ * <p>
+ * When a hard cut selects an {@link org.openstreetmap.atlas.geography.atlas.items.Edge} without
+ * one of its end {@link org.openstreetmap.atlas.geography.atlas.items.Node}s, which can happen
+ * when a node is exactly on the boundary, the edge is left out instead of failing the cut.
+ *
+ * @author agent
+ */
+public final class PackedSubAtlasCreator
+{
+    /**
+     * Copy a selected item of the source {@link PackedAtlas} to the sub {@link Atlas}
+     *
+     * @author agent
+     */
+    @FunctionalInterface
+    private interface ItemCopier
+    {
+        void copy(int index, long identifier, int[] keyCodes, int[] valueCodes);
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(PackedSubAtlasCreator.class);
+
+    private static final String CUT_START_MESSAGE = "Starting indexed {} of Atlas {} with "
+            + "meta-data {}";
+    private static final String CUT_STOP_MESSAGE = "Finished indexed {} of Atlas {} in {}";
+    private static final String SUB_ATLAS_NAME_POSTFIX = "_sub";
+
+    // One task per item type that is queried spatially
+    private static final int SELECTION_THREADS = 5;
+    // Nodes, areas, lines and points, and then edges
+    private static final int COPY_THREADS = 4;
+    private static final int UNMAPPED = -1;
+    // The gzip trailer ends with the size of the uncompressed data, on 4 bytes
+    private static final int GZIP_SIZE_BYTES = 4;
+
+    private final PackedAtlas source;
+    private final GeometricSurface boundary;
+    private final AtlasCutType cutType;
+    private final Map<ItemType, BitSet> selected = new EnumMap<>(ItemType.class);
+    // The positions of the valid members of each relation to copy, members before their parents
+    private final Map<Integer, BitSet> relationMembers = new LinkedHashMap<>();
+    // The source dictionary codes re-mapped to the sub atlas dictionary
+    private final int[] codes;
+
+    /**
+     * @param atlas
+     *            An {@link Atlas}
+     * @return True if the {@link Atlas} can be cut by this {@link PackedSubAtlasCreator}: a
+     *         {@link PackedAtlas} that is not projected, with at most {@link Integer#MAX_VALUE}
+     *         items of each type
+     */
+    public static boolean canCut(final Atlas atlas)
+    {
+        if (!(atlas instanceof PackedAtlas) || ((PackedAtlas) atlas).isProjected())
+        {
+            return false;
+        }
+        return Arrays.stream(ItemType.values())
+                .allMatch(type -> type.numberOfEntities(atlas) <= Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param atlas
+     *            The {@link PackedAtlas} to cut
+     * @param boundary
+     *            The boundary to cut along
+     * @return The same sub {@link Atlas} as
+     *         {@link SubAtlasCreator#hardCutAllEntities(Atlas, GeometricSurface)}
+     */
+    public static Optional<Atlas> hardCutAllEntities(final PackedAtlas atlas,
+            final GeometricSurface boundary)
+    {
+        return new PackedSubAtlasCreator(atlas, boundary, AtlasCutType.HARD_CUT_ALL).cut();
+    }
+
+    /**
+     * @param atlas
+     *            The {@link PackedAtlas} to cut
+     * @param boundary
+     *            The boundary to cut along
+     * @param hardCutRelations
+     *            True to keep only the relation members fully enclosed in the boundary
+     * @return The same sub {@link Atlas} as
+     *         {@link SubAtlasCreator#softCut(Atlas, GeometricSurface, boolean)}
+     */
+    public static Optional<Atlas> softCut(final PackedAtlas atlas, final GeometricSurface boundary,
+            final boolean hardCutRelations)
+    {
+        return new PackedSubAtlasCreator(atlas, boundary,
+                hardCutRelations ? AtlasCutType.HARD_CUT_RELATIONS_ONLY : AtlasCutType.SOFT_CUT)
+                        .cut();
+    }
+
+    private static boolean isEmptyGeometry(final byte[] encoding)
+    {
+        if (encoding.length < GZIP_SIZE_BYTES)
+        {
+            return true;
+        }
+        for (int index = encoding.length - GZIP_SIZE_BYTES; index < encoding.length; index++)
+        {
+            if (encoding[index] != 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Result<BitSet> selection(final Pool pool, final ItemType type,
+            final Iterable<? extends AtlasEntity> entities, final PackedAtlas atlas)
+    {
+        return pool.queue(() ->
+        {
+            final BitSet result = new BitSet();
+            entities.forEach(entity -> result
+                    .set((int) atlas.arrayIndex(type, entity.getIdentifier())));
+            return result;
+        });
+    }
+
+    private PackedSubAtlasCreator(final PackedAtlas source, final GeometricSurface boundary,
+            final AtlasCutType cutType)
+    {
+        this.source = source;
+        this.boundary = boundary;
+        this.cutType = cutType;
+        this.codes = new int[source.dictionarySize()];
+        Arrays.fill(this.codes, UNMAPPED);
+    }
+
+    private int code(final int sourceCode, final PackedAtlas target)
+    {
+        int result = this.codes[sourceCode];
+        if (result == UNMAPPED)
+        {
+            // Two threads can map the same code at the same time, and then both get the same
+            // code from the synchronized dictionary.
+            result = target.dictionaryCodeFrom(this.source, sourceCode);
+            this.codes[sourceCode] = result;
+        }
+        return result;
+    }
+
+    private int[] codes(final int[] sourceCodes, final PackedAtlas target)
+    {
+        final int[] result = new int[sourceCodes.length];
+        for (int index = 0; index < sourceCodes.length; index++)
+        {
+            result[index] = code(sourceCodes[index], target);
+        }
+        return result;
+    }
+
+    private void copy(final ItemType type, final PackedAtlas target, final ItemCopier copier)
+    {
+        final BitSet indices = this.selected.get(type);
+        for (int index = indices.nextSetBit(0); index >= 0; index = indices.nextSetBit(index + 1))
+        {
+            copier.copy(index, this.source.identifier(type, index),
+                    codes(this.source.tagKeyCodes(type, index), target),
+                    codes(this.source.tagValueCodes(type, index), target));
+        }
+    }
+
+    private void copyItems(final PackedAtlas target)
+    {
+        try (Pool pool = new Pool(COPY_THREADS, "PackedSubAtlasCreator"))
+        {
+            final Result<Boolean> nodes = queue(pool, () -> copy(ItemType.NODE, target,
+                    (index, identifier, keyCodes, valueCodes) -> target.addNode(identifier,
+                            this.source.nodeLocation(index).asConcatenation(), keyCodes,
+                            valueCodes)));
+            final Result<Boolean> areas = queue(pool, () -> copy(ItemType.AREA, target,
+                    (index, identifier, keyCodes, valueCodes) -> target.addArea(identifier,
+                            this.source.areaEncoding(index), keyCodes, valueCodes)));
+            final Result<Boolean> lines = queue(pool, () -> copy(ItemType.LINE, target,
+                    (index, identifier, keyCodes, valueCodes) -> target.addLine(identifier,
+                            this.source.lineEncoding(index), keyCodes, valueCodes)));
+            final Result<Boolean> points = queue(pool, () -> copy(ItemType.POINT, target,
+                    (index, identifier, keyCodes, valueCodes) -> target.addPoint(identifier,
+                            this.source.pointLocation(index).asConcatenation(), keyCodes,
+                            valueCodes)));
+            // The edges need all their nodes
+            nodes.get();
+            final Result<Boolean> edges = queue(pool, () -> copy(ItemType.EDGE, target,
+                    (index, identifier, keyCodes, valueCodes) -> target.addEdge(identifier,
+                            this.source.identifier(ItemType.NODE,
+                                    this.source.edgeStartNodeArrayIndex(index)),
+                            this.source.identifier(ItemType.NODE,
+                                    this.source.edgeEndNodeArrayIndex(index)),
+                            this.source.edgeEncoding(index), keyCodes, valueCodes)));
+            areas.get();
+            lines.get();
+            points.get();
+            edges.get();
+        }
+    }
+
+    private void copyRelations(final PackedAtlas target)
+    {
+        for (final Map.Entry<Integer, BitSet> entry : this.relationMembers.entrySet())
+        {
+            final int relation = entry.getKey();
+            final BitSet validMembers = entry.getValue();
+            final long[] memberIndices = this.source.relationMemberArrayIndices(relation);
+            final byte[] memberTypes = this.source.relationMemberTypeValues(relation);
+            final int[] memberRoles = this.source.relationMemberRoleCodes(relation);
+            final int size = validMembers.cardinality();
+            final long[] identifiers = new long[size];
+            final byte[] types = new byte[size];
+            final int[] roles = new int[size];
+            int member = 0;
+            for (int position = validMembers.nextSetBit(0); position >= 0; position = validMembers
+                    .nextSetBit(position + 1))
+            {
+                identifiers[member] = this.source.identifier(
+                        ItemType.forValue(memberTypes[position]), memberIndices[position]);
+                types[member] = memberTypes[position];
+                roles[member] = code(memberRoles[position], target);
+                member++;
+            }
+            final long identifier = this.source.identifier(ItemType.RELATION, relation);
+            target.addRelation(identifier, this.source.relationOsmIdentifier(relation),
+                    identifiers, types, roles,
+                    codes(this.source.tagKeyCodes(ItemType.RELATION, relation), target),
+                    codes(this.source.tagValueCodes(ItemType.RELATION, relation), target),
+                    relationGeometry(relation, identifier));
+        }
+    }
+
+    private Optional<Atlas> cut()
+    {
+        logger.trace(CUT_START_MESSAGE, this.cutType, this.source.getName(),
+                this.source.metaData());
+        final Time begin = Time.now();
+
+        select();
+        selectRelations();
+
+        final AtlasSize size = new AtlasSize(this.selected.get(ItemType.EDGE).cardinality(),
+                this.selected.get(ItemType.NODE).cardinality(),
+                this.selected.get(ItemType.AREA).cardinality(),
+                this.selected.get(ItemType.LINE).cardinality(),
+                this.selected.get(ItemType.POINT).cardinality(), this.relationMembers.size());
+        final PackedAtlasBuilder builder = new PackedAtlasBuilder().withSizeEstimates(size)
+                .withMetaData(this.source.metaData())
+                .withName(String.format("%s%s", this.source.getName(), SUB_ATLAS_NAME_POSTFIX))
+                .withEnhancedRelationGeometry();
+        copyItems(builder.peek());
+        copyRelations(builder.peek());
+
+        final PackedAtlas result = (PackedAtlas) builder.get();
+        if (result != null)
+        {
+            result.trim();
+        }
+
+        logger.trace(CUT_STOP_MESSAGE, this.cutType, this.source.getName(),
+                begin.elapsedSince());
+        return Optional.ofNullable(result);
+    }
+
+    private boolean encloses(final ItemType type, final long index)
+    {
+        final AtlasEntity entity = this.source.entity(this.source.identifier(type, index), type);
+        switch (type)
+        {
+            case NODE:
+            case POINT:
+                return this.boundary
+                        .fullyGeometricallyEncloses(((LocationItem) entity).getLocation());
+            case LINE:
+            case EDGE:
+                return this.boundary.fullyGeometricallyEncloses(((LineItem) entity).asPolyLine());
+            case AREA:
+                return this.boundary.fullyGeometricallyEncloses(((Area) entity).asPolygon());
+            default:
+                return false;
+        }
+    }
+
+    private boolean isValidMember(final ItemType type, final long index)
+    {
+        if (type == ItemType.RELATION)
+        {
+            // The relation members are selected first
+            return this.relationMembers.containsKey((int) index);
+        }
+        return this.selected.get(type).get((int) index)
+                && (this.cutType != AtlasCutType.HARD_CUT_RELATIONS_ONLY || encloses(type, index));
+    }
+
+    private Result<Boolean> queue(final Pool pool, final Runnable task)
+    {
+        return pool.queue(() ->
+        {
+            task.run();
+            return true;
+        });
+    }
+
+    private byte[] relationGeometry(final int relation, final long identifier)
+    {
+        if (this.source.containsEnhancedRelationGeometry())
+        {
+            final byte[] encoding = this.source.enhancedRelationGeometries().get(relation);
+            if (!isEmptyGeometry(encoding))
+            {
+                return encoding;
+            }
+        }
+        // Computed from all the members in the source atlas, like the relation of the source atlas
+        return PackedAtlas.encodeRelationGeometry(
+                this.source.relation(identifier).asMultiPolygon().orElse(null));
+    }
+
+    /**
+     * Select the nodes, edges, areas, lines and points, with their spatial indices
+     */
+    private void select()
+    {
+        final boolean hardCut = this.cutType == AtlasCutType.HARD_CUT_ALL;
+        final Map<ItemType, Result<BitSet>> results = new EnumMap<>(ItemType.class);
+        try (Pool pool = new Pool(SELECTION_THREADS, "PackedSubAtlasCreator"))
+        {
+            results.put(ItemType.NODE, selection(pool, ItemType.NODE,
+                    this.source.nodesWithin(this.boundary), this.source));
+            results.put(ItemType.EDGE, selection(pool, ItemType.EDGE,
+                    hardCut ? this.source.edgesWithin(this.boundary)
+                            : this.source.edgesIntersecting(this.boundary),
+                    this.source));
+            results.put(ItemType.AREA, selection(pool, ItemType.AREA,
+                    hardCut ? this.source.areasWithin(this.boundary)
+                            : this.source.areasIntersecting(this.boundary),
+                    this.source));
+            results.put(ItemType.LINE, selection(pool, ItemType.LINE,
+                    hardCut ? this.source.linesWithin(this.boundary)
+                            : this.source.linesIntersecting(this.boundary),
+                    this.source));
+            results.put(ItemType.POINT, selection(pool, ItemType.POINT,
+                    this.source.pointsWithin(this.boundary), this.source));
+            results.forEach((type, result) -> this.selected.put(type, result.get()));
+        }
+
+        // Bring in the reverse edges
+        final BitSet edges = this.selected.get(ItemType.EDGE);
+        final BitSet reverseEdges = new BitSet();
+        for (int index = edges.nextSetBit(0); index >= 0; index = edges.nextSetBit(index + 1))
+        {
+            final long identifier = this.source.identifier(ItemType.EDGE, index);
+            final long reverseIndex = identifier == 0 ? PackedAtlasProjection.MISSING_INDEX
+                    : this.source.arrayIndex(ItemType.EDGE, -identifier);
+            if (reverseIndex != PackedAtlasProjection.MISSING_INDEX)
+            {
+                reverseEdges.set((int) reverseIndex);
+            }
+        }
+        edges.or(reverseEdges);
+
+        // A soft cut brings in the end nodes of the edges, a hard cut leaves out the edges
+        // without their end nodes
+        final BitSet nodes = this.selected.get(ItemType.NODE);
+        for (int index = edges.nextSetBit(0); index >= 0; index = edges.nextSetBit(index + 1))
+        {
+            final int start = (int) this.source.edgeStartNodeArrayIndex(index);
+            final int end = (int) this.source.edgeEndNodeArrayIndex(index);
+            if (!hardCut)
+            {
+                nodes.set(start);
+                nodes.set(end);
+            }
+            else if (!nodes.get(start) || !nodes.get(end))
+            {
+                edges.clear(index);
+            }
+        }
+    }
+
+    private void selectRelation(final int relation, final BitSet candidates, final BitSet visited)
+    {
+        if (visited.get(relation))
+        {
+            return;
+        }
+        visited.set(relation);
+        final long[] memberIndices = this.source.relationMemberArrayIndices(relation);
+        final byte[] memberTypes = this.source.relationMemberTypeValues(relation);
+        // Lower order relations first
+        for (int position = 0; position < memberIndices.length; position++)
+        {
+            if (ItemType.forValue(memberTypes[position]) == ItemType.RELATION
+                    && candidates.get((int) memberIndices[position]))
+            {
+                selectRelation((int) memberIndices[position], candidates, visited);
+            }
+        }
+        final BitSet validMembers = new BitSet(memberIndices.length);
+        for (int position = 0; position < memberIndices.length; position++)
+        {
+            if (isValidMember(ItemType.forValue(memberTypes[position]), memberIndices[position]))
+            {
+                validMembers.set(position);
+            }
+        }
+        if (!validMembers.isEmpty())
+        {
+            this.relationMembers.put(relation, validMembers);
+        }
+    }
+
+    /**
+     * Select the relations with at least one valid member, from the relations of the selected
+     * items and their parents
+     */
+    private void selectRelations()
+    {
+        final BitSet candidates = new BitSet();
+        final Deque<Integer> pending = new ArrayDeque<>();
+        for (final Map.Entry<ItemType, BitSet> entry : this.selected.entrySet())
+        {
+            final BitSet indices = entry.getValue();
+            for (int index = indices.nextSetBit(0); index >= 0; index = indices
+                    .nextSetBit(index + 1))
+            {
+                for (final long relation : this.source.relationIndices(entry.getKey(), index))
+                {
+                    if (!candidates.get((int) relation))
+                    {
+                        candidates.set((int) relation);
+                        pending.push((int) relation);
+                    }
+                }
+            }
+        }
+        while (!pending.isEmpty())
+        {
+            for (final long relation : this.source.relationIndices(ItemType.RELATION,
+                    pending.pop()))
+            {
+                if (!candidates.get((int) relation))
+                {
+                    candidates.set((int) relation);
+                    pending.push((int) relation);
+                }
+            }
+        }
+        final BitSet visited = new BitSet();
+        for (int relation = candidates.nextSetBit(0); relation >= 0; relation = candidates
+                .nextSetBit(relation + 1))
+        {
+            selectRelation(relation, candidates, visited);
+        }
+    }
+}
@@ -13,7 +13,7 @@ import org.openstreetmap.atlas.proto.adapters.ProtoAdapter;
 import org.openstreetmap.atlas.proto.adapters.ProtoPackedTagStoreAdapter;
 import org.openstreetmap.atlas.utilities.arrays.Arrays;
 import org.openstreetmap.atlas.utilities.arrays.IntegerArrayOfArrays;
-import org.openstreetmap.atlas.utilities.compression.IntegerDictionary;
+import org.openstreetmap.atlas.utilities.compression.StringDictionary;
 
 /**
  * Store OSM Key-Value pairs, relying on the sub-class to provide Dictionaries. This allows for
@@ -32,7 +32,7 @@ public class PackedTagStore implements Serializable, ProtoSerializable
     private static final long serialVersionUID = -5240324410665237846L;
     private final IntegerArrayOfArrays keys;
     private final IntegerArrayOfArrays values;
-    private transient IntegerDictionary<String> dictionary;
+    private transient StringDictionary dictionary;
 
     private long index = 0L;
 
@@ -44,7 +44,7 @@ public class PackedTagStore implements Serializable, ProtoSerializable
     }
 
     public PackedTagStore(final long maximumSize, final int memoryBlockSize, final int subArraySize,
-            final IntegerDictionary<String> dictionary)
+            final StringDictionary dictionary)
     {
         this.keys = new IntegerArrayOfArrays(maximumSize, memoryBlockSize, subArraySize);
         this.values = new IntegerArrayOfArrays(maximumSize, memoryBlockSize, subArraySize);
@@ -106,6 +106,34 @@ public class PackedTagStore implements Serializable, ProtoSerializable
         }
     }
 
+    /**
+     * Add all the key/value pairs of a new item at once, from their dictionary codes.
+     *
+     * @param index
+     *            The index, which has to be the next one
+     * @param keyCodes
+     *            The dictionary codes of the keys. The array is not copied.
+     * @param valueCodes
+     *            The dictionary codes of the values, aligned with the keys. The array is not
+     *            copied.
+     */
+    public void addCodes(final long index, final int[] keyCodes, final int[] valueCodes)
+    {
+        if (index != this.index)
+        {
+            throw new CoreException("Cannot add codes at index {}, the next index is {}", index,
+                    this.index);
+        }
+        if (keyCodes.length != valueCodes.length)
+        {
+            throw new CoreException("Cannot add {} key codes with {} value codes",
+                    keyCodes.length, valueCodes.length);
+        }
+        this.keys.add(keyCodes);
+        this.values.add(valueCodes);
+        this.index++;
+    }
+
     /**
      * @param index
      *            The index to check for
@@ -119,10 +147,15 @@ public class PackedTagStore implements Serializable, ProtoSerializable
         {
             throw new CoreException("Cannot test if a null key is contained");
         }
+        final int keyCode = keysDictionary().indexOf(key);
+        if (keyCode == StringDictionary.NOT_FOUND)
+        {
+            return false;
+        }
         final int[] keyArray = this.keys.get(index);
         for (final int keyIndex : keyArray)
         {
-            if (key.equals(keysDictionary().word(keyIndex)))
+            if (keyIndex == keyCode)
             {
                 return true;
             }
@@ -175,11 +208,16 @@ public class PackedTagStore implements Serializable, ProtoSerializable
         {
             throw new CoreException("Cannot get a null key's value");
         }
+        // Compare dictionary codes, without decoding the keys
+        final int keyCode = keysDictionary().indexOf(key);
+        if (keyCode == StringDictionary.NOT_FOUND)
+        {
+            return null;
+        }
         final int[] keyArray = this.keys.get(index);
         for (int i = 0; i < keyArray.length; i++)
         {
-            final int keyIndex = keyArray[i];
-            if (key.equals(keysDictionary().word(keyIndex)))
+            if (keyArray[i] == keyCode)
             {
                 final int valueIndex = this.values.get(index)[i];
                 return valuesDictionary().word(valueIndex);
@@ -257,12 +295,12 @@ public class PackedTagStore implements Serializable, ProtoSerializable
     /**
      * @return The dictionary for keys
      */
-    public IntegerDictionary<String> keysDictionary()
+    public StringDictionary keysDictionary()
     {
         return this.dictionary;
     }
 
-    public void setDictionary(final IntegerDictionary<String> dictionary)
+    public void setDictionary(final StringDictionary dictionary)
     {
         this.dictionary = dictionary;
     }
@@ -284,8 +322,72 @@ public class PackedTagStore implements Serializable, ProtoSerializable
     /**
      * @return The dictionary for values
      */
-    public IntegerDictionary<String> valuesDictionary()
+    public StringDictionary valuesDictionary()
     {
         return this.dictionary;
     }
+
+    /**
+     * @param index
+     *            The index to look for
+     * @return The dictionary codes of all the keys at a specified index, aligned with
+     *         {@link #valueCodes(long)}. This is the array backing the store, and should not be
+     *         modified.
+     */
+    int[] keyCodes(final long index)
+    {
+        if (null == this.keys || this.keys.isEmpty())
+        {
+            // No tags
+            return new int[0];
+        }
+        return this.keys.get(index);
+    }
+
+    /**
+     * Encode all the keys and values against another dictionary.
+     *
+     * @param codes
+     *            The codes in the new dictionary, indexed by the codes in the current one
+     * @param dictionary
+     *            The new dictionary
+     */
+    void recode(final int[] codes, final StringDictionary dictionary)
+    {
+        recode(this.keys, codes);
+        recode(this.values, codes);
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * @param index
+     *            The index to look for
+     * @return The dictionary codes of all the values at a specified index, aligned with
+     *         {@link #keyCodes(long)}. This is the array backing the store, and should not be
+     *         modified.
+     */
+    int[] valueCodes(final long index)
+    {
+        if (null == this.values || this.values.isEmpty())
+        {
+            // No tags
+            return new int[0];
+        }
+        return this.values.get(index);
+    }
+
+    private void recode(final IntegerArrayOfArrays arrays, final int[] codes)
+    {
+        for (long row = 0; row < arrays.size(); row++)
+        {
+            // The arrays can be shared with other stores, so write new ones
+            final int[] current = arrays.get(row);
+            final int[] recoded = new int[current.length];
+            for (int column = 0; column < current.length; column++)
+            {
+                recoded[column] = codes[current[column]];
+            }
+            arrays.set(row, recoded);
+        }
+    }
 }
@@ -0,0 +1,90 @@
+package org.openstreetmap.atlas.geography.atlas.packed;
+
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.atlas.multi.MultiAtlas;
+import org.openstreetmap.atlas.proto.adapters.ProtoStringDictionaryAdapter;
+import org.openstreetmap.atlas.streaming.resource.Resource;
+import org.openstreetmap.atlas.streaming.resource.WritableResource;
+import org.openstreetmap.atlas.utilities.compression.StringDictionary;
+import org.openstreetmap.atlas.utilities.time.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Build, save and load a tag dictionary shared by a set of {@link PackedAtlas} shards. Once loaded,
+ * a single instance can be given to {@link PackedAtlas#shareTagDictionary(StringDictionary)}, to
+ * {@link MultiAtlas#loadFromPackedAtlas(Iterable, StringDictionary)} or to a
+ * {@link org.openstreetmap.atlas.geography.atlas.dynamic.policy.DynamicAtlasPolicy}, so that all
+ * the shards hold one copy of each key and value, and their tag codes can be compared directly.
+ *
+ * @author agent
+ */
+public final class SharedTagDictionary
+{
+    private static final Logger logger = LoggerFactory.getLogger(SharedTagDictionary.class);
+
+    /**
+     * Build the shared dictionary of a shard set. This only loads the dictionary of each
+     * {@link PackedAtlas}, not its items.
+     *
+     * @param shards
+     *            The {@link Resource}s of the serialized {@link PackedAtlas} shards
+     * @return A dictionary with all the tag keys, tag values and relation member roles of all the
+     *         shards. The words of the first shard keep their codes.
+     */
+    public static StringDictionary build(final Iterable<? extends Resource> shards)
+    {
+        final Time start = Time.now();
+        final StringDictionary result = new StringDictionary();
+        int count = 0;
+        for (final Resource shard : shards)
+        {
+            final StringDictionary dictionary = PackedAtlas.load(shard).tagDictionary();
+            for (int code = 0; code < dictionary.size(); code++)
+            {
+                result.add(dictionary.word(code));
+            }
+            count++;
+        }
+        logger.info("Built a shared tag dictionary of {} words from {} shards in {}",
+                result.size(), count, start.elapsedSince());
+        return result;
+    }
+
+    /**
+     * @param resource
+     *            The {@link Resource} a shared dictionary was saved to
+     * @return The shared dictionary
+     */
+    public static StringDictionary load(final Resource resource)
+    {
+        try
+        {
+            return (StringDictionary) new ProtoStringDictionaryAdapter()
+                    .deserialize(resource.readBytesAndClose());
+        }
+        catch (final Exception exception)
+        {
+            throw new CoreException("Could not load a shared tag dictionary from {}",
+                    resource.getName(), exception);
+        }
+    }
+
+    /**
+     * Save a shared dictionary, using the same protobuf format as the {@link PackedAtlas} tag
+     * dictionaries.
+     *
+     * @param dictionary
+     *            The shared dictionary
+     * @param resource
+     *            The {@link WritableResource} to save to
+     */
+    public static void save(final StringDictionary dictionary, final WritableResource resource)
+    {
+        resource.writeAndClose(new ProtoStringDictionaryAdapter().serialize(dictionary));
+    }
+
+    private SharedTagDictionary()
+    {
+    }
+}
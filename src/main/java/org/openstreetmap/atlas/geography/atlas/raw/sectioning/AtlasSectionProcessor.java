@@ -42,7 +42,10 @@ import org.openstreetmap.atlas.geography.sharding.Sharding;
 import org.openstreetmap.atlas.tags.LayerTag;
 import org.openstreetmap.atlas.tags.SyntheticInvalidWaySectionTag;
 import org.openstreetmap.atlas.utilities.collections.Iterables;
+import org.openstreetmap.atlas.utilities.metrics.LatencyHistogram;
+import org.openstreetmap.atlas.utilities.metrics.MetricsRegistry;
 import org.openstreetmap.atlas.utilities.scalars.Distance;
+import org.openstreetmap.atlas.utilities.scalars.Duration;
 import org.openstreetmap.atlas.utilities.time.Time;
 import org.openstreetmap.osmosis.core.domain.v0_6.Node;
 import org.slf4j.Logger;
@@ -81,6 +84,18 @@ public class AtlasSectionProcessor
     // Expand the initial shard boundary to capture any edges that are crossing the shard boundary
     private static final Distance SHARD_EXPANSION_DISTANCE = Distance.meters(20);
 
+    // Metrics of the phases
+    private static final LatencyHistogram EDGE_CREATION = MetricsRegistry.global()
+            .latency("atlas.raw.sectioning.edges");
+    private static final LatencyHistogram NODE_CREATION = MetricsRegistry.global()
+            .latency("atlas.raw.sectioning.nodes");
+    private static final LatencyHistogram POINT_ADDITION = MetricsRegistry.global()
+            .latency("atlas.raw.sectioning.point.addition");
+    private static final LatencyHistogram EXCESS_POINT_REMOVAL = MetricsRegistry.global()
+            .latency("atlas.raw.sectioning.excess.point.removal");
+    private static final LatencyHistogram SECTIONING = MetricsRegistry.global()
+            .latency("atlas.raw.sectioning.total");
+
     private final Atlas inputAtlas;
     private final AtlasLoadingOption loadingOption;
 
@@ -208,15 +223,19 @@ public class AtlasSectionProcessor
 
         logger.info(STARTED_EDGE_CREATION, this.getShardOrAtlasName());
         this.inputAtlas.lines(this.loadingOption.getEdgeFilter()::test).forEach(this::section);
+        final Duration edgeCreationTime = time.elapsedSince();
         logger.info(FINISHED_EDGE_CREATION, this.getShardOrAtlasName(),
-                time.elapsedSince().asMilliseconds());
+                edgeCreationTime.asMilliseconds());
+        EDGE_CREATION.record(edgeCreationTime);
 
         time = Time.now();
         logger.info(STARTED_NODE_CREATION, this.getShardOrAtlasName());
         this.nodeMap.values()
                 .forEach(node -> this.changes.add(FeatureChange.add(node, this.inputAtlas)));
+        final Duration nodeCreationTime = time.elapsedSince();
         logger.info(FINISHED_NODE_CREATION, this.getShardOrAtlasName(),
-                time.elapsedSince().asMilliseconds());
+                nodeCreationTime.asMilliseconds());
+        NODE_CREATION.record(nodeCreationTime);
 
         time = Time.now();
         // If this atlas is supposed to keep everything, add the points that are not also saved as a
@@ -233,8 +252,10 @@ public class AtlasSectionProcessor
                     this.changes.add(FeatureChange.add(CompletePoint.from(point)));
                 }
             });
+            final Duration pointAdditionTime = time.elapsedSince();
             logger.info(FINISHED_POINT_ADDITION, this.getShardOrAtlasName(),
-                    time.elapsedSince().asMilliseconds());
+                    pointAdditionTime.asMilliseconds());
+            POINT_ADDITION.record(pointAdditionTime);
         }
         else
         {
@@ -249,12 +270,16 @@ public class AtlasSectionProcessor
                     this.changes.add(FeatureChange.remove(CompletePoint.shallowFrom(point)));
                 }
             });
+            final Duration excessPointRemovalTime = time.elapsedSince();
             logger.info(FINISHED_EXCESS_POINT_REMOVAL, this.getShardOrAtlasName(),
-                    time.elapsedSince().asMilliseconds());
+                    excessPointRemovalTime.asMilliseconds());
+            EXCESS_POINT_REMOVAL.record(excessPointRemovalTime);
         }
 
+        final Duration sectioningTime = overallTime.elapsedSince();
         logger.info(FINISHED_SECTIONING, this.getShardOrAtlasName(),
-                overallTime.elapsedSince().asMilliseconds());
+                sectioningTime.asMilliseconds());
+        SECTIONING.record(sectioningTime);
 
         // return either the unchanged original Atlas, or a cut-down version of the sectioned Atlas
         if (this.changes.isEmpty())
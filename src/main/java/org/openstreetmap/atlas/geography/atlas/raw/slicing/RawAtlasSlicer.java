@@ -67,6 +67,8 @@ import org.openstreetmap.atlas.tags.SyntheticInvalidMultiPolygonRelationMembersR
 import org.openstreetmap.atlas.tags.annotations.validation.Validators;
 import org.openstreetmap.atlas.utilities.collections.Iterables;
 import org.openstreetmap.atlas.utilities.identifiers.EntityIdentifierGenerator;
+import org.openstreetmap.atlas.utilities.metrics.LatencyHistogram;
+import org.openstreetmap.atlas.utilities.metrics.MetricsRegistry;
 import org.openstreetmap.atlas.utilities.scalars.Duration;
 import org.openstreetmap.atlas.utilities.time.Time;
 import org.slf4j.Logger;
@@ -120,6 +122,16 @@ public class RawAtlasSlicer
     private static final String STARTED_RELATION_FILTERING = "Starting relation filtering for Atlas {}";
     private static final String FINISHED_RELATION_FILTERING = "Finished relation filtering for Atlas {} in {}";
 
+    // Metrics of the phases
+    private static final LatencyHistogram LINE_SLICING = MetricsRegistry.global()
+            .latency("atlas.raw.slicing.lines");
+    private static final LatencyHistogram RELATION_SLICING = MetricsRegistry.global()
+            .latency("atlas.raw.slicing.relations");
+    private static final LatencyHistogram POINT_SLICING = MetricsRegistry.global()
+            .latency("atlas.raw.slicing.points");
+    private static final LatencyHistogram SLICING = MetricsRegistry.global()
+            .latency("atlas.raw.slicing.total");
+
     private final Atlas inputAtlas;
     private final Shard initialShard;
     private final Predicate<AtlasEntity> consolidatePredicate;
@@ -224,8 +236,9 @@ public class RawAtlasSlicer
         linesToSlice.addAll(this.stagedLines.values());
         linesToSlice.forEach(this::sliceLine);
 
-        logger.info(FINISHED_LINE_SLICING, this.shardOrAtlasName,
-                time.elapsedSince().asMilliseconds());
+        final Duration lineSlicingTime = time.elapsedSince();
+        logger.info(FINISHED_LINE_SLICING, this.shardOrAtlasName, lineSlicingTime.asMilliseconds());
+        LINE_SLICING.record(lineSlicingTime);
 
         time = Time.now();
         logger.info(STARTED_RELATION_SLICING, this.shardOrAtlasName);
@@ -236,14 +249,18 @@ public class RawAtlasSlicer
                 sliceRelation(this.stagedRelations.get(relation.getIdentifier()));
             }
         });
+        final Duration relationSlicingTime = time.elapsedSince();
         logger.info(FINISHED_RELATION_SLICING, this.shardOrAtlasName,
-                time.elapsedSince().asMilliseconds());
+                relationSlicingTime.asMilliseconds());
+        RELATION_SLICING.record(relationSlicingTime);
 
         time = Time.now();
         logger.info(STARTED_POINT_SLICING, this.shardOrAtlasName);
         this.inputAtlas.points().forEach(this::slicePoint);
+        final Duration pointSlicingTime = time.elapsedSince();
         logger.info(FINISHED_POINT_SLICING, this.shardOrAtlasName,
-                time.elapsedSince().asMilliseconds());
+                pointSlicingTime.asMilliseconds());
+        POINT_SLICING.record(pointSlicingTime);
 
         logger.info(STARTED_RELATION_FILTERING, this.shardOrAtlasName);
         this.inputAtlas.relationsLowerOrderFirst().forEach(relation ->
@@ -267,8 +284,9 @@ public class RawAtlasSlicer
         this.stagedAreas.values()
                 .forEach(area -> this.changes.add(FeatureChange.add(area, this.inputAtlas)));
 
-        logger.info(FINISHED_SLICING, this.shardOrAtlasName,
-                overallTime.elapsedSince().asMilliseconds());
+        final Duration slicingTime = overallTime.elapsedSince();
+        logger.info(FINISHED_SLICING, this.shardOrAtlasName, slicingTime.asMilliseconds());
+        SLICING.record(slicingTime);
 
         return new ChangeAtlas(this.inputAtlas, new ChangeBuilder().addAll(this.changes).get())
         {
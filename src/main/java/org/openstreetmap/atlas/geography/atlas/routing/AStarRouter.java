@@ -8,6 +8,9 @@ import org.openstreetmap.atlas.geography.atlas.Atlas;
 import org.openstreetmap.atlas.geography.atlas.items.Edge;
 import org.openstreetmap.atlas.geography.atlas.items.Node;
 import org.openstreetmap.atlas.geography.atlas.items.Route;
+import org.openstreetmap.atlas.utilities.metrics.Counter;
+import org.openstreetmap.atlas.utilities.metrics.LatencyHistogram;
+import org.openstreetmap.atlas.utilities.metrics.MetricsRegistry;
 import org.openstreetmap.atlas.utilities.scalars.Distance;
 
 /**
@@ -99,6 +102,11 @@ public class AStarRouter extends AbstractRouter
         }
     }
 
+    private static final LatencyHistogram SEARCH = MetricsRegistry.global()
+            .latency("atlas.routing.astar.search");
+    private static final Counter NO_ROUTE = MetricsRegistry.global()
+            .counter("atlas.routing.astar.no.route");
+
     private final Heuristic heuristic;
 
     /**
@@ -165,6 +173,24 @@ public class AStarRouter extends AbstractRouter
 
     @Override
     public Route route(final Node start, final Node end)
+    {
+        final long searchStart = SEARCH.start();
+        try
+        {
+            final Route result = search(start, end);
+            if (result == null)
+            {
+                NO_ROUTE.increment();
+            }
+            return result;
+        }
+        finally
+        {
+            SEARCH.stop(searchStart);
+        }
+    }
+
+    private Route search(final Node start, final Node end)
     {
         if (start.equals(end))
         {
@@ -78,11 +78,16 @@ public class Counter extends Crawler
                     }
                 }
             }, Optionality.OPTIONAL, "");
+    public static final Switch<Integer> THREADS = new Switch<>("threads",
+            "number of threads to run each coverage with", Integer::valueOf,
+            Optionality.OPTIONAL, "1");
 
     private Resource countsDefinition = POI_COUNTS_DEFINITION.getDefault();
 
     private Sharding sharding;
 
+    private int threads = THREADS.getDefault();
+
     public static void main(final String[] args)
     {
         new Counter().run(args);
@@ -181,7 +186,14 @@ public class Counter extends Crawler
         final AtlasStatistics result = new AtlasStatistics();
         generateCoverages(atlas).forEach(coverage ->
         {
-            coverage.run();
+            if (this.threads > 1)
+            {
+                coverage.run(this.threads);
+            }
+            else
+            {
+                coverage.run();
+            }
             result.append(coverage.getStatistic());
         });
         return result;
@@ -198,10 +210,22 @@ public class Counter extends Crawler
         return this;
     }
 
+    /**
+     * @param threads
+     *            The number of threads to run each {@link Coverage} with
+     * @return This {@link Counter}
+     */
+    public Counter withThreads(final int threads)
+    {
+        this.threads = threads;
+        return this;
+    }
+
     @Override
     protected void initialize(final CommandMap command)
     {
         this.countsDefinition = (Resource) command.get(POI_COUNTS_DEFINITION);
+        this.threads = (int) command.get(THREADS);
         logger.info("Using {} for POI counts", this.countsDefinition);
     }
 
@@ -216,6 +240,6 @@ public class Counter extends Crawler
     @Override
     protected SwitchList switches()
     {
-        return super.switches().with(POI_COUNTS_DEFINITION);
+        return super.switches().with(POI_COUNTS_DEFINITION, THREADS);
     }
 }
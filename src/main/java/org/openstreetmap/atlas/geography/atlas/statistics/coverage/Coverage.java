@@ -1,11 +1,17 @@
 package org.openstreetmap.atlas.geography.atlas.statistics.coverage;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -58,17 +64,59 @@ public abstract class Coverage<T extends AtlasEntity>
         }
     }
 
+    /**
+     * Counts of a {@link Coverage}, or of part of it. Two tallies of different items can be merged.
+     * A sequential run counts in the {@link Coverage}'s own tally, a parallel run in one partial
+     * tally per partition.
+     *
+     * @author agent
+     */
+    protected static final class Tally
+    {
+        private final Map<String, Double> counted = new HashMap<>();
+        private final Map<String, Double> total = new HashMap<>();
+        private final Map<String, Long> validCount = new HashMap<>();
+        private final Map<String, Long> totalCount = new HashMap<>();
+        // Number of items counted
+        private long items;
+
+        void increment(final String key, final double value, final boolean valid)
+        {
+            if (value < 0.0)
+            {
+                throw new CoreException("Invalid value {}", value);
+            }
+            add(key, value, 1L, valid ? value : 0.0, valid ? 1L : 0L);
+        }
+
+        void merge(final Tally other)
+        {
+            this.items += other.items;
+            other.total.keySet()
+                    .forEach(key -> add(key, other.total.get(key), other.totalCount.get(key),
+                            other.counted.get(key), other.validCount.get(key)));
+        }
+
+        private void add(final String key, final double totalValue, final long totalValueCount,
+                final double countedValue, final long validValueCount)
+        {
+            this.total.merge(key, totalValue, Double::sum);
+            this.totalCount.merge(key, totalValueCount, Long::sum);
+            this.counted.merge(key, countedValue, Double::sum);
+            this.validCount.merge(key, validValueCount, Long::sum);
+        }
+    }
+
     private static final int REPORT_FREQUENCY = 100_000;
+    // Number of items each task counts in a parallel run
+    private static final int PARTITION_SIZE = 10_000;
     public static final String AGGREGATE_KEY = "all";
     public static final String NULL_KEY = "";
 
     private final Logger logger;
     private final Atlas atlas;
     private final Predicate<T> filter;
-    private Map<String, Double> counted;
-    private Map<String, Double> total;
-    private Map<String, Long> validCount;
-    private Map<String, Long> totalCount;
+    private final Tally tally;
     private CounterWithStatistic statistic;
     // In case an item is spanning multiple count entities (ex. shards), supply a divisor that will
     // under-count the item.
@@ -96,10 +144,7 @@ public abstract class Coverage<T extends AtlasEntity>
         this.logger = logger;
         this.atlas = atlas;
         this.filter = filter;
-        this.counted = new HashMap<>();
-        this.total = new HashMap<>();
-        this.validCount = new HashMap<>();
-        this.totalCount = new HashMap<>();
+        this.tally = new Tally();
         this.statistic = null;
         this.keyComparator = null;
     }
@@ -111,20 +156,21 @@ public abstract class Coverage<T extends AtlasEntity>
      */
     public Ratio getCountCoverage(final String key)
     {
-        if (!this.counted.containsKey(key))
+        if (!this.tally.counted.containsKey(key))
         {
             throw new CoreException("Key {} is not valid.");
         }
-        if (this.validCount.get(key) > this.totalCount.get(key))
+        if (this.tally.validCount.get(key) > this.tally.totalCount.get(key))
         {
-            throw new CoreException("Invalid Ratio: {} / {}", this.validCount.get(key),
-                    this.totalCount.get(key));
+            throw new CoreException("Invalid Ratio: {} / {}", this.tally.validCount.get(key),
+                    this.tally.totalCount.get(key));
         }
-        if (this.totalCount.get(key) <= 0)
+        if (this.tally.totalCount.get(key) <= 0)
         {
             return Ratio.percentage(0);
         }
-        return Ratio.ratio((double) this.validCount.get(key) / this.totalCount.get(key));
+        return Ratio.ratio(
+                (double) this.tally.validCount.get(key) / this.tally.totalCount.get(key));
     }
 
     /**
@@ -134,20 +180,20 @@ public abstract class Coverage<T extends AtlasEntity>
      */
     public Ratio getCoverage(final String key)
     {
-        if (!this.counted.containsKey(key))
+        if (!this.tally.counted.containsKey(key))
         {
             throw new CoreException("Key {} is not valid.");
         }
-        if (this.counted.get(key) > this.total.get(key))
+        if (this.tally.counted.get(key) > this.tally.total.get(key))
         {
-            throw new CoreException("Invalid Ratio: {} / {}", this.counted.get(key),
-                    this.total.get(key));
+            throw new CoreException("Invalid Ratio: {} / {}", this.tally.counted.get(key),
+                    this.tally.total.get(key));
         }
-        if (this.total.get(key) <= 0.0)
+        if (this.tally.total.get(key) <= 0.0)
         {
-            throw new CoreException("Invalid Total: {}", this.total.get(key));
+            throw new CoreException("Invalid Total: {}", this.tally.total.get(key));
         }
-        return Ratio.ratio(this.counted.get(key) / this.total.get(key));
+        return Ratio.ratio(this.tally.counted.get(key) / this.tally.total.get(key));
     }
 
     public Map<StatisticKey, StatisticValue> getStatistic()
@@ -162,12 +208,12 @@ public abstract class Coverage<T extends AtlasEntity>
             {
                 case DISTANCE:
                 case SURFACE:
-                    count = this.counted.get(key);
-                    totalCount = this.total.get(key);
+                    count = this.tally.counted.get(key);
+                    totalCount = this.tally.total.get(key);
                     break;
                 case COUNT:
-                    count = this.validCount.get(key);
-                    totalCount = this.totalCount.get(key);
+                    count = this.tally.validCount.get(key);
+                    totalCount = this.tally.totalCount.get(key);
                     break;
                 default:
                     throw new CoreException("Unknown coverage type {}", coverageType());
@@ -185,7 +231,7 @@ public abstract class Coverage<T extends AtlasEntity>
      */
     public boolean hasKey(final String key)
     {
-        return this.counted.containsKey(key);
+        return this.tally.counted.containsKey(key);
     }
 
     /**
@@ -198,20 +244,62 @@ public abstract class Coverage<T extends AtlasEntity>
         items().forEach(item ->
         {
             this.statistic.increment();
-            keys(item).forEach(key ->
-            {
-                final double value = getValue(item);
-                // The adjusted value is the value divided by the divisor. The divisor can be the
-                // number of shards the feature crosses. For example, an Edge that spans three
-                // shards will be counted one third. Then when aggregating the counts for all the
-                // shards, this value will not have been counted three times too many.
-                final double adjustedValue = this.shardDivisor == null ? value
-                        : value / this.shardDivisor.apply(item);
-                increment(key, adjustedValue, isCounted(item));
-            });
+            count(item, this.tally);
         });
     }
 
+    /**
+     * Execute this {@link Coverage} with multiple threads. The items are split in partitions that
+     * are counted concurrently, each in its own partial tally, and the partial tallies are merged
+     * in partition order. The result does not depend on the number of threads. The values are
+     * summed in a different order than {@link #run()} does, so the counts and total counts can
+     * differ from the sequential ones by a rounding error.
+     *
+     * @param threads
+     *            The number of threads to count with
+     */
+    public void run(final int threads)
+    {
+        if (threads < 1)
+        {
+            throw new CoreException("Invalid number of threads: {}", threads);
+        }
+        this.statistic = new CounterWithStatistic(this.logger, REPORT_FREQUENCY,
+                this.getClass().getSimpleName());
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        try
+        {
+            final Deque<ForkJoinTask<Tally>> pending = new ArrayDeque<>();
+            List<T> partition = new ArrayList<>(PARTITION_SIZE);
+            for (final T item : items())
+            {
+                partition.add(item);
+                if (partition.size() == PARTITION_SIZE)
+                {
+                    pending.add(submit(pool, partition));
+                    partition = new ArrayList<>(PARTITION_SIZE);
+                    // Do not hold more partitions than needed to keep all the threads busy
+                    if (pending.size() > 2 * threads)
+                    {
+                        merge(pending.poll().join());
+                    }
+                }
+            }
+            if (!partition.isEmpty())
+            {
+                pending.add(submit(pool, partition));
+            }
+            while (!pending.isEmpty())
+            {
+                merge(pending.poll().join());
+            }
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
     public void setShardDivisor(final Function<T, Integer> shardDivisor)
     {
         this.shardDivisor = shardDivisor;
@@ -231,13 +319,13 @@ public abstract class Coverage<T extends AtlasEntity>
             builder.append(" = \n\t{\n\t\t");
             builder.append(getCoverage(key));
             builder.append(" of ");
-            builder.append(String.format("%,.2f", this.total.get(key)));
+            builder.append(String.format("%,.2f", this.tally.total.get(key)));
             builder.append(" ");
             builder.append(getUnit());
             builder.append(",\n\t\t");
             builder.append(getCountCoverage(key));
             builder.append(" of ");
-            builder.append(String.format("%,d", this.totalCount.get(key)));
+            builder.append(String.format("%,d", this.tally.totalCount.get(key)));
             builder.append(" features\n\t},\n");
         }
         builder.append("]");
@@ -267,7 +355,7 @@ public abstract class Coverage<T extends AtlasEntity>
         {
             keySet = new HashSet<>();
         }
-        keySet.addAll(this.total.keySet());
+        keySet.addAll(this.tally.total.keySet());
         return keySet;
     }
 
@@ -297,7 +385,7 @@ public abstract class Coverage<T extends AtlasEntity>
     protected abstract double getValue(T item);
 
     /**
-     * Increment counts for an item with a specific key
+     * Increment counts for an item with a specific key in the tally of this {@link Coverage}
      *
      * @param key
      *            One of the item's keys.
@@ -308,24 +396,28 @@ public abstract class Coverage<T extends AtlasEntity>
      */
     protected void increment(final String key, final double value, final boolean valid)
     {
-        if (value < 0.0)
-        {
-            throw new CoreException("Invalid value {}", value);
-        }
-        if (!this.total.containsKey(key))
-        {
-            this.total.put(key, 0.0);
-            this.totalCount.put(key, 0L);
-            this.counted.put(key, 0.0);
-            this.validCount.put(key, 0L);
-        }
-        this.total.put(key, this.total.get(key) + value);
-        this.totalCount.put(key, this.totalCount.get(key) + 1);
-        if (valid)
-        {
-            this.counted.put(key, this.counted.get(key) + value);
-            this.validCount.put(key, this.validCount.get(key) + 1);
-        }
+        increment(this.tally, key, value, valid);
+    }
+
+    /**
+     * Increment counts for an item with a specific key in a tally. Both {@link #run()} and
+     * {@link #run(int)} count every item through this method. With {@link #run(int)} it is called
+     * concurrently, each time with the partial tally of the calling thread, so an override has to
+     * be thread safe and has to call this implementation with the tally it is given.
+     *
+     * @param tally
+     *            The tally to count in
+     * @param key
+     *            One of the item's keys.
+     * @param value
+     *            The item's value
+     * @param valid
+     *            True if the item is valid within the requirements of the coverage metric.
+     */
+    protected void increment(final Tally tally, final String key, final double value,
+            final boolean valid)
+    {
+        tally.increment(key, value, valid);
     }
 
     /**
@@ -348,6 +440,30 @@ public abstract class Coverage<T extends AtlasEntity>
 
     protected abstract String type();
 
+    /**
+     * Count an item for all its keys
+     *
+     * @param item
+     *            The item to count
+     * @param tally
+     *            The tally to count it in
+     */
+    private void count(final T item, final Tally tally)
+    {
+        tally.items++;
+        keys(item).forEach(key ->
+        {
+            final double value = getValue(item);
+            // The adjusted value is the value divided by the divisor. The divisor can be the
+            // number of shards the feature crosses. For example, an Edge that spans three shards
+            // will be counted one third. Then when aggregating the counts for all the shards, this
+            // value will not have been counted three times too many.
+            final double adjustedValue = this.shardDivisor == null ? value
+                    : value / this.shardDivisor.apply(item);
+            increment(tally, key, adjustedValue, isCounted(item));
+        });
+    }
+
     /**
      * @return The filtered {@link Iterable} of items to measure.
      */
@@ -378,4 +494,20 @@ public abstract class Coverage<T extends AtlasEntity>
         }
         return result;
     }
+
+    private void merge(final Tally partial)
+    {
+        this.tally.merge(partial);
+        this.statistic.incrementCount(partial.items);
+    }
+
+    private ForkJoinTask<Tally> submit(final ForkJoinPool pool, final List<T> partition)
+    {
+        return pool.submit(() ->
+        {
+            final Tally partial = new Tally();
+            partition.forEach(item -> count(item, partial));
+            return partial;
+        });
+    }
 }
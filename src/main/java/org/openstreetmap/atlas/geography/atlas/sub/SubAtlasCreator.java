@@ -27,6 +27,7 @@ import org.openstreetmap.atlas.geography.atlas.items.Relation;
 import org.openstreetmap.atlas.geography.atlas.items.RelationMember;
 import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlas;
 import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlasBuilder;
+import org.openstreetmap.atlas.geography.atlas.packed.PackedSubAtlasCreator;
 import org.openstreetmap.atlas.utilities.collections.Iterables;
 import org.openstreetmap.atlas.utilities.time.Time;
 import org.slf4j.Logger;
@@ -193,6 +194,50 @@ public final class SubAtlasCreator
         return Optional.ofNullable(result);
     }
 
+    /**
+     * Same as {@link #hardCutAllEntities(Atlas, GeometricSurface)}, but a {@link PackedAtlas} is
+     * cut with the indices of its items, see {@link PackedSubAtlasCreator}. Any other
+     * {@link Atlas} falls back to {@link #hardCutAllEntities(Atlas, GeometricSurface)}.
+     *
+     * @param atlas
+     *            The {@link Atlas} to cut
+     * @param boundary
+     *            The boundary to cut along
+     * @return a sub-atlas from this Atlas.
+     */
+    public static Optional<Atlas> indexedHardCutAllEntities(final Atlas atlas,
+            final GeometricSurface boundary)
+    {
+        if (PackedSubAtlasCreator.canCut(atlas))
+        {
+            return PackedSubAtlasCreator.hardCutAllEntities((PackedAtlas) atlas, boundary);
+        }
+        return hardCutAllEntities(atlas, boundary);
+    }
+
+    /**
+     * Same as {@link #softCut(Atlas, GeometricSurface, boolean)}, but a {@link PackedAtlas} is cut
+     * with the indices of its items, see {@link PackedSubAtlasCreator}. Any other {@link Atlas}
+     * falls back to {@link #softCut(Atlas, GeometricSurface, boolean)}.
+     *
+     * @param atlas
+     *            The {@link Atlas} to cut
+     * @param boundary
+     *            The boundary to cut along
+     * @param hardCutRelations
+     *            True to keep only the relation members fully enclosed in the boundary
+     * @return a sub-atlas from this Atlas.
+     */
+    public static Optional<Atlas> indexedSoftCut(final Atlas atlas,
+            final GeometricSurface boundary, final boolean hardCutRelations)
+    {
+        if (PackedSubAtlasCreator.canCut(atlas))
+        {
+            return PackedSubAtlasCreator.softCut((PackedAtlas) atlas, boundary, hardCutRelations);
+        }
+        return softCut(atlas, boundary, hardCutRelations);
+    }
+
     public static Optional<Atlas> silkCut(final Atlas atlas, final GeometricSurface boundary)
     {
         logger.debug(CUT_START_MESSAGE, AtlasCutType.SILK_CUT, atlas.getName(), atlas.metaData());
@@ -37,76 +37,96 @@ public class AtlasEdgeValidator
 
     protected void validateEdgeToNodeConnectivity()
     {
-        for (final Edge edge : this.atlas.edges())
+        this.atlas.edges().forEach(this::validateEdgeToNodeConnectivity);
+    }
+
+    protected void validateEdgeToNodeLocationAccuracy()
+    {
+        this.atlas.edges().forEach(this::validateEdgeToNodeLocationAccuracy);
+    }
+
+    protected void validateReverseEdgePolyLineUpdated()
+    {
+        this.atlas.edges(edge -> edge.hasReverseEdge() && edge.isMainEdge())
+                .forEach(this::validateReverseEdgePolyLineUpdated);
+    }
+
+    void addChecks(final ParallelAtlasValidation validation)
+    {
+        // The location accuracy can only be checked on connected Edges
+        validation.check("Edge", this.atlas.edges(), edge ->
         {
-            final Node start = edge.start();
-            if (start == null)
-            {
-                throw new CoreException(
-                        "Edge {} is logically disconnected at its start. Referenced Node does not exist.",
-                        edge.getIdentifier());
-            }
-            if (start.outEdges().stream()
-                    .noneMatch(edgeAtNode -> edgeAtNode.getIdentifier() == edge.getIdentifier()))
-            {
-                throw new CoreException("Edge {} references start Node {}. It is not reciprocal.",
-                        edge.getIdentifier(), start.getIdentifier());
-            }
-            final Node end = edge.end();
-            if (end == null)
-            {
-                throw new CoreException(
-                        "Edge {} is logically disconnected at its end. Referenced Node does not exist.",
-                        edge.getIdentifier());
-            }
-            if (end.inEdges().stream()
-                    .noneMatch(edgeAtNode -> edgeAtNode.getIdentifier() == edge.getIdentifier()))
-            {
-                throw new CoreException("Edge {} references end Node {}. It is not reciprocal.",
-                        edge.getIdentifier(), end.getIdentifier());
-            }
+            validateEdgeToNodeConnectivity(edge);
+            validateEdgeToNodeLocationAccuracy(edge);
+        });
+        validation.check("reverse Edge",
+                this.atlas.edges(edge -> edge.hasReverseEdge() && edge.isMainEdge()),
+                this::validateReverseEdgePolyLineUpdated);
+    }
+
+    private void validateEdgeToNodeConnectivity(final Edge edge)
+    {
+        final Node start = edge.start();
+        if (start == null)
+        {
+            throw new CoreException(
+                    "Edge {} is logically disconnected at its start. Referenced Node does not exist.",
+                    edge.getIdentifier());
+        }
+        if (start.outEdges().stream()
+                .noneMatch(edgeAtNode -> edgeAtNode.getIdentifier() == edge.getIdentifier()))
+        {
+            throw new CoreException("Edge {} references start Node {}. It is not reciprocal.",
+                    edge.getIdentifier(), start.getIdentifier());
+        }
+        final Node end = edge.end();
+        if (end == null)
+        {
+            throw new CoreException(
+                    "Edge {} is logically disconnected at its end. Referenced Node does not exist.",
+                    edge.getIdentifier());
+        }
+        if (end.inEdges().stream()
+                .noneMatch(edgeAtNode -> edgeAtNode.getIdentifier() == edge.getIdentifier()))
+        {
+            throw new CoreException("Edge {} references end Node {}. It is not reciprocal.",
+                    edge.getIdentifier(), end.getIdentifier());
         }
     }
 
-    protected void validateEdgeToNodeLocationAccuracy()
+    private void validateEdgeToNodeLocationAccuracy(final Edge edge)
     {
-        for (final Edge edge : this.atlas.edges())
+        final Location startNodeLocation = edge.start().getLocation();
+        final Location edgeStartLocation = edge.asPolyLine().first();
+        if (!startNodeLocation.equals(edgeStartLocation))
         {
-            final Location startNodeLocation = edge.start().getLocation();
-            final Location edgeStartLocation = edge.asPolyLine().first();
-            if (!startNodeLocation.equals(edgeStartLocation))
-            {
-                throw new CoreException(
-                        "Edge {} with start location {} does not match with its start Node {} at location: {}",
-                        edge.getIdentifier(), edgeStartLocation, edge.start().getIdentifier(),
-                        startNodeLocation);
-            }
-            final Location endNodeLocation = edge.end().getLocation();
-            final Location edgeEndLocation = edge.asPolyLine().last();
-            if (!endNodeLocation.equals(edgeEndLocation))
-            {
-                throw new CoreException(
-                        "Edge {} with end location {} does not match with its end Node {} at location: {}",
-                        edge.getIdentifier(), edgeEndLocation, edge.end().getIdentifier(),
-                        endNodeLocation);
-            }
+            throw new CoreException(
+                    "Edge {} with start location {} does not match with its start Node {} at location: {}",
+                    edge.getIdentifier(), edgeStartLocation, edge.start().getIdentifier(),
+                    startNodeLocation);
+        }
+        final Location endNodeLocation = edge.end().getLocation();
+        final Location edgeEndLocation = edge.asPolyLine().last();
+        if (!endNodeLocation.equals(edgeEndLocation))
+        {
+            throw new CoreException(
+                    "Edge {} with end location {} does not match with its end Node {} at location: {}",
+                    edge.getIdentifier(), edgeEndLocation, edge.end().getIdentifier(),
+                    endNodeLocation);
         }
     }
 
-    protected void validateReverseEdgePolyLineUpdated()
+    private void validateReverseEdgePolyLineUpdated(final Edge edge)
     {
-        for (final Edge edge : this.atlas.edges(edge -> edge.hasReverseEdge() && edge.isMainEdge()))
+        final Edge reversed = edge.reversed().orElseThrow(() -> new CoreException(
+                "Edge {} should have a reverse, but does not.", edge.getIdentifier()));
+        final PolyLine forward = edge.asPolyLine();
+        final PolyLine backward = reversed.asPolyLine();
+        if (!forward.equals(backward.reversed()))
         {
-            final Edge reversed = edge.reversed().orElseThrow(() -> new CoreException(
-                    "Edge {} should have a reverse, but does not.", edge.getIdentifier()));
-            final PolyLine forward = edge.asPolyLine();
-            final PolyLine backward = reversed.asPolyLine();
-            if (!forward.equals(backward.reversed()))
-            {
-                throw new CoreException(
-                        "Edge {} and its reverse {} have mismatching PolyLines: Forward = {}, Backward = {}",
-                        edge.getIdentifier(), reversed.getIdentifier(), forward, backward);
-            }
+            throw new CoreException(
+                    "Edge {} and its reverse {} have mismatching PolyLines: Forward = {}, Backward = {}",
+                    edge.getIdentifier(), reversed.getIdentifier(), forward, backward);
         }
     }
 }
@@ -30,15 +30,22 @@ public class AtlasLineItemValidator
                 start.elapsedSince());
     }
 
+    void addChecks(final ParallelAtlasValidation validation)
+    {
+        validation.check("LineItem", this.atlas.lineItems(), this::validatePolyLinePresent);
+    }
+
     private void validatePolyLinePresent()
     {
-        for (final LineItem lineItem : this.atlas.lineItems())
+        this.atlas.lineItems().forEach(this::validatePolyLinePresent);
+    }
+
+    private void validatePolyLinePresent(final LineItem lineItem)
+    {
+        if (lineItem.asPolyLine() == null)
         {
-            if (lineItem.asPolyLine() == null)
-            {
-                throw new CoreException("{} {} is missing its PolyLine.", lineItem.getType(),
-                        lineItem.getIdentifier());
-            }
+            throw new CoreException("{} {} is missing its PolyLine.", lineItem.getType(),
+                    lineItem.getIdentifier());
         }
     }
 }
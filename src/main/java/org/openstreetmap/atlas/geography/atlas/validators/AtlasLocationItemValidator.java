@@ -32,13 +32,21 @@ public class AtlasLocationItemValidator
 
     protected void validateLocationPresent()
     {
-        for (final LocationItem locationItem : this.atlas.locationItems())
+        this.atlas.locationItems().forEach(this::validateLocationPresent);
+    }
+
+    void addChecks(final ParallelAtlasValidation validation)
+    {
+        validation.check("LocationItem", this.atlas.locationItems(),
+                this::validateLocationPresent);
+    }
+
+    private void validateLocationPresent(final LocationItem locationItem)
+    {
+        if (locationItem.getLocation() == null)
         {
-            if (locationItem.getLocation() == null)
-            {
-                throw new CoreException("{} {} is missing a Location.", locationItem.getType(),
-                        locationItem.getIdentifier());
-            }
+            throw new CoreException("{} {} is missing a Location.", locationItem.getType(),
+                    locationItem.getIdentifier());
         }
     }
 }
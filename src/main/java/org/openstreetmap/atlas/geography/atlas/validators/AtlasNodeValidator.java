@@ -35,54 +35,68 @@ public class AtlasNodeValidator
 
     protected void validateNodeToEdgeConnectivity()
     {
-        for (final Node node : this.atlas.nodes())
+        this.atlas.nodes().forEach(this::validateNodeToEdgeConnectivity);
+    }
+
+    protected void validateNodeToEdgeLocationAccuracy()
+    {
+        this.atlas.nodes().forEach(this::validateNodeToEdgeLocationAccuracy);
+    }
+
+    void addChecks(final ParallelAtlasValidation validation)
+    {
+        // The location accuracy can only be checked on connected Nodes
+        validation.check("Node", this.atlas.nodes(), node ->
+        {
+            validateNodeToEdgeConnectivity(node);
+            validateNodeToEdgeLocationAccuracy(node);
+        });
+    }
+
+    private void validateNodeToEdgeConnectivity(final Node node)
+    {
+        for (final Edge edge : node.inEdges())
         {
-            for (final Edge edge : node.inEdges())
+            if (edge == null)
             {
-                if (edge == null)
-                {
-                    throw new CoreException(
-                            "Node {} is logically disconnected from some referenced in edge.",
-                            node.getIdentifier());
-                }
+                throw new CoreException(
+                        "Node {} is logically disconnected from some referenced in edge.",
+                        node.getIdentifier());
             }
-            for (final Edge edge : node.outEdges())
+        }
+        for (final Edge edge : node.outEdges())
+        {
+            if (edge == null)
             {
-                if (edge == null)
-                {
-                    throw new CoreException("Node {} is logically disconnected from some out edge.",
-                            node.getIdentifier());
-                }
+                throw new CoreException("Node {} is logically disconnected from some out edge.",
+                        node.getIdentifier());
             }
         }
     }
 
-    protected void validateNodeToEdgeLocationAccuracy()
+    private void validateNodeToEdgeLocationAccuracy(final Node node)
     {
-        for (final Node node : this.atlas.nodes())
+        final Location nodeLocation = node.getLocation();
+        for (final Edge edge : node.outEdges())
         {
-            final Location nodeLocation = node.getLocation();
-            for (final Edge edge : node.outEdges())
+            final Location edgeStartLocation = edge.asPolyLine().first();
+            if (!nodeLocation.equals(edgeStartLocation))
             {
-                final Location edgeStartLocation = edge.asPolyLine().first();
-                if (!nodeLocation.equals(edgeStartLocation))
-                {
-                    throw new CoreException(
-                            "Node {} at location {} references outEdge {} which starts at a different location {}",
-                            node.getIdentifier(), nodeLocation, edge.getIdentifier(),
-                            edgeStartLocation);
-                }
+                throw new CoreException(
+                        "Node {} at location {} references outEdge {} which starts at a different location {}",
+                        node.getIdentifier(), nodeLocation, edge.getIdentifier(),
+                        edgeStartLocation);
             }
-            for (final Edge edge : node.inEdges())
+        }
+        for (final Edge edge : node.inEdges())
+        {
+            final Location edgeEndLocation = edge.asPolyLine().last();
+            if (!nodeLocation.equals(edgeEndLocation))
             {
-                final Location edgeEndLocation = edge.asPolyLine().last();
-                if (!nodeLocation.equals(edgeEndLocation))
-                {
-                    throw new CoreException(
-                            "Node {} at location {} references inEdge {} which ends at a different location {}",
-                            node.getIdentifier(), nodeLocation, edge.getIdentifier(),
-                            edgeEndLocation);
-                }
+                throw new CoreException(
+                        "Node {} at location {} references inEdge {} which ends at a different location {}",
+                        node.getIdentifier(), nodeLocation, edge.getIdentifier(),
+                        edgeEndLocation);
             }
         }
     }
@@ -20,6 +20,7 @@ public class AtlasValidator
     private static final Logger logger = LoggerFactory.getLogger(AtlasValidator.class);
 
     private final Atlas atlas;
+    private int threads = 1;
 
     public AtlasValidator(final Atlas atlas)
     {
@@ -28,6 +29,11 @@ public class AtlasValidator
 
     public void validate()
     {
+        if (this.threads > 1)
+        {
+            validateInParallel();
+            return;
+        }
         logger.info("Starting validation of Atlas {}", this.atlas.getName());
         final Time start = Time.now();
         logger.trace("Starting relation validation of Atlas {}", this.atlas.getName());
@@ -49,58 +55,102 @@ public class AtlasValidator
                 start.elapsedSince());
     }
 
+    /**
+     * @param threads
+     *            The number of threads to validate with. With more than one thread, all the
+     *            validators run concurrently, each one on partitions of its entities, and all the
+     *            failures are reported together instead of only the first one.
+     * @return This {@link AtlasValidator}
+     */
+    public AtlasValidator withThreads(final int threads)
+    {
+        if (threads < 1)
+        {
+            throw new CoreException("Invalid number of threads: {}", threads);
+        }
+        this.threads = threads;
+        return this;
+    }
+
     protected void validateGeometricRelations()
     {
-        for (final Relation relation : this.atlas.relations())
+        this.atlas.relations().forEach(this::validateGeometricRelation);
+    }
+
+    protected void validateRelationsPresentAndLinked()
+    {
+        this.atlas.entities().forEach(this::validateRelationsPresentAndLinked);
+    }
+
+    protected void validateTagsPresent()
+    {
+        this.atlas.entities().forEach(this::validateTagsPresent);
+    }
+
+    private void validateGeometricRelation(final Relation relation)
+    {
+        if (relation instanceof ChangeRelation && relation.isGeometric()
+                && !((ChangeRelation) relation).preservedValidGeometry())
         {
-            if (relation instanceof ChangeRelation && relation.isGeometric()
-                    && !((ChangeRelation) relation).preservedValidGeometry())
-            {
-                throw new CoreException(
-                        "Relation {} had valid source geometry but invalid change geometry!",
-                        relation.getIdentifier());
+            throw new CoreException(
+                    "Relation {} had valid source geometry but invalid change geometry!",
+                    relation.getIdentifier());
 
-            }
         }
     }
 
-    protected void validateRelationsPresentAndLinked()
+    private void validateInParallel()
     {
-        for (final AtlasEntity entity : this.atlas.entities())
+        logger.info("Starting validation of Atlas {} with {} threads", this.atlas.getName(),
+                this.threads);
+        final Time start = Time.now();
+        final ParallelAtlasValidation validation = new ParallelAtlasValidation(this.atlas,
+                this.threads);
+        validation.check("parent relation", this.atlas.entities(),
+                this::validateRelationsPresentAndLinked);
+        validation.check("geometric relation", this.atlas.relations(),
+                this::validateGeometricRelation);
+        validation.check("tags", this.atlas.entities(), this::validateTagsPresent);
+        new AtlasLocationItemValidator(this.atlas).addChecks(validation);
+        new AtlasLineItemValidator(this.atlas).addChecks(validation);
+        new AtlasEdgeValidator(this.atlas).addChecks(validation);
+        new AtlasNodeValidator(this.atlas).addChecks(validation);
+        validation.run();
+        logger.info("Finished validation of Atlas {} in {}", this.atlas.getName(),
+                start.elapsedSince());
+    }
+
+    private void validateRelationsPresentAndLinked(final AtlasEntity entity)
+    {
+        for (final Relation relation : entity.relations())
         {
-            for (final Relation relation : entity.relations())
+            if (relation == null)
+            {
+                throw new CoreException(
+                        "Entity {} {} lists some parent relation that is not present: {}",
+                        entity.getType(), entity.getIdentifier(),
+                        entity.relations().stream()
+                                .map(parent -> parent == null ? "null"
+                                        : String.valueOf(parent.getIdentifier()))
+                                .collect(Collectors.toSet()));
+            }
+            if (!relation.members().asBean().getItemFor(entity.getIdentifier(), entity.getType())
+                    .isPresent())
             {
-                if (relation == null)
-                {
-                    throw new CoreException(
-                            "Entity {} {} lists some parent relation that is not present: {}",
-                            entity.getType(), entity.getIdentifier(),
-                            entity.relations().stream()
-                                    .map(parent -> parent == null ? "null"
-                                            : String.valueOf(parent.getIdentifier()))
-                                    .collect(Collectors.toSet()));
-                }
-                if (!relation.members().asBean()
-                        .getItemFor(entity.getIdentifier(), entity.getType()).isPresent())
-                {
-                    throw new CoreException(
-                            "Entity {} {} lists parent relation {} which does not have it as a member.",
-                            entity.getType(), entity.getIdentifier(), relation.getIdentifier());
-                }
+                throw new CoreException(
+                        "Entity {} {} lists parent relation {} which does not have it as a member.",
+                        entity.getType(), entity.getIdentifier(), relation.getIdentifier());
             }
         }
     }
 
-    protected void validateTagsPresent()
+    private void validateTagsPresent(final AtlasEntity entity)
     {
-        for (final AtlasEntity entity : this.atlas.entities())
+        final Map<String, String> tags = entity.getTags();
+        if (tags == null)
         {
-            final Map<String, String> tags = entity.getTags();
-            if (tags == null)
-            {
-                throw new CoreException("Entity {} {} is missing tags.", entity.getType(),
-                        entity.getIdentifier());
-            }
+            throw new CoreException("Entity {} {} is missing tags.", entity.getType(),
+                    entity.getIdentifier());
         }
     }
 }
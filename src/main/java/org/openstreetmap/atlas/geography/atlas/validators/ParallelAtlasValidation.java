@@ -0,0 +1,150 @@
+package org.openstreetmap.atlas.geography.atlas.validators;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.utilities.time.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Run the checks of the {@link Atlas} validators concurrently on a {@link ForkJoinPool}. Each check
+ * scans its entities and validates them in partitions, on all the threads. All the failures are
+ * collected, and reported together once every check is done.
+ *
+ * @author agent
+ */
+final class ParallelAtlasValidation
+{
+    private static final Logger logger = LoggerFactory.getLogger(ParallelAtlasValidation.class);
+
+    // Number of entities each task validates
+    private static final int PARTITION_SIZE = 10_000;
+    // Number of partitions each check can have in flight per thread
+    private static final int PENDING_PER_THREAD = 2;
+    // Number of failures detailed in the final exception
+    private static final int MAXIMUM_REPORTED_FAILURES = 20;
+
+    private final Atlas atlas;
+    private final int threads;
+    private final List<Runnable> scans = new ArrayList<>();
+    private final Queue<RuntimeException> failures = new ConcurrentLinkedQueue<>();
+    private final AtomicLong failureCount = new AtomicLong();
+
+    ParallelAtlasValidation(final Atlas atlas, final int threads)
+    {
+        if (threads < 1)
+        {
+            throw new CoreException("Invalid number of threads: {}", threads);
+        }
+        this.atlas = atlas;
+        this.threads = threads;
+    }
+
+    /**
+     * Add a check to run on some entities. A failure of one entity does not prevent the other
+     * entities from being checked.
+     *
+     * @param name
+     *            The name of the check, for logging
+     * @param entities
+     *            The entities to check
+     * @param check
+     *            The check of a single entity, which throws when the entity is not valid
+     * @param <T>
+     *            The type of the entities
+     */
+    <T> void check(final String name, final Iterable<T> entities, final Consumer<T> check)
+    {
+        this.scans.add(() -> scan(name, entities, check));
+    }
+
+    /**
+     * Run all the checks.
+     *
+     * @throws CoreException
+     *             if any entity failed any check
+     */
+    void run()
+    {
+        final ForkJoinPool pool = new ForkJoinPool(this.threads);
+        try
+        {
+            final List<ForkJoinTask<?>> tasks = this.scans.stream().map(pool::submit)
+                    .collect(Collectors.toList());
+            tasks.forEach(ForkJoinTask::join);
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+        final long count = this.failureCount.get();
+        if (count > 0)
+        {
+            final CoreException exception = new CoreException(
+                    "Atlas {} failed validation with {} failure(s):\n{}", this.atlas.getName(),
+                    count, this.failures.stream().map(Throwable::getMessage)
+                            .collect(Collectors.joining("\n")));
+            this.failures.forEach(exception::addSuppressed);
+            throw exception;
+        }
+    }
+
+    private <T> void scan(final String name, final Iterable<T> entities, final Consumer<T> check)
+    {
+        logger.trace("Starting {} validation of Atlas {}", name, this.atlas.getName());
+        final Time start = Time.now();
+        final Deque<ForkJoinTask<?>> pending = new ArrayDeque<>();
+        List<T> partition = new ArrayList<>(PARTITION_SIZE);
+        for (final T entity : entities)
+        {
+            partition.add(entity);
+            if (partition.size() == PARTITION_SIZE)
+            {
+                final List<T> full = partition;
+                pending.add(ForkJoinTask.adapt(() -> validate(full, check)).fork());
+                partition = new ArrayList<>(PARTITION_SIZE);
+                if (pending.size() > this.threads * PENDING_PER_THREAD)
+                {
+                    pending.poll().join();
+                }
+            }
+        }
+        validate(partition, check);
+        while (!pending.isEmpty())
+        {
+            pending.poll().join();
+        }
+        logger.trace("Finished {} validation of Atlas {} in {}", name, this.atlas.getName(),
+                start.elapsedSince());
+    }
+
+    private <T> void validate(final List<T> partition, final Consumer<T> check)
+    {
+        for (final T entity : partition)
+        {
+            try
+            {
+                check.accept(entity);
+            }
+            catch (final RuntimeException exception)
+            {
+                if (this.failureCount.incrementAndGet() <= MAXIMUM_REPORTED_FAILURES)
+                {
+                    this.failures.add(exception);
+                }
+            }
+        }
+    }
+}
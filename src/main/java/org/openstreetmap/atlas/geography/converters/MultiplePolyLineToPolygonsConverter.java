@@ -1,6 +1,9 @@
 package org.openstreetmap.atlas.geography.converters;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -347,6 +350,221 @@ public class MultiplePolyLineToPolygonsConverter
         }
     }
 
+    /**
+     * An index of the end points of a list of {@link PolyLine}s, in a primitive open addressing
+     * hash table keyed by {@link Location#asConcatenation()}. Each slot holds a chain of the
+     * {@link PolyLine} ends at that {@link Location}.
+     *
+     * @author agent
+     */
+    private static final class EndpointIndex
+    {
+        private static final int EMPTY = -1;
+        private static final int LOAD_FACTOR = 4;
+        private static final int MIXER = 0x9E3779B9;
+
+        private final long[] keys;
+        private final int[] heads;
+        // The end 2 * i is the first Location of PolyLine i, 2 * i + 1 is its last Location
+        private final int[] next;
+        private final int mask;
+
+        EndpointIndex(final List<PolyLine> polyLines)
+        {
+            int capacity = 2;
+            while (capacity < polyLines.size() * LOAD_FACTOR)
+            {
+                capacity <<= 1;
+            }
+            this.keys = new long[capacity];
+            this.heads = new int[capacity];
+            Arrays.fill(this.heads, EMPTY);
+            this.next = new int[polyLines.size() * 2];
+            this.mask = capacity - 1;
+            for (int index = 0; index < polyLines.size(); index++)
+            {
+                final PolyLine polyLine = polyLines.get(index);
+                add(polyLine.first().asConcatenation(), 2 * index);
+                add(polyLine.last().asConcatenation(), 2 * index + 1);
+            }
+        }
+
+        /**
+         * @return The unused {@link PolyLine} with an end at either {@link Location} that comes
+         *         first in circular order from the cursor, or -1 if there is none.
+         */
+        int closest(final Location head, final Location tail, final boolean[] used,
+                final int cursor)
+        {
+            int best = EMPTY;
+            int bestDistance = Integer.MAX_VALUE;
+            for (final Location location : new Location[] { head, tail })
+            {
+                final int slot = slot(location.asConcatenation());
+                for (int end = this.heads[slot]; end != EMPTY; end = this.next[end])
+                {
+                    final int index = end / 2;
+                    final int distance = Math.floorMod(index - cursor, used.length);
+                    if (!used[index] && distance < bestDistance)
+                    {
+                        best = index;
+                        bestDistance = distance;
+                    }
+                }
+            }
+            return best;
+        }
+
+        private void add(final long key, final int end)
+        {
+            final int slot = slot(key);
+            this.keys[slot] = key;
+            this.next[end] = this.heads[slot];
+            this.heads[slot] = end;
+        }
+
+        private int slot(final long key)
+        {
+            int slot = (int) (key ^ key >>> Integer.SIZE) * MIXER & this.mask;
+            while (this.heads[slot] != EMPTY && this.keys[slot] != key)
+            {
+                slot = slot + 1 & this.mask;
+            }
+            return slot;
+        }
+    }
+
+    /**
+     * A ring in construction from {@link PolyLine}s, that follows the same attachment rules as
+     * {@link PossiblePolygon}, but only keeps references to the {@link PolyLine}s. They are
+     * reversed and trimmed only when building the final {@link Polygon}.
+     *
+     * @author agent
+     */
+    private static final class IndexedRing
+    {
+        private final List<PolyLine> polyLines;
+        private final Deque<Segment> segments = new ArrayDeque<>();
+        private Location head;
+        private Location tail;
+        private boolean completed;
+
+        IndexedRing(final List<PolyLine> polyLines, final int seed)
+        {
+            this.polyLines = polyLines;
+            final PolyLine first = polyLines.get(seed);
+            this.completed = first instanceof Polygon || first.first().equals(first.last());
+            this.segments.add(new Segment(seed, false, false, false));
+            this.head = first.first();
+            this.tail = first.last();
+        }
+
+        /**
+         * Attach a {@link PolyLine} that has an end at the head or at the tail of this ring. This
+         * is the same as {@link PossiblePolygon#attach(PolyLine)}.
+         */
+        void attach(final int index)
+        {
+            final PolyLine candidate = this.polyLines.get(index);
+            final Location first = candidate.first();
+            final Location last = candidate.last();
+            final boolean append = this.tail.equals(first) || this.tail.equals(last);
+            final boolean prepend = last.equals(this.head) || first.equals(this.head);
+            boolean reversed = false;
+            boolean trimFirst = false;
+            boolean trimLast = false;
+            int size = candidate.size();
+            if (append)
+            {
+                reversed = !this.tail.equals(first);
+                if (size <= 1)
+                {
+                    this.completed |= prepend;
+                    return;
+                }
+                trimFirst = true;
+                size--;
+            }
+            if (prepend)
+            {
+                reversed |= !append && !last.equals(this.head);
+                if (size <= 1)
+                {
+                    this.completed |= append;
+                    return;
+                }
+                trimLast = true;
+            }
+            final Segment segment = new Segment(index, reversed, trimFirst, trimLast);
+            if (append)
+            {
+                this.segments.addLast(segment);
+                this.tail = reversed ? first : last;
+            }
+            else
+            {
+                this.segments.addFirst(segment);
+                this.head = reversed ? last : first;
+            }
+            this.completed |= append && prepend;
+        }
+
+        Location head()
+        {
+            return this.head;
+        }
+
+        boolean isCompleted()
+        {
+            return this.completed;
+        }
+
+        Location tail()
+        {
+            return this.tail;
+        }
+
+        Polygon toPolygon()
+        {
+            final List<Location> locations = new ArrayList<>();
+            for (final Segment segment : this.segments)
+            {
+                final PolyLine polyLine = this.polyLines.get(segment.index);
+                final int size = polyLine.size();
+                final int end = segment.trimLast ? size - 1 : size;
+                for (int position = segment.trimFirst ? 1 : 0; position < end; position++)
+                {
+                    locations.add(
+                            polyLine.get(segment.reversed ? size - 1 - position : position));
+                }
+            }
+            return new Polygon(locations);
+        }
+    }
+
+    /**
+     * A reference to a {@link PolyLine} of an {@link IndexedRing}, read in reverse or not, and
+     * without its first and/or last {@link Location}.
+     *
+     * @author agent
+     */
+    private static final class Segment
+    {
+        private final int index;
+        private final boolean reversed;
+        private final boolean trimFirst;
+        private final boolean trimLast;
+
+        Segment(final int index, final boolean reversed, final boolean trimFirst,
+                final boolean trimLast)
+        {
+            this.index = index;
+            this.reversed = reversed;
+            this.trimFirst = trimFirst;
+            this.trimLast = trimLast;
+        }
+    }
+
     private static final JtsPolyLineConverter JTS_POLY_LINE_CONVERTER = new JtsPolyLineConverter();
     private static final JtsPolygonConverter JTS_POLYGON_CONVERTER = new JtsPolygonConverter();
 
@@ -371,7 +589,7 @@ public class MultiplePolyLineToPolygonsConverter
         }
         else
         {
-            return convertLegacy(candidates);
+            return convertIndexed(candidates);
         }
     }
 
@@ -422,10 +640,10 @@ public class MultiplePolyLineToPolygonsConverter
             {
                 jtsException = new OpenPolygonException(errorMessage, locations);
             }
-            // Try the legacy convert
+            // Fall back to stitching the PolyLines, with the indexed version of the legacy convert
             try
             {
-                return convertLegacy(candidates);
+                return convertIndexed(candidates);
             }
             catch (final Exception e)
             {
@@ -436,6 +654,56 @@ public class MultiplePolyLineToPolygonsConverter
         }
     }
 
+    /**
+     * Assemble the {@link PolyLine}s the same way as {@link #convertLegacy(Iterable)}, with the same
+     * resulting {@link Polygon}s. Instead of trying all the remaining {@link PolyLine}s in turn
+     * with the ring being built, the ones that can attach to it are found in an index of their end
+     * points. This keeps large relations like coastlines or country boundaries linear.
+     *
+     * @param candidates
+     *            The {@link PolyLine}s to assemble
+     * @return The {@link Polygon}s
+     */
+    public Iterable<Polygon> convertIndexed(final Iterable<PolyLine> candidates)
+    {
+        final List<PolyLine> polyLines = Iterables.asList(candidates);
+        final int size = polyLines.size();
+        final EndpointIndex index = new EndpointIndex(polyLines);
+        final boolean[] used = new boolean[size];
+        final List<Polygon> result = new ArrayList<>();
+        // The legacy queue of remaining PolyLines is the unused PolyLines, in circular order from
+        // the cursor
+        int cursor = 0;
+        int remaining = size;
+        while (remaining > 0)
+        {
+            int seed = cursor;
+            while (used[seed])
+            {
+                seed = (seed + 1) % size;
+            }
+            used[seed] = true;
+            remaining--;
+            cursor = (seed + 1) % size;
+            final IndexedRing ring = new IndexedRing(polyLines, seed);
+            while (!ring.isCompleted())
+            {
+                final int next = index.closest(ring.head(), ring.tail(), used, cursor);
+                if (next < 0)
+                {
+                    throw new OpenPolygonException("Unable to close all the polygons!",
+                            Arrays.asList(ring.head(), ring.tail()));
+                }
+                used[next] = true;
+                remaining--;
+                cursor = (next + 1) % size;
+                ring.attach(next);
+            }
+            result.add(ring.toPolygon());
+        }
+        return result;
+    }
+
     public Iterable<Polygon> convertLegacy(final Iterable<PolyLine> candidates) // NOSONAR
     {
         // The complete polygons
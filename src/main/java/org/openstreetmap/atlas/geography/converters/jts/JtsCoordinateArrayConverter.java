@@ -8,8 +8,10 @@ import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.CoordinateSequence;
 import org.locationtech.jts.geom.impl.CoordinateArraySequence;
 import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.PackedLocationList;
 import org.openstreetmap.atlas.utilities.collections.Iterables;
 import org.openstreetmap.atlas.utilities.conversion.TwoWayConverter;
+import org.openstreetmap.atlas.utilities.scalars.Angle;
 
 /**
  * Convert an {@link Iterable} of {@link Location} to a {@link CoordinateSequence} from the JTS
@@ -42,6 +44,11 @@ public class JtsCoordinateArrayConverter
     @Override
     public CoordinateSequence convert(final Iterable<Location> locations)
     {
+        if (locations instanceof PackedLocationList)
+        {
+            final PackedLocationList packed = (PackedLocationList) locations;
+            return convert(packed, packed.size());
+        }
         final int size;
         if (locations instanceof Collection)
         {
@@ -59,4 +66,31 @@ public class JtsCoordinateArrayConverter
         }
         return new CoordinateArraySequence(result);
     }
+
+    /**
+     * Convert directly from the dm7 values, without creating any {@link Location}.
+     *
+     * @param locations
+     *            The packed locations
+     * @param size
+     *            The size of the resulting sequence. When larger than the number of locations, the
+     *            remaining coordinates repeat the first location, which closes rings.
+     * @return The resulting {@link CoordinateSequence}
+     */
+    public CoordinateSequence convert(final PackedLocationList locations, final int size)
+    {
+        final Coordinate[] result = new Coordinate[size];
+        final int count = Math.min(size, locations.size());
+        for (int index = 0; index < count; index++)
+        {
+            result[index] = new Coordinate(
+                    (double) locations.longitudeDm7(index) / Angle.DM7_PER_DEGREE,
+                    (double) locations.latitudeDm7(index) / Angle.DM7_PER_DEGREE);
+        }
+        for (int index = count; index < size; index++)
+        {
+            result[index] = new Coordinate(result[0]);
+        }
+        return new CoordinateArraySequence(result);
+    }
 }
@@ -9,6 +9,7 @@ import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.LinearRing;
 import org.locationtech.jts.geom.impl.CoordinateArraySequence;
 import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.PackedLocationList;
 import org.openstreetmap.atlas.geography.Polygon;
 import org.openstreetmap.atlas.utilities.conversion.TwoWayConverter;
 
@@ -56,6 +57,12 @@ public class JtsLinearRingConverter implements TwoWayConverter<Polygon, LinearRi
     @Override
     public LinearRing convert(final Polygon object)
     {
+        if (object.isPacked())
+        {
+            final PackedLocationList packed = object.packed();
+            return new LinearRing(COORDINATE_ARRAY_CONVERTER.convert(packed,
+                    Math.max(packed.size() + 1, MINIMUM_LINEAR_RING_SIZE)), FACTORY);
+        }
         final List<Location> locations = new ArrayList<>(object);
         // Hack to close the loop, as JTS expects it...
         locations.add(locations.get(0));
@@ -3,6 +3,7 @@ package org.openstreetmap.atlas.geography.converters.jts;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.LinearRing;
+import org.openstreetmap.atlas.geography.PackedLocationList;
 import org.openstreetmap.atlas.geography.PolyLine;
 import org.openstreetmap.atlas.geography.Polygon;
 import org.openstreetmap.atlas.utilities.conversion.TwoWayConverter;
@@ -35,10 +36,23 @@ public class JtsPolyLineConverter implements TwoWayConverter<PolyLine, LineStrin
         if (polyLine instanceof Polygon)
         {
             final Polygon polygon = (Polygon) polyLine;
+            if (polygon.isPacked())
+            {
+                final PackedLocationList packed = polygon.packed();
+                final int size = polygon.first().equals(polygon.last()) ? packed.size()
+                        : packed.size() + 1;
+                return new LinearRing(COORDINATE_ARRAY_CONVERTER.convert(packed, size), FACTORY);
+            }
             return new LinearRing(
                     COORDINATE_ARRAY_CONVERTER.convert(new PolyLine(polygon.closedLoop())),
                     FACTORY);
         }
+        if (polyLine.isPacked())
+        {
+            final PackedLocationList packed = polyLine.packed();
+            return new LineString(COORDINATE_ARRAY_CONVERTER.convert(packed, packed.size()),
+                    FACTORY);
+        }
         return new LineString(COORDINATE_ARRAY_CONVERTER.convert(polyLine), FACTORY);
     }
 }
@@ -8,6 +8,8 @@ import org.openstreetmap.atlas.exception.CoreException;
 import org.openstreetmap.atlas.geography.Located;
 import org.openstreetmap.atlas.geography.Rectangle;
 import org.openstreetmap.atlas.geography.atlas.items.Edge;
+import org.openstreetmap.atlas.utilities.metrics.LatencyHistogram;
+import org.openstreetmap.atlas.utilities.metrics.MetricsRegistry;
 
 /**
  * This {@link PackedSpatialIndex} accepts a {@link Located} object (e.g. an {@link Edge}), but only
@@ -23,6 +25,8 @@ import org.openstreetmap.atlas.geography.atlas.items.Edge;
 public abstract class PackedSpatialIndex<L extends Located, Packed> implements SpatialIndex<L>
 {
     private static final long serialVersionUID = 1747435801359663115L;
+    private static final LatencyHistogram QUERY = MetricsRegistry.global()
+            .latency("atlas.spatial.index.query");
     private final JtsSpatialIndex<Packed> index;
 
     public PackedSpatialIndex(final JtsSpatialIndex<Packed> index)
@@ -55,15 +59,31 @@ public abstract class PackedSpatialIndex<L extends Located, Packed> implements S
     @Override
     public Iterable<L> get(final Rectangle bound)
     {
-        return ((ArrayList<Packed>) this.index.get(bound)).stream().map(this::restore)
-                .collect(Collectors.toList());
+        final long start = QUERY.start();
+        try
+        {
+            return ((ArrayList<Packed>) this.index.get(bound)).stream().map(this::restore)
+                    .collect(Collectors.toList());
+        }
+        finally
+        {
+            QUERY.stop(start);
+        }
     }
 
     @Override
     public Iterable<L> get(final Rectangle bound, final Predicate<L> predicate)
     {
-        return ((ArrayList<Packed>) this.index.get(bound)).stream().map(this::restore)
-                .filter(predicate).collect(Collectors.toList());
+        final long start = QUERY.start();
+        try
+        {
+            return ((ArrayList<Packed>) this.index.get(bound)).stream().map(this::restore)
+                    .filter(predicate).collect(Collectors.toList());
+        }
+        finally
+        {
+            QUERY.stop(start);
+        }
     }
 
     /**
@@ -0,0 +1,85 @@
+package org.openstreetmap.atlas.proto.adapters;
+
+import java.util.List;
+
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.proto.ProtoIntegerStringDictionary;
+import org.openstreetmap.atlas.proto.ProtoSerializable;
+import org.openstreetmap.atlas.utilities.compression.StringDictionary;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+/**
+ * Implements the {@link ProtoAdapter} interface to connect {@link StringDictionary} and
+ * {@link ProtoIntegerStringDictionary}. This is the same message as the one
+ * {@link ProtoIntegerStringDictionaryAdapter} uses, so a {@link StringDictionary} can be read from
+ * a serialized {@link org.openstreetmap.atlas.utilities.compression.IntegerDictionary}, and the
+ * other way around.
+ *
+ * @author agent
+ */
+public class ProtoStringDictionaryAdapter implements ProtoAdapter
+{
+    @Override
+    public ProtoSerializable deserialize(final byte[] byteArray)
+    {
+        ProtoIntegerStringDictionary protoDictionary = null;
+        try
+        {
+            protoDictionary = ProtoIntegerStringDictionary.parseFrom(byteArray);
+        }
+        catch (final InvalidProtocolBufferException exception)
+        {
+            throw new CoreException("Error encountered while parsing protobuf bytestream",
+                    exception);
+        }
+
+        // The words are not necessarily serialized in index order
+        final List<Integer> indexes = protoDictionary.getIndexesList();
+        final List<String> words = protoDictionary.getWordsList();
+        final String[] sortedWords = new String[protoDictionary.getCurrentIndex()];
+        for (int index = 0; index < words.size(); index++)
+        {
+            final String word = words.get(index);
+            sortedWords[indexes.get(index)] = ProtoIntegerStringDictionaryAdapter.NULL_SENTINEL_VALUE
+                    .equals(word) ? null : word;
+        }
+
+        final StringDictionary dictionary = new StringDictionary();
+        for (int index = 0; index < sortedWords.length; index++)
+        {
+            if (dictionary.add(sortedWords[index]) != index)
+            {
+                throw new CoreException("Word {} is duplicated or missing at index {}",
+                        sortedWords[index], index);
+            }
+        }
+        return dictionary;
+    }
+
+    @Override
+    public byte[] serialize(final ProtoSerializable serializable)
+    {
+        if (!(serializable instanceof StringDictionary))
+        {
+            throw new CoreException(
+                    "Invalid ProtoSerializable type was provided to {}: cannot serialize {}",
+                    this.getClass().getName(), serializable.getClass().getName());
+        }
+        final StringDictionary dictionary = (StringDictionary) serializable;
+
+        final ProtoIntegerStringDictionary.Builder protoDictionaryBuilder = ProtoIntegerStringDictionary
+                .newBuilder();
+        final int size = dictionary.size();
+        for (int index = 0; index < size; index++)
+        {
+            final String word = dictionary.word(index);
+            protoDictionaryBuilder.addIndexes(index);
+            protoDictionaryBuilder.addWords(
+                    word == null ? ProtoIntegerStringDictionaryAdapter.NULL_SENTINEL_VALUE : word);
+        }
+        protoDictionaryBuilder.setCurrentIndex(size);
+
+        return protoDictionaryBuilder.build().toByteArray();
+    }
+}
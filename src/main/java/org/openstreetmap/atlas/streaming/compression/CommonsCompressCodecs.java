@@ -0,0 +1,85 @@
+package org.openstreetmap.atlas.streaming.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorInputStream;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+import org.openstreetmap.atlas.exception.CoreException;
+
+/**
+ * The codecs of {@link Compressor} and {@link Decompressor} backed by commons-compress. They are
+ * kept out of those interfaces, and called from lambdas rather than method references, so that
+ * this class is only loaded on first use and loading the interfaces does not need commons-compress
+ * on the class path.
+ *
+ * @author agent
+ */
+final class CommonsCompressCodecs
+{
+    static InputStream lz4(final InputStream input)
+    {
+        try
+        {
+            return new FramedLZ4CompressorInputStream(input);
+        }
+        catch (final IOException e)
+        {
+            throw new CoreException("Cannot create decompressor.", e);
+        }
+    }
+
+    static OutputStream lz4(final OutputStream out)
+    {
+        try
+        {
+            return new FramedLZ4CompressorOutputStream(out);
+        }
+        catch (final IOException e)
+        {
+            throw new CoreException("Cannot create compressor.", e);
+        }
+    }
+
+    static InputStream zstandard(final InputStream input)
+    {
+        checkZstandard();
+        try
+        {
+            return new ZstdCompressorInputStream(input);
+        }
+        catch (final IOException e)
+        {
+            throw new CoreException("Cannot create decompressor.", e);
+        }
+    }
+
+    static OutputStream zstandard(final OutputStream out)
+    {
+        checkZstandard();
+        try
+        {
+            return new ZstdCompressorOutputStream(out);
+        }
+        catch (final IOException e)
+        {
+            throw new CoreException("Cannot create compressor.", e);
+        }
+    }
+
+    private static void checkZstandard()
+    {
+        if (!ZstdUtils.isZstdCompressionAvailable())
+        {
+            throw new CoreException("Zstandard compression is not available on this platform.");
+        }
+    }
+
+    private CommonsCompressCodecs()
+    {
+    }
+}
@@ -38,6 +38,15 @@ public interface Compressor
             throw new CoreException("Cannot create compressor.", e);
         }
     };
+    /**
+     * LZ4 frame format, fast to compress and very fast to decompress
+     */
+    Compressor LZ4 = out -> CommonsCompressCodecs.lz4(out);
+    /**
+     * Zstandard, which compresses about as well as GZIP and decompresses several times faster. It
+     * needs the native zstd-jni library.
+     */
+    Compressor ZSTANDARD = out -> CommonsCompressCodecs.zstandard(out);
 
     /**
      * @param out
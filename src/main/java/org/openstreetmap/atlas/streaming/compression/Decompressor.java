@@ -38,6 +38,8 @@ public interface Decompressor
             throw new CoreException("Cannot create decompressor.", e);
         }
     };
+    Decompressor LZ4 = input -> CommonsCompressCodecs.lz4(input);
+    Decompressor ZSTANDARD = input -> CommonsCompressCodecs.zstandard(input);
 
     /**
      * @param input
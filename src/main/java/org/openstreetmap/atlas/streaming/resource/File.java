@@ -280,11 +280,9 @@ public class File extends AbstractWritableResource implements Comparable<File>
     public File(final Path path, final boolean createParentDirectories)
     {
         this.path = path;
-        if (path.toAbsolutePath().toString().endsWith(FileSuffix.GZIP.toString()))
-        {
-            this.setCompressor(Compressor.GZIP);
-            this.setDecompressor(Decompressor.GZIP);
-        }
+        final String absolutePath = path.toAbsolutePath().toString();
+        FileSuffix.compressorFor(absolutePath).ifPresent(this::setCompressor);
+        FileSuffix.decompressorFor(absolutePath).ifPresent(this::setDecompressor);
         if (this.path.getParent() != null && createParentDirectories)
         {
             /*
@@ -5,6 +5,9 @@ import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import org.openstreetmap.atlas.streaming.compression.Compressor;
+import org.openstreetmap.atlas.streaming.compression.Decompressor;
+
 import com.google.common.base.Joiner;
 
 /**
@@ -12,11 +15,14 @@ import com.google.common.base.Joiner;
  */
 public enum FileSuffix
 {
+    ARROW(".arrow"),
     ATLAS(".atlas"),
     CHANGESET(".cs"),
     CSV(".csv"),
     GEO_JSON(".geojson"),
     GZIP(".gz"),
+    LZ4(".lz4"),
+    ZSTANDARD(".zst"),
     // extended csv
     EXTENDED(".ext"),
     JSON(".json"),
@@ -33,6 +39,52 @@ public enum FileSuffix
 
     private final String suffix;
 
+    /**
+     * @param name
+     *            A file or resource name
+     * @return The {@link Compressor} for the compression suffix of the name, if it has one
+     */
+    public static Optional<Compressor> compressorFor(final String name)
+    {
+        return suffixFor(name).map(suffix ->
+        {
+            switch (suffix)
+            {
+                case GZIP:
+                    return Compressor.GZIP;
+                case LZ4:
+                    return Compressor.LZ4;
+                case ZSTANDARD:
+                    return Compressor.ZSTANDARD;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    /**
+     * @param name
+     *            A file or resource name
+     * @return The {@link Decompressor} for the compression suffix of the name, if it has one
+     */
+    public static Optional<Decompressor> decompressorFor(final String name)
+    {
+        return suffixFor(name).map(suffix ->
+        {
+            switch (suffix)
+            {
+                case GZIP:
+                    return Decompressor.GZIP;
+                case LZ4:
+                    return Decompressor.LZ4;
+                case ZSTANDARD:
+                    return Decompressor.ZSTANDARD;
+                default:
+                    return null;
+            }
+        });
+    }
+
     public static FileSuffix getEnum(final String value)
     {
         return suffixFor(value).orElseThrow(
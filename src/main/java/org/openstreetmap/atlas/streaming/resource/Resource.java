@@ -99,6 +99,15 @@ public interface Resource
         return getClass().getName() + "@" + Integer.toHexString(hashCode());
     }
 
+    /**
+     * @return True if the name of this resource lets believe that the resource contains Gzipped,
+     *         LZ4 or Zstandard compressed contents.
+     */
+    default boolean isCompressed()
+    {
+        return FileSuffix.decompressorFor(getName()).isPresent();
+    }
+
     /**
      * @return True if the name of this resource lets believe that the resource contains Gzipped
      *         contents.
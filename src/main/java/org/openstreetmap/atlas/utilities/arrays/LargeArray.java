@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.ObjIntConsumer;
 
 import org.openstreetmap.atlas.exception.CoreException;
 import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlasSerializer;
@@ -105,28 +106,7 @@ public abstract class LargeArray<T> implements Iterable<T>, Serializable
         {
             throw new CoreException("The array is full. Cannot add " + item);
         }
-        final int arrayIndex = arrayIndex(this.nextIndex);
-        final int indexInside = indexInside(this.nextIndex);
-        if (this.arrays.size() <= arrayIndex)
-        {
-            // Set an array size
-            this.arrays.add(getNewArray(this.memoryBlockSize));
-        }
-        if (indexInside >= this.arrays.get(arrayIndex).size())
-        {
-            final PrimitiveArray<T> old = this.arrays.get(arrayIndex);
-            final int maximumSizeFromDoubling = Math.min(2 * old.size(), this.subArraySize);
-            final long filledArraysSize = filledArraysSize();
-            final int maximumSizeFromTotal = (int) Math.min(this.maximumSize - filledArraysSize,
-                    this.subArraySize);
-            final int newSize = Math.min(maximumSizeFromDoubling, maximumSizeFromTotal);
-            logger.warn("Resizing array {} of {} ({}), from {} to {}.", arrayIndex,
-                    getName() == null ? super.toString() : getName(),
-                    this.getClass().getSimpleName(), old.size(), newSize);
-            this.arrays.set(arrayIndex, old.withNewSize(newSize));
-        }
-        this.arrays.get(arrayIndex(this.nextIndex)).set(indexInside(this.nextIndex), item);
-        this.nextIndex++;
+        add((array, index) -> array.set(index, item));
     }
 
     /**
@@ -322,6 +302,46 @@ public abstract class LargeArray<T> implements Iterable<T>, Serializable
         return this;
     }
 
+    /**
+     * Add an item to the array, letting the caller set it directly in the backing
+     * {@link PrimitiveArray}. This is for sub-classes which store items in a raw form, and can add
+     * them without building the item first.
+     *
+     * @param setter
+     *            The function setting the item in the {@link PrimitiveArray}, at the provided index
+     * @throws CoreException
+     *             if the array is full.
+     */
+    protected void add(final ObjIntConsumer<PrimitiveArray<T>> setter)
+    {
+        if (this.nextIndex >= this.maximumSize)
+        {
+            throw new CoreException("The array is full. Cannot add a new item.");
+        }
+        final int arrayIndex = arrayIndex(this.nextIndex);
+        final int indexInside = indexInside(this.nextIndex);
+        if (this.arrays.size() <= arrayIndex)
+        {
+            // Set an array size
+            this.arrays.add(getNewArray(this.memoryBlockSize));
+        }
+        if (indexInside >= this.arrays.get(arrayIndex).size())
+        {
+            final PrimitiveArray<T> old = this.arrays.get(arrayIndex);
+            final int maximumSizeFromDoubling = Math.min(2 * old.size(), this.subArraySize);
+            final long filledArraysSize = filledArraysSize();
+            final int maximumSizeFromTotal = (int) Math.min(this.maximumSize - filledArraysSize,
+                    this.subArraySize);
+            final int newSize = Math.min(maximumSizeFromDoubling, maximumSizeFromTotal);
+            logger.warn("Resizing array {} of {} ({}), from {} to {}.", arrayIndex,
+                    getName() == null ? super.toString() : getName(),
+                    this.getClass().getSimpleName(), old.size(), newSize);
+            this.arrays.set(arrayIndex, old.withNewSize(newSize));
+        }
+        setter.accept(this.arrays.get(arrayIndex(this.nextIndex)), indexInside(this.nextIndex));
+        this.nextIndex++;
+    }
+
     /**
      * @return the arrays, for testing
      */
@@ -339,6 +359,33 @@ public abstract class LargeArray<T> implements Iterable<T>, Serializable
      */
     protected abstract PrimitiveArray<T> getNewArray(int size);
 
+    /**
+     * @param index
+     *            The index of an item
+     * @return The {@link PrimitiveArray} backing the item at that index. The item is at
+     *         {@link #primitiveIndex(long)} in that array.
+     * @throws CoreException
+     *             If the index is out of bounds.
+     */
+    protected PrimitiveArray<T> primitiveArray(final long index)
+    {
+        if (index >= this.nextIndex)
+        {
+            throw new CoreException(index + " is out of bounds (size = " + size() + ")");
+        }
+        return this.arrays.get(arrayIndex(index));
+    }
+
+    /**
+     * @param index
+     *            The index of an item
+     * @return The index of the item inside its {@link #primitiveArray(long)}
+     */
+    protected int primitiveIndex(final long index)
+    {
+        return indexInside(index);
+    }
+
     private int arrayIndex(final long index)
     {
         return (int) (index / this.subArraySize);
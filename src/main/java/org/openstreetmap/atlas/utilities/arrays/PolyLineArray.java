@@ -37,6 +37,16 @@ public class PolyLineArray extends LargeArray<PolyLine> implements ProtoSerializ
             this.encodings = new byte[size][];
         }
 
+        /**
+         * @param index
+         *            The index of the item
+         * @return The {@link StringCompressedPolyLine} encoding of the item
+         */
+        public byte[] getEncoding(final int index)
+        {
+            return this.encodings[index];
+        }
+
         @Override
         public void set(final int index, final Poly item)
         {
@@ -56,6 +66,19 @@ public class PolyLineArray extends LargeArray<PolyLine> implements ProtoSerializ
             this.encodings[index] = compressed.getEncoding();
         }
 
+        /**
+         * Set an item from its {@link StringCompressedPolyLine} encoding, without decoding it.
+         *
+         * @param index
+         *            The index of the item
+         * @param encoding
+         *            The encoding
+         */
+        public void setEncoding(final int index, final byte[] encoding)
+        {
+            this.encodings[index] = encoding;
+        }
+
         protected byte[][] getEncodings()
         {
             return this.encodings;
@@ -115,6 +138,29 @@ public class PolyLineArray extends LargeArray<PolyLine> implements ProtoSerializ
         super();
     }
 
+    /**
+     * Add a {@link PolyLine} from its {@link StringCompressedPolyLine} encoding, without decoding
+     * it.
+     *
+     * @param encoding
+     *            The encoding, typically coming from {@link #getEncoding(long)}
+     */
+    public void addEncoding(final byte[] encoding)
+    {
+        add((array, index) -> ((PrimitivePointsArray<?>) array).setEncoding(index, encoding));
+    }
+
+    /**
+     * @param index
+     *            The index of the {@link PolyLine}
+     * @return The {@link StringCompressedPolyLine} encoding of the {@link PolyLine}. It is not
+     *         copied, and should not be modified.
+     */
+    public byte[] getEncoding(final long index)
+    {
+        return ((PrimitivePointsArray<?>) primitiveArray(index)).getEncoding(primitiveIndex(index));
+    }
+
     @Override
     public ProtoAdapter getProtoAdapter()
     {
@@ -66,6 +66,28 @@ public class PolygonArray extends LargeArray<Polygon> implements ProtoSerializab
         super();
     }
 
+    /**
+     * Add a {@link Polygon} from its {@link StringCompressedPolygon} encoding, without decoding it.
+     *
+     * @param encoding
+     *            The encoding, typically coming from {@link #getEncoding(long)}
+     */
+    public void addEncoding(final byte[] encoding)
+    {
+        add((array, index) -> ((PrimitivePointsArray<?>) array).setEncoding(index, encoding));
+    }
+
+    /**
+     * @param index
+     *            The index of the {@link Polygon}
+     * @return The {@link StringCompressedPolygon} encoding of the {@link Polygon}. It is not
+     *         copied, and should not be modified.
+     */
+    public byte[] getEncoding(final long index)
+    {
+        return ((PrimitivePointsArray<?>) primitiveArray(index)).getEncoding(primitiveIndex(index));
+    }
+
     @Override
     public ProtoAdapter getProtoAdapter()
     {
@@ -1,13 +1,23 @@
 package org.openstreetmap.atlas.utilities.caching;
 
 import java.net.URI;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
 
+import org.openstreetmap.atlas.exception.CoreException;
 import org.openstreetmap.atlas.streaming.resource.Resource;
 import org.openstreetmap.atlas.utilities.caching.strategies.CachingStrategy;
 import org.openstreetmap.atlas.utilities.caching.strategies.NamespaceCachingStrategy;
+import org.openstreetmap.atlas.utilities.threads.VirtualThreads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,6 +33,15 @@ import org.slf4j.LoggerFactory;
  * extend it and overload the {@link ConcurrentResourceCache#get} method to take more convenient
  * parameters.
  * </p>
+ * <p>
+ * By default, all the fetches synchronize on the cache. Only a cache given a population executor
+ * with {@link #withPopulationExecutor(Executor)}, for example {@link VirtualThreads#shared()},
+ * fetches concurrently: the fetches of different {@link URI}s run on that executor, and concurrent
+ * fetches of the same {@link URI} share a single fetch and its {@link Resource}. This requires a
+ * {@link CachingStrategy} and a fetcher that are safe to use concurrently for different
+ * {@link URI}s, and {@link Resource}s that can be read more than once, like the ones the
+ * {@link CachingStrategy}s of this package return.
+ * </p>
  *
  * @author lcram
  */
@@ -33,6 +52,9 @@ public class ConcurrentResourceCache implements ResourceCache
     private final CachingStrategy cachingStrategy;
     private final Function<URI, Optional<Resource>> fetcher;
     private final UUID cacheID;
+    private final Map<URI, CompletableFuture<Optional<Resource>>> inFlightFetches;
+    private final ReadWriteLock invalidationLock;
+    private Executor populationExecutor;
 
     /**
      * Create a new {@link ConcurrentResourceCache} with the given fetcher and strategy.
@@ -48,35 +70,78 @@ public class ConcurrentResourceCache implements ResourceCache
         this.cachingStrategy = cachingStrategy;
         this.fetcher = fetcher;
         this.cacheID = UUID.randomUUID();
+        this.inFlightFetches = new ConcurrentHashMap<>();
+        this.invalidationLock = new ReentrantReadWriteLock();
         logger.info("Initialized cache {} with ID {}", this.getClass().getName(), this.cacheID);
     }
 
     @Override
     public Optional<Resource> get(final URI resourceURI)
     {
-        Optional<Resource> cachedResource;
-
-        // We must synchronize the application of the caching strategy since we cannot guarantee
-        // that the strategy does not utilize internal global state.
-        synchronized (this)
+        if (this.populationExecutor == null)
         {
-            cachedResource = this.cachingStrategy.attemptFetch(resourceURI, this.fetcher);
+            return fetchSynchronized(resourceURI);
         }
-
-        if (cachedResource.isEmpty())
+        try
         {
-            logger.warn("CacheID {}: cache fetch of {} failed, falling back to default fetcher...",
-                    this.cacheID, resourceURI);
-
-            // We must also synchronize the application of the fetcher, since it may rely on state
-            // shared by the calling threads.
-            synchronized (this)
+            return getAsync(resourceURI).join();
+        }
+        catch (final CompletionException exception)
+        {
+            if (exception.getCause() instanceof RuntimeException)
             {
-                cachedResource = this.fetcher.apply(resourceURI);
+                throw (RuntimeException) exception.getCause();
             }
+            throw new CoreException("CacheID {}: unable to fetch {}", this.cacheID, resourceURI,
+                    exception.getCause());
         }
+    }
 
-        return cachedResource;
+    /**
+     * Get a resource without blocking, when this cache has a population executor. Otherwise, the
+     * resource is fetched by the calling thread.
+     *
+     * @param resourceURI
+     *            the {@link URI} of the resource
+     * @return the future resource, shared with the concurrent fetches of the same {@link URI}
+     */
+    public CompletableFuture<Optional<Resource>> getAsync(final URI resourceURI)
+    {
+        if (this.populationExecutor == null)
+        {
+            return CompletableFuture.completedFuture(fetchSynchronized(resourceURI));
+        }
+        final CompletableFuture<Optional<Resource>> fetch = new CompletableFuture<>();
+        final CompletableFuture<Optional<Resource>> inFlight = this.inFlightFetches
+                .putIfAbsent(resourceURI, fetch);
+        if (inFlight != null)
+        {
+            return inFlight;
+        }
+        try
+        {
+            this.populationExecutor.execute(() ->
+            {
+                try
+                {
+                    fetch.complete(fetchConcurrently(resourceURI));
+                }
+                catch (final RuntimeException exception)
+                {
+                    fetch.completeExceptionally(exception);
+                }
+                finally
+                {
+                    this.inFlightFetches.remove(resourceURI, fetch);
+                }
+            });
+        }
+        catch (final RejectedExecutionException exception)
+        {
+            this.inFlightFetches.remove(resourceURI, fetch);
+            fetch.completeExceptionally(exception);
+        }
+        return fetch;
     }
 
     /**
@@ -93,11 +158,19 @@ public class ConcurrentResourceCache implements ResourceCache
     public void invalidate()
     {
         logger.info("CacheID {}: invalidating cache", this.cacheID);
-        // Synchronize invalidation with the same lock used to fetch and cache. This prevents
+        // Synchronize invalidation with the same locks used to fetch and cache. This prevents
         // invalidation corruption.
-        synchronized (this)
+        this.invalidationLock.writeLock().lock();
+        try
         {
-            this.cachingStrategy.invalidate();
+            synchronized (this)
+            {
+                this.cachingStrategy.invalidate();
+            }
+        }
+        finally
+        {
+            this.invalidationLock.writeLock().unlock();
         }
     }
 
@@ -105,14 +178,37 @@ public class ConcurrentResourceCache implements ResourceCache
     public void invalidate(final URI resourceURI)
     {
         logger.info("CacheID {}: invalidating resource {}", this.cacheID, resourceURI);
-        // Synchronize invalidation with the same lock used to fetch and cache. This prevents
+        // Synchronize invalidation with the same locks used to fetch and cache. This prevents
         // invalidation corruption.
-        synchronized (this)
+        this.invalidationLock.writeLock().lock();
+        try
+        {
+            synchronized (this)
+            {
+                this.cachingStrategy.invalidate(resourceURI);
+            }
+        }
+        finally
         {
-            this.cachingStrategy.invalidate(resourceURI);
+            this.invalidationLock.writeLock().unlock();
         }
     }
 
+    /**
+     * Populate this cache on an executor. The fetches of different {@link URI}s then run
+     * concurrently, and the concurrent fetches of the same {@link URI} share a single fetch.
+     *
+     * @param executor
+     *            the executor, for example {@link VirtualThreads#shared()}. Null to synchronize all
+     *            the fetches on this cache instead.
+     * @return this {@link ConcurrentResourceCache}
+     */
+    public ConcurrentResourceCache withPopulationExecutor(final Executor executor)
+    {
+        this.populationExecutor = executor;
+        return this;
+    }
+
     /**
      * Get a {@link UUID} for this cache instance. This is useful for logging.
      *
@@ -122,4 +218,53 @@ public class ConcurrentResourceCache implements ResourceCache
     {
         return this.cacheID;
     }
+
+    private Optional<Resource> fetchConcurrently(final URI resourceURI)
+    {
+        this.invalidationLock.readLock().lock();
+        try
+        {
+            Optional<Resource> cachedResource = this.cachingStrategy.attemptFetch(resourceURI,
+                    this.fetcher);
+            if (cachedResource.isEmpty())
+            {
+                logger.warn(
+                        "CacheID {}: cache fetch of {} failed, falling back to default fetcher...",
+                        this.cacheID, resourceURI);
+                cachedResource = this.fetcher.apply(resourceURI);
+            }
+            return cachedResource;
+        }
+        finally
+        {
+            this.invalidationLock.readLock().unlock();
+        }
+    }
+
+    private Optional<Resource> fetchSynchronized(final URI resourceURI)
+    {
+        Optional<Resource> cachedResource;
+
+        // We must synchronize the application of the caching strategy since we cannot guarantee
+        // that the strategy does not utilize internal global state.
+        synchronized (this)
+        {
+            cachedResource = this.cachingStrategy.attemptFetch(resourceURI, this.fetcher);
+        }
+
+        if (cachedResource.isEmpty())
+        {
+            logger.warn("CacheID {}: cache fetch of {} failed, falling back to default fetcher...",
+                    this.cacheID, resourceURI);
+
+            // We must also synchronize the application of the fetcher, since it may rely on state
+            // shared by the calling threads.
+            synchronized (this)
+            {
+                cachedResource = this.fetcher.apply(resourceURI);
+            }
+        }
+
+        return cachedResource;
+    }
 }
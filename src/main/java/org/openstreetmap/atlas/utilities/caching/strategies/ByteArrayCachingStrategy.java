@@ -1,10 +1,10 @@
 package org.openstreetmap.atlas.utilities.caching.strategies;
 
 import java.net.URI;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import org.openstreetmap.atlas.streaming.resource.ByteArrayResource;
@@ -31,7 +31,7 @@ public class ByteArrayCachingStrategy extends AbstractCachingStrategy
 
     public ByteArrayCachingStrategy()
     {
-        this.resourceCache = new HashMap<>();
+        this.resourceCache = new ConcurrentHashMap<>();
         this.initialArraySize = DEFAULT_BYTE_ARRAY_SIZE;
         this.useExactResourceSize = false;
     }
@@ -42,7 +42,8 @@ public class ByteArrayCachingStrategy extends AbstractCachingStrategy
     {
         final UUID resourceUUID = this.getUUIDForResourceURI(resourceURI);
 
-        if (!this.resourceCache.containsKey(resourceUUID))
+        ByteArrayResource cachedResource = this.resourceCache.get(resourceUUID);
+        if (cachedResource == null)
         {
             logger.trace(
                     "StrategyID {}: attempting to cache resource {} in byte array keyed on UUID {}",
@@ -73,11 +74,12 @@ public class ByteArrayCachingStrategy extends AbstractCachingStrategy
             }
             resourceBytes.writeAndClose(resource.get().readBytesAndClose());
             this.resourceCache.put(resourceUUID, resourceBytes);
+            cachedResource = resourceBytes;
         }
         logger.trace("StrategyID {}: returning cached resource {} from byte array keyed on UUID {}",
                 this.getStrategyID(), resourceURI, resourceUUID);
 
-        return Optional.of(this.resourceCache.get(resourceUUID));
+        return Optional.of(cachedResource);
     }
 
     @Override
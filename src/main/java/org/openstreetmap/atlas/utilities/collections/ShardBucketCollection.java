@@ -2,15 +2,19 @@ package org.openstreetmap.atlas.utilities.collections;
 
 import java.io.Serializable;
 import java.lang.reflect.Array;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.apache.commons.lang3.ArrayUtils;
@@ -24,9 +28,16 @@ import org.openstreetmap.atlas.utilities.scalars.Counter;
 
 /**
  * A collection wrapper for a set of collections associated with shards containing located items,
- * such as CheckFlags or AtlasEntities. Supports concurrent add, contains, remove. The term bucket
- * is used because of the usability of the collections mostly as storage for various location based
- * sorting tasks. Does not support safe iteration while modifying.
+ * such as CheckFlags or AtlasEntities. The term bucket is used because of the usability of the
+ * collections mostly as storage for various location based sorting tasks.
+ * <p>
+ * Supports concurrent add, contains, remove and iteration. Each bucket collection is guarded by its
+ * own lock, so threads only contend when they touch the same shard, and the bucket collections do
+ * not need to be thread safe themselves. {@link #addAll(Collection)} groups the items by bucket
+ * first, and takes each bucket's lock once. Iterating and streaming copy one bucket at a time under
+ * its lock, so they are safe during concurrent writes, and reflect each bucket as it was when it
+ * was reached. The collections returned by the getters giving access to the buckets themselves are
+ * not guarded.
  *
  * @param <LocatedType>
  *            Located item type
@@ -40,7 +51,7 @@ public abstract class ShardBucketCollection<LocatedType extends Located & Serial
 
     /**
      * A helper class that associates a shard with the index that its collection is at in the
-     * collectionBuckets array.
+     * collectionBuckets array. It is also the lock guarding that collection.
      */
     private static class ShardToCollectionIndex implements Located, Serializable
     {
@@ -74,8 +85,9 @@ public abstract class ShardBucketCollection<LocatedType extends Located & Serial
     private static final long serialVersionUID = -7892704554302160820L;
 
     private final CollectionType[] collectionBuckets;
+    private final ShardToCollectionIndex[] bucketLocks;
     private final RTree<ShardToCollectionIndex> collectionIndex;
-    private final HashMap<Shard, ShardToCollectionIndex> initializedShards = new HashMap<>();
+    private final Map<Shard, ShardToCollectionIndex> initializedShards = new ConcurrentHashMap<>();
     private final Rectangle maximumBounds;
 
     public ShardBucketCollection(final Rectangle maximumBounds, final Integer zoomLevel)
@@ -103,13 +115,18 @@ public abstract class ShardBucketCollection<LocatedType extends Located & Serial
     {
         this.maximumBounds = maximumBounds;
         this.collectionIndex = new RTree<>();
+        final List<ShardToCollectionIndex> locks = new ArrayList<>();
         final Counter counter = new Counter();
         shards.forEach(shardBucket ->
         {
             final ShardToCollectionIndex shardToCollectionIndex = new ShardToCollectionIndex(
                     (int) counter.getValueAndIncrement(), shardBucket);
             this.collectionIndex.add(shardToCollectionIndex.bounds(), shardToCollectionIndex);
+            locks.add(shardToCollectionIndex);
         });
+        // Build the index upfront, so concurrent lookups only ever read it
+        this.collectionIndex.build();
+        this.bucketLocks = locks.toArray(new ShardToCollectionIndex[0]);
         this.collectionBuckets = (CollectionType[]) Array.newInstance(
                 this.initializeBucketCollection().getClass(), (int) counter.getValue());
     }
@@ -117,58 +134,66 @@ public abstract class ShardBucketCollection<LocatedType extends Located & Serial
     @Override
     public final boolean add(final LocatedType item)
     {
-        if (Objects.nonNull(item) && item.bounds().overlaps(this.maximumBounds))
+        boolean added = false;
+        for (final ShardToCollectionIndex index : this.bucketsToAddTo(item))
         {
-            final List<ShardToCollectionIndex> indexes = this.collectionIndex.get(item.bounds());
-            if (indexes.size() == 1)
+            synchronized (index)
             {
-                return this.addFunction(item, this.getOrCreateBucketCollectionAt(indexes.get(0)),
-                        indexes.get(0).getShard());
-            }
-            else if (this.allowMultipleBucketInsertion())
-            {
-                final long addedAmount = indexes.stream()
-                        .filter(index -> this.addFunction(item,
-                                this.getOrCreateBucketCollectionAt(index), index.getShard()))
-                        .count();
-                return addedAmount > 0;
-            }
-            else
-            {
-                final Shard toInsertAt = this.resolveShard(item, indexes.stream()
-                        .map(ShardToCollectionIndex::getShard).collect(Collectors.toList()));
-                final Optional<ShardToCollectionIndex> toAddTo = indexes.stream()
-                        .filter(index -> toInsertAt.equals(index.getShard())).findFirst();
-                return toAddTo
-                        .map(index -> this.addFunction(item,
-                                this.getOrCreateBucketCollectionAt(index), index.getShard()))
-                        .orElse(false);
+                added |= this.addFunction(item, this.getOrCreateBucketCollectionAt(index),
+                        index.getShard());
             }
         }
-        return false;
+        return added;
     }
 
+    /**
+     * Add all the items, grouped by bucket so that each bucket's lock is only taken once.
+     *
+     * @param collection
+     *            The items to add
+     * @return True if the collection changed as a result
+     */
     @Override
     public boolean addAll(final Collection<? extends LocatedType> collection)
     {
-        if (Objects.nonNull(collection))
+        if (Objects.isNull(collection))
         {
-            final long addCount = collection.stream().filter(this::add).count();
-            return addCount > 0;
+            return false;
         }
-        return false;
+        final Map<ShardToCollectionIndex, List<LocatedType>> buckets = new IdentityHashMap<>();
+        for (final LocatedType item : collection)
+        {
+            for (final ShardToCollectionIndex index : this.bucketsToAddTo(item))
+            {
+                buckets.computeIfAbsent(index, key -> new ArrayList<>()).add(item);
+            }
+        }
+        boolean added = false;
+        for (final Map.Entry<ShardToCollectionIndex, List<LocatedType>> entry : buckets.entrySet())
+        {
+            final ShardToCollectionIndex index = entry.getKey();
+            synchronized (index)
+            {
+                final CollectionType bucket = this.getOrCreateBucketCollectionAt(index);
+                for (final LocatedType item : entry.getValue())
+                {
+                    added |= this.addFunction(item, bucket, index.getShard());
+                }
+            }
+        }
+        return added;
     }
 
     @Override
     public void clear()
     {
-        synchronized (this.collectionBuckets)
+        for (final ShardToCollectionIndex index : this.bucketLocks)
         {
-            for (int i = 0; i < this.collectionBuckets.length; i++)
+            synchronized (index)
             {
-                this.collectionBuckets[i] = null;
+                this.collectionBuckets[index.getIndex()] = null;
+                this.initializedShards.remove(index.getShard());
             }
-            this.initializedShards.clear();
         }
     }
 
@@ -180,8 +205,17 @@ public abstract class ShardBucketCollection<LocatedType extends Located & Serial
         if (typedItem.isPresent())
         {
             final LocatedType item = typedItem.get();
-            return this.getBucketCollectionsForBounds(item.bounds())
-                    .anyMatch(collection -> collection.contains(item));
+            for (final ShardToCollectionIndex index : this.collectionIndex.get(item.bounds()))
+            {
+                synchronized (index)
+                {
+                    final CollectionType collection = this.collectionBuckets[index.getIndex()];
+                    if (Objects.nonNull(collection) && collection.contains(item))
+                    {
+                        return true;
+                    }
+                }
+            }
         }
         return false;
     }
@@ -208,11 +242,13 @@ public abstract class ShardBucketCollection<LocatedType extends Located & Serial
     }
 
     /**
-     * @return a stream of all initialized bucket collections
+     * @return a stream of all initialized bucket collections. Those are not guarded against
+     *         concurrent modifications.
      */
     public Stream<CollectionType> getAllBucketCollections()
     {
-        return Arrays.stream(this.collectionBuckets).filter(Objects::nonNull);
+        return Arrays.stream(this.bucketLocks).map(this::getCollectionAt)
+                .filter(Objects::nonNull);
     }
 
     /**
@@ -288,9 +324,17 @@ public abstract class ShardBucketCollection<LocatedType extends Located & Serial
             final LocatedType item = typedItem.get();
             if (item.bounds().overlaps(this.maximumBounds))
             {
-                final long removeCount = this.getBucketCollectionsForBounds(item.bounds())
-                        .filter(collection -> collection.remove(item)).count();
-                return removeCount > 0;
+                boolean removed = false;
+                for (final ShardToCollectionIndex index : this.collectionIndex.get(item.bounds()))
+                {
+                    synchronized (index)
+                    {
+                        final CollectionType collection = this.collectionBuckets[index
+                                .getIndex()];
+                        removed |= Objects.nonNull(collection) && collection.remove(item);
+                    }
+                }
+                return removed;
             }
         }
         return false;
@@ -318,32 +362,34 @@ public abstract class ShardBucketCollection<LocatedType extends Located & Serial
     @Override
     public int size()
     {
-        synchronized (this.collectionBuckets)
+        int size = 0;
+        for (final ShardToCollectionIndex index : this.bucketLocks)
         {
-            return this.getAllBucketCollections().mapToInt(CollectionType::size).sum();
+            synchronized (index)
+            {
+                final CollectionType collection = this.collectionBuckets[index.getIndex()];
+                size += Objects.isNull(collection) ? 0 : collection.size();
+            }
         }
+        return size;
     }
 
+    /**
+     * @return A stream over a copy of each bucket, taken when the stream reaches it. It is safe to
+     *         modify this collection while consuming it.
+     */
     @Override
     public Stream<LocatedType> stream()
     {
-        return this.getAllBucketCollections().flatMap(CollectionType::stream);
+        return IntStream.range(0, this.bucketLocks.length)
+                .mapToObj(position -> this.snapshotOf(this.bucketLocks[position]))
+                .flatMap(List::stream);
     }
 
     @Override
     public Object[] toArray()
     {
-        Object[] toReturn = new Object[0];
-        synchronized (this.collectionBuckets)
-        {
-            final Iterator<CollectionType> bucketIterator = this.getAllBucketCollections()
-                    .iterator();
-            while (bucketIterator.hasNext())
-            {
-                toReturn = ArrayUtils.addAll(toReturn, bucketIterator.next().toArray());
-            }
-        }
-        return toReturn;
+        return this.stream().toArray();
     }
 
     @Override
@@ -404,6 +450,31 @@ public abstract class ShardBucketCollection<LocatedType extends Located & Serial
                 "Implement this method when not allowing multiple bucket insertion");
     }
 
+    /**
+     * Find the buckets an item should be added to, following
+     * {@link #allowMultipleBucketInsertion()} and {@link #resolveShard(Located, List)}
+     *
+     * @param item
+     *            The item to add
+     * @return The buckets to add the item to, possibly empty
+     */
+    private List<ShardToCollectionIndex> bucketsToAddTo(final LocatedType item)
+    {
+        if (Objects.isNull(item) || !item.bounds().overlaps(this.maximumBounds))
+        {
+            return Collections.emptyList();
+        }
+        final List<ShardToCollectionIndex> indexes = this.collectionIndex.get(item.bounds());
+        if (indexes.size() <= 1 || this.allowMultipleBucketInsertion())
+        {
+            return indexes;
+        }
+        final Shard toInsertAt = this.resolveShard(item, indexes.stream()
+                .map(ShardToCollectionIndex::getShard).collect(Collectors.toList()));
+        return indexes.stream().filter(index -> toInsertAt.equals(index.getShard())).findFirst()
+                .map(Collections::singletonList).orElse(Collections.emptyList());
+    }
+
     @SuppressWarnings("unchecked")
     private Optional<LocatedType> castToLocatedType(final Object object)
     {
@@ -417,37 +488,36 @@ public abstract class ShardBucketCollection<LocatedType extends Located & Serial
         }
     }
 
-    private void createBucketCollectionAt(final ShardToCollectionIndex index)
-    {
-        synchronized (this.collectionBuckets)
-        {
-            if (Objects.isNull(this.collectionBuckets[index.getIndex()]))
-            {
-                this.collectionBuckets[index.getIndex()] = this.initializeBucketCollection();
-                this.initializedShards.put(index.getShard(), index);
-            }
-        }
-    }
-
     private CollectionType getCollectionAt(final ShardToCollectionIndex index)
     {
-        synchronized (this.collectionBuckets)
+        synchronized (index)
         {
             return this.collectionBuckets[index.getIndex()];
         }
     }
 
+    /**
+     * Needs to be called while holding the lock of the index.
+     */
     private CollectionType getOrCreateBucketCollectionAt(final ShardToCollectionIndex index)
     {
-        final CollectionType collection = this.getCollectionAt(index);
+        CollectionType collection = this.collectionBuckets[index.getIndex()];
         if (Objects.isNull(collection))
         {
-            this.createBucketCollectionAt(index);
-            return this.getCollectionAt(index);
+            collection = this.initializeBucketCollection();
+            this.collectionBuckets[index.getIndex()] = collection;
+            this.initializedShards.put(index.getShard(), index);
         }
-        else
+        return collection;
+    }
+
+    private List<LocatedType> snapshotOf(final ShardToCollectionIndex index)
+    {
+        synchronized (index)
         {
-            return collection;
+            final CollectionType collection = this.collectionBuckets[index.getIndex()];
+            return Objects.isNull(collection) ? Collections.emptyList()
+                    : new ArrayList<>(collection);
         }
     }
 
@@ -0,0 +1,326 @@
+package org.openstreetmap.atlas.utilities.command.subcommands;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.AtlasProjection;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.streaming.resource.File;
+import org.openstreetmap.atlas.streaming.resource.Resource;
+import org.openstreetmap.atlas.streaming.resource.WritableResource;
+
+/**
+ * A sidecar index of the atlas and OSM identifiers each atlas file contains, per {@link ItemType}.
+ * It lets an identifier search open only the atlas files that can match, instead of all of them.
+ * <p>
+ * The identifiers of each file are kept as sorted primitive arrays, and looked up with a binary
+ * search. Each file is indexed with its length and modification time, so that a file that changed
+ * since it was indexed is indexed again. The index is saved in a compact binary format, and is
+ * meant to be built once for a directory of atlases and updated as new files are searched.
+ *
+ * @author agent
+ */
+public class AtlasIdentifierIndex
+{
+    /**
+     * The identifiers of one indexed atlas file
+     *
+     * @author agent
+     */
+    private static final class IndexedFile
+    {
+        private final long length;
+        private final long lastModified;
+        private final Map<ItemType, long[]> identifiers;
+        private final Map<ItemType, long[]> osmIdentifiers;
+
+        IndexedFile(final long length, final long lastModified,
+                final Map<ItemType, long[]> identifiers, final Map<ItemType, long[]> osmIdentifiers)
+        {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.identifiers = identifiers;
+            this.osmIdentifiers = osmIdentifiers;
+        }
+    }
+
+    // The only parts of an atlas the index needs
+    public static final AtlasProjection IDENTIFIERS_PROJECTION = AtlasProjection.all()
+            .withContents();
+
+    private static final int MAGIC = 0x41494458;
+    private static final int VERSION = 1;
+
+    private final Map<String, IndexedFile> files = new TreeMap<>();
+    private boolean modified = false;
+
+    /**
+     * @param resource
+     *            The {@link Resource} a previous index was saved to
+     * @return The loaded {@link AtlasIdentifierIndex}
+     */
+    public static AtlasIdentifierIndex load(final Resource resource)
+    {
+        final AtlasIdentifierIndex result = new AtlasIdentifierIndex();
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(resource.read())))
+        {
+            if (input.readInt() != MAGIC)
+            {
+                throw new CoreException("{} is not an atlas identifier index", resource.getName());
+            }
+            final int version = input.readInt();
+            if (version != VERSION)
+            {
+                throw new CoreException("Unsupported atlas identifier index version {} in {}",
+                        version, resource.getName());
+            }
+            final int numberOfFiles = input.readInt();
+            for (int index = 0; index < numberOfFiles; index++)
+            {
+                final String path = input.readUTF();
+                final long length = input.readLong();
+                final long lastModified = input.readLong();
+                result.files.put(path, new IndexedFile(length, lastModified, readArrays(input),
+                        readArrays(input)));
+            }
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("Unable to load atlas identifier index {}", resource.getName(),
+                    exception);
+        }
+        return result;
+    }
+
+    private static long lastModified(final File file)
+    {
+        try
+        {
+            return Files.getLastModifiedTime(file.toPath()).toMillis();
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("Unable to read the modification time of {}", file,
+                    exception);
+        }
+    }
+
+    private static Map<ItemType, long[]> readArrays(final DataInputStream input)
+            throws IOException
+    {
+        final Map<ItemType, long[]> result = new EnumMap<>(ItemType.class);
+        for (final ItemType type : ItemType.values())
+        {
+            final long[] array = new long[input.readInt()];
+            for (int index = 0; index < array.length; index++)
+            {
+                array[index] = input.readLong();
+            }
+            result.put(type, array);
+        }
+        return result;
+    }
+
+    private static long[] sortedDistinct(final long[] values, final int size)
+    {
+        final long[] sorted = Arrays.copyOf(values, size);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int index = 0; index < sorted.length; index++)
+        {
+            if (index == 0 || sorted[index] != sorted[distinct - 1])
+            {
+                sorted[distinct++] = sorted[index];
+            }
+        }
+        return Arrays.copyOf(sorted, distinct);
+    }
+
+    private static void writeArrays(final DataOutputStream output,
+            final Map<ItemType, long[]> arrays) throws IOException
+    {
+        for (final ItemType type : ItemType.values())
+        {
+            final long[] array = arrays.get(type);
+            output.writeInt(array.length);
+            for (final long value : array)
+            {
+                output.writeLong(value);
+            }
+        }
+    }
+
+    /**
+     * Index an atlas file, replacing what was indexed for it before.
+     *
+     * @param file
+     *            The atlas file
+     * @param atlas
+     *            The {@link Atlas} loaded from that file. Only its identifiers are read, so it can
+     *            be loaded with {@link #IDENTIFIERS_PROJECTION}.
+     */
+    public void add(final File file, final Atlas atlas)
+    {
+        final Map<ItemType, long[]> identifiers = new EnumMap<>(ItemType.class);
+        final Map<ItemType, long[]> osmIdentifiers = new EnumMap<>(ItemType.class);
+        final Map<ItemType, Integer> sizes = new EnumMap<>(ItemType.class);
+        for (final ItemType type : ItemType.values())
+        {
+            identifiers.put(type, new long[0]);
+            osmIdentifiers.put(type, new long[0]);
+            sizes.put(type, 0);
+        }
+        for (final AtlasEntity entity : atlas.entities())
+        {
+            final ItemType type = entity.getType();
+            final int size = sizes.get(type);
+            if (size == identifiers.get(type).length)
+            {
+                final int capacity = Math.max(2 * size, 1);
+                identifiers.put(type, Arrays.copyOf(identifiers.get(type), capacity));
+                osmIdentifiers.put(type, Arrays.copyOf(osmIdentifiers.get(type), capacity));
+            }
+            identifiers.get(type)[size] = entity.getIdentifier();
+            osmIdentifiers.get(type)[size] = entity.getOsmIdentifier();
+            sizes.put(type, size + 1);
+        }
+        for (final ItemType type : ItemType.values())
+        {
+            identifiers.put(type, sortedDistinct(identifiers.get(type), sizes.get(type)));
+            osmIdentifiers.put(type, sortedDistinct(osmIdentifiers.get(type), sizes.get(type)));
+        }
+        this.files.put(file.getAbsolutePathString(),
+                new IndexedFile(file.length(), lastModified(file), identifiers, osmIdentifiers));
+        this.modified = true;
+    }
+
+    /**
+     * @param file
+     *            An atlas file
+     * @param types
+     *            The {@link ItemType}s to look in
+     * @param identifiers
+     *            Atlas identifiers
+     * @return True if the indexed file contains at least one of the atlas identifiers in one of
+     *         the {@link ItemType}s
+     */
+    public boolean containsAnyIdentifier(final File file, final Set<ItemType> types,
+            final Set<Long> identifiers)
+    {
+        return containsAny(indexed(file).identifiers, types, identifiers);
+    }
+
+    /**
+     * @param file
+     *            An atlas file
+     * @param types
+     *            The {@link ItemType}s to look in
+     * @param osmIdentifiers
+     *            OSM identifiers
+     * @return True if the indexed file contains at least one of the OSM identifiers in one of the
+     *         {@link ItemType}s
+     */
+    public boolean containsAnyOsmIdentifier(final File file, final Set<ItemType> types,
+            final Set<Long> osmIdentifiers)
+    {
+        return containsAny(indexed(file).osmIdentifiers, types, osmIdentifiers);
+    }
+
+    /**
+     * @param file
+     *            An atlas file
+     * @return True if the file is indexed, and did not change since
+     */
+    public boolean covers(final File file)
+    {
+        final IndexedFile indexed = this.files.get(file.getAbsolutePathString());
+        return indexed != null && indexed.length == file.length()
+                && indexed.lastModified == lastModified(file);
+    }
+
+    /**
+     * @return True if files were indexed since this index was loaded
+     */
+    public boolean isModified()
+    {
+        return this.modified;
+    }
+
+    /**
+     * @param resource
+     *            The {@link WritableResource} to save this index to
+     */
+    public void save(final WritableResource resource)
+    {
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(resource.write())))
+        {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(this.files.size());
+            for (final Map.Entry<String, IndexedFile> entry : this.files.entrySet())
+            {
+                final IndexedFile indexed = entry.getValue();
+                output.writeUTF(entry.getKey());
+                output.writeLong(indexed.length);
+                output.writeLong(indexed.lastModified);
+                writeArrays(output, indexed.identifiers);
+                writeArrays(output, indexed.osmIdentifiers);
+            }
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("Unable to save atlas identifier index {}", resource.getName(),
+                    exception);
+        }
+        this.modified = false;
+    }
+
+    /**
+     * @return The number of indexed files
+     */
+    public int size()
+    {
+        return this.files.size();
+    }
+
+    private boolean containsAny(final Map<ItemType, long[]> arrays, final Set<ItemType> types,
+            final Set<Long> values)
+    {
+        for (final ItemType type : types)
+        {
+            final long[] array = arrays.get(type);
+            for (final Long value : values)
+            {
+                if (Arrays.binarySearch(array, value) >= 0)
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private IndexedFile indexed(final File file)
+    {
+        final IndexedFile indexed = this.files.get(file.getAbsolutePathString());
+        if (indexed == null)
+        {
+            throw new CoreException("{} is not indexed", file);
+        }
+        return indexed;
+    }
+}
@@ -19,6 +19,7 @@ import org.openstreetmap.atlas.geography.Location;
 import org.openstreetmap.atlas.geography.PolyLine;
 import org.openstreetmap.atlas.geography.Polygon;
 import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.AtlasResourceLoader;
 import org.openstreetmap.atlas.geography.atlas.builder.RelationBean;
 import org.openstreetmap.atlas.geography.atlas.complete.CompleteEntity;
 import org.openstreetmap.atlas.geography.atlas.complete.PrettifyStringFormat;
@@ -40,6 +41,7 @@ import org.openstreetmap.atlas.tags.filters.TaggableFilter;
 import org.openstreetmap.atlas.tags.filters.matcher.TaggableMatcher;
 import org.openstreetmap.atlas.utilities.collections.Sets;
 import org.openstreetmap.atlas.utilities.collections.StringList;
+import org.openstreetmap.atlas.utilities.command.AtlasShellToolsException;
 import org.openstreetmap.atlas.utilities.command.abstractcommand.CommandOutputDelegate;
 import org.openstreetmap.atlas.utilities.command.abstractcommand.OptionAndArgumentDelegate;
 import org.openstreetmap.atlas.utilities.command.parsing.OptionOptionality;
@@ -208,6 +210,10 @@ public class AtlasSearchCommand extends AtlasLoaderCommand
     private static final String OSMID_OPTION_DESCRIPTION = "A comma separated list of OSM ids for which to search.";
     private static final String OSMID_OPTION_HINT = "osmids";
 
+    private static final String IDENTIFIER_INDEX_OPTION_LONG = "identifier-index";
+    private static final String IDENTIFIER_INDEX_OPTION_DESCRIPTION = "Only open the atlases that may contain the --id or --osmid identifiers, according to an index file. Atlases missing from the index, or changed since, are indexed and the index file is updated.";
+    private static final String IDENTIFIER_INDEX_OPTION_HINT = "index-file";
+
     private static final String ALL_OPTION_LONG = "all";
     private static final String ALL_OPTION_DESCRIPTION = "Ignore all other criteria and just print all entities.";
 
@@ -256,6 +262,9 @@ public class AtlasSearchCommand extends AtlasLoaderCommand
 
     private final Set<Atlas> matchingAtlases;
 
+    private File identifierIndexFile;
+    private AtlasIdentifierIndex identifierIndex;
+
     private final OptionAndArgumentDelegate optionAndArgumentDelegate;
     private final CommandOutputDelegate outputDelegate;
 
@@ -290,6 +299,17 @@ public class AtlasSearchCommand extends AtlasLoaderCommand
     @Override
     public int finish()
     {
+        if (this.identifierIndex != null && this.identifierIndex.isModified())
+        {
+            this.identifierIndex.save(this.identifierIndexFile);
+            if (this.optionAndArgumentDelegate.hasVerboseOption())
+            {
+                this.outputDelegate.printlnCommandMessage("saved identifier index of "
+                        + this.identifierIndex.size() + " atlas(es) to "
+                        + this.identifierIndexFile.getAbsolutePathString());
+            }
+        }
+
         if (this.optionAndArgumentDelegate.hasOption(COLLECT_OPTION_LONG)
                 && !this.matchingAtlases.isEmpty())
         {
@@ -398,6 +418,10 @@ public class AtlasSearchCommand extends AtlasLoaderCommand
         registerOptionWithRequiredArgument(OSMID_OPTION_LONG, OSMID_OPTION_DESCRIPTION,
                 OptionOptionality.OPTIONAL, OSMID_OPTION_HINT, ALL_TYPES_CONTEXT, EDGE_ONLY_CONTEXT,
                 NODE_ONLY_CONTEXT, RELATION_ONLY_CONTEXT);
+        registerOptionWithRequiredArgument(IDENTIFIER_INDEX_OPTION_LONG,
+                IDENTIFIER_INDEX_OPTION_DESCRIPTION, OptionOptionality.OPTIONAL,
+                IDENTIFIER_INDEX_OPTION_HINT, ALL_TYPES_CONTEXT, EDGE_ONLY_CONTEXT,
+                NODE_ONLY_CONTEXT, RELATION_ONLY_CONTEXT);
 
         registerOption(ALL_OPTION_LONG, ALL_OPTION_DESCRIPTION, OptionOptionality.OPTIONAL,
                 SHOW_ALL_CONTEXT);
@@ -509,6 +533,23 @@ public class AtlasSearchCommand extends AtlasLoaderCommand
         this.osmIds = this.optionAndArgumentDelegate
                 .getOptionArgument(OSMID_OPTION_LONG, this::parseCommaSeparatedLongs)
                 .orElse(new HashSet<>());
+        if (this.optionAndArgumentDelegate.hasOption(IDENTIFIER_INDEX_OPTION_LONG))
+        {
+            if (this.ids.isEmpty() && this.osmIds.isEmpty())
+            {
+                this.outputDelegate.printlnWarnMessage("--" + IDENTIFIER_INDEX_OPTION_LONG
+                        + " is ignored without --" + ID_OPTION_LONG + " or --" + OSMID_OPTION_LONG);
+            }
+            else
+            {
+                this.identifierIndexFile = new File(this.optionAndArgumentDelegate
+                        .getOptionArgument(IDENTIFIER_INDEX_OPTION_LONG)
+                        .orElseThrow(AtlasShellToolsException::new), this.getFileSystem());
+                this.identifierIndex = this.identifierIndexFile.exists()
+                        ? AtlasIdentifierIndex.load(this.identifierIndexFile)
+                        : new AtlasIdentifierIndex();
+            }
+        }
 
         if (this.typesToCheckFromOption.isEmpty() && this.boundingWkts.isEmpty()
                 && this.geometryWkts.isEmpty() && this.subGeometryWkts.isEmpty()
@@ -714,6 +755,46 @@ public class AtlasSearchCommand extends AtlasLoaderCommand
         }
     }
 
+    /**
+     * With an identifier index, only load the atlases that contain at least one of the searched
+     * atlas identifiers and one of the searched OSM identifiers, in the searched types. The atlases
+     * the index does not cover yet are indexed first, from their identifiers only.
+     */
+    @Override
+    protected boolean shouldLoad(final File atlasResource)
+    {
+        if (this.identifierIndex == null)
+        {
+            return true;
+        }
+        if (!this.identifierIndex.covers(atlasResource))
+        {
+            if (this.optionAndArgumentDelegate.hasVerboseOption())
+            {
+                this.outputDelegate
+                        .printlnCommandMessage("indexing " + atlasResource.getAbsolutePathString());
+            }
+            final Optional<Atlas> identifiers = new AtlasResourceLoader()
+                    .withProjection(AtlasIdentifierIndex.IDENTIFIERS_PROJECTION)
+                    .safeLoad(atlasResource);
+            if (!identifiers.isPresent())
+            {
+                // Let the loader report the atlas it cannot load
+                return true;
+            }
+            this.identifierIndex.add(atlasResource, identifiers.get());
+        }
+        final Set<ItemType> types = new HashSet<>(this.impliedTypesToCheck);
+        if (!this.typesToCheckFromOption.isEmpty())
+        {
+            types.retainAll(this.typesToCheckFromOption);
+        }
+        return (this.ids.isEmpty()
+                || this.identifierIndex.containsAnyIdentifier(atlasResource, types, this.ids))
+                && (this.osmIds.isEmpty() || this.identifierIndex
+                        .containsAnyOsmIdentifier(atlasResource, types, this.osmIds));
+    }
+
     private List<AtlasEntity> entitiesBoundedByWktGeometry(final Iterable<String> wkts,
             final Atlas atlas) // NOSONAR
     {
@@ -0,0 +1,147 @@
+package org.openstreetmap.atlas.utilities.command.subcommands;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.arrow.ArrowAtlasExporter;
+import org.openstreetmap.atlas.streaming.resource.File;
+import org.openstreetmap.atlas.streaming.resource.FileSuffix;
+import org.openstreetmap.atlas.utilities.command.abstractcommand.AbstractAtlasShellToolsCommand;
+import org.openstreetmap.atlas.utilities.command.abstractcommand.CommandOutputDelegate;
+import org.openstreetmap.atlas.utilities.command.abstractcommand.OptionAndArgumentDelegate;
+import org.openstreetmap.atlas.utilities.command.parsing.OptionOptionality;
+import org.openstreetmap.atlas.utilities.command.subcommands.templates.AtlasLoaderTemplate;
+import org.openstreetmap.atlas.utilities.command.subcommands.templates.OutputDirectoryTemplate;
+
+/**
+ * Export atlases to columnar Apache Arrow IPC files, using {@link ArrowAtlasExporter}.
+ *
+ * @author agent
+ */
+public class AtlasToArrowCommand extends AbstractAtlasShellToolsCommand
+{
+    private static final String BATCH_SIZE_OPTION_LONG = "batch-size";
+    private static final String BATCH_SIZE_OPTION_DESCRIPTION = "The maximum number of rows in each Arrow record batch (default "
+            + ArrowAtlasExporter.DEFAULT_BATCH_SIZE + ").";
+    private static final String BATCH_SIZE_OPTION_HINT = "rows";
+
+    private final OptionAndArgumentDelegate optionAndArgumentDelegate;
+    private final CommandOutputDelegate outputDelegate;
+
+    private ArrowAtlasExporter exporter;
+
+    public static void main(final String[] args)
+    {
+        new AtlasToArrowCommand().runSubcommandAndExit(args);
+    }
+
+    public AtlasToArrowCommand()
+    {
+        this.optionAndArgumentDelegate = this.getOptionAndArgumentDelegate();
+        this.outputDelegate = this.getCommandOutputDelegate();
+    }
+
+    @Override
+    public int execute()
+    {
+        return AtlasLoaderTemplate.execute(this, this::start, this::processAtlas, null);
+    }
+
+    @Override
+    public String getCommandName()
+    {
+        return "atlas2arrow";
+    }
+
+    @Override
+    public String getSimpleDescription()
+    {
+        return "export atlases to columnar Apache Arrow files";
+    }
+
+    @Override
+    public void registerManualPageSections()
+    {
+        addManualPageSection("DESCRIPTION", AtlasToArrowCommand.class
+                .getResourceAsStream("AtlasToArrowCommandDescriptionSection.txt"));
+        addManualPageSection("EXAMPLES", AtlasToArrowCommand.class
+                .getResourceAsStream("AtlasToArrowCommandExamplesSection.txt"));
+        registerManualPageSectionsFromTemplate(new AtlasLoaderTemplate());
+        registerManualPageSectionsFromTemplate(new OutputDirectoryTemplate());
+    }
+
+    @Override
+    public void registerOptionsAndArguments()
+    {
+        registerOptionWithRequiredArgument(BATCH_SIZE_OPTION_LONG, BATCH_SIZE_OPTION_DESCRIPTION,
+                OptionOptionality.OPTIONAL, BATCH_SIZE_OPTION_HINT);
+        registerOptionsAndArgumentsFromTemplate(new AtlasLoaderTemplate());
+        registerOptionsAndArgumentsFromTemplate(new OutputDirectoryTemplate());
+        super.registerOptionsAndArguments();
+    }
+
+    private void processAtlas(final Atlas atlas, final String atlasFileName,
+            final File atlasResource)
+    {
+        final Optional<Path> outputPath = OutputDirectoryTemplate.getOutputPath(this);
+        if (outputPath.isEmpty())
+        {
+            this.outputDelegate
+                    .printlnWarnMessage("could not export " + atlasFileName + ", skipping...");
+            return;
+        }
+        // Strip every suffix, like .atlas.gz
+        final String fileName = atlasFileName.split("\\.")[0];
+        final Path concatenatedPath = Paths.get(outputPath.get().toAbsolutePath().toString(),
+                fileName);
+        final File outputFile = new File(
+                concatenatedPath.toAbsolutePath().toString() + FileSuffix.ARROW,
+                this.getFileSystem());
+        if (this.optionAndArgumentDelegate.hasVerboseOption())
+        {
+            this.outputDelegate
+                    .printlnCommandMessage("exporting " + atlasResource.getPathString() + "...");
+        }
+        try
+        {
+            final long rows = this.exporter.export(atlas, outputFile);
+            if (this.optionAndArgumentDelegate.hasVerboseOption())
+            {
+                this.outputDelegate.printlnCommandMessage(
+                        "saved " + rows + " rows to " + outputFile.getAbsolutePathString());
+            }
+        }
+        catch (final Exception exception)
+        {
+            this.outputDelegate.printlnErrorMessage("failed to export "
+                    + atlasResource.getPathString() + ": " + exception.getMessage());
+        }
+    }
+
+    private int start()
+    {
+        final Integer batchSize = this.optionAndArgumentDelegate
+                .getOptionArgument(BATCH_SIZE_OPTION_LONG, value ->
+                {
+                    try
+                    {
+                        return Integer.parseInt(value);
+                    }
+                    catch (final NumberFormatException exception)
+                    {
+                        // Reported below as an invalid size
+                        return 0;
+                    }
+                }).orElse(ArrowAtlasExporter.DEFAULT_BATCH_SIZE);
+        if (batchSize <= 0)
+        {
+            this.outputDelegate.printlnErrorMessage(
+                    "invalid " + BATCH_SIZE_OPTION_LONG + ", expected a positive integer");
+            return 1;
+        }
+        this.exporter = new ArrowAtlasExporter(batchSize);
+        return 0;
+    }
+}
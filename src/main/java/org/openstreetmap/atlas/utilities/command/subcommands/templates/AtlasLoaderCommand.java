@@ -53,6 +53,7 @@ public abstract class AtlasLoaderCommand extends MultipleOutputCommand
     private final CommandOutputDelegate outputDelegate;
 
     private List<Tuple<File, Atlas>> atlases;
+    private int skippedAtlases;
 
     public static String removeSuffixFromFileName(final String fileName)
     {
@@ -87,8 +88,13 @@ public abstract class AtlasLoaderCommand extends MultipleOutputCommand
         final List<Tuple<File, Atlas>> atlasTuples = getInputAtlases();
         if (atlasTuples.isEmpty())
         {
-            this.outputDelegate.printlnErrorMessage("no atlas files were loaded");
-            return 1;
+            if (this.skippedAtlases == 0)
+            {
+                this.outputDelegate.printlnErrorMessage("no atlas files were loaded");
+                return 1;
+            }
+            // All the atlases were skipped by the subclass, which still gets to finish
+            return finish();
         }
 
         Stream<Tuple<File, Atlas>> atlasTupleStream = atlasTuples.stream();
@@ -179,6 +185,20 @@ public abstract class AtlasLoaderCommand extends MultipleOutputCommand
      */
     protected abstract void processAtlas(Atlas atlas, String atlasFileName, File atlasResource);
 
+    /**
+     * Subclasses can override this method to skip some atlas files before they are loaded, for
+     * example when an index tells that they cannot contain anything of interest. It is called
+     * after start().
+     *
+     * @param atlasResource
+     *            the {@link File} resource the atlas would be loaded from
+     * @return true to load and process the atlas, false to skip it
+     */
+    protected boolean shouldLoad(final File atlasResource)
+    {
+        return true;
+    }
+
     /**
      * Subclasses can override this method if they want to do something once before processing the
      * atlases. The start method can return a status to indicate if the start-up operations were
@@ -225,6 +245,14 @@ public abstract class AtlasLoaderCommand extends MultipleOutputCommand
             {
                 this.outputDelegate.printlnWarnMessage("skipping directory: " + path);
             }
+            else if (!shouldLoad(file))
+            {
+                if (this.optionAndArgumentDelegate.hasVerboseOption())
+                {
+                    this.outputDelegate.printlnCommandMessage("skipping " + path);
+                }
+                this.skippedAtlases++;
+            }
             else
             {
                 if (this.optionAndArgumentDelegate.hasVerboseOption())
@@ -244,7 +272,7 @@ public abstract class AtlasLoaderCommand extends MultipleOutputCommand
         });
 
         if (this.optionAndArgumentDelegate.hasOption(STRICT_OPTION_LONG)
-                && this.atlases.size() != inputAtlasPaths.size())
+                && this.atlases.size() + this.skippedAtlases != inputAtlasPaths.size())
         {
             this.outputDelegate.printlnErrorMessage("strict load is missing some atlas(es)");
             this.atlases = new ArrayList<>();
@@ -0,0 +1,294 @@
+package org.openstreetmap.atlas.utilities.compression;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.openstreetmap.atlas.proto.ProtoSerializable;
+import org.openstreetmap.atlas.proto.adapters.ProtoAdapter;
+import org.openstreetmap.atlas.proto.adapters.ProtoStringDictionaryAdapter;
+
+/**
+ * Dictionary encoding for {@link String}s, that stores all the words as UTF-8 in a single byte
+ * arena. Getting a word from its index is array access, and getting the index of a word is a probe
+ * in a primitive open addressing hash table. Only {@link #add(String)} locks, all the reads are
+ * lock free.
+ * <p>
+ * The indices are the same as an {@link IntegerDictionary} of {@link String}s would give: in
+ * order of addition, starting at 0. The null word is supported.
+ *
+ * @author agent
+ */
+public class StringDictionary implements Serializable, ProtoSerializable
+{
+    private static final long serialVersionUID = 4204405916498843785L;
+
+    public static final int NOT_FOUND = -1;
+
+    private static final int DEFAULT_WORDS = 16;
+    private static final int DEFAULT_ARENA_SIZE = 256;
+    // Hash table slots hold the word index plus one, so zero is an empty slot
+    private static final int EMPTY = 0;
+    private static final int HASH_PRIME = 31;
+    private static final int MURMUR_MULTIPLIER = 0x5bd1e995;
+    private static final int MURMUR_SHIFT = 15;
+    private static final byte[] NO_BYTES = new byte[0];
+
+    /*
+     * The arrays are replaced by bigger copies when they are full, and the size is written last
+     * when adding a word. A reader that reads the size first always sees all the words below that
+     * size, in whichever copy of the arrays it reads.
+     */
+    private volatile byte[] arena;
+    // Word i is arena[offsets[i]] to arena[offsets[i + 1]] excluded
+    private volatile int[] offsets;
+    private volatile int[] table;
+    private volatile int size;
+    private volatile int nullIndex;
+
+    /**
+     * @param dictionary
+     *            An {@link IntegerDictionary} of {@link String}s
+     * @return A {@link StringDictionary} with the same words at the same indices
+     */
+    public static StringDictionary from(final IntegerDictionary<String> dictionary)
+    {
+        final StringDictionary result = new StringDictionary();
+        for (int index = 0; index < dictionary.size(); index++)
+        {
+            result.add(dictionary.word(index));
+        }
+        return result;
+    }
+
+    private static int hash(final byte[] bytes, final int start, final int end)
+    {
+        int hash = 0;
+        for (int index = start; index < end; index++)
+        {
+            hash = HASH_PRIME * hash + bytes[index];
+        }
+        // Spread the bits, as the table is indexed with the lowest bits only
+        hash *= MURMUR_MULTIPLIER;
+        return hash ^ hash >>> MURMUR_SHIFT;
+    }
+
+    public StringDictionary()
+    {
+        this.arena = new byte[DEFAULT_ARENA_SIZE];
+        this.offsets = new int[DEFAULT_WORDS + 1];
+        this.table = new int[DEFAULT_WORDS * 2];
+        this.size = 0;
+        this.nullIndex = NOT_FOUND;
+    }
+
+    /**
+     * Add a word if it is not there yet.
+     *
+     * @param word
+     *            The word, can be null
+     * @return The index of the word
+     */
+    public synchronized int add(final String word)
+    {
+        if (word == null)
+        {
+            if (this.nullIndex == NOT_FOUND)
+            {
+                append(NO_BYTES, true);
+            }
+            return this.nullIndex;
+        }
+        final byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+        final int hash = hash(bytes, 0, bytes.length);
+        final int existing = find(bytes, hash);
+        if (existing != NOT_FOUND)
+        {
+            return existing;
+        }
+        final int index = append(bytes, false);
+        insert(hash, index);
+        return index;
+    }
+
+    /**
+     * @param index
+     *            The index of a word
+     * @return The UTF-8 encoding of the word, null for the null word or an unknown index
+     */
+    public byte[] bytes(final int index)
+    {
+        if (index < 0 || index >= this.size || index == this.nullIndex)
+        {
+            return null;
+        }
+        final int[] currentOffsets = this.offsets;
+        return Arrays.copyOfRange(this.arena, currentOffsets[index], currentOffsets[index + 1]);
+    }
+
+    @Override
+    public boolean equals(final Object other)
+    {
+        if (other instanceof StringDictionary)
+        {
+            if (this == other)
+            {
+                return true;
+            }
+            final StringDictionary that = (StringDictionary) other;
+            final int currentSize = this.size;
+            if (currentSize != that.size || this.nullIndex != that.nullIndex)
+            {
+                return false;
+            }
+            final int end = this.offsets[currentSize];
+            return Arrays.equals(this.offsets, 0, currentSize + 1, that.offsets, 0,
+                    currentSize + 1) && Arrays.equals(this.arena, 0, end, that.arena, 0, end);
+        }
+        return false;
+    }
+
+    @Override
+    public ProtoAdapter getProtoAdapter()
+    {
+        return new ProtoStringDictionaryAdapter();
+    }
+
+    @Override
+    public int hashCode()
+    {
+        final int currentSize = this.size;
+        final int[] currentOffsets = this.offsets;
+        return HASH_PRIME * (HASH_PRIME * currentSize + this.nullIndex)
+                + hash(this.arena, 0, currentOffsets[currentSize]);
+    }
+
+    /**
+     * @param word
+     *            The word to look for, can be null
+     * @return The index of the word, or {@link #NOT_FOUND} if it is not in this dictionary
+     */
+    public int indexOf(final String word)
+    {
+        if (word == null)
+        {
+            return this.nullIndex;
+        }
+        final byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+        return find(bytes, hash(bytes, 0, bytes.length));
+    }
+
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * @param index
+     *            The index of a word
+     * @return The word, null for the null word or an unknown index
+     */
+    public String word(final int index)
+    {
+        if (index < 0 || index >= this.size || index == this.nullIndex)
+        {
+            return null;
+        }
+        final int[] currentOffsets = this.offsets;
+        final int start = currentOffsets[index];
+        return new String(this.arena, start, currentOffsets[index + 1] - start,
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Append a word, growing the arrays if needed, and publish it by updating the size last.
+     */
+    private int append(final byte[] bytes, final boolean isNull)
+    {
+        final int index = this.size;
+        int[] currentOffsets = this.offsets;
+        if (index + 2 > currentOffsets.length)
+        {
+            currentOffsets = Arrays.copyOf(currentOffsets, currentOffsets.length * 2);
+            this.offsets = currentOffsets;
+        }
+        final int start = currentOffsets[index];
+        final int end = start + bytes.length;
+        byte[] currentArena = this.arena;
+        if (end > currentArena.length)
+        {
+            currentArena = Arrays.copyOf(currentArena, Math.max(currentArena.length * 2, end));
+            this.arena = currentArena;
+        }
+        System.arraycopy(bytes, 0, currentArena, start, bytes.length);
+        currentOffsets[index + 1] = end;
+        if (isNull)
+        {
+            this.nullIndex = index;
+        }
+        this.size = index + 1;
+        return index;
+    }
+
+    private int find(final byte[] bytes, final int hash)
+    {
+        // Read the size first, see above
+        final int currentSize = this.size;
+        final int[] currentTable = this.table;
+        final byte[] currentArena = this.arena;
+        final int[] currentOffsets = this.offsets;
+        final int mask = currentTable.length - 1;
+        for (int slot = hash & mask;; slot = (slot + 1) & mask)
+        {
+            final int entry = currentTable[slot];
+            if (entry == EMPTY)
+            {
+                return NOT_FOUND;
+            }
+            final int index = entry - 1;
+            // A word added after the size was read might not be readable yet
+            if (index < currentSize && Arrays.equals(currentArena, currentOffsets[index],
+                    currentOffsets[index + 1], bytes, 0, bytes.length))
+            {
+                return index;
+            }
+        }
+    }
+
+    /**
+     * Add a word index to the hash table, rebuilding a bigger one first if it would become more
+     * than half full.
+     */
+    private void insert(final int hash, final int index)
+    {
+        int[] currentTable = this.table;
+        if (this.size * 2 > currentTable.length)
+        {
+            final byte[] currentArena = this.arena;
+            final int[] currentOffsets = this.offsets;
+            final int[] bigger = new int[currentTable.length * 2];
+            for (int other = 0; other < index; other++)
+            {
+                if (other != this.nullIndex)
+                {
+                    put(bigger, hash(currentArena, currentOffsets[other], currentOffsets[other + 1]),
+                            other);
+                }
+            }
+            currentTable = bigger;
+            this.table = currentTable;
+        }
+        put(currentTable, hash, index);
+    }
+
+    private void put(final int[] slots, final int hash, final int index)
+    {
+        final int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != EMPTY)
+        {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = index + 1;
+    }
+}
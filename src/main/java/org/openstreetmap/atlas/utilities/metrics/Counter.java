@@ -0,0 +1,56 @@
+package org.openstreetmap.atlas.utilities.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonic counter of a {@link MetricsRegistry}. Increments are dropped while the registry is
+ * disabled.
+ *
+ * @author agent
+ */
+public class Counter
+{
+    private final MetricsRegistry registry;
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    Counter(final MetricsRegistry registry, final String name)
+    {
+        this.registry = registry;
+        this.name = name;
+    }
+
+    public void add(final long value)
+    {
+        if (this.registry.isEnabled())
+        {
+            this.count.add(value);
+        }
+    }
+
+    public long count()
+    {
+        return this.count.sum();
+    }
+
+    public String getName()
+    {
+        return this.name;
+    }
+
+    public void increment()
+    {
+        add(1L);
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.name + ": " + count();
+    }
+
+    void reset()
+    {
+        this.count.reset();
+    }
+}
@@ -0,0 +1,174 @@
+package org.openstreetmap.atlas.utilities.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openstreetmap.atlas.utilities.scalars.Duration;
+
+/**
+ * A latency histogram of a {@link MetricsRegistry}, with exponential buckets from one microsecond
+ * to about a minute. A timed section looks like:
+ *
+ * <pre>
+ * final long start = HISTOGRAM.start();
+ * try
+ * {
+ *     ...
+ * }
+ * finally
+ * {
+ *     HISTOGRAM.stop(start);
+ * }
+ * </pre>
+ *
+ * While the registry is disabled, {@link #start()} does not read the clock and {@link #stop(long)}
+ * returns immediately.
+ *
+ * @author agent
+ */
+public class LatencyHistogram
+{
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+    private static final long FIRST_BOUND_NANOSECONDS = 1_000L;
+    private static final int BUCKET_GROWTH_SHIFT = 2;
+    private static final int NUMBER_OF_BOUNDED_BUCKETS = 14;
+    private static final long NANOSECONDS_PER_MILLISECOND = 1_000_000L;
+    private static final double NANOSECONDS_PER_MICROSECOND = 1_000.0;
+
+    private final MetricsRegistry registry;
+    private final String name;
+    private final long[] upperBounds;
+    private final LongAdder[] buckets;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanoseconds = new LongAdder();
+
+    LatencyHistogram(final MetricsRegistry registry, final String name)
+    {
+        this.registry = registry;
+        this.name = name;
+        this.upperBounds = new long[NUMBER_OF_BOUNDED_BUCKETS];
+        for (int index = 0; index < NUMBER_OF_BOUNDED_BUCKETS; index++)
+        {
+            this.upperBounds[index] = FIRST_BOUND_NANOSECONDS << BUCKET_GROWTH_SHIFT * index;
+        }
+        // The last bucket has no upper bound
+        this.buckets = new LongAdder[NUMBER_OF_BOUNDED_BUCKETS + 1];
+        for (int index = 0; index < this.buckets.length; index++)
+        {
+            this.buckets[index] = new LongAdder();
+        }
+    }
+
+    /**
+     * @return The number of recordings in each bucket. The last bucket has no upper bound.
+     */
+    public long[] bucketCounts()
+    {
+        final long[] result = new long[this.buckets.length];
+        for (int index = 0; index < result.length; index++)
+        {
+            result[index] = this.buckets[index].sum();
+        }
+        return result;
+    }
+
+    /**
+     * @return The inclusive upper bound of each bounded bucket, in nanoseconds
+     */
+    public long[] bucketUpperBoundsNanoseconds()
+    {
+        return this.upperBounds.clone();
+    }
+
+    public long count()
+    {
+        return this.count.sum();
+    }
+
+    public String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * @return The mean latency in nanoseconds, as most recorded latencies are below a millisecond
+     */
+    public long meanNanoseconds()
+    {
+        final long samples = count();
+        return samples == 0 ? 0L : this.sumNanoseconds.sum() / samples;
+    }
+
+    /**
+     * @param duration
+     *            A latency already measured, for example with {@link
+     *            org.openstreetmap.atlas.utilities.time.Time#elapsedSince()}
+     */
+    public void record(final Duration duration)
+    {
+        record(duration.asMilliseconds() * NANOSECONDS_PER_MILLISECOND);
+    }
+
+    /**
+     * @param nanoseconds
+     *            A latency to record
+     */
+    public void record(final long nanoseconds)
+    {
+        if (this.registry.isEnabled())
+        {
+            int index = 0;
+            while (index < this.upperBounds.length && nanoseconds > this.upperBounds[index])
+            {
+                index++;
+            }
+            this.buckets[index].increment();
+            this.count.increment();
+            this.sumNanoseconds.add(nanoseconds);
+        }
+    }
+
+    /**
+     * @return The start of a timed section, to pass to {@link #stop(long)}
+     */
+    public long start()
+    {
+        return this.registry.isEnabled() ? System.nanoTime() : NOT_STARTED;
+    }
+
+    /**
+     * Record the time elapsed since a start returned by {@link #start()}.
+     *
+     * @param start
+     *            The start of the timed section
+     */
+    public void stop(final long start)
+    {
+        if (start != NOT_STARTED)
+        {
+            record(System.nanoTime() - start);
+        }
+    }
+
+    public long sumNanoseconds()
+    {
+        return this.sumNanoseconds.sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s: %d in %.3f microseconds, mean %.3f microseconds", this.name,
+                count(), this.sumNanoseconds.sum() / NANOSECONDS_PER_MICROSECOND,
+                meanNanoseconds() / NANOSECONDS_PER_MICROSECOND);
+    }
+
+    void reset()
+    {
+        for (final LongAdder bucket : this.buckets)
+        {
+            bucket.reset();
+        }
+        this.count.reset();
+        this.sumNanoseconds.reset();
+    }
+}
@@ -0,0 +1,76 @@
+package org.openstreetmap.atlas.utilities.metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import org.openstreetmap.atlas.exception.CoreException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serve the Prometheus text of a {@link MetricsRegistry} on the loopback interface, at
+ * "/metrics".
+ *
+ * @author agent
+ */
+public class MetricsHttpEndpoint implements Closeable
+{
+    public static final String PATH = "/metrics";
+
+    private static final int OK = 200;
+
+    private final MetricsRegistry registry;
+    private final HttpServer server;
+
+    /**
+     * @param registry
+     *            The registry to serve
+     * @param port
+     *            The port to listen to on the loopback interface, or 0 for any free port
+     */
+    public MetricsHttpEndpoint(final MetricsRegistry registry, final int port)
+    {
+        this.registry = registry;
+        try
+        {
+            this.server = HttpServer
+                    .create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("Unable to listen to port {}", port, exception);
+        }
+        this.server.createContext(PATH, this::handle);
+        this.server.start();
+    }
+
+    @Override
+    public void close()
+    {
+        this.server.stop(0);
+    }
+
+    /**
+     * @return The port the endpoint listens to
+     */
+    public int getPort()
+    {
+        return this.server.getAddress().getPort();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException
+    {
+        final byte[] body = this.registry.toPrometheusText().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4");
+        exchange.sendResponseHeaders(OK, body.length);
+        try (OutputStream output = exchange.getResponseBody())
+        {
+            output.write(body);
+        }
+    }
+}
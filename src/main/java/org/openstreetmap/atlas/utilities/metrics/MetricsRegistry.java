@@ -0,0 +1,199 @@
+package org.openstreetmap.atlas.utilities.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.openstreetmap.atlas.exception.CoreException;
+
+/**
+ * Registry of the {@link Counter}s and {@link LatencyHistogram}s the library records on its hot
+ * paths (field deserialization, spatial indices, {@link
+ * org.openstreetmap.atlas.geography.atlas.multi.MultiAtlas} construction, dynamic atlas
+ * expansions, sectioning, slicing and routing).
+ * <p>
+ * The registry is disabled unless the "atlas.metrics" system property is true or
+ * {@link #setEnabled(boolean)} is called. While disabled, recording a metric costs a volatile read.
+ * The metrics can be read in process, through JMX with {@link #registerMBean()}, or in the
+ * Prometheus text format with {@link #toPrometheusText()} and {@link MetricsHttpEndpoint}.
+ *
+ * @author agent
+ */
+public class MetricsRegistry implements MetricsRegistryMXBean
+{
+    public static final String ENABLED_PROPERTY = "atlas.metrics";
+    public static final String OBJECT_NAME = "org.openstreetmap.atlas:type=MetricsRegistry";
+
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry(
+            Boolean.getBoolean(ENABLED_PROPERTY));
+    private static final double NANOSECONDS_PER_SECOND = 1E9;
+    private static final long NANOSECONDS_PER_MILLISECOND = 1_000_000L;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    /**
+     * @return The registry the library records its metrics into
+     */
+    public static MetricsRegistry global()
+    {
+        return GLOBAL;
+    }
+
+    private static String prometheusName(final String name)
+    {
+        return name.replaceAll("[^a-zA-Z0-9_]", "_");
+    }
+
+    public MetricsRegistry(final boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param name
+     *            The name of the counter
+     * @return The counter with this name, created on first use
+     */
+    public Counter counter(final String name)
+    {
+        return this.counters.computeIfAbsent(name, key -> new Counter(this, key));
+    }
+
+    @Override
+    public Map<String, Long> getCounts()
+    {
+        return snapshot(this.counters, Counter::count);
+    }
+
+    @Override
+    public Map<String, Long> getLatencyCounts()
+    {
+        return snapshot(this.latencies, LatencyHistogram::count);
+    }
+
+    @Override
+    public Map<String, Long> getLatencyTotalMilliseconds()
+    {
+        return snapshot(this.latencies,
+                latency -> latency.sumNanoseconds() / NANOSECONDS_PER_MILLISECOND);
+    }
+
+    @Override
+    public String getPrometheusText()
+    {
+        return toPrometheusText();
+    }
+
+    @Override
+    public boolean isEnabled()
+    {
+        return this.enabled;
+    }
+
+    /**
+     * @param name
+     *            The name of the latency histogram
+     * @return The latency histogram with this name, created on first use
+     */
+    public LatencyHistogram latency(final String name)
+    {
+        return this.latencies.computeIfAbsent(name, key -> new LatencyHistogram(this, key));
+    }
+
+    /**
+     * Register this registry with the platform MBean server, under {@link #OBJECT_NAME}.
+     */
+    public void registerMBean()
+    {
+        try
+        {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(objectName))
+            {
+                server.registerMBean(this, objectName);
+            }
+        }
+        catch (final JMException exception)
+        {
+            throw new CoreException("Unable to register {}", OBJECT_NAME, exception);
+        }
+    }
+
+    @Override
+    public void reset()
+    {
+        this.counters.values().forEach(Counter::reset);
+        this.latencies.values().forEach(LatencyHistogram::reset);
+    }
+
+    @Override
+    public void setEnabled(final boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return All the metrics in the Prometheus text exposition format. Counters end with
+     *         "_total", and latencies are histograms in seconds.
+     */
+    public String toPrometheusText()
+    {
+        final StringBuilder builder = new StringBuilder();
+        new TreeMap<>(this.counters).forEach((name, counter) ->
+        {
+            final String metric = prometheusName(name) + "_total";
+            builder.append("# TYPE ").append(metric).append(" counter\n");
+            builder.append(metric).append(' ').append(counter.count()).append('\n');
+        });
+        new TreeMap<>(this.latencies).forEach((name, latency) ->
+        {
+            final String metric = prometheusName(name) + "_seconds";
+            builder.append("# TYPE ").append(metric).append(" histogram\n");
+            final long[] bounds = latency.bucketUpperBoundsNanoseconds();
+            final long[] counts = latency.bucketCounts();
+            long cumulative = 0;
+            for (int index = 0; index < counts.length; index++)
+            {
+                cumulative += counts[index];
+                final String bound = index < bounds.length
+                        ? String.valueOf(bounds[index] / NANOSECONDS_PER_SECOND)
+                        : "+Inf";
+                builder.append(metric).append("_bucket{le=\"").append(bound).append("\"} ")
+                        .append(cumulative).append('\n');
+            }
+            builder.append(metric).append("_sum ")
+                    .append(latency.sumNanoseconds() / NANOSECONDS_PER_SECOND).append('\n');
+            builder.append(metric).append("_count ").append(cumulative).append('\n');
+        });
+        return builder.toString();
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder builder = new StringBuilder();
+        new TreeMap<>(this.counters).values()
+                .forEach(counter -> builder.append(counter).append('\n'));
+        new TreeMap<>(this.latencies).values()
+                .forEach(latency -> builder.append(latency).append('\n'));
+        return builder.toString();
+    }
+
+    private <M> SortedMap<String, Long> snapshot(final Map<String, M> metrics,
+            final Function<M, Long> value)
+    {
+        final SortedMap<String, Long> result = new TreeMap<>();
+        metrics.forEach((name, metric) -> result.put(name, value.apply(metric)));
+        return result;
+    }
+}
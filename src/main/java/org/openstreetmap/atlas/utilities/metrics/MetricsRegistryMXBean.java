@@ -0,0 +1,37 @@
+package org.openstreetmap.atlas.utilities.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of a {@link MetricsRegistry}.
+ *
+ * @author agent
+ */
+public interface MetricsRegistryMXBean
+{
+    /**
+     * @return The value of each counter
+     */
+    Map<String, Long> getCounts();
+
+    /**
+     * @return The number of recordings of each latency histogram
+     */
+    Map<String, Long> getLatencyCounts();
+
+    /**
+     * @return The total recorded time of each latency histogram, in milliseconds
+     */
+    Map<String, Long> getLatencyTotalMilliseconds();
+
+    /**
+     * @return All the metrics in the Prometheus text format
+     */
+    String getPrometheusText();
+
+    boolean isEnabled();
+
+    void reset();
+
+    void setEnabled(boolean enabled);
+}
@@ -1,12 +1,15 @@
 package org.openstreetmap.atlas.utilities.runtime;
 
 import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import org.openstreetmap.atlas.exception.CoreException;
 import org.openstreetmap.atlas.streaming.resource.InputStreamResource;
 import org.openstreetmap.atlas.utilities.scalars.Duration;
-import org.openstreetmap.atlas.utilities.threads.Pool;
-import org.openstreetmap.atlas.utilities.threads.Result;
+import org.openstreetmap.atlas.utilities.threads.TaskPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -100,9 +103,9 @@ public abstract class RunScriptMonitor
      */
     protected void waitForCompletion(final Duration maximum)
     {
-        try (Pool waiter = new Pool(1, "waiter", Duration.ONE_SECOND))
+        try (TaskPool waiter = new TaskPool(1, "waiter", Duration.ONE_SECOND))
         {
-            final Result<Boolean> result = waiter.queue(() ->
+            final CompletableFuture<Boolean> result = waiter.queue(() ->
             {
                 while (this.out.isAlive() || this.err.isAlive())
                 {
@@ -110,11 +113,20 @@ public abstract class RunScriptMonitor
                 }
                 return true;
             });
-            result.get(maximum);
+            result.get(maximum.asMilliseconds(), TimeUnit.MILLISECONDS);
         }
         catch (final TimeoutException e)
         {
             logger.warn("RunScript logs monitor did not finish in {}.", maximum);
         }
+        catch (final ExecutionException e)
+        {
+            throw new CoreException("RunScript logs monitor failed", e.getCause());
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new CoreException("Interrupted while waiting for RunScript logs", e);
+        }
     }
 }
@@ -1,12 +1,13 @@
 package org.openstreetmap.atlas.utilities.runtime;
 
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import org.openstreetmap.atlas.exception.CoreException;
 import org.openstreetmap.atlas.utilities.scalars.Duration;
-import org.openstreetmap.atlas.utilities.threads.Pool;
+import org.openstreetmap.atlas.utilities.threads.TaskPool;
 
 /**
  * @author matthieun
@@ -29,14 +30,24 @@ public class TimedRetry
                 .startsWith(TIMEOUT_MESSAGE);
         return retry.run(() ->
         {
-            try (Pool pool = new Pool(1, Thread.currentThread().getName() + " # TimedRetry",
-                    timeBeforeRetry.add(Duration.ONE_SECOND)))
+            try (TaskPool pool = new TaskPool(1,
+                    Thread.currentThread().getName() + " # TimedRetry", Duration.ONE_SECOND))
             {
-                return pool.queue(() -> callable.get()).get(timeBeforeRetry);
+                return pool.queue(callable::get, timeBeforeRetry).get();
             }
-            catch (final TimeoutException e)
+            catch (final ExecutionException e)
             {
-                throw new CoreException(TIMEOUT_MESSAGE + "Timeout in TimedRetry call", e);
+                if (e.getCause() instanceof TimeoutException)
+                {
+                    throw new CoreException(TIMEOUT_MESSAGE + "Timeout in TimedRetry call",
+                            e.getCause());
+                }
+                throw new CoreException("Could not get value in TimedRetry call", e.getCause());
+            }
+            catch (final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new CoreException("Interrupted in TimedRetry call", e);
             }
         }, exceptionsWhichShouldBreakDirectly);
     }
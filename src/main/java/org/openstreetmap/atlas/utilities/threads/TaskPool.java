@@ -0,0 +1,438 @@
+package org.openstreetmap.atlas.utilities.threads;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.utilities.metrics.LatencyHistogram;
+import org.openstreetmap.atlas.utilities.metrics.MetricsRegistry;
+import org.openstreetmap.atlas.utilities.scalars.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pool of threads that schedules its tasks on a work-stealing {@link ForkJoinPool}, and returns
+ * a {@link CompletableFuture} for each of them. Unlike {@link Pool}:
+ * <ul>
+ * <li>At most a given number of tasks can be pending at any time. Queuing more blocks the caller
+ * until a task finishes. Tasks queued from a thread of the pool itself never block.</li>
+ * <li>Cancelling a returned future interrupts the thread running its task. Timeouts, failures in
+ * {@link #queueAll(Iterable)}, {@link #cancelAll()} and a {@link #close()} that runs out of time
+ * cancel the same way.</li>
+ * <li>The running time of each task is recorded, see {@link #totalTaskTime()} and
+ * {@link #longestTaskTime()}.</li>
+ * </ul>
+ * As with {@link Pool}, {@link #close()} waits for all the tasks, and throws if one of the queued
+ * {@link Runnable}s failed. The failures of {@link Callable}s are reported by their futures.
+ *
+ * @author agent
+ */
+public class TaskPool implements Closeable
+{
+    /**
+     * A {@link CompletableFuture} that interrupts the thread running its task when cancelled.
+     *
+     * @param <T>
+     *            The type of the result
+     * @author agent
+     */
+    private static final class TaskFuture<T> extends CompletableFuture<T>
+    {
+        private Thread runner;
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning)
+        {
+            final boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled && mayInterruptIfRunning)
+            {
+                interruptRunner();
+            }
+            return cancelled;
+        }
+
+        synchronized void finish()
+        {
+            this.runner = null;
+            // Do not leave an interruption meant for this task to the next task of the thread
+            Thread.interrupted();
+        }
+
+        synchronized boolean hasStarted()
+        {
+            return this.runner != null;
+        }
+
+        synchronized void interruptRunner()
+        {
+            if (this.runner != null)
+            {
+                this.runner.interrupt();
+            }
+        }
+
+        synchronized boolean start(final Thread thread)
+        {
+            if (isDone())
+            {
+                return false;
+            }
+            this.runner = thread;
+            return true;
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskPool.class);
+    private static final int DEFAULT_PENDING_TASKS_PER_THREAD = 4;
+    private static final LatencyHistogram TASK = MetricsRegistry.global()
+            .latency("atlas.threads.task");
+    // Shared by all the pools to time out their tasks
+    private static final ScheduledThreadPoolExecutor TIMEOUTS = timeouts();
+
+    private final String name;
+    private final int numberOfThreads;
+    private final Duration endTimeout;
+    private final ForkJoinPool pool;
+    private final Semaphore pendingTasks;
+    private final Set<TaskFuture<?>> running = ConcurrentHashMap.newKeySet();
+    private final Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+    private final LongAdder completedTasks = new LongAdder();
+    private final LongAdder totalTaskNanoseconds = new LongAdder();
+    private final LongAccumulator longestTaskNanoseconds = new LongAccumulator(Long::max, 0L);
+
+    private static ScheduledThreadPoolExecutor timeouts()
+    {
+        final ScheduledThreadPoolExecutor result = new ScheduledThreadPoolExecutor(1, runnable ->
+        {
+            final Thread thread = new Thread(runnable, "TaskPool-timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Do not keep the timeouts of the tasks that completed in time
+        result.setRemoveOnCancelPolicy(true);
+        return result;
+    }
+
+    public TaskPool(final int numberOfThreads, final String name)
+    {
+        this(numberOfThreads, name, Duration.ONE_DAY);
+    }
+
+    public TaskPool(final int numberOfThreads, final String name, final Duration endTimeout)
+    {
+        this(numberOfThreads, name, endTimeout,
+                Math.max(numberOfThreads, 1) * DEFAULT_PENDING_TASKS_PER_THREAD);
+    }
+
+    /**
+     * @param numberOfThreads
+     *            The parallelism of the pool
+     * @param name
+     *            The name of the pool, which prefixes the names of its threads
+     * @param endTimeout
+     *            How long {@link #close()} waits for the tasks before cancelling them
+     * @param maximumPendingTasks
+     *            The number of tasks that can be queued or running before queuing blocks
+     */
+    public TaskPool(final int numberOfThreads, final String name, final Duration endTimeout,
+            final int maximumPendingTasks)
+    {
+        this.numberOfThreads = Math.max(numberOfThreads, 1);
+        this.name = name;
+        this.endTimeout = endTimeout;
+        this.pendingTasks = new Semaphore(Math.max(maximumPendingTasks, 1));
+        final AtomicInteger threadNumber = new AtomicInteger(1);
+        this.pool = new ForkJoinPool(this.numberOfThreads, forkJoinPool ->
+        {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory
+                    .newThread(forkJoinPool);
+            thread.setName(name + "-thread-" + threadNumber.getAndIncrement());
+            return thread;
+        }, null, true);
+    }
+
+    /**
+     * Cancel all the queued and running tasks, interrupting the running ones.
+     */
+    public void cancelAll()
+    {
+        final List<TaskFuture<?>> futures = new ArrayList<>(this.running);
+        // The queued tasks first, so that they do not start on the threads the running ones free
+        futures.stream().filter(future -> !future.hasStarted())
+                .forEach(future -> future.cancel(true));
+        futures.forEach(future -> future.cancel(true));
+    }
+
+    /**
+     * Wait for all the tasks for the end timeout of this pool, then cancel the remaining ones.
+     */
+    @Override
+    public void close()
+    {
+        this.pool.shutdown();
+        boolean terminated;
+        try
+        {
+            terminated = this.pool.awaitTermination(this.endTimeout.asMilliseconds(),
+                    TimeUnit.MILLISECONDS);
+        }
+        catch (final InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            terminated = false;
+        }
+        if (!terminated)
+        {
+            logger.warn("{} did not finish within {}, cancelling {} tasks.", this,
+                    this.endTimeout, this.running.size());
+            cancelAll();
+            this.pool.shutdownNow();
+        }
+        if (!this.errors.isEmpty())
+        {
+            this.errors.forEach(error -> logger.error("Unhandled error in {}!", this.name, error));
+            throw new CoreException(
+                    "{} tasks in {} had uncaught errors! Attaching one of those as cause.",
+                    this.errors.size(), this.name, this.errors.peek());
+        }
+    }
+
+    public String getName()
+    {
+        return this.name;
+    }
+
+    public boolean isDead()
+    {
+        return this.pool.isShutdown();
+    }
+
+    /**
+     * @return The running time of the longest task so far
+     */
+    public Duration longestTaskTime()
+    {
+        return nanoseconds(this.longestTaskNanoseconds.get());
+    }
+
+    public long numberOfCompletedTasks()
+    {
+        return this.completedTasks.sum();
+    }
+
+    /**
+     * Queue a task, blocking while the maximum number of tasks are pending.
+     *
+     * @param task
+     *            The task
+     * @param <T>
+     *            The type of the result
+     * @return The future result of the task. Cancelling it interrupts the task.
+     */
+    public <T> CompletableFuture<T> queue(final Callable<T> task)
+    {
+        return submit(task, false);
+    }
+
+    /**
+     * Queue a task that is cancelled if it has not completed within a timeout. Its future then
+     * completes with a {@link TimeoutException}.
+     *
+     * @param task
+     *            The task
+     * @param timeout
+     *            The time the task has to complete, from now
+     * @param <T>
+     *            The type of the result
+     * @return The future result of the task
+     */
+    public <T> CompletableFuture<T> queue(final Callable<T> task, final Duration timeout)
+    {
+        final TaskFuture<T> future = submit(task, false);
+        final ScheduledFuture<?> timer = TIMEOUTS.schedule(() ->
+        {
+            if (future.completeExceptionally(new TimeoutException(
+                    "Task in " + this.name + " did not complete within " + timeout)))
+            {
+                future.interruptRunner();
+            }
+        }, timeout.asMilliseconds(), TimeUnit.MILLISECONDS);
+        future.whenComplete((value, error) -> timer.cancel(false));
+        return future;
+    }
+
+    /**
+     * Queue a command. If it fails, {@link #close()} throws.
+     *
+     * @param command
+     *            The command
+     * @return The future completion of the command
+     */
+    public CompletableFuture<Void> queue(final Runnable command)
+    {
+        return submit(() ->
+        {
+            command.run();
+            return null;
+        }, true);
+    }
+
+    /**
+     * Queue tasks as a group: if one of them fails, the others are cancelled and the group fails
+     * with the same error. Cancelling the group cancels all its tasks.
+     *
+     * @param tasks
+     *            The tasks
+     * @param <T>
+     *            The type of the results
+     * @return The future results, in the order of the tasks
+     */
+    public <T> CompletableFuture<List<T>> queueAll(final Iterable<Callable<T>> tasks)
+    {
+        final List<CompletableFuture<T>> futures = new ArrayList<>();
+        tasks.forEach(task -> futures.add(queue(task)));
+        final CompletableFuture<List<T>> group = new CompletableFuture<>();
+        group.whenComplete((values, error) ->
+        {
+            if (error != null)
+            {
+                futures.forEach(future -> future.cancel(true));
+            }
+        });
+        futures.forEach(future -> future.whenComplete((value, error) ->
+        {
+            if (error != null)
+            {
+                group.completeExceptionally(error);
+            }
+        }));
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenAccept(ignored -> group.complete(futures.stream()
+                        .map(CompletableFuture::join).collect(Collectors.toList())));
+        return group;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "[TaskPool: " + getName() + ", " + this.numberOfThreads + " threads]";
+    }
+
+    /**
+     * @return The total running time of the tasks so far
+     */
+    public Duration totalTaskTime()
+    {
+        return nanoseconds(this.totalTaskNanoseconds.sum());
+    }
+
+    private Duration nanoseconds(final long nanoseconds)
+    {
+        return Duration.milliseconds(TimeUnit.NANOSECONDS.toMillis(nanoseconds));
+    }
+
+    private void release(final TaskFuture<?> future, final boolean permitted)
+    {
+        this.running.remove(future);
+        if (permitted)
+        {
+            this.pendingTasks.release();
+        }
+    }
+
+    private <T> void run(final Callable<T> task, final TaskFuture<T> future,
+            final boolean permitted, final boolean reportFailure)
+    {
+        if (!future.start(Thread.currentThread()))
+        {
+            // Cancelled or timed out before it started, there is nothing to account for
+            release(future, permitted);
+            return;
+        }
+        final long start = System.nanoTime();
+        T value = null;
+        Throwable failure = null;
+        try
+        {
+            value = task.call();
+        }
+        catch (final Throwable error)
+        {
+            failure = error;
+        }
+        finally
+        {
+            future.finish();
+            final long elapsed = System.nanoTime() - start;
+            this.completedTasks.increment();
+            this.totalTaskNanoseconds.add(elapsed);
+            this.longestTaskNanoseconds.accumulate(elapsed);
+            TASK.record(elapsed);
+            release(future, permitted);
+        }
+        // Complete after the accounting, so that it is visible to whoever waits on the future
+        if (failure != null)
+        {
+            if (future.completeExceptionally(failure) && reportFailure)
+            {
+                this.errors.add(failure);
+            }
+        }
+        else
+        {
+            future.complete(value);
+        }
+    }
+
+    private <T> TaskFuture<T> submit(final Callable<T> task, final boolean reportFailure)
+    {
+        // The threads of this pool never wait for a permit, otherwise they could wait for
+        // themselves.
+        final boolean permitted = !(Thread.currentThread() instanceof ForkJoinWorkerThread
+                && ((ForkJoinWorkerThread) Thread.currentThread()).getPool() == this.pool);
+        if (permitted)
+        {
+            try
+            {
+                this.pendingTasks.acquire();
+            }
+            catch (final InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+                throw new CoreException("Interrupted while queuing a task in {}", this.name,
+                        exception);
+            }
+        }
+        final TaskFuture<T> future = new TaskFuture<>();
+        this.running.add(future);
+        try
+        {
+            this.pool.execute(() -> run(task, future, permitted, reportFailure));
+        }
+        catch (final RejectedExecutionException exception)
+        {
+            release(future, permitted);
+            throw new CoreException("{} is closed", this, exception);
+        }
+        return future;
+    }
+}
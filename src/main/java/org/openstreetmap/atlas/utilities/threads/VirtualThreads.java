@@ -0,0 +1,117 @@
+package org.openstreetmap.atlas.utilities.threads;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executors for blocking I/O, like fetching resources and shards. On a JDK with virtual threads
+ * (21 and later), they start a virtual thread per task, so that thousands of concurrent fetches do
+ * not need thousands of OS threads. Otherwise, they fall back to a cached pool of platform daemon
+ * threads. Virtual threads are looked up reflectively, as this library still runs on Java 11.
+ * <p>
+ * Nothing in this library uses them on its own. Callers opt in per component, by passing one of
+ * these executors explicitly, for example as the population executor of a resource cache or the
+ * shard fetch executor of a dynamic atlas policy.
+ *
+ * @author agent
+ */
+public final class VirtualThreads
+{
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreads.class);
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY = virtualThreadFactory();
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutorMethod();
+    private static final ExecutorService SHARED = newExecutor("atlas-io");
+
+    /**
+     * @return True if this JDK can run virtual threads
+     */
+    public static boolean isAvailable()
+    {
+        return VIRTUAL_THREAD_FACTORY != null && NEW_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * @param name
+     *            The prefix of the names of the threads
+     * @return A new executor that starts a thread per task, virtual if available. It has to be shut
+     *         down by the caller.
+     */
+    public static ExecutorService newExecutor(final String name)
+    {
+        if (isAvailable())
+        {
+            try
+            {
+                return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null,
+                        namedVirtualThreadFactory(name));
+            }
+            catch (final ReflectiveOperationException exception)
+            {
+                logger.warn("Unable to create a virtual thread executor, using platform threads",
+                        exception);
+            }
+        }
+        final AtomicInteger threadNumber = new AtomicInteger(1);
+        return Executors.newCachedThreadPool(runnable ->
+        {
+            final Thread thread = new Thread(runnable,
+                    name + "-thread-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return The executor shared by the I/O callers of this library. It is never shut down.
+     */
+    public static ExecutorService shared()
+    {
+        return SHARED;
+    }
+
+    private static ThreadFactory namedVirtualThreadFactory(final String name)
+            throws ReflectiveOperationException
+    {
+        final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+        final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+        final Object namedBuilder = builderType.getMethod("name", String.class, long.class)
+                .invoke(builder, name + "-virtual-", 1L);
+        return (ThreadFactory) builderType.getMethod("factory").invoke(namedBuilder);
+    }
+
+    private static Method newThreadPerTaskExecutorMethod()
+    {
+        try
+        {
+            return Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        }
+        catch (final NoSuchMethodException exception)
+        {
+            return null;
+        }
+    }
+
+    private static ThreadFactory virtualThreadFactory()
+    {
+        try
+        {
+            return namedVirtualThreadFactory("atlas");
+        }
+        catch (final ReflectiveOperationException | UnsupportedOperationException exception)
+        {
+            // Before JDK 19, or JDK 19 and 20 without preview features
+            logger.trace("Virtual threads are not available", exception);
+            return null;
+        }
+    }
+
+    private VirtualThreads()
+    {
+    }
+}
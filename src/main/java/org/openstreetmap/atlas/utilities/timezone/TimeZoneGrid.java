@@ -0,0 +1,130 @@
+package org.openstreetmap.atlas.utilities.timezone;
+
+import java.util.TimeZone;
+import java.util.function.Function;
+
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.Latitude;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.Longitude;
+import org.openstreetmap.atlas.geography.Rectangle;
+
+/**
+ * An immutable grid over the bounds of a {@link TimeZoneMap}, which stores the {@link TimeZone} of
+ * each cell that is fully inside a single time zone. The cells that straddle a time zone border,
+ * or are at sea, are not resolved and are left to the polygon queries of the {@link TimeZoneMap}.
+ * The cells are computed in dm7, so that a {@link Location} always falls in the cell whose bounds
+ * were resolved.
+ *
+ * @author agent
+ */
+final class TimeZoneGrid
+{
+    private final long minimumLatitude;
+    private final long minimumLongitude;
+    private final long maximumLatitude;
+    private final long maximumLongitude;
+    private final long cellHeight;
+    private final long cellWidth;
+    private final int rows;
+    private final int columns;
+    // Null for the cells that are not resolved
+    private final TimeZone[] cells;
+    private final int resolvedCells;
+
+    /**
+     * @param bound
+     *            The bounds to cover
+     * @param dimension
+     *            The maximum number of rows and columns of the grid
+     * @param resolver
+     *            The {@link TimeZone} of all the {@link Location}s in a cell, or null if they can
+     *            be in different time zones
+     */
+    TimeZoneGrid(final Rectangle bound, final int dimension,
+            final Function<Rectangle, TimeZone> resolver)
+    {
+        if (dimension < 1)
+        {
+            throw new CoreException("Invalid grid dimension: {}", dimension);
+        }
+        this.minimumLatitude = bound.lowerLeft().getLatitude().asDm7();
+        this.minimumLongitude = bound.lowerLeft().getLongitude().asDm7();
+        this.maximumLatitude = bound.upperRight().getLatitude().asDm7();
+        this.maximumLongitude = bound.upperRight().getLongitude().asDm7();
+        this.cellHeight = cellSize(this.maximumLatitude - this.minimumLatitude, dimension);
+        this.cellWidth = cellSize(this.maximumLongitude - this.minimumLongitude, dimension);
+        this.rows = cellCount(this.maximumLatitude - this.minimumLatitude, this.cellHeight);
+        this.columns = cellCount(this.maximumLongitude - this.minimumLongitude, this.cellWidth);
+        this.cells = new TimeZone[this.rows * this.columns];
+        int resolved = 0;
+        for (int row = 0; row < this.rows; row++)
+        {
+            for (int column = 0; column < this.columns; column++)
+            {
+                final TimeZone timeZone = resolver.apply(cell(row, column));
+                this.cells[row * this.columns + column] = timeZone;
+                if (timeZone != null)
+                {
+                    resolved++;
+                }
+            }
+        }
+        this.resolvedCells = resolved;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TimeZoneGrid [" + this.rows + "x" + this.columns + ", resolved="
+                + this.resolvedCells + "/" + this.cells.length + "]";
+    }
+
+    int resolvedCells()
+    {
+        return this.resolvedCells;
+    }
+
+    /**
+     * @param location
+     *            The {@link Location} to query
+     * @return The {@link TimeZone} of the cell of the {@link Location}, or null if the cell is not
+     *         resolved or the {@link Location} is outside of the grid
+     */
+    TimeZone timeZone(final Location location)
+    {
+        final long latitude = location.getLatitude().asDm7();
+        final long longitude = location.getLongitude().asDm7();
+        if (latitude < this.minimumLatitude || latitude > this.maximumLatitude
+                || longitude < this.minimumLongitude || longitude > this.maximumLongitude)
+        {
+            return null;
+        }
+        // The locations on the upper and right edges of the grid belong to the last cells
+        final int row = (int) Math.min((latitude - this.minimumLatitude) / this.cellHeight,
+                this.rows - 1L);
+        final int column = (int) Math.min((longitude - this.minimumLongitude) / this.cellWidth,
+                this.columns - 1L);
+        return this.cells[row * this.columns + column];
+    }
+
+    private Rectangle cell(final int row, final int column)
+    {
+        final long south = this.minimumLatitude + row * this.cellHeight;
+        final long west = this.minimumLongitude + column * this.cellWidth;
+        return Rectangle.forCorners(
+                new Location(Latitude.dm7(south), Longitude.dm7(west)),
+                new Location(Latitude.dm7(Math.min(south + this.cellHeight, this.maximumLatitude)),
+                        Longitude.dm7(Math.min(west + this.cellWidth, this.maximumLongitude))));
+    }
+
+    private int cellCount(final long span, final long cellSize)
+    {
+        return (int) Math.max((span + cellSize - 1) / cellSize, 1L);
+    }
+
+    private long cellSize(final long span, final int dimension)
+    {
+        return Math.max((span + dimension - 1) / dimension, 1L);
+    }
+}
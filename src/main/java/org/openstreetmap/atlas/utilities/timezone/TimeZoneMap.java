@@ -23,12 +23,12 @@ import org.openstreetmap.atlas.geography.Location;
 import org.openstreetmap.atlas.geography.Longitude;
 import org.openstreetmap.atlas.geography.Polygon;
 import org.openstreetmap.atlas.geography.Rectangle;
-import org.openstreetmap.atlas.geography.index.JtsSpatialIndex;
 import org.openstreetmap.atlas.geography.index.RTree;
 import org.openstreetmap.atlas.utilities.conversion.Converter;
 import org.openstreetmap.atlas.utilities.scalars.Distance;
 import org.openstreetmap.atlas.utilities.scalars.Surface;
 import org.openstreetmap.atlas.utilities.statistic.storeless.CounterWithStatistic;
+import org.openstreetmap.atlas.utilities.time.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,6 +36,11 @@ import org.slf4j.LoggerFactory;
  * This {@link TimeZoneMap} can load partial time zone shape files provided by
  * <a href= "http://efele.net/maps/tz/world/" >efele.net</a> into spatial index, and then supports
  * thread-safe {@link TimeZone} queries with {@link Location}.
+ * <p>
+ * The spatial index and the boundary polygons are fully built when the map is constructed, and
+ * never change after, so queries do not need any lock. A {@link TimeZoneGrid} is also precomputed
+ * over the bounds of the map: the {@link Location}s in a cell that lies inside a single time zone
+ * are resolved directly, and only the cells that straddle time zone borders need polygon tests.
  *
  * @author tony
  */
@@ -98,9 +103,60 @@ public class TimeZoneMap implements Located
     private static final Logger logger = LoggerFactory.getLogger(TimeZoneMap.class);
     private static final int DEGREES_PER_TIME_ZONE = 15;
     private static final int LOG_PRINT_FREQUENCY = 1_000;
+    // The grid has at most 256 x 256 cells
+    private static final int DEFAULT_GRID_DIMENSION = 256;
 
-    private final JtsSpatialIndex<TimeZoneBoundary> index = new RTree<>();
+    private final RTree<TimeZoneBoundary> index = new RTree<>();
     private final Rectangle bound;
+    private final TimeZoneGrid grid;
+
+    /**
+     * Partial loading time zone boundaries
+     *
+     * @param bound
+     *            Only the boundaries overlapping this bound are loaded
+     * @return The loaded boundaries, empty if they could not be loaded
+     */
+    private static List<TimeZoneBoundary> loadTimeZoneBoundaries(final Rectangle bound)
+    {
+        final List<TimeZoneBoundary> result = new ArrayList<>();
+        try
+        {
+            final URL url = TimeZoneMap.class.getResource("tz_world.shp");
+            final FileDataStore store = FileDataStoreFinder.getDataStore(url);
+            final TimeZoneBoundaryConverter converter = new TimeZoneBoundaryConverter();
+            final FeatureIterator<SimpleFeature> iterator = store.getFeatureSource().getFeatures()
+                    .features();
+            try
+            {
+                while (iterator.hasNext())
+                {
+                    final Feature feature = iterator.next();
+                    final BoundingBox boundingBox = feature.getBounds();
+                    final Rectangle featureBound = Rectangle.forLocations(
+                            new Location(Latitude.degrees(boundingBox.getMinY()),
+                                    Longitude.degrees(boundingBox.getMinX())),
+                            new Location(Latitude.degrees(boundingBox.getMaxY()),
+                                    Longitude.degrees(boundingBox.getMaxX())));
+                    // only load overlapped boundaries
+                    if (bound.overlaps(featureBound))
+                    {
+                        result.add(converter.convert(feature));
+                    }
+                }
+            }
+            finally
+            {
+                iterator.close();
+                store.dispose();
+            }
+        }
+        catch (final IOException e)
+        {
+            logger.error("Errors happened when loading timezone", e);
+        }
+        return result;
+    }
 
     public TimeZoneMap()
     {
@@ -109,14 +165,58 @@ public class TimeZoneMap implements Located
 
     public TimeZoneMap(final Rectangle bound)
     {
+        this(bound, DEFAULT_GRID_DIMENSION);
+    }
+
+    /**
+     * @param bound
+     *            The bounds of the time zone boundaries to load
+     * @param gridDimension
+     *            The maximum number of rows and columns of the precomputed grid, 0 for no grid
+     */
+    public TimeZoneMap(final Rectangle bound, final int gridDimension)
+    {
+        this(bound, loadTimeZoneBoundaries(bound), gridDimension);
+    }
+
+    /**
+     * @param bound
+     *            The bounds of the map, which the grid covers
+     * @param boundaries
+     *            The time zone boundaries to index
+     * @param gridDimension
+     *            The maximum number of rows and columns of the precomputed grid, 0 for no grid
+     */
+    public TimeZoneMap(final Rectangle bound, final Iterable<TimeZoneBoundary> boundaries,
+            final int gridDimension)
+    {
+        if (gridDimension < 0)
+        {
+            throw new CoreException("Invalid grid dimension: {}", gridDimension);
+        }
         this.bound = bound;
-        try
+        final Time start = Time.now();
+        final CounterWithStatistic counter = new CounterWithStatistic(logger);
+        counter.setLogPrintFrequency(LOG_PRINT_FREQUENCY);
+        for (final TimeZoneBoundary boundary : boundaries)
         {
-            loadTimeZoneBoundaries();
+            // Prepare the polygon now, instead of racing to do it in the first queries
+            boundary.getPolygon().fullyGeometricallyEncloses(boundary.getPolygon().first());
+            this.index.add(boundary.bounds(), boundary);
+            counter.increment();
         }
-        catch (final IOException e)
+        counter.summary();
+        // Build the tree now, after which it is read only
+        this.index.build();
+        logger.info("index size is {}", this.index.size());
+        if (gridDimension > 0)
         {
-            logger.error("Errors happened when loading timezone", e);
+            this.grid = new TimeZoneGrid(bound, gridDimension, this::resolveCell);
+            logger.info("Built {} in {}", this.grid, start.elapsedSince());
+        }
+        else
+        {
+            this.grid = null;
         }
     }
 
@@ -141,8 +241,16 @@ public class TimeZoneMap implements Located
      *            The location to query
      * @return the specified TimeZone, or the GMT zone if in the middle of the sea
      */
-    public synchronized TimeZone timeZone(final Location location)
+    public TimeZone timeZone(final Location location)
     {
+        if (this.grid != null)
+        {
+            final TimeZone resolved = this.grid.timeZone(location);
+            if (resolved != null)
+            {
+                return resolved;
+            }
+        }
         List<TimeZoneBoundary> boundaries = this.index.get(location.bounds(),
                 boundary -> boundary.getPolygon().fullyGeometricallyEncloses(location));
 
@@ -172,51 +280,42 @@ public class TimeZoneMap implements Located
 
         // the location is in the middle of the sea, use normalized time zone (15 degree per zone)
         final int offset = (int) location.getLongitude().asDegrees() / DEGREES_PER_TIME_ZONE;
-        return TimeZone.getTimeZone(ZoneOffset.of(offset > 0 ? "+" + offset : "" + offset));
+        return TimeZone.getTimeZone(ZoneOffset.of(offset >= 0 ? "+" + offset : "" + offset));
     }
 
     /**
-     * Partial loading time zone boundaries
-     *
-     * @throws IOException
+     * @return the number of grid cells resolved to a single time zone
      */
-    private void loadTimeZoneBoundaries() throws IOException
+    int numberOfResolvedGridCells()
     {
-        final CounterWithStatistic counter = new CounterWithStatistic(logger);
-        counter.setLogPrintFrequency(LOG_PRINT_FREQUENCY);
-        final URL url = TimeZoneMap.class.getResource("tz_world.shp");
-        final FileDataStore store = FileDataStoreFinder.getDataStore(url);
-        final TimeZoneBoundaryConverter converter = new TimeZoneBoundaryConverter();
-        final FeatureIterator<SimpleFeature> iterator = store.getFeatureSource().getFeatures()
-                .features();
-        try
+        return this.grid == null ? 0 : this.grid.resolvedCells();
+    }
+
+    /**
+     * @param cell
+     *            A grid cell
+     * @return The time zone of all the locations in the cell, or null if the cell touches the
+     *         border of a time zone, or is at sea
+     */
+    private TimeZone resolveCell(final Rectangle cell)
+    {
+        final List<TimeZoneBoundary> enclosing = new ArrayList<>();
+        for (final TimeZoneBoundary boundary : this.index.get(cell))
         {
-            while (iterator.hasNext())
+            if (boundary.getPolygon().fullyGeometricallyEncloses(cell))
             {
-                final Feature feature = iterator.next();
-                final BoundingBox boundingBox = feature.getBounds();
-                final Rectangle featureBound = Rectangle.forLocations(
-                        new Location(Latitude.degrees(boundingBox.getMinY()),
-                                Longitude.degrees(boundingBox.getMinX())),
-                        new Location(Latitude.degrees(boundingBox.getMaxY()),
-                                Longitude.degrees(boundingBox.getMaxX())));
-                // only load overlapped boundaries
-                if (this.bound.overlaps(featureBound))
-                {
-                    final TimeZoneBoundary boundary = converter.convert(feature);
-                    this.index.add(boundary.bounds(), boundary);
-                    counter.increment();
-                }
+                enclosing.add(boundary);
+            }
+            else if (boundary.getPolygon().overlaps(cell))
+            {
+                return null;
             }
         }
-        finally
+        if (enclosing.isEmpty())
         {
-            iterator.close();
-            store.dispose();
+            return null;
         }
-
-        counter.summary();
-        logger.info("index size is {}", this.index.size());
+        return smallest(enclosing).getTimeZone();
     }
 
     /**
@@ -0,0 +1,144 @@
+package org.openstreetmap.atlas.geography;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.geography.Snapper.SnappedLocation;
+import org.openstreetmap.atlas.utilities.scalars.Distance;
+import org.openstreetmap.atlas.utilities.scalars.Ratio;
+
+/**
+ * Test the {@link GeometryKernels} against the object based computations they replace.
+ *
+ * @author agent
+ */
+public class GeometryKernelsTest
+{
+    private static final Rectangle BOUNDS = Rectangle.forLocations(Location.forString("-60,-179"),
+            Location.forString("60,179"));
+    private static final int ROUNDS = 200;
+
+    @Test
+    public void testAntimeridian()
+    {
+        final Location west = Location.forString("10,-179.9");
+        final Location east = Location.forString("10,179.9");
+        final long distance = GeometryKernels.distance(west.asConcatenation(),
+                east.asConcatenation());
+        Assert.assertEquals(
+                GeometryKernels.haversineDistance(west.asConcatenation(), east.asConcatenation()),
+                distance);
+        Assert.assertTrue(Distance.millimeters(distance).isLessThan(Distance.kilometers(25)));
+    }
+
+    @Test
+    public void testDistances()
+    {
+        for (int index = 0; index < ROUNDS; index++)
+        {
+            final Location one = Location.random(BOUNDS);
+            final Location two = Location.random(BOUNDS);
+            Assert.assertEquals(legacyHaversine(one, two), one.haversineDistanceTo(two));
+            Assert.assertEquals(legacyEquirectangular(one, two),
+                    one.equirectangularDistanceTo(two));
+        }
+    }
+
+    @Test
+    public void testLength()
+    {
+        for (int index = 0; index < ROUNDS; index++)
+        {
+            final PolyLine polyLine = PolyLine.random(index % 10 + 1, BOUNDS);
+            Assert.assertEquals(legacyLength(polyLine.segments()), polyLine.length());
+            final Polygon polygon = new Polygon(polyLine);
+            Assert.assertEquals(legacyLength(polygon.segments()), polygon.length());
+            final Ratio ratio = Ratio.percentage(index % 101);
+            Assert.assertEquals(polygon.offsetFromStart(ratio),
+                    new Polygon(polygon.packed()).offsetFromStart(ratio));
+        }
+        Assert.assertEquals(Location.TEST_1, new PolyLine(Location.TEST_1)
+                .offsetFromStart(Ratio.HALF));
+    }
+
+    @Test
+    public void testSegmentLengths()
+    {
+        final Polygon polygon = Polygon.SILICON_VALLEY;
+        final PackedLocationList packed = polygon.packed();
+        final long[] lengths = new long[packed.size()];
+        Assert.assertEquals(packed.size(), GeometryKernels.segmentLengths(packed.concatenations(),
+                packed.size(), true, lengths));
+        final List<Segment> segments = polygon.segments();
+        for (int index = 0; index < lengths.length; index++)
+        {
+            Assert.assertEquals(segments.get(index).length().asMillimeters(), lengths[index],
+                    0.0);
+        }
+    }
+
+    @Test
+    public void testSnapping()
+    {
+        final Snapper snapper = new Snapper();
+        for (int index = 0; index < ROUNDS; index++)
+        {
+            final Location origin = Location.random(BOUNDS);
+            final PolyLine polyLine = PolyLine.random(index % 10 + 2, BOUNDS);
+            Assert.assertEquals(legacySnap(snapper, origin, polyLine.segments()),
+                    snapper.snap(origin, polyLine));
+            final Polygon polygon = new Polygon(polyLine);
+            Assert.assertEquals(legacySnap(snapper, origin, polygon.segments()),
+                    snapper.snap(origin, polygon));
+        }
+    }
+
+    private Distance legacyEquirectangular(final Location one, final Location two)
+    {
+        final double lat1 = one.getLatitude().asRadians();
+        final double lon1 = one.getLongitude().asRadians();
+        final double lat2 = two.getLatitude().asRadians();
+        final double lon2 = two.getLongitude().asRadians();
+        final double xAxis = (lon2 - lon1) * Math.cos((lat1 + lat2) / 2);
+        final double yAxis = lat2 - lat1;
+        return Distance.AVERAGE_EARTH_RADIUS.scaleBy(Math.sqrt(xAxis * xAxis + yAxis * yAxis));
+    }
+
+    private Distance legacyHaversine(final Location one, final Location two)
+    {
+        final double lat1 = one.getLatitude().asRadians();
+        final double lon1 = one.getLongitude().asRadians();
+        final double lat2 = two.getLatitude().asRadians();
+        final double lon2 = two.getLongitude().asRadians();
+        final double hav = Math.pow(Math.sin((lat2 - lat1) / 2), 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.pow(Math.sin((lon2 - lon1) / 2), 2);
+        return Distance.AVERAGE_EARTH_RADIUS
+                .scaleBy(2 * Math.atan2(Math.sqrt(hav), Math.sqrt(1 - hav)));
+    }
+
+    private Distance legacyLength(final List<Segment> segments)
+    {
+        Distance result = Distance.ZERO;
+        for (final Segment segment : segments)
+        {
+            result = result.add(segment.length());
+        }
+        return result;
+    }
+
+    private Location legacySnap(final Snapper snapper, final Location origin,
+            final List<Segment> segments)
+    {
+        SnappedLocation best = null;
+        for (final Segment segment : segments)
+        {
+            final SnappedLocation candidate = snapper.snap(origin, segment);
+            if (best == null || candidate.getDistance().isLessThan(best.getDistance()))
+            {
+                best = candidate;
+            }
+        }
+        return new Location(best.asConcatenation());
+    }
+}
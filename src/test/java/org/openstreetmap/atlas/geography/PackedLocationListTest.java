@@ -0,0 +1,113 @@
+package org.openstreetmap.atlas.geography;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.converters.jts.JtsLinearRingConverter;
+import org.openstreetmap.atlas.geography.converters.jts.JtsPolyLineConverter;
+import org.openstreetmap.atlas.utilities.arrays.PolyLineArray;
+import org.openstreetmap.atlas.utilities.arrays.PolygonArray;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
+
+/**
+ * Test a {@link PackedLocationList} and the {@link PolyLine}s backed by one.
+ *
+ * @author agent
+ */
+public class PackedLocationListTest
+{
+    private static final Rectangle BOUNDS = Rectangle.forLocations(Location.forString("-10,-20"),
+            Location.forString("10,20"));
+
+    @Test
+    public void testBounds()
+    {
+        for (int index = 0; index < 10; index++)
+        {
+            final PolyLine polyLine = PolyLine.random(50, BOUNDS);
+            Assert.assertEquals(Rectangle.forLocations(polyLine), polyLine.packed().bounds());
+        }
+    }
+
+    @Test(expected = CoreException.class)
+    public void testInvalidConcatenation()
+    {
+        PackedLocationList.concatenate(Latitude.MAXIMUM_DM7 + 1, 0);
+    }
+
+    @Test
+    public void testJtsGeometries()
+    {
+        final PolyLine polyLine = PolyLine.random(20, BOUNDS);
+        final PolyLine packed = new PolyLine(polyLine.packed());
+        Assert.assertTrue(packed.isPacked());
+        Assert.assertFalse(polyLine.isPacked());
+        final JtsPolyLineConverter converter = new JtsPolyLineConverter();
+        Assert.assertTrue(converter.convert(polyLine).equalsExact(converter.convert(packed)));
+
+        for (final Polygon polygon : new Polygon[] { Polygon.SILICON_VALLEY,
+                new Polygon(Location.TEST_1, Location.TEST_2),
+                new Polygon(Location.TEST_1, Location.TEST_2, Location.TEST_1) })
+        {
+            final Polygon packedPolygon = new Polygon(polygon.packed());
+            Assert.assertTrue(packedPolygon.isPacked());
+            Assert.assertTrue(converter.convert(polygon)
+                    .equalsExact(converter.convert(packedPolygon)));
+            Assert.assertTrue(new JtsLinearRingConverter().convert(polygon)
+                    .equalsExact(new JtsLinearRingConverter().convert(packedPolygon)));
+        }
+        final PolyLine other = new PolyLine(Location.forString("-15,0"),
+                Location.forString("15,0"));
+        Assert.assertEquals(polyLine.intersects(other), packed.intersects(other));
+    }
+
+    @Test
+    public void testPackedArrays()
+    {
+        final PolyLineArray polyLines = new PolyLineArray(10);
+        final PolygonArray polygons = new PolygonArray(10);
+        final List<PolyLine> expectedPolyLines = new ArrayList<>();
+        final List<Polygon> expectedPolygons = new ArrayList<>();
+        for (int index = 0; index < 10; index++)
+        {
+            final PolyLine polyLine = PolyLine.random(index + 1, BOUNDS);
+            final Polygon polygon = new Polygon(PolyLine.random(index + 3, BOUNDS));
+            expectedPolyLines.add(polyLine);
+            expectedPolygons.add(polygon);
+            polyLines.add(polyLine);
+            polygons.add(polygon);
+        }
+        for (int index = 0; index < 10; index++)
+        {
+            final PolyLine polyLine = polyLines.get(index);
+            final Polygon polygon = polygons.get(index);
+            Assert.assertTrue(polyLine.isPacked());
+            Assert.assertTrue(polygon.isPacked());
+            Assert.assertEquals(expectedPolyLines.get(index), polyLine);
+            Assert.assertEquals(expectedPolygons.get(index), polygon);
+            Assert.assertEquals(expectedPolyLines.get(index).bounds(), polyLine.bounds());
+            Assert.assertEquals(expectedPolyLines.get(index).length(), polyLine.length());
+        }
+    }
+
+    @Test
+    public void testPrimitiveAccessors()
+    {
+        final PolyLine polyLine = PolyLine.TEST_POLYLINE;
+        final PackedLocationList packed = polyLine.packed();
+        Assert.assertEquals(polyLine.size(), packed.size());
+        Assert.assertEquals(Iterables.asList(polyLine), packed);
+        Assert.assertSame(packed, new PolyLine(packed).packed());
+        for (int index = 0; index < packed.size(); index++)
+        {
+            final Location location = polyLine.get(index);
+            Assert.assertEquals(location.asConcatenation(), packed.concatenation(index));
+            Assert.assertEquals(location.getLatitude().asDm7(), packed.latitudeDm7(index));
+            Assert.assertEquals(location.getLongitude().asDm7(), packed.longitudeDm7(index));
+            Assert.assertEquals(location, packed.get(index));
+        }
+    }
+}
@@ -12,7 +12,9 @@ import org.openstreetmap.atlas.exception.CoreException;
 import org.openstreetmap.atlas.geography.Latitude;
 import org.openstreetmap.atlas.geography.Location;
 import org.openstreetmap.atlas.geography.Longitude;
+import org.openstreetmap.atlas.geography.atlas.AtlasProjection.Content;
 import org.openstreetmap.atlas.geography.atlas.builder.text.TextAtlasBuilder;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
 import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlasBuilder;
 import org.openstreetmap.atlas.streaming.compression.Compressor;
 import org.openstreetmap.atlas.streaming.resource.ByteArrayResource;
@@ -201,6 +203,64 @@ public class AtlasResourceLoaderTest
         }
     }
 
+    @Test
+    public void testParallelLoad()
+    {
+        final Atlas atlas = new AtlasResourceLoader().withThreads(2).withMultiAtlasName("foo")
+                .load(getAtlasResource(this::getSinglePointAtlas),
+                        getTextAtlasResource(this::getMultiplePointAtlas));
+        Assert.assertEquals(3, atlas.numberOfPoints());
+        Assert.assertEquals(Maps.hashMap("a", "b"), atlas.point(1L).getTags());
+        Assert.assertEquals(Maps.hashMap("e", "f"), atlas.point(3L).getTags());
+        Assert.assertEquals("foo", atlas.getName());
+
+        final ByteArrayResource nonAtlasResource = new ByteArrayResource();
+        nonAtlasResource.writeAndClose("some random data");
+        final Atlas skipped = new AtlasResourceLoader().withThreads(2)
+                .withSkipFailedResources(true)
+                .load(nonAtlasResource, getAtlasResource(this::getMultiplePointAtlas));
+        Assert.assertEquals(3, skipped.numberOfPoints());
+
+        this.expectedException.expect(CoreException.class);
+        this.expectedException.expectMessage("Failed to load an atlas");
+        new AtlasResourceLoader().withThreads(2).load(nonAtlasResource,
+                getAtlasResource(this::getMultiplePointAtlas));
+    }
+
+    @Test
+    public void testParallelProjectionWithoutGeometry()
+    {
+        this.expectedException.expect(CoreException.class);
+        this.expectedException.expectMessage("cannot be loaded without geometry");
+        new AtlasResourceLoader().withThreads(2)
+                .withProjection(AtlasProjection.all().withContents(Content.TAGS))
+                .load(getAtlasResource(this::getSinglePointAtlas),
+                        getAtlasResource(this::getMultiplePointAtlas));
+    }
+
+    @Test
+    public void testProjection()
+    {
+        final AtlasProjection projection = AtlasProjection.forItemTypes(ItemType.POINT)
+                .withTagPredicate(taggable -> taggable.getTag("c").isPresent());
+        final Atlas packed = new AtlasResourceLoader().withProjection(projection)
+                .load(getAtlasResource(this::getMultiplePointAtlas));
+        Assert.assertEquals(1, packed.numberOfPoints());
+        Assert.assertEquals(Maps.hashMap("c", "d"), packed.point(2L).getTags());
+
+        final Atlas packedTextMix = new AtlasResourceLoader().withProjection(projection).load(
+                getAtlasResource(this::getMultiplePointAtlas),
+                getTextAtlasResource(this::getMultiplePointAtlas));
+        Assert.assertEquals(1, packedTextMix.numberOfPoints());
+        Assert.assertNull(packedTextMix.point(1L));
+
+        this.expectedException.expect(CoreException.class);
+        this.expectedException.expectMessage("cannot be loaded without geometry");
+        new AtlasResourceLoader().withProjection(projection.withContents(Content.TAGS)).load(
+                getAtlasResource(this::getSinglePointAtlas),
+                getAtlasResource(this::getMultiplePointAtlas));
+    }
+
     @Test
     public void testResourceFilter()
     {
@@ -0,0 +1,186 @@
+package org.openstreetmap.atlas.geography.atlas.arrow;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.ipc.SeekableReadChannel;
+import org.apache.arrow.vector.util.ByteArrayReadableSeekableByteChannel;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.AtlasProjection;
+import org.openstreetmap.atlas.geography.atlas.BareAtlasTestRule;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.geography.atlas.items.Relation;
+import org.openstreetmap.atlas.geography.atlas.multi.MultiAtlas;
+import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlas;
+import org.openstreetmap.atlas.streaming.resource.ByteArrayResource;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
+
+/**
+ * @author agent
+ */
+public class ArrowAtlasExporterTest
+{
+    /**
+     * Callback for each record batch read back
+     *
+     * @author agent
+     */
+    private interface BatchConsumer
+    {
+        void accept(VectorSchemaRoot root, VarCharVector words);
+    }
+
+    @Rule
+    public final BareAtlasTestRule rule = new BareAtlasTestRule();
+
+    @Test
+    public void testBatches()
+    {
+        final Atlas atlas = this.rule.getAtlas();
+        final ByteArrayResource output = new ByteArrayResource();
+        new ArrowAtlasExporter(2).export(atlas, output);
+        final List<Integer> batchSizes = new ArrayList<>();
+        read(output, (root, words) -> batchSizes.add(root.getRowCount()));
+        Assert.assertTrue(batchSizes.stream().allMatch(size -> size > 0 && size <= 2));
+        Assert.assertEquals(Iterables.size(atlas.entities()),
+                batchSizes.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    public void testExportMultiAtlas()
+    {
+        final Atlas atlas = new MultiAtlas(this.rule.getAtlas());
+        assertExported(atlas);
+    }
+
+    @Test
+    public void testExportPackedAtlas()
+    {
+        final Atlas atlas = this.rule.getAtlas();
+        Assert.assertTrue(atlas instanceof PackedAtlas);
+        assertExported(atlas);
+    }
+
+    @Test
+    public void testExportProjectedPackedAtlas()
+    {
+        final ByteArrayResource resource = new ByteArrayResource();
+        ((PackedAtlas) this.rule.getAtlas()).save(resource);
+        // Leaves out a point in the middle of the arrays, so the next points move up
+        final PackedAtlas atlas = PackedAtlas.load(resource, AtlasProjection.all()
+                .withTagPredicate(taggable -> !taggable.getTag("fixme").isPresent()));
+        Assert.assertTrue(atlas.isProjected());
+        Assert.assertNull(atlas.point(1L));
+        assertExported(atlas);
+    }
+
+    private void assertExported(final Atlas atlas)
+    {
+        final ByteArrayResource output = new ByteArrayResource();
+        final long rows = new ArrowAtlasExporter().export(atlas, output);
+        Assert.assertEquals(Iterables.size(atlas.entities()), rows);
+
+        final Map<ItemType, List<AtlasEntity>> expected = new HashMap<>();
+        for (final ItemType type : ItemType.values())
+        {
+            expected.put(type, Iterables.asList(atlas.entities(type, type.getMemberClass())));
+        }
+        final Map<ItemType, Integer> positions = new HashMap<>();
+        read(output, (root, words) ->
+        {
+            final TinyIntVector itemTypes = (TinyIntVector) root
+                    .getVector(ArrowAtlasExporter.ITEM_TYPE);
+            final BigIntVector identifiers = (BigIntVector) root
+                    .getVector(ArrowAtlasExporter.IDENTIFIER);
+            final BigIntVector osmIdentifiers = (BigIntVector) root
+                    .getVector(ArrowAtlasExporter.OSM_IDENTIFIER);
+            final VarBinaryVector geometries = (VarBinaryVector) root
+                    .getVector(ArrowAtlasExporter.GEOMETRY);
+            final ListVector keys = (ListVector) root.getVector(ArrowAtlasExporter.TAG_KEYS);
+            final ListVector values = (ListVector) root.getVector(ArrowAtlasExporter.TAG_VALUES);
+            for (int row = 0; row < root.getRowCount(); row++)
+            {
+                final ItemType type = ItemType.forValue(itemTypes.get(row));
+                final int position = positions.merge(type, 1, Integer::sum) - 1;
+                final AtlasEntity entity = expected.get(type).get(position);
+                Assert.assertEquals(entity.getIdentifier(), identifiers.get(row));
+                Assert.assertEquals(entity.getOsmIdentifier(), osmIdentifiers.get(row));
+                if (entity instanceof Relation)
+                {
+                    Assert.assertEquals(((Relation) entity).asMultiPolygon(true).isPresent(),
+                            !geometries.isNull(row));
+                }
+                else
+                {
+                    Assert.assertFalse(geometries.isNull(row));
+                }
+                Assert.assertEquals(entity.getTags(), tags(keys, values, words, row));
+            }
+        });
+        for (final ItemType type : ItemType.values())
+        {
+            Assert.assertEquals(expected.get(type).size(),
+                    positions.getOrDefault(type, 0).intValue());
+        }
+    }
+
+    private void read(final ByteArrayResource output, final BatchConsumer consumer)
+    {
+        try (BufferAllocator allocator = new RootAllocator();
+                ArrowFileReader reader = new ArrowFileReader(
+                        new SeekableReadChannel(new ByteArrayReadableSeekableByteChannel(
+                                output.readBytesAndClose())),
+                        allocator))
+        {
+            final VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            Assert.assertEquals(ArrowAtlasExporter.schema(), root.getSchema());
+            while (reader.loadNextBatch())
+            {
+                final VarCharVector words = (VarCharVector) reader.getDictionaryVectors()
+                        .get(ArrowAtlasExporter.TAG_DICTIONARY_IDENTIFIER).getVector();
+                consumer.accept(root, words);
+            }
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("Unable to read Arrow output", exception);
+        }
+    }
+
+    private Map<String, String> tags(final ListVector keys, final ListVector values,
+            final VarCharVector words, final int row)
+    {
+        final IntVector keyCodes = (IntVector) keys.getDataVector();
+        final IntVector valueCodes = (IntVector) values.getDataVector();
+        final int start = keys.getElementStartIndex(row);
+        final int end = keys.getElementEndIndex(row);
+        Assert.assertEquals(start, values.getElementStartIndex(row));
+        Assert.assertEquals(end, values.getElementEndIndex(row));
+        final Map<String, String> result = new HashMap<>();
+        for (int index = start; index < end; index++)
+        {
+            result.put(new String(words.get(keyCodes.get(index)), StandardCharsets.UTF_8),
+                    new String(words.get(valueCodes.get(index)), StandardCharsets.UTF_8));
+        }
+        return result;
+    }
+}
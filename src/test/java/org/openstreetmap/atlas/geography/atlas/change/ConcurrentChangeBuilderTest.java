@@ -0,0 +1,85 @@
+package org.openstreetmap.atlas.geography.atlas.change;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.Polygon;
+import org.openstreetmap.atlas.geography.atlas.complete.CompleteArea;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.utilities.collections.Maps;
+
+/**
+ * @author agent
+ */
+public class ConcurrentChangeBuilderTest
+{
+    private static final int AREAS = 500;
+    private static final int TAGS = 4;
+
+    @Test(expected = CoreException.class)
+    public void testAddAfterGet()
+    {
+        final ConcurrentChangeBuilder builder = new ConcurrentChangeBuilder(2);
+        builder.add(area(1L, 0)).get();
+        builder.add(area(2L, 0));
+    }
+
+    @Test
+    public void testConcurrentAdd()
+    {
+        final List<FeatureChange> featureChanges = featureChanges();
+        final Change expected = ChangeBuilder.newInstance().addAll(featureChanges).get();
+
+        final ConcurrentChangeBuilder builder = new ConcurrentChangeBuilder(8);
+        featureChanges.parallelStream().forEach(builder::add);
+        Assert.assertEquals(AREAS, builder.peekNumberOfChanges());
+        final Change change = builder.withName("concurrent").get();
+
+        Assert.assertEquals("concurrent", change.getName());
+        Assert.assertEquals(AREAS, change.changeCount());
+        Assert.assertEquals(expected.allChangesMappedByAtlasEntityKey(),
+                change.allChangesMappedByAtlasEntityKey());
+        Assert.assertEquals(TAGS, change.changeFor(ItemType.AREA, 1L).get().getTags().size());
+        Assert.assertEquals(expected.bounds(), change.bounds());
+    }
+
+    @Test
+    public void testIndependentOfOrder()
+    {
+        final List<FeatureChange> featureChanges = featureChanges();
+        final Change first = new ConcurrentChangeBuilder(3).addAll(featureChanges).get();
+        Collections.shuffle(featureChanges, new Random(1L));
+        final Change second = new ConcurrentChangeBuilder(3).addAll(featureChanges).get();
+        Assert.assertEquals(first, second);
+    }
+
+    @Test(expected = CoreException.class)
+    public void testInvalidPartitions()
+    {
+        new ConcurrentChangeBuilder(0);
+    }
+
+    private FeatureChange area(final long identifier, final int tag)
+    {
+        return new FeatureChange(ChangeType.ADD, new CompleteArea(identifier,
+                Polygon.TEST_BUILDING, Maps.hashMap("key" + tag, "value"), null));
+    }
+
+    private List<FeatureChange> featureChanges()
+    {
+        final List<FeatureChange> result = new ArrayList<>();
+        for (int tag = 0; tag < TAGS; tag++)
+        {
+            for (long identifier = 0; identifier < AREAS; identifier++)
+            {
+                result.add(area(identifier, tag));
+            }
+        }
+        return result;
+    }
+}
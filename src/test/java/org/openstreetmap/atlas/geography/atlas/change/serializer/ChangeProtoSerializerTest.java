@@ -0,0 +1,159 @@
+package org.openstreetmap.atlas.geography.atlas.change.serializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.MultiPolygon;
+import org.openstreetmap.atlas.geography.PolyLine;
+import org.openstreetmap.atlas.geography.Polygon;
+import org.openstreetmap.atlas.geography.Rectangle;
+import org.openstreetmap.atlas.geography.atlas.builder.RelationBean;
+import org.openstreetmap.atlas.geography.atlas.change.Change;
+import org.openstreetmap.atlas.geography.atlas.change.ChangeBuilder;
+import org.openstreetmap.atlas.geography.atlas.change.ChangeType;
+import org.openstreetmap.atlas.geography.atlas.change.FeatureChange;
+import org.openstreetmap.atlas.geography.atlas.complete.CompleteArea;
+import org.openstreetmap.atlas.geography.atlas.complete.CompleteEdge;
+import org.openstreetmap.atlas.geography.atlas.complete.CompleteLine;
+import org.openstreetmap.atlas.geography.atlas.complete.CompleteNode;
+import org.openstreetmap.atlas.geography.atlas.complete.CompletePoint;
+import org.openstreetmap.atlas.geography.atlas.complete.CompleteRelation;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.geography.converters.jts.JtsMultiPolygonToMultiPolygonConverter;
+import org.openstreetmap.atlas.geography.converters.jts.JtsPolyLineConverter;
+import org.openstreetmap.atlas.streaming.resource.ByteArrayResource;
+import org.openstreetmap.atlas.utilities.collections.Maps;
+import org.openstreetmap.atlas.utilities.collections.Sets;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Check that the {@link ChangeProtoSerializer} round trips the same {@link Change}s the
+ * {@link ChangeGeoJsonSerializer} prints.
+ *
+ * @author agent
+ */
+public class ChangeProtoSerializerTest
+{
+    private static final Map<String, String> TAGS = Maps.hashMap("tagKey1", "tagValue1", "tagKey2",
+            "tagValue2");
+    private static final Set<Long> RELATIONS = Sets.hashSet(444L, 555L);
+
+    @Test
+    public void testFullEntities()
+    {
+        final RelationBean members = new RelationBean();
+        members.addItem(456L, "role1", ItemType.EDGE);
+        members.addItem(789L, "role2", ItemType.AREA);
+        members.addItemExplicitlyExcluded(987L, "role1", ItemType.NODE);
+        final CompleteNode node = new CompleteNode(123L, Location.COLOSSEUM, TAGS,
+                Sets.treeSet(456L, 789L), Sets.treeSet(456L, 789L), RELATIONS);
+        node.setExplicitlyExcludedInEdgeIdentifiers(Sets.hashSet(111L));
+        final Change change = new ChangeBuilder().withName("full")
+                .add(FeatureChange
+                        .add(new CompleteArea(123L, Polygon.TEST_BUILDING, TAGS, RELATIONS)))
+                .add(FeatureChange.add(new CompleteEdge(123L, PolyLine.TEST_POLYLINE, TAGS, 456L,
+                        789L, RELATIONS)))
+                .add(FeatureChange.add(
+                        new CompleteLine(123L, PolyLine.TEST_POLYLINE, TAGS, RELATIONS)))
+                .add(FeatureChange.add(node))
+                .add(FeatureChange.add(
+                        new CompletePoint(123L, Location.COLOSSEUM, TAGS, RELATIONS)))
+                .add(FeatureChange.add(new CompleteRelation(123L, TAGS, Rectangle.TEST_RECTANGLE,
+                        members, Lists.newArrayList(123L), members, 123L, RELATIONS)))
+                .get();
+        assertRoundTrip(change);
+    }
+
+    @Test
+    public void testRelationGeometries()
+    {
+        final RelationBean members = new RelationBean();
+        members.addItem(456L, "outer", ItemType.AREA);
+        final org.locationtech.jts.geom.MultiPolygon geometry = new
+                JtsMultiPolygonToMultiPolygonConverter()
+                        .backwardConvert(MultiPolygon.TEST_MULTI_POLYGON);
+        final CompleteRelation stored = new CompleteRelation(123L, TAGS, Rectangle.TEST_RECTANGLE,
+                members, null, null, null, RELATIONS, geometry);
+        stored.getAddedGeometry()
+                .add(new JtsPolyLineConverter().convert(PolyLine.TEST_POLYLINE));
+        stored.getRemovedGeometry()
+                .add(new JtsPolyLineConverter().convert(PolyLine.TEST_POLYLINE_2));
+        final CompleteRelation overridden = new CompleteRelation(124L, null, null, null, null,
+                null, null, null).withMultiPolygonGeometry(geometry)
+                        .withBounds(Rectangle.TEST_RECTANGLE);
+        final Change change = new ChangeBuilder().add(FeatureChange.add(stored))
+                .add(FeatureChange.add(overridden)).get();
+        assertRoundTrip(change);
+    }
+
+    @Test
+    public void testShallowEntitiesWithBeforeViewsAndMetaData()
+    {
+        final List<FeatureChange> featureChanges = new ArrayList<>();
+        featureChanges.add(FeatureChange.remove(new CompletePoint(1L, null, null, null)
+                .withBoundsExtendedBy(Rectangle.TEST_RECTANGLE)));
+        featureChanges.add(FeatureChange.remove(new CompleteNode(2L, null, null, null, null, null)
+                .withBoundsExtendedBy(Rectangle.TEST_RECTANGLE)));
+        final FeatureChange tagChange = new FeatureChange(ChangeType.ADD,
+                new CompleteLine(3L, null, Maps.hashMap("highway", "primary"), null)
+                        .withBoundsExtendedBy(Rectangle.TEST_RECTANGLE),
+                new CompleteLine(3L, PolyLine.TEST_POLYLINE, Maps.hashMap("highway", "secondary"),
+                        RELATIONS));
+        tagChange.addMetaData("source", "test");
+        tagChange.addMetaData("highway", "secondary");
+        featureChanges.add(tagChange);
+        featureChanges.add(FeatureChange.add(new CompleteEdge(4L, null, null, 5L, null, null)
+                .withGeometricRelationIdentifiers(Sets.hashSet(6L))
+                .withBoundsExtendedBy(Rectangle.TEST_RECTANGLE)));
+
+        final ByteArrayResource resource = new ByteArrayResource();
+        try (FeatureChangeProtoWriter writer = new FeatureChangeProtoWriter(resource, null))
+        {
+            featureChanges.forEach(writer);
+        }
+        final List<FeatureChange> read = new ArrayList<>();
+        try (FeatureChangeProtoReader reader = new FeatureChangeProtoReader(resource))
+        {
+            Assert.assertNull(reader.getName());
+            reader.forEachRemaining(read::add);
+        }
+        Assert.assertEquals(featureChanges.size(), read.size());
+        for (int index = 0; index < featureChanges.size(); index++)
+        {
+            assertSameFeatureChange(featureChanges.get(index), read.get(index));
+        }
+    }
+
+    private void assertRoundTrip(final Change change)
+    {
+        final ByteArrayResource resource = new ByteArrayResource();
+        new ChangeProtoSerializer().accept(change, resource);
+        final Change read = new ChangeProtoDeserializer().convert(resource);
+        Assert.assertEquals(change.getName(), read.getName());
+        final List<FeatureChange> expected = change.changes().collect(Collectors.toList());
+        final List<FeatureChange> actual = read.changes().collect(Collectors.toList());
+        for (int index = 0; index < expected.size(); index++)
+        {
+            assertSameFeatureChange(expected.get(index), actual.get(index));
+        }
+        Assert.assertEquals(change, read);
+        Assert.assertEquals(change.toJson(), read.toJson());
+    }
+
+    private void assertSameFeatureChange(final FeatureChange expected,
+            final FeatureChange actual)
+    {
+        Assert.assertEquals(expected, actual);
+        Assert.assertEquals(expected.getBeforeView(), actual.getBeforeView());
+        Assert.assertEquals(expected.getAfterView().bounds(), actual.getAfterView().bounds());
+        Assert.assertEquals(expected.getMetaData(), actual.getMetaData());
+        Assert.assertEquals(expected.toGeoJson(), actual.toGeoJson());
+    }
+}
@@ -1,10 +1,15 @@
 package org.openstreetmap.atlas.geography.atlas.dynamic;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Supplier;
 
 import org.junit.Assert;
@@ -14,6 +19,7 @@ import org.junit.Test;
 import org.openstreetmap.atlas.geography.Rectangle;
 import org.openstreetmap.atlas.geography.atlas.Atlas;
 import org.openstreetmap.atlas.geography.atlas.BareAtlas;
+import org.openstreetmap.atlas.geography.atlas.change.AtlasEntityKey;
 import org.openstreetmap.atlas.geography.atlas.delta.AtlasDelta;
 import org.openstreetmap.atlas.geography.atlas.dynamic.policy.DynamicAtlasPolicy;
 import org.openstreetmap.atlas.geography.atlas.dynamic.rules.DynamicAtlasTestRule;
@@ -28,6 +34,7 @@ import org.openstreetmap.atlas.geography.atlas.items.RelationMember;
 import org.openstreetmap.atlas.geography.atlas.multi.MultiAtlas;
 import org.openstreetmap.atlas.geography.atlas.multi.MultiRelation;
 import org.openstreetmap.atlas.geography.atlas.packed.PackedRelation;
+import org.openstreetmap.atlas.geography.atlas.sub.AtlasCutType;
 import org.openstreetmap.atlas.geography.sharding.Shard;
 import org.openstreetmap.atlas.geography.sharding.SlippyTile;
 import org.openstreetmap.atlas.geography.sharding.SlippyTileSharding;
@@ -370,6 +377,53 @@ public class DynamicAtlasTest
                 atlas, multiAtlas);
     }
 
+    @Test
+    public void testShardFetchExecutor()
+    {
+        // Expanding to the whole edge fetches two new shards at once. Browse the edges first, as
+        // browsing the node at the other end would fetch its shard alone.
+        final Map<Shard, Atlas> localStore = new HashMap<>();
+        for (final Shard shard : Arrays.asList(new SlippyTile(1350, 1870, 12),
+                new SlippyTile(1350, 1869, 12), new SlippyTile(1349, 1869, 12),
+                new SlippyTile(1349, 1870, 12)))
+        {
+            this.rule.getAtlasWithDiagonalEdge().subAtlas(shard.bounds(), AtlasCutType.SOFT_CUT)
+                    .ifPresent(subAtlas -> localStore.put(shard, subAtlas));
+        }
+        final Set<Thread> fetchingThreads = ConcurrentHashMap.newKeySet();
+        final Supplier<DynamicAtlasPolicy> localPolicySupplier = () -> new DynamicAtlasPolicy(
+                shard ->
+                {
+                    fetchingThreads.add(Thread.currentThread());
+                    return Optional.ofNullable(localStore.get(shard));
+                }, new SlippyTileSharding(12), new SlippyTile(1350, 1870, 12), Rectangle.MAXIMUM);
+
+        final DynamicAtlas sequential = new DynamicAtlas(localPolicySupplier.get());
+        Assert.assertEquals(1, Iterables.size(sequential.edges()));
+        final Set<AtlasEntityKey> expectedEntities = entityKeys(sequential);
+        final Set<Shard> expectedShards = sequential.getShardToAtlasMap().keySet();
+        Assert.assertEquals(3, expectedShards.size());
+        Assert.assertEquals(Collections.singleton(Thread.currentThread()), fetchingThreads);
+
+        fetchingThreads.clear();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            final DynamicAtlas concurrent = new DynamicAtlas(
+                    localPolicySupplier.get().withShardFetchExecutor(executor));
+            Assert.assertEquals(1, Iterables.size(concurrent.edges()));
+            Assert.assertEquals(expectedEntities, entityKeys(concurrent));
+            Assert.assertEquals(expectedShards, concurrent.getShardToAtlasMap().keySet());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        // The initial shard is fetched alone on this thread, the two new shards on the executor
+        Assert.assertTrue(fetchingThreads.remove(Thread.currentThread()));
+        Assert.assertFalse(fetchingThreads.isEmpty());
+    }
+
     @Test
     public void testSnapsLineItem()
     {
@@ -467,4 +521,11 @@ public class DynamicAtlasTest
         return isDynamicPoint || isDynamicLine || isDynamicArea || isDynamicNode || isDynamicEdge
                 || isDynamicRelation;
     }
+
+    private Set<AtlasEntityKey> entityKeys(final Atlas atlas)
+    {
+        return Iterables.stream(atlas.entities())
+                .map(entity -> AtlasEntityKey.from(entity.getType(), entity.getIdentifier()))
+                .collectToSet();
+    }
 }
@@ -422,6 +422,26 @@ public class DynamicAtlasTestRule extends CoreTestRule
     )
     private Atlas atlasForRelationsTest;
 
+    // The edge crosses 12-1349-1870 on its way to 12-1349-1869
+    @TestAtlas(
+
+            nodes = {
+
+                    @Node(id = "1", coordinates = @Loc(value = ONE)),
+                    @Node(id = "5", coordinates = @Loc(value = FIVE))
+
+            },
+
+            edges = {
+
+                    @Edge(id = "9000000", coordinates = { @Loc(value = ONE),
+                            @Loc(value = FIVE) }, tags = { "highway=secondary" })
+
+            }
+
+    )
+    private Atlas atlasWithDiagonalEdge;
+
     public Atlas getAtlas()
     {
         return this.atlas;
@@ -432,6 +452,11 @@ public class DynamicAtlasTestRule extends CoreTestRule
         return this.atlasForRelationsTest;
     }
 
+    public Atlas getAtlasWithDiagonalEdge()
+    {
+        return this.atlasWithDiagonalEdge;
+    }
+
     public Atlas getAtlasz12x1349y1869()
     {
         return this.atlasz12x1349y1869;
@@ -0,0 +1,92 @@
+package org.openstreetmap.atlas.geography.atlas.geojson;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.PolyLine;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.BareAtlasTestRule;
+import org.openstreetmap.atlas.geography.atlas.builder.RelationBean;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlasBuilder;
+import org.openstreetmap.atlas.geography.atlas.packed.RandomPackedAtlasBuilder;
+import org.openstreetmap.atlas.streaming.resource.StringResource;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
+import org.openstreetmap.atlas.utilities.collections.Maps;
+import org.openstreetmap.atlas.utilities.vectortiles.TippecanoeSettings;
+
+/**
+ * @author agent
+ */
+public class StreamingGeoJsonWriterTest
+{
+    @Rule
+    public final BareAtlasTestRule rule = new BareAtlasTestRule();
+
+    @Test
+    public void testEmpty()
+    {
+        final StringResource resource = new StringResource();
+        final StreamingGeoJsonWriter writer = new StreamingGeoJsonWriter(resource);
+        writer.close();
+        Assert.assertEquals(0, writer.getFeatureCount());
+        Assert.assertEquals("", resource.writtenString());
+    }
+
+    @Test
+    public void testSameAsJsonObjects()
+    {
+        assertSameAsJsonObjects(this.rule.getAtlas());
+        assertSameAsJsonObjects(RandomPackedAtlasBuilder.generate(100, 0));
+    }
+
+    @Test
+    public void testSameAsJsonObjectsWithMutator()
+    {
+        final Atlas atlas = this.rule.getAtlas();
+        final StringResource expected = new StringResource();
+        atlas.saveAsLineDelimitedGeoJsonFeatures(expected, TippecanoeSettings.JSON_MUTATOR);
+
+        final StringResource actual = new StringResource();
+        try (StreamingGeoJsonWriter writer = new StreamingGeoJsonWriter(actual))
+        {
+            atlas.entities()
+                    .forEach(entity -> writer.writeFeature(entity, TippecanoeSettings.JSON_MUTATOR));
+        }
+        Assert.assertEquals(expected.writtenString(), actual.writtenString());
+    }
+
+    @Test
+    public void testTagsOverriddenByProperties()
+    {
+        final PackedAtlasBuilder builder = new PackedAtlasBuilder();
+        builder.addNode(1L, Location.TEST_1,
+                Maps.hashMap("a", "b", "relations", "c", "identifier", "d", "outEdges", "e"));
+        builder.addNode(2L, Location.TEST_2, Maps.hashMap("itemType", "f"));
+        builder.addEdge(3L, new PolyLine(Location.TEST_1, Location.TEST_2),
+                Maps.hashMap("endNode", "g", "highway", "primary"));
+        final RelationBean bean = new RelationBean();
+        bean.addItem(1L, "inner", ItemType.NODE);
+        builder.addRelation(4L, 4L, bean, Maps.hashMap("members", "h", "type", "route"));
+        assertSameAsJsonObjects(builder.get());
+    }
+
+    private void assertSameAsJsonObjects(final Atlas atlas)
+    {
+        final StringResource expected = new StringResource();
+        atlas.saveAsLineDelimitedGeoJsonFeatures(expected, (entity, feature) ->
+        {
+        });
+
+        final StringResource actual = new StringResource();
+        final long count;
+        try (StreamingGeoJsonWriter writer = new StreamingGeoJsonWriter(actual))
+        {
+            atlas.entities().forEach(writer::writeFeature);
+            count = writer.getFeatureCount();
+        }
+        Assert.assertEquals(Iterables.size(atlas.entities()), count);
+        Assert.assertEquals(expected.writtenString(), actual.writtenString());
+    }
+}
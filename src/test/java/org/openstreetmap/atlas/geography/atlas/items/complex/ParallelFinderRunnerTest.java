@@ -0,0 +1,84 @@
+package org.openstreetmap.atlas.geography.atlas.items.complex;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.complex.aoi.ComplexAreaOfInterestFinder;
+import org.openstreetmap.atlas.geography.atlas.items.complex.boundaries.ComplexBoundaryFinder;
+import org.openstreetmap.atlas.geography.atlas.items.complex.boundaries.ComplexBoundaryTestRule;
+import org.openstreetmap.atlas.geography.atlas.items.complex.buildings.ComplexBuildingFinder;
+import org.openstreetmap.atlas.geography.atlas.items.complex.water.ComplexWaterEntity;
+import org.openstreetmap.atlas.geography.atlas.items.complex.water.ComplexWaterWayTestRule;
+import org.openstreetmap.atlas.geography.atlas.items.complex.water.finder.ComplexWaterEntityFinder;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
+
+/**
+ * Test the {@link ParallelFinderRunner} against the sequential {@link Finder}s
+ *
+ * @author agent
+ */
+public class ParallelFinderRunnerTest
+{
+    @Rule
+    public final ComplexBoundaryTestRule boundaryRule = new ComplexBoundaryTestRule();
+
+    @Rule
+    public final ComplexWaterWayTestRule waterRule = new ComplexWaterWayTestRule();
+
+    @Test(expected = CoreException.class)
+    public void testInvalidPartitionSize()
+    {
+        new ParallelFinderRunner(2).withPartitionSize(0);
+    }
+
+    @Test
+    public void testMultipleFinders()
+    {
+        final Atlas atlas = this.boundaryRule.getAtlas();
+        final ComplexBoundaryFinder boundaryFinder = new ComplexBoundaryFinder();
+        boundaryFinder.setWithSubAreas(true);
+        final List<EntityFinder<?>> finders = Arrays.asList(boundaryFinder,
+                new ComplexBuildingFinder(), new ComplexWaterEntityFinder(),
+                new ComplexAreaOfInterestFinder());
+        final List<List<ComplexEntity>> results = new ParallelFinderRunner(4)
+                .withPartitionSize(2).find(atlas, finders);
+        Assert.assertEquals(finders.size(), results.size());
+        for (int index = 0; index < finders.size(); index++)
+        {
+            Assert.assertEquals(sources(finders.get(index).find(atlas)),
+                    sources(results.get(index)));
+        }
+        Assert.assertFalse(results.get(0).isEmpty());
+    }
+
+    @Test
+    public void testSingleFinder()
+    {
+        for (final Atlas atlas : Arrays.asList(
+                this.waterRule.getCanalAsRelationOfCanalEntitiesAtlas(),
+                this.waterRule.getCanalAsRelatonOfNonCanalEntitiesAtlas()))
+        {
+            final ComplexWaterEntityFinder finder = new ComplexWaterEntityFinder();
+            final List<AtlasEntity> expected = sources(finder.find(atlas));
+            Assert.assertFalse(expected.isEmpty());
+            for (final int partitionSize : new int[] { 1, 3, 1_000 })
+            {
+                final List<ComplexWaterEntity> result = new ParallelFinderRunner(3)
+                        .withPartitionSize(partitionSize).find(atlas, finder);
+                // Same entities, in the same order as the sequential finder
+                Assert.assertEquals(expected, sources(result));
+            }
+        }
+    }
+
+    private List<AtlasEntity> sources(final Iterable<? extends ComplexEntity> entities)
+    {
+        return Iterables.stream(entities).map(ComplexEntity::getSource).collectToList();
+    }
+}
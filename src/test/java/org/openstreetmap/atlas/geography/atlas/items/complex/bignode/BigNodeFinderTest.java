@@ -71,6 +71,20 @@ public class BigNodeFinderTest extends AtlasLoadingCommand
         Assert.assertEquals(1, candidate3.compareTo(candidate1));
     }
 
+    @Test
+    public void testBigNodeCandidateMerge()
+    {
+        final BigNodeFinder.BigNodeCandidate candidate = new BigNodeFinder.BigNodeCandidate(
+                new HashSet<>(Arrays.asList(5L, 1L, 3L)));
+        candidate.merge(new BigNodeFinder.BigNodeCandidate(new HashSet<>(Arrays.asList(4L, 3L))));
+        candidate.merge(new BigNodeFinder.BigNodeCandidate());
+        Assert.assertEquals(new TreeSet<>(Arrays.asList(1L, 3L, 4L, 5L)),
+                candidate.getNodeIdentifiers());
+        Assert.assertEquals(1L, candidate.getSourceNodeIdentifier());
+        Assert.assertEquals(new BigNodeFinder.BigNodeCandidate(
+                new HashSet<>(Arrays.asList(1L, 3L, 4L, 5L))), candidate);
+    }
+
     @Test
     public void testBigNodeExpansion()
     {
@@ -306,6 +320,23 @@ public class BigNodeFinderTest extends AtlasLoadingCommand
                 .assertFalse(dualCarriageWayNodes.contains(nodeIdentifier)));
     }
 
+    @Test
+    public void testParallelSearch()
+    {
+        for (final Atlas atlas : Arrays.asList(this.setup.getAtlas(),
+                this.setup.getComplexJunctionAtlas(), this.setup.getExpandBigNodeAtlas(),
+                this.setup.getOverMergeAtlas(), this.setup.getOverlapAtlas(),
+                this.setup.getuTurnShapeEdgeAtlas()))
+        {
+            final List<String> expected = Iterables.stream(new BigNodeFinder().find(atlas))
+                    .map(bigNode -> bigNode.getType() + " " + bigNode.nodes()).collectToList();
+            final List<String> parallel = Iterables
+                    .stream(new BigNodeFinder().withThreads(4).find(atlas))
+                    .map(bigNode -> bigNode.getType() + " " + bigNode.nodes()).collectToList();
+            Assert.assertEquals(expected, parallel);
+        }
+    }
+
     @Test
     public void testPathsThroughComplexJunction()
     {
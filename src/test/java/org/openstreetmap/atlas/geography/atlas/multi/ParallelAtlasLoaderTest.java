@@ -0,0 +1,83 @@
+package org.openstreetmap.atlas.geography.atlas.multi;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.multi.ParallelAtlasLoader.LoadedResource;
+import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlas;
+import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlasBuilder;
+import org.openstreetmap.atlas.streaming.resource.ByteArrayResource;
+import org.openstreetmap.atlas.streaming.resource.Resource;
+import org.openstreetmap.atlas.utilities.collections.Maps;
+
+/**
+ * @author agent
+ */
+public class ParallelAtlasLoaderTest
+{
+    @Test
+    public void testFailure()
+    {
+        final List<Resource> resources = resources();
+        final ParallelAtlasLoader loader = new ParallelAtlasLoader(2);
+        Assert.assertThrows(CoreException.class, () -> loader.load(resources, this::loadOdd));
+    }
+
+    @Test
+    public void testLoad()
+    {
+        final MultiAtlas multiAtlas = MultiAtlas.loadFromPackedAtlas(resources(),
+                new ParallelAtlasLoader(2));
+        Assert.assertEquals(4, multiAtlas.numberOfPoints());
+        Assert.assertEquals(Maps.hashMap("index", "3"), multiAtlas.point(3L).getTags());
+    }
+
+    @Test
+    public void testSkipFailures()
+    {
+        final List<LoadedResource> loaded = new ParallelAtlasLoader(2).withSkipFailures(true)
+                .load(resources(), this::loadOdd);
+        Assert.assertEquals(4, loaded.size());
+        // In the same order as the resources
+        Assert.assertEquals(Arrays.asList("0", "1", "2", "3"), loaded.stream()
+                .map(result -> result.getResource().getName()).collect(Collectors.toList()));
+        Assert.assertTrue(loaded.get(0).getFailure().isPresent());
+        Assert.assertFalse(loaded.get(0).getAtlas().isPresent());
+        Assert.assertEquals(1L, loaded.get(1).getAtlas().get().point(1L).getIdentifier());
+        // Nothing to load is not a failure
+        Assert.assertFalse(loaded.get(2).getFailure().isPresent());
+        Assert.assertFalse(loaded.get(2).getAtlas().isPresent());
+        Assert.assertNotNull(loaded.get(3).getDuration());
+    }
+
+    private Atlas loadOdd(final Resource resource)
+    {
+        final int index = Integer.parseInt(resource.getName());
+        if (index == 0)
+        {
+            throw new CoreException("Cannot load {}", resource.getName());
+        }
+        return index % 2 == 1 ? PackedAtlas.load(resource) : null;
+    }
+
+    private List<Resource> resources()
+    {
+        return Arrays.asList(shard(0), shard(1), shard(2), shard(3));
+    }
+
+    private Resource shard(final int index)
+    {
+        final PackedAtlasBuilder builder = new PackedAtlasBuilder();
+        builder.addPoint(index, Location.TEST_1, Maps.hashMap("index", String.valueOf(index)));
+        final ByteArrayResource resource = new ByteArrayResource();
+        builder.get().save(resource);
+        resource.setName(String.valueOf(index));
+        return resource;
+    }
+}
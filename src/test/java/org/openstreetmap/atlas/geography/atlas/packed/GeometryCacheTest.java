@@ -0,0 +1,64 @@
+package org.openstreetmap.atlas.geography.atlas.packed;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.PolyLine;
+import org.openstreetmap.atlas.geography.Rectangle;
+
+/**
+ * Test the {@link GeometryCache}
+ *
+ * @author agent
+ */
+public class GeometryCacheTest
+{
+    private static final Rectangle BOUNDS = Rectangle.forLocations(Location.forString("-10,-20"),
+            Location.forString("10,20"));
+
+    @Test
+    public void testHitsAndMisses()
+    {
+        final GeometryCache<PolyLine> cache = new GeometryCache<>(100, false, PolyLine::size);
+        final AtomicInteger decoded = new AtomicInteger();
+        final PolyLine polyLine = PolyLine.random(10, BOUNDS);
+        for (int round = 0; round < 3; round++)
+        {
+            Assert.assertSame(polyLine, cache.get(1L, index ->
+            {
+                decoded.incrementAndGet();
+                return polyLine;
+            }));
+        }
+        Assert.assertEquals(1, decoded.get());
+        Assert.assertEquals(1, cache.missCount());
+        Assert.assertEquals(2, cache.hitCount());
+        Assert.assertEquals(1, cache.size());
+
+        cache.invalidateAll();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testNullNotCached()
+    {
+        final GeometryCache<PolyLine> cache = new GeometryCache<>(100, true, PolyLine::size);
+        Assert.assertNull(cache.get(1L, index -> null));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNotNull(cache.get(1L, index -> PolyLine.TEST_POLYLINE));
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testWeightBound()
+    {
+        final GeometryCache<PolyLine> cache = new GeometryCache<>(100, false, PolyLine::size);
+        for (long index = 0; index < 50; index++)
+        {
+            cache.get(index, key -> PolyLine.random(10, BOUNDS));
+        }
+        Assert.assertTrue(cache.size() <= 10);
+    }
+}
@@ -4,9 +4,19 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.Rectangle;
 import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.AtlasProjection;
+import org.openstreetmap.atlas.geography.atlas.BareAtlasTestRule;
 import org.openstreetmap.atlas.geography.atlas.delta.AtlasDelta;
+import org.openstreetmap.atlas.geography.atlas.multi.MultiAtlas;
+import org.openstreetmap.atlas.geography.atlas.sub.AtlasCutType;
+import org.openstreetmap.atlas.streaming.resource.ByteArrayResource;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
+import org.openstreetmap.atlas.utilities.scalars.Distance;
 
 /**
  * @author matthieun
@@ -23,6 +33,9 @@ public class PackedAtlasClonerTest
     private static String TEST_VALUE_3 = "TEST_VALUE_3";
     private static String TEST_VALUE_4 = "TEST_VALUE_4";
 
+    @Rule
+    public final BareAtlasTestRule rule = new BareAtlasTestRule();
+
     @Test
     public void additionalMetaDataTagsTest()
     {
@@ -57,6 +70,57 @@ public class PackedAtlasClonerTest
         Assert.assertEquals(TEST_VALUE_4, finalTags.get(TEST_KEY_4));
     }
 
+    @Test
+    public void cloneMultiAtlasTest()
+    {
+        final Atlas atlas = RandomPackedAtlasBuilder.generate(200, 0);
+        final Rectangle bounds = atlas.bounds();
+        final Location center = bounds.center();
+        final Rectangle west = Rectangle.forCorners(bounds.lowerLeft(),
+                new Location(bounds.upperRight().getLatitude(), center.getLongitude()))
+                .expand(Distance.ONE_METER);
+        final Rectangle east = Rectangle.forCorners(
+                new Location(bounds.lowerLeft().getLatitude(), center.getLongitude()),
+                bounds.upperRight()).expand(Distance.ONE_METER);
+        final Atlas westAtlas = atlas.subAtlas(west, AtlasCutType.SOFT_CUT)
+                .orElseThrow(() -> new IllegalStateException("No west atlas"));
+        final Atlas eastAtlas = atlas.subAtlas(east, AtlasCutType.SOFT_CUT)
+                .orElseThrow(() -> new IllegalStateException("No east atlas"));
+        final MultiAtlas multiAtlas = new MultiAtlas(westAtlas, eastAtlas);
+
+        // Column copy
+        final PackedAtlas copy = new PackedAtlasCloner().cloneFrom(multiAtlas);
+        Assert.assertTrue(new AtlasDelta(multiAtlas, copy).generate().getDifferences().isEmpty());
+        // Item by item copy, as the nested MultiAtlas is not made of PackedAtlases only
+        final PackedAtlas slowCopy = new PackedAtlasCloner()
+                .cloneFrom(new MultiAtlas(new MultiAtlas(westAtlas), eastAtlas));
+        Assert.assertTrue(new AtlasDelta(slowCopy, copy).generate().getDifferences().isEmpty());
+
+        // The spatial index is built lazily
+        Assert.assertEquals(Iterables.size(slowCopy.edgesIntersecting(west)),
+                Iterables.size(copy.edgesIntersecting(west)));
+        Assert.assertEquals(Iterables.size(slowCopy.nodesWithin(east)),
+                Iterables.size(copy.nodesWithin(east)));
+        Assert.assertEquals(Iterables.size(slowCopy.areasIntersecting(east)),
+                Iterables.size(copy.areasIntersecting(east)));
+    }
+
+    @Test
+    public void cloneProjectedAtlasTest()
+    {
+        final ByteArrayResource resource = new ByteArrayResource();
+        ((PackedAtlas) this.rule.getAtlas()).save(resource);
+        // Leaves out a point in the middle of the arrays
+        final PackedAtlas projected = PackedAtlas.load(resource, AtlasProjection.all()
+                .withTagPredicate(taggable -> !taggable.getTag("fixme").isPresent()));
+        Assert.assertTrue(projected.isProjected());
+        Assert.assertNull(projected.point(1L));
+
+        final PackedAtlas copy = new PackedAtlasCloner().cloneFrom(projected);
+        Assert.assertEquals(3L, copy.numberOfPoints());
+        Assert.assertTrue(new AtlasDelta(projected, copy).generate().getDifferences().isEmpty());
+    }
+
     @Test
     public void cloneTest()
     {
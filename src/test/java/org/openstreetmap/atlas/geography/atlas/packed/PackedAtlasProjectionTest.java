@@ -0,0 +1,164 @@
+package org.openstreetmap.atlas.geography.atlas.packed;
+
+import java.nio.file.FileSystems;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.PolyLine;
+import org.openstreetmap.atlas.geography.Polygon;
+import org.openstreetmap.atlas.geography.atlas.AtlasProjection;
+import org.openstreetmap.atlas.geography.atlas.AtlasProjection.Content;
+import org.openstreetmap.atlas.geography.atlas.builder.RelationBean;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.streaming.resource.ByteArrayResource;
+import org.openstreetmap.atlas.streaming.resource.File;
+import org.openstreetmap.atlas.streaming.resource.TemporaryFile;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
+import org.openstreetmap.atlas.utilities.collections.Maps;
+import org.openstreetmap.atlas.utilities.collections.Sets;
+
+/**
+ * Test {@link PackedAtlas#load(org.openstreetmap.atlas.streaming.resource.Resource,
+ * AtlasProjection)}, both from a file that is read lazily and from a stream that is read at once.
+ *
+ * @author agent
+ */
+public class PackedAtlasProjectionTest
+{
+    private static final Location NODE_3 = Location.forString("37.33,-122.01");
+
+    @Test
+    public void testContents()
+    {
+        final AtlasProjection points = AtlasProjection.forItemTypes(ItemType.POINT);
+        assertProjected(points.withContents(Content.GEOMETRY), atlas ->
+        {
+            Assert.assertEquals(Location.TEST_1, atlas.point(100L).getLocation());
+            Assert.assertThrows(CoreException.class, () -> atlas.point(100L).getTags());
+        });
+        assertProjected(points.withContents(Content.TAGS), atlas ->
+        {
+            Assert.assertEquals(Maps.hashMap("amenity", "cafe"), atlas.point(100L).getTags());
+            Assert.assertThrows(CoreException.class, () -> atlas.point(100L).getLocation());
+        });
+    }
+
+    @Test
+    public void testItemTypes()
+    {
+        assertProjected(AtlasProjection.forItemTypes(ItemType.POINT, ItemType.AREA), atlas ->
+        {
+            Assert.assertEquals(1L, atlas.numberOfPoints());
+            Assert.assertEquals(1L, atlas.numberOfAreas());
+            Assert.assertEquals(0L, atlas.numberOfEdges());
+            Assert.assertEquals(0L, atlas.numberOfNodes());
+            Assert.assertEquals(0L, atlas.numberOfRelations());
+            Assert.assertNull(atlas.edge(10L));
+            Assert.assertNull(atlas.relation(300L));
+            Assert.assertTrue(Iterables.isEmpty(atlas.edges()));
+            // The parent relations are not loaded
+            Assert.assertTrue(atlas.point(100L).relations().isEmpty());
+            Assert.assertEquals(Maps.hashMap("building", "yes"), atlas.area(200L).getTags());
+        });
+    }
+
+    @Test
+    public void testRelationMembers()
+    {
+        assertProjected(AtlasProjection.all().withTagPredicate(
+                taggable -> taggable.getTag("type").filter("route"::equals).isPresent()), atlas ->
+                {
+                    Assert.assertEquals(Sets.hashSet(300L), identifiers(atlas.relations()));
+                    // The members and what they depend on
+                    Assert.assertEquals(Sets.hashSet(100L), identifiers(atlas.points()));
+                    Assert.assertEquals(Sets.hashSet(10L, -10L), identifiers(atlas.edges()));
+                    Assert.assertEquals(Sets.hashSet(1L, 2L), identifiers(atlas.nodes()));
+                    Assert.assertNull(atlas.area(200L));
+                    Assert.assertEquals(2, atlas.relation(300L).members().size());
+                    Assert.assertEquals(Sets.hashSet(300L),
+                            identifiers(atlas.edge(10L).relations()));
+                });
+        // Members of types that are not projected are left out
+        assertProjected(AtlasProjection.forItemTypes(ItemType.RELATION, ItemType.POINT), atlas ->
+        {
+            Assert.assertEquals(1, atlas.relation(300L).members().size());
+            Assert.assertEquals(ItemType.POINT,
+                    atlas.relation(300L).members().get(0).getEntity().getType());
+        });
+    }
+
+    @Test
+    public void testSave()
+    {
+        final ByteArrayResource resource = new ByteArrayResource();
+        atlas().save(resource);
+        final PackedAtlas projected = PackedAtlas.load(resource,
+                AtlasProjection.forItemTypes(ItemType.POINT));
+        Assert.assertThrows(CoreException.class, () -> projected.save(new ByteArrayResource()));
+    }
+
+    @Test
+    public void testTagPredicate()
+    {
+        assertProjected(AtlasProjection.forItemTypes(ItemType.EDGE).withTagPredicate(
+                taggable -> taggable.getTag("highway").filter("primary"::equals).isPresent()),
+                atlas ->
+                {
+                    // The reverse edge does not match, but is kept along with its main edge
+                    Assert.assertEquals(Sets.hashSet(10L, -10L), identifiers(atlas.edges()));
+                    Assert.assertEquals(2L, atlas.numberOfEdges());
+                    Assert.assertNull(atlas.edge(20L));
+                    Assert.assertEquals(Sets.hashSet(1L, 2L), identifiers(atlas.nodes()));
+                    Assert.assertNull(atlas.node(3L));
+                    Assert.assertEquals(Sets.hashSet(-10L),
+                            identifiers(atlas.node(2L).outEdges()));
+                    Assert.assertEquals(Sets.hashSet(10L), identifiers(atlas.node(2L).inEdges()));
+                });
+    }
+
+    private void assertProjected(final AtlasProjection projection,
+            final Consumer<PackedAtlas> assertions)
+    {
+        final PackedAtlas atlas = atlas();
+        final ByteArrayResource resource = new ByteArrayResource();
+        atlas.save(resource);
+        assertions.accept(PackedAtlas.load(resource, projection));
+        try (TemporaryFile file = File.temporary(FileSystems.getDefault()))
+        {
+            atlas.save(file);
+            assertions.accept(PackedAtlas.load(file, projection));
+        }
+    }
+
+    private PackedAtlas atlas()
+    {
+        final PackedAtlasBuilder builder = new PackedAtlasBuilder();
+        builder.addNode(1L, Location.TEST_1, Maps.hashMap());
+        builder.addNode(2L, Location.TEST_2, Maps.hashMap());
+        builder.addNode(3L, NODE_3, Maps.hashMap());
+        builder.addEdge(10L, new PolyLine(Location.TEST_1, Location.TEST_2),
+                Maps.hashMap("highway", "primary"));
+        builder.addEdge(-10L, new PolyLine(Location.TEST_2, Location.TEST_1),
+                Maps.hashMap("oneway", "no"));
+        builder.addEdge(20L, new PolyLine(Location.TEST_2, NODE_3),
+                Maps.hashMap("highway", "service"));
+        builder.addPoint(100L, Location.TEST_1, Maps.hashMap("amenity", "cafe"));
+        builder.addArea(200L, new Polygon(Location.TEST_1, Location.TEST_2, NODE_3),
+                Maps.hashMap("building", "yes"));
+        final RelationBean bean = new RelationBean();
+        bean.addItem(10L, "forward", ItemType.EDGE);
+        bean.addItem(100L, "stop", ItemType.POINT);
+        builder.addRelation(300L, 300L, bean, Maps.hashMap("type", "route"));
+        return (PackedAtlas) builder.get();
+    }
+
+    private Set<Long> identifiers(final Iterable<? extends AtlasEntity> entities)
+    {
+        return Iterables.stream(entities).map(AtlasEntity::getIdentifier).collectToSet();
+    }
+}
@@ -4,11 +4,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Field;
+import java.nio.file.FileSystems;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -23,12 +26,14 @@ import org.openstreetmap.atlas.geography.atlas.items.Area;
 import org.openstreetmap.atlas.geography.atlas.items.Edge;
 import org.openstreetmap.atlas.geography.atlas.items.Node;
 import org.openstreetmap.atlas.geography.atlas.items.Route;
+import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlas.AtlasFieldCompression;
 import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlas.AtlasSerializationFormat;
 import org.openstreetmap.atlas.geography.atlas.routing.AStarRouter;
 import org.openstreetmap.atlas.streaming.compression.Compressor;
 import org.openstreetmap.atlas.streaming.resource.AbstractWritableResource;
 import org.openstreetmap.atlas.streaming.resource.ByteArrayResource;
 import org.openstreetmap.atlas.streaming.resource.File;
+import org.openstreetmap.atlas.streaming.resource.TemporaryFile;
 import org.openstreetmap.atlas.utilities.arrays.ByteArray;
 import org.openstreetmap.atlas.utilities.collections.Iterables;
 import org.openstreetmap.atlas.utilities.collections.Maps;
@@ -180,6 +185,26 @@ public class PackedAtlasSerializerTest
                 deserialized.areasIntersecting(Location.TEST_8.boxAround(Distance.ONE_METER))));
     }
 
+    @Test
+    public void testFieldCompression()
+    {
+        for (final AtlasSerializationFormat format : AtlasSerializationFormat.values())
+        {
+            assertFieldCompression(AtlasFieldCompression.LZ4, format);
+        }
+        // The atlas saved with a codec is still loaded lazily from a file
+        try (TemporaryFile file = File.temporary(FileSystems.getDefault()))
+        {
+            this.atlas.setSaveFieldCompression(AtlasFieldCompression.LZ4);
+            this.atlas.save(file);
+            final PackedAtlas loaded = PackedAtlas.load(file);
+            Assert.assertNull(getField(loaded, PackedAtlas.FIELD_NODE_TAGS));
+            Assert.assertEquals(this.atlas.node(1234).getTags(), loaded.node(1234).getTags());
+            Assert.assertNull(getField(loaded, PackedAtlas.FIELD_EDGE_POLY_LINES));
+            Assert.assertEquals(this.atlas, loaded);
+        }
+    }
+
     @Test(expected = CoreException.class)
     public void testInvalidFileFormat()
     {
@@ -308,6 +333,29 @@ public class PackedAtlasSerializerTest
         logger.info("Zipped Size: {}", zipped.length());
     }
 
+    @Test
+    public void testZstandardFieldCompression()
+    {
+        Assume.assumeTrue(ZstdUtils.isZstdCompressionAvailable());
+        for (final AtlasSerializationFormat format : AtlasSerializationFormat.values())
+        {
+            assertFieldCompression(AtlasFieldCompression.ZSTANDARD, format);
+        }
+    }
+
+    private void assertFieldCompression(final AtlasFieldCompression compression,
+            final AtlasSerializationFormat format)
+    {
+        final ByteArrayResource resource = new ByteArrayResource(524288)
+                .withName("testFieldCompression" + compression + format);
+        this.atlas.setSaveFieldCompression(compression);
+        this.atlas.setSaveSerializationFormat(format);
+        this.atlas.save(resource);
+        final PackedAtlas loaded = PackedAtlas.load(resource);
+        Assert.assertEquals(compression + " " + format, this.atlas, loaded);
+        Assert.assertEquals(this.atlas.metaData(), loaded.metaData());
+    }
+
     private Atlas deserialized()
     {
         final ByteArrayResource resource = new ByteArrayResource(524288)
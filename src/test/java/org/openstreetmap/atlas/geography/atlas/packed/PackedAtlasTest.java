@@ -319,6 +319,26 @@ public class PackedAtlasTest
                 this.atlas.points(point -> box.fullyGeometricallyEncloses(point.getLocation()))));
     }
 
+    @Test
+    public void testPolyLineCache()
+    {
+        Assert.assertFalse(this.atlas.polyLineCache().isPresent());
+        final PolyLine expected = this.atlas.edge(9).asPolyLine();
+        this.atlas.cachePolyLines(1_000, false);
+        final GeometryCache<PolyLine> cache = this.atlas.polyLineCache()
+                .orElseThrow(CoreException.supplier("No cache"));
+        final PolyLine cached = this.atlas.edge(9).asPolyLine();
+        Assert.assertEquals(expected, cached);
+        Assert.assertSame(cached, this.atlas.edge(9).asPolyLine());
+        Assert.assertEquals(this.atlas.line(32).asPolyLine(), this.atlas.line(32).asPolyLine());
+        Assert.assertEquals(this.atlas.area(45).asPolygon(), this.atlas.area(45).asPolygon());
+        Assert.assertEquals(3, cache.hitCount());
+        Assert.assertEquals(3, cache.missCount());
+
+        this.atlas.cachePolyLines(0, false);
+        Assert.assertFalse(this.atlas.polyLineCache().isPresent());
+    }
+
     @Test
     public void testRelation()
     {
@@ -0,0 +1,94 @@
+package org.openstreetmap.atlas.geography.atlas.packed;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openstreetmap.atlas.geography.GeometricSurface;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.Rectangle;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.SubAtlasRule;
+import org.openstreetmap.atlas.geography.atlas.items.Relation;
+import org.openstreetmap.atlas.geography.atlas.multi.MultiAtlas;
+import org.openstreetmap.atlas.geography.atlas.sub.SubAtlasCreator;
+import org.openstreetmap.atlas.streaming.compression.Decompressor;
+import org.openstreetmap.atlas.streaming.resource.InputStreamResource;
+
+/**
+ * Check that the {@link PackedSubAtlasCreator} cuts the same sub atlases as the
+ * {@link SubAtlasCreator}.
+ *
+ * @author agent
+ */
+public class PackedSubAtlasCreatorTest
+{
+    private static final String SHARD = "/org/openstreetmap/atlas/geography/atlas/"
+            + "NZL_9-506-316.atlas.gz";
+    private static final Rectangle BOUNDARY = Rectangle.forCorners(
+            Location.forString("37.780400, -122.473149"),
+            Location.forString("37.780785, -122.472631"));
+
+    @Rule
+    public final SubAtlasRule rule = new SubAtlasRule();
+
+    @Test
+    public void testCanCut()
+    {
+        Assert.assertTrue(PackedSubAtlasCreator.canCut(this.rule.getAtlas()));
+        Assert.assertFalse(PackedSubAtlasCreator.canCut(new MultiAtlas(this.rule.getAtlas())));
+    }
+
+    @Test
+    public void testCutsOfShard()
+    {
+        final PackedAtlas shard = PackedAtlas.load(new InputStreamResource(
+                () -> PackedSubAtlasCreatorTest.class.getResourceAsStream(SHARD))
+                        .withDecompressor(Decompressor.GZIP));
+        final Rectangle bounds = shard.bounds();
+        assertSameCuts(shard, Rectangle.forCorners(bounds.lowerLeft(), bounds.center()));
+        assertSameCuts(shard, Rectangle.forCorners(bounds.center(), bounds.upperRight()));
+    }
+
+    @Test
+    public void testCutsOfSmallAtlas()
+    {
+        assertSameCuts(this.rule.getAtlas(), BOUNDARY);
+        assertSameCuts(this.rule.getNodeNestedWithinRelationAtlas(),
+                this.rule.getNodeNestedWithinRelationAtlas().bounds());
+        assertSameCuts(this.rule.getRelationNestedWithinRelationAtlas(),
+                this.rule.getRelationNestedWithinRelationAtlas().bounds());
+    }
+
+    @Test
+    public void testEmptyCut()
+    {
+        final Rectangle elsewhere = Rectangle.forString("0,0:0.001,0.001");
+        Assert.assertFalse(
+                SubAtlasCreator.indexedSoftCut(this.rule.getAtlas(), elsewhere, false).isPresent());
+        Assert.assertFalse(SubAtlasCreator
+                .indexedHardCutAllEntities(this.rule.getAtlas(), elsewhere).isPresent());
+    }
+
+    private void assertSameAtlas(final Atlas expected, final Atlas actual)
+    {
+        Assert.assertEquals(expected.size(), actual.size());
+        Assert.assertEquals(expected, actual);
+        Assert.assertEquals(actual, expected);
+        Assert.assertEquals(expected.getName(), actual.getName());
+        for (final Relation relation : expected.relations())
+        {
+            Assert.assertEquals(relation.asMultiPolygon(),
+                    actual.relation(relation.getIdentifier()).asMultiPolygon());
+        }
+    }
+
+    private void assertSameCuts(final Atlas atlas, final GeometricSurface boundary)
+    {
+        assertSameAtlas(SubAtlasCreator.softCut(atlas, boundary, false).get(),
+                SubAtlasCreator.indexedSoftCut(atlas, boundary, false).get());
+        assertSameAtlas(SubAtlasCreator.softCut(atlas, boundary, true).get(),
+                SubAtlasCreator.indexedSoftCut(atlas, boundary, true).get());
+        assertSameAtlas(SubAtlasCreator.hardCutAllEntities(atlas, boundary).get(),
+                SubAtlasCreator.indexedHardCutAllEntities(atlas, boundary).get());
+    }
+}
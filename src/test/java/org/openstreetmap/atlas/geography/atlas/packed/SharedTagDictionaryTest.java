@@ -0,0 +1,119 @@
+package org.openstreetmap.atlas.geography.atlas.packed;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.atlas.builder.RelationBean;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.geography.atlas.multi.MultiAtlas;
+import org.openstreetmap.atlas.streaming.resource.ByteArrayResource;
+import org.openstreetmap.atlas.utilities.collections.Maps;
+import org.openstreetmap.atlas.utilities.compression.StringDictionary;
+
+/**
+ * @author agent
+ */
+public class SharedTagDictionaryTest
+{
+    @Test
+    public void testMultiAtlas()
+    {
+        final List<ByteArrayResource> shards = Arrays.asList(
+                shard(1L, Location.TEST_1, "amenity", "cafe", "outer"),
+                shard(2L, Location.TEST_2, "shop", "bakery", "inner"));
+        final StringDictionary dictionary = SharedTagDictionary.build(shards);
+        final MultiAtlas multiAtlas = MultiAtlas.loadFromPackedAtlas(shards, dictionary);
+
+        Assert.assertEquals(Maps.hashMap("name", "shop", "shop", "bakery"),
+                multiAtlas.point(2L).getTags());
+        Assert.assertEquals("inner", multiAtlas.relation(20L).members().get(0).getRole());
+        Assert.assertEquals(Maps.hashMap("type", "multipolygon", "name", "inner"),
+                multiAtlas.relation(20L).getTags());
+    }
+
+    @Test
+    public void testRepeatedSharing()
+    {
+        final StringDictionary dictionary = new StringDictionary();
+        dictionary.add("shop");
+        final PackedAtlas atlas = PackedAtlas
+                .load(shard(1L, Location.TEST_1, "amenity", "cafe", "outer"));
+        // Sharing the same dictionary twice, even concurrently, re-writes the codes only once
+        CompletableFuture.allOf(
+                CompletableFuture.runAsync(() -> atlas.shareTagDictionary(dictionary)),
+                CompletableFuture.runAsync(() -> atlas.shareTagDictionary(dictionary))).join();
+        atlas.shareTagDictionary(dictionary);
+
+        Assert.assertSame(dictionary, atlas.tagDictionary());
+        Assert.assertEquals(Maps.hashMap("name", "amenity", "amenity", "cafe"),
+                atlas.point(1L).getTags());
+        Assert.assertEquals("outer", atlas.relation(10L).members().get(0).getRole());
+    }
+
+    @Test
+    public void testSaveAndLoad()
+    {
+        final StringDictionary dictionary = SharedTagDictionary
+                .build(Arrays.asList(shard(1L, Location.TEST_1, "amenity", "cafe", "outer")));
+        final ByteArrayResource resource = new ByteArrayResource();
+        SharedTagDictionary.save(dictionary, resource);
+        Assert.assertEquals(dictionary, SharedTagDictionary.load(resource));
+    }
+
+    @Test
+    public void testShareTagDictionary()
+    {
+        final StringDictionary dictionary = new StringDictionary();
+        dictionary.add("shop");
+        final PackedAtlas first = PackedAtlas
+                .load(shard(1L, Location.TEST_1, "amenity", "cafe", "outer"));
+        final PackedAtlas second = PackedAtlas
+                .load(shard(2L, Location.TEST_2, "shop", "bakery", "inner"));
+        first.shareTagDictionary(dictionary);
+        second.shareTagDictionary(dictionary);
+
+        Assert.assertSame(dictionary, first.tagDictionary());
+        Assert.assertSame(dictionary, second.tagDictionary());
+        Assert.assertEquals(Maps.hashMap("name", "amenity", "amenity", "cafe"),
+                first.point(1L).getTags());
+        Assert.assertEquals(Maps.hashMap("name", "shop", "shop", "bakery"),
+                second.point(2L).getTags());
+        Assert.assertEquals("outer", first.relation(10L).members().get(0).getRole());
+        Assert.assertEquals("inner", second.relation(20L).members().get(0).getRole());
+        // The codes of the common keys are the same in both atlases
+        final int name = dictionary.indexOf("name");
+        Assert.assertTrue(Arrays.stream(first.tagKeyCodes(ItemType.POINT, 0))
+                .anyMatch(code -> code == name));
+        Assert.assertTrue(Arrays.stream(second.tagKeyCodes(ItemType.POINT, 0))
+                .anyMatch(code -> code == name));
+
+        // Saved with the shared dictionary, the codes already match
+        final ByteArrayResource saved = new ByteArrayResource();
+        second.save(saved);
+        final PackedAtlas reloaded = PackedAtlas.load(saved);
+        final int words = dictionary.size();
+        reloaded.shareTagDictionary(dictionary);
+        Assert.assertEquals(words, dictionary.size());
+        Assert.assertSame(dictionary, reloaded.tagDictionary());
+        Assert.assertEquals(second.point(2L).getTags(), reloaded.point(2L).getTags());
+        Assert.assertEquals("inner", reloaded.relation(20L).members().get(0).getRole());
+    }
+
+    private ByteArrayResource shard(final long identifier, final Location location,
+            final String key, final String value, final String role)
+    {
+        final PackedAtlasBuilder builder = new PackedAtlasBuilder();
+        builder.addPoint(identifier, location, Maps.hashMap("name", key, key, value));
+        final RelationBean bean = new RelationBean();
+        bean.addItem(identifier, role, ItemType.POINT);
+        builder.addRelation(identifier * 10, identifier * 10, bean,
+                Maps.hashMap("type", "multipolygon", "name", role));
+        final ByteArrayResource resource = new ByteArrayResource();
+        builder.get().save(resource);
+        return resource;
+    }
+}
@@ -272,4 +272,25 @@ public class AtlasStatisticsTest
         Assert.assertEquals(300.0, merged.get(key).getCount(), 0.001);
         Assert.assertEquals(800.0, merged.get(key).getTotalCount(), 0.001);
     }
+
+    @Test
+    public void testParallelCounting()
+    {
+        for (final Atlas atlas : new Atlas[] { this.rule.getAddressAtlas(),
+                this.rule.getFerryAtlas(), this.rule.getPackedAtlas(), this.rule.getRefsAtlas(),
+                this.rule.getWaterAtlas() })
+        {
+            final AtlasStatistics sequential = new Counter().processAtlas(atlas);
+            final AtlasStatistics parallel = new Counter().withThreads(3).processAtlas(atlas);
+            Assert.assertEquals(sequential.getData().keySet(), parallel.getData().keySet());
+            // The values are summed in a different order, hence the tolerance
+            for (final StatisticKey key : sequential)
+            {
+                Assert.assertEquals(sequential.get(key).getCount(), parallel.get(key).getCount(),
+                        0.001);
+                Assert.assertEquals(sequential.get(key).getTotalCount(),
+                        parallel.get(key).getTotalCount(), 0.001);
+            }
+        }
+    }
 }
@@ -2,6 +2,7 @@ package org.openstreetmap.atlas.geography.atlas.statistics.coverage.poi;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Rule;
@@ -23,6 +24,20 @@ public class CountCoverageTest
     @Rule
     public final CountCoverageTestCaseRule rule = new CountCoverageTestCaseRule();
 
+    @Test
+    public void testIncrementOverride()
+    {
+        final AtomicInteger increments = new AtomicInteger();
+        final EdgesCountCoverage sequential = incrementCounting(increments);
+        sequential.run();
+        Assert.assertEquals(2, increments.getAndSet(0));
+        final EdgesCountCoverage parallel = incrementCounting(increments);
+        parallel.run(2);
+        Assert.assertEquals(2, increments.get());
+        Assert.assertEquals(sequential.getStatistic().toString(),
+                parallel.getStatistic().toString());
+    }
+
     @Test
     public void testPoiCounts()
     {
@@ -35,6 +50,20 @@ public class CountCoverageTest
         testCount("airports;", 1);
     }
 
+    private EdgesCountCoverage incrementCounting(final AtomicInteger increments)
+    {
+        return new EdgesCountCoverage(this.rule.getAtlas())
+        {
+            @Override
+            protected void increment(final Tally tally, final String key, final double value,
+                    final boolean valid)
+            {
+                increments.incrementAndGet();
+                super.increment(tally, key, value, valid);
+            }
+        };
+    }
+
     private void testCount(final String type, final int count)
     {
         final Atlas atlas = this.rule.getAtlas();
@@ -1,18 +1,29 @@
 package org.openstreetmap.atlas.geography.atlas.validators;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.PolyLine;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
 import org.openstreetmap.atlas.geography.atlas.complete.CompletePoint;
 import org.openstreetmap.atlas.geography.atlas.complete.EmptyAtlas;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.Edge;
+import org.openstreetmap.atlas.geography.atlas.items.LineItem;
+import org.openstreetmap.atlas.geography.atlas.items.LocationItem;
+import org.openstreetmap.atlas.geography.atlas.items.Node;
 import org.openstreetmap.atlas.geography.atlas.items.Relation;
+import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlasBuilder;
 import org.openstreetmap.atlas.utilities.collections.Iterables;
+import org.openstreetmap.atlas.utilities.collections.Maps;
 
 /**
  * @author matthieun
@@ -22,6 +33,88 @@ public class AtlasValidatorTest
     @Rule
     public final ExpectedException expectedException = ExpectedException.none();
 
+    @Test
+    public void testInvalidThreads()
+    {
+        this.expectedException.expect(CoreException.class);
+        this.expectedException.expectMessage("Invalid number of threads: 0");
+
+        new AtlasValidator(new PackedAtlasBuilder().get()).withThreads(0);
+    }
+
+    @Test
+    public void testParallelAggregatesFailures()
+    {
+        final EmptyAtlas atlas = new EmptyAtlas()
+        {
+            private static final long serialVersionUID = 6395004437451127702L;
+
+            @Override
+            public Iterable<Edge> edges()
+            {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public Iterable<Edge> edges(final Predicate<Edge> matcher)
+            {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public Iterable<AtlasEntity> entities()
+            {
+                return Iterables.from(untagged(1L), untagged(2L), untagged(3L));
+            }
+
+            @Override
+            public Iterable<LineItem> lineItems()
+            {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public Iterable<LocationItem> locationItems()
+            {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public Iterable<Node> nodes()
+            {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public Iterable<Relation> relations()
+            {
+                return Collections.emptyList();
+            }
+        };
+
+        this.expectedException.expect(CoreException.class);
+        this.expectedException.expectMessage("failed validation with 3 failure(s)");
+
+        new AtlasValidator(atlas).withThreads(2).validate();
+    }
+
+    @Test
+    public void testParallelValid()
+    {
+        final PackedAtlasBuilder builder = new PackedAtlasBuilder();
+        builder.addNode(1L, Location.TEST_1, Maps.hashMap());
+        builder.addNode(2L, Location.TEST_2, Maps.hashMap());
+        builder.addEdge(3L, new PolyLine(Location.TEST_1, Location.TEST_2),
+                Maps.hashMap("highway", "primary"));
+        builder.addEdge(-3L, new PolyLine(Location.TEST_2, Location.TEST_1),
+                Maps.hashMap("highway", "primary"));
+        builder.addPoint(4L, Location.TEST_1, Maps.hashMap("amenity", "cafe"));
+        final Atlas atlas = builder.get();
+
+        new AtlasValidator(atlas).withThreads(2).validate();
+        new AtlasValidator(atlas).validate();
+    }
+
     @Test
     public void testParentRelations()
     {
@@ -81,4 +174,18 @@ public class AtlasValidatorTest
 
         new AtlasValidator(atlas).validateTagsPresent();
     }
+
+    private CompletePoint untagged(final long identifier)
+    {
+        return new CompletePoint(identifier, Location.TEST_1, null, new HashSet<>())
+        {
+            private static final long serialVersionUID = 1969580476421372934L;
+
+            @Override
+            public Map<String, String> getTags()
+            {
+                return null;
+            }
+        };
+    }
 }
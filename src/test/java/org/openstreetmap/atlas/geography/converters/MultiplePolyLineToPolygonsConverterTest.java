@@ -1,7 +1,10 @@
 package org.openstreetmap.atlas.geography.converters;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Collectors;
 
 import org.junit.Assert;
@@ -155,6 +158,49 @@ public class MultiplePolyLineToPolygonsConverterTest
         CONVERTER.convert(list);
     }
 
+    @Test
+    public void testIndexedSameAsLegacy()
+    {
+        final List<PolyLine> input = new InputStreamResource(
+                () -> MultiplePolyLineToPolygonsConverterTest.class.getResourceAsStream(
+                        "MultiplePolyLineToPolygonsConverterTest_multiplePolyLines.txt"))
+                .linesList().stream().map(WKT_POLY_LINE_CONVERTER::backwardConvert)
+                .collect(Collectors.toList());
+        input.addAll(Arrays.asList(EDGE1, EDGE2, EDGE3, EDGE4, EDGE5, EDGE6, EDGE7, EDGE8));
+        final Random random = new Random(1L);
+        for (int attempt = 0; attempt < 20; attempt++)
+        {
+            final List<PolyLine> shuffled = input.stream()
+                    .map(polyLine -> random.nextBoolean() ? polyLine.reversed() : polyLine)
+                    .collect(Collectors.toList());
+            Collections.shuffle(shuffled, random);
+            Assert.assertEquals(Iterables.asList(CONVERTER.convertLegacy(shuffled)),
+                    Iterables.asList(CONVERTER.convertIndexed(shuffled)));
+
+            // Open rings fail the same way
+            shuffled.remove(random.nextInt(shuffled.size()));
+            List<Location> legacyOpenLocations = null;
+            try
+            {
+                CONVERTER.convertLegacy(shuffled);
+            }
+            catch (final OpenPolygonException exception)
+            {
+                legacyOpenLocations = exception.getOpenLocations();
+            }
+            List<Location> indexedOpenLocations = null;
+            try
+            {
+                CONVERTER.convertIndexed(shuffled);
+            }
+            catch (final OpenPolygonException exception)
+            {
+                indexedOpenLocations = exception.getOpenLocations();
+            }
+            Assert.assertEquals(legacyOpenLocations, indexedOpenLocations);
+        }
+    }
+
     @Test
     public void testJtsException()
     {
@@ -3,7 +3,7 @@ package org.openstreetmap.atlas.proto.adapters;
 import org.junit.Assert;
 import org.junit.Test;
 import org.openstreetmap.atlas.geography.atlas.packed.PackedTagStore;
-import org.openstreetmap.atlas.utilities.compression.IntegerDictionary;
+import org.openstreetmap.atlas.utilities.compression.StringDictionary;
 import org.openstreetmap.atlas.utilities.time.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,7 +23,7 @@ public class ProtoPackedTagStoreAdapterTest
     @Test
     public void testConsistency()
     {
-        final IntegerDictionary<String> dictionary = new IntegerDictionary<String>();
+        final StringDictionary dictionary = new StringDictionary();
 
         final PackedTagStore store = new PackedTagStore(TEST_NUMBER_FEATURES, BLOCK_SIZE,
                 TEST_TAGSPERFEATURE_SIZE, dictionary);
@@ -53,7 +53,7 @@ public class ProtoPackedTagStoreAdapterTest
     @Test
     public void testContainsNullElements()
     {
-        final IntegerDictionary<String> dictionary = new IntegerDictionary<String>();
+        final StringDictionary dictionary = new StringDictionary();
 
         final PackedTagStore store = new PackedTagStore(TEST_NUMBER_FEATURES, BLOCK_SIZE,
                 TEST_TAGSPERFEATURE_SIZE, dictionary);
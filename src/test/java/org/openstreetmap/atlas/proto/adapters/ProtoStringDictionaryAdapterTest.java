@@ -0,0 +1,64 @@
+package org.openstreetmap.atlas.proto.adapters;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.utilities.compression.IntegerDictionary;
+import org.openstreetmap.atlas.utilities.compression.StringDictionary;
+
+/**
+ * @author agent
+ */
+public class ProtoStringDictionaryAdapterTest
+{
+    private static final int NUMBER_OF_ENTRIES = 100_000;
+    private final ProtoStringDictionaryAdapter adapter = new ProtoStringDictionaryAdapter();
+
+    @Test
+    public void testConsistency()
+    {
+        final StringDictionary dictionary = new StringDictionary();
+        for (int index = 0; index < NUMBER_OF_ENTRIES; index++)
+        {
+            dictionary.add("testword" + index);
+        }
+
+        final byte[] contents = this.adapter.serialize(dictionary);
+        final StringDictionary parsedFrom = (StringDictionary) this.adapter.deserialize(contents);
+        Assert.assertEquals(dictionary, parsedFrom);
+        Assert.assertEquals(12_345, parsedFrom.indexOf("testword12345"));
+    }
+
+    @Test
+    public void testContainsNullElements()
+    {
+        final StringDictionary dictionary = new StringDictionary();
+        dictionary.add("testword1");
+        dictionary.add(null);
+        dictionary.add("testword2");
+
+        final byte[] contents = this.adapter.serialize(dictionary);
+        final StringDictionary parsedFrom = (StringDictionary) this.adapter.deserialize(contents);
+        Assert.assertEquals(dictionary, parsedFrom);
+        Assert.assertEquals(1, parsedFrom.indexOf(null));
+    }
+
+    @Test
+    public void testReadsIntegerDictionary()
+    {
+        final IntegerDictionary<String> legacy = new IntegerDictionary<>();
+        legacy.add("highway");
+        legacy.add(null);
+        legacy.add("primary");
+
+        final byte[] legacyContents = new ProtoIntegerStringDictionaryAdapter().serialize(legacy);
+        final StringDictionary parsedFrom = (StringDictionary) this.adapter
+                .deserialize(legacyContents);
+        Assert.assertEquals(StringDictionary.from(legacy), parsedFrom);
+
+        // And the other way around
+        @SuppressWarnings("unchecked")
+        final IntegerDictionary<String> parsedBack = (IntegerDictionary<String>) new ProtoIntegerStringDictionaryAdapter()
+                .deserialize(this.adapter.serialize(parsedFrom));
+        Assert.assertEquals(legacy, parsedBack);
+    }
+}
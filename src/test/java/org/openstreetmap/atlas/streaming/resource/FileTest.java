@@ -303,6 +303,17 @@ public class FileTest
             compressedFile.writeAndClose("one\ntwo\nthree");
             Assert.assertTrue(compressedFile.isGzipped());
             Assert.assertEquals("one\ntwo\nthree", compressedFile.all());
+
+            // The compression is picked from the suffix
+            final File lz4File = new File(filesystem.getPath("/tmp/compressed.lz4"));
+            lz4File.writeAndClose("one\ntwo\nthree");
+            Assert.assertTrue(lz4File.isCompressed());
+            Assert.assertFalse(lz4File.isGzipped());
+            Assert.assertFalse(file.isCompressed());
+            Assert.assertEquals("one\ntwo\nthree", lz4File.all());
+            Assert.assertNotEquals("one\ntwo\nthree",
+                    new File(filesystem.getPath("/tmp/compressed.lz4"))
+                            .withDecompressor(Decompressor.NONE).all());
         }
         catch (final IOException exception)
         {
@@ -1,10 +1,16 @@
 package org.openstreetmap.atlas.utilities.caching;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import org.junit.Assert;
@@ -12,6 +18,7 @@ import org.junit.Test;
 import org.openstreetmap.atlas.streaming.resource.Resource;
 import org.openstreetmap.atlas.streaming.resource.StringResource;
 import org.openstreetmap.atlas.utilities.caching.strategies.CachingStrategy;
+import org.openstreetmap.atlas.utilities.threads.VirtualThreads;
 
 /**
  * @author lcram
@@ -99,4 +106,71 @@ public class ConcurrentResourceCacheTest
         Assert.assertFalse(strategy.cacheContains(foo));
         Assert.assertFalse(strategy.cacheContains(bar));
     }
+
+    @Test
+    public void testConcurrentFetchesOfTheSameResourceAreShared() throws InterruptedException
+    {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger fetches = new AtomicInteger();
+        final Function<URI, Optional<Resource>> fetcher = uri ->
+        {
+            fetches.incrementAndGet();
+            try
+            {
+                release.await();
+            }
+            catch (final InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of(new StringResource(RESOURCE_CONTENTS));
+        };
+        final ExecutorService executor = VirtualThreads.newExecutor("testConcurrentFetches");
+        try
+        {
+            final ConcurrentResourceCache cache = new ConcurrentResourceCache(
+                    new DebugCachingStrategy(), fetcher).withPopulationExecutor(executor);
+            final URI foo = URI.create("scheme://foo");
+            final List<CompletableFuture<Optional<Resource>>> results = new ArrayList<>();
+            for (int index = 0; index < 10; index++)
+            {
+                results.add(cache.getAsync(foo));
+            }
+            final CompletableFuture<Optional<Resource>> bar = cache
+                    .getAsync(URI.create("scheme://bar"));
+            release.countDown();
+            for (final CompletableFuture<Optional<Resource>> result : results)
+            {
+                Assert.assertEquals(RESOURCE_CONTENTS, result.join().get().all());
+            }
+            Assert.assertEquals(RESOURCE_CONTENTS, bar.join().get().all());
+            Assert.assertEquals(2, fetches.get());
+
+            // Not in flight anymore, the strategy is asked again
+            Assert.assertEquals(RESOURCE_CONTENTS, cache.get(foo).get().all());
+            Assert.assertEquals(2, fetches.get());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSynchronizedByDefault()
+    {
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        final ConcurrentResourceCache cache = new ConcurrentResourceCache(
+                new DebugCachingStrategy(), uri ->
+                {
+                    threads.add(Thread.currentThread());
+                    return Optional.of(new StringResource(RESOURCE_CONTENTS));
+                });
+        // Without a population executor, the fetch runs synchronized on the calling thread
+        final CompletableFuture<Optional<Resource>> result = cache
+                .getAsync(URI.create("scheme://foo"));
+        Assert.assertTrue(result.isDone());
+        Assert.assertEquals(RESOURCE_CONTENTS, result.join().get().all());
+        Assert.assertEquals(Collections.singleton(Thread.currentThread()), threads);
+    }
 }
@@ -3,7 +3,10 @@ package org.openstreetmap.atlas.utilities.collections;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -17,6 +20,7 @@ import org.openstreetmap.atlas.geography.sharding.SlippyTile;
 import org.openstreetmap.atlas.utilities.maps.MultiMap;
 import org.openstreetmap.atlas.utilities.scalars.Distance;
 import org.openstreetmap.atlas.utilities.testing.FreezeDryFunction;
+import org.openstreetmap.atlas.utilities.threads.Pool;
 
 /**
  * Test for example {@link ShardBucketCollection}s
@@ -25,6 +29,62 @@ import org.openstreetmap.atlas.utilities.testing.FreezeDryFunction;
  */
 public class ShardBucketCollectionTest
 {
+    @Test
+    public void testConcurrentModifications()
+    {
+        final Rectangle maxBounds = SlippyTile.forName("1-0-0").bounds()
+                .contract(Distance.ONE_METER);
+        final ShardBucketCollectionTestClasses.LocationBuckets locationBuckets = new ShardBucketCollectionTestClasses.LocationBuckets(
+                maxBounds, 3);
+        final int writers = 4;
+        final int batches = 50;
+        final int batchSize = 100;
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        try (Pool readers = new Pool(1, "reader"))
+        {
+            // Streams while the writers modify the buckets, which should not fail
+            readers.queue(() ->
+            {
+                while (writing.get())
+                {
+                    Assert.assertTrue(locationBuckets.stream().allMatch(Objects::nonNull));
+                }
+            });
+            try (Pool pool = new Pool(writers, "writer"))
+            {
+                for (int writer = 0; writer < writers; writer++)
+                {
+                    final boolean bulk = writer % 2 == 0;
+                    pool.queue(() ->
+                    {
+                        for (int batch = 0; batch < batches; batch++)
+                        {
+                            final List<Location> locations = Stream
+                                    .generate(() -> Location.random(maxBounds)).limit(batchSize)
+                                    .collect(Collectors.toList());
+                            if (bulk)
+                            {
+                                Assert.assertTrue(locationBuckets.addAll(locations));
+                            }
+                            else
+                            {
+                                locations.forEach(
+                                        location -> Assert.assertTrue(locationBuckets.add(location)));
+                            }
+                        }
+                    });
+                }
+            }
+            finally
+            {
+                writing.set(false);
+            }
+        }
+        Assert.assertEquals(writers * batches * batchSize, locationBuckets.size());
+        Assert.assertEquals(locationBuckets.size(), locationBuckets.stream().count());
+        Assert.assertEquals(locationBuckets.size(), locationBuckets.getAllBucketCollections()
+                .mapToInt(List::size).sum());
+    }
 
     @Test
     public void testMultiPolygonSort()
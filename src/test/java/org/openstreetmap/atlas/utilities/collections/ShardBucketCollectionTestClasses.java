@@ -20,6 +20,37 @@ import org.openstreetmap.atlas.utilities.maps.MultiMap;
  */
 public class ShardBucketCollectionTestClasses
 {
+    /**
+     * Locations in plain, not thread safe, lists. Locations on the edges go to the first shard.
+     */
+    public static class LocationBuckets
+            extends ShardBucketCollection<Location, ArrayList<Location>>
+    {
+        public LocationBuckets(final Rectangle maxBounds, final Integer zoomLevel)
+        {
+            super(maxBounds, zoomLevel);
+        }
+
+        @Override
+        protected boolean allowMultipleBucketInsertion()
+        {
+            return false;
+        }
+
+        @Override
+        protected ArrayList<Location> initializeBucketCollection()
+        {
+            return new ArrayList<>();
+        }
+
+        @Override
+        protected Shard resolveShard(final Location item,
+                final List<? extends Shard> possibleBuckets)
+        {
+            return possibleBuckets.get(0);
+        }
+    }
+
     /**
      * Collection that will handle splitting multipolygons into buckets by overriding the add
      * function
@@ -0,0 +1,111 @@
+package org.openstreetmap.atlas.utilities.command.subcommands;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.util.EnumSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.PolyLine;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlas;
+import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlasBuilder;
+import org.openstreetmap.atlas.streaming.resource.ByteArrayResource;
+import org.openstreetmap.atlas.streaming.resource.File;
+import org.openstreetmap.atlas.streaming.resource.StringResource;
+import org.openstreetmap.atlas.streaming.resource.TemporaryFile;
+import org.openstreetmap.atlas.utilities.collections.Maps;
+import org.openstreetmap.atlas.utilities.collections.Sets;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+/**
+ * @author agent
+ */
+public class AtlasIdentifierIndexTest
+{
+    @Test
+    public void testLookup()
+    {
+        try (FileSystem filesystem = Jimfs.newFileSystem(Configuration.unix());
+                TemporaryFile file = File.temporary(filesystem))
+        {
+            final AtlasIdentifierIndex index = new AtlasIdentifierIndex();
+            Assert.assertFalse(index.covers(file));
+            index.add(file, atlas());
+            Assert.assertTrue(index.covers(file));
+            Assert.assertTrue(index.isModified());
+
+            Assert.assertTrue(index.containsAnyIdentifier(file, EnumSet.allOf(ItemType.class),
+                    Sets.hashSet(5L, 2000000L)));
+            Assert.assertTrue(index.containsAnyIdentifier(file, EnumSet.of(ItemType.EDGE),
+                    Sets.hashSet(-2000000L)));
+            Assert.assertFalse(index.containsAnyIdentifier(file, EnumSet.of(ItemType.POINT),
+                    Sets.hashSet(2000000L)));
+            // The main and reverse edges have the same OSM identifier
+            Assert.assertTrue(index.containsAnyOsmIdentifier(file, EnumSet.of(ItemType.EDGE),
+                    Sets.hashSet(2L)));
+            Assert.assertFalse(index.containsAnyOsmIdentifier(file, EnumSet.of(ItemType.NODE),
+                    Sets.hashSet(2L)));
+
+            // A changed file is not covered anymore
+            file.writeAndClose("changed");
+            Assert.assertFalse(index.covers(file));
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("FileSystem operation failed", exception);
+        }
+    }
+
+    @Test
+    public void testSaveAndLoad()
+    {
+        try (FileSystem filesystem = Jimfs.newFileSystem(Configuration.unix());
+                TemporaryFile file = File.temporary(filesystem))
+        {
+            final AtlasIdentifierIndex index = new AtlasIdentifierIndex();
+            index.add(file, atlas());
+            final ByteArrayResource resource = new ByteArrayResource();
+            index.save(resource);
+            Assert.assertFalse(index.isModified());
+
+            final AtlasIdentifierIndex loaded = AtlasIdentifierIndex.load(resource);
+            Assert.assertFalse(loaded.isModified());
+            Assert.assertEquals(1, loaded.size());
+            Assert.assertTrue(loaded.covers(file));
+            Assert.assertTrue(loaded.containsAnyOsmIdentifier(file, EnumSet.of(ItemType.POINT),
+                    Sets.hashSet(1L)));
+            Assert.assertFalse(loaded.containsAnyOsmIdentifier(file, EnumSet.of(ItemType.POINT),
+                    Sets.hashSet(2L)));
+            Assert.assertThrows(CoreException.class,
+                    () -> loaded.containsAnyIdentifier(new File("/tmp/other.atlas", filesystem),
+                            EnumSet.of(ItemType.POINT), Sets.hashSet(1L)));
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("FileSystem operation failed", exception);
+        }
+        Assert.assertThrows(CoreException.class,
+                () -> AtlasIdentifierIndex.load(new StringResource("not an index")));
+    }
+
+    private Atlas atlas()
+    {
+        final PackedAtlasBuilder builder = new PackedAtlasBuilder();
+        builder.addPoint(1000000L, Location.TEST_1, Maps.hashMap("foo", "bar"));
+        builder.addNode(5L, Location.TEST_1, Maps.hashMap());
+        builder.addNode(6L, Location.TEST_2, Maps.hashMap());
+        builder.addEdge(2000000L, new PolyLine(Location.TEST_1, Location.TEST_2),
+                Maps.hashMap("highway", "primary"));
+        builder.addEdge(-2000000L, new PolyLine(Location.TEST_2, Location.TEST_1),
+                Maps.hashMap("highway", "primary"));
+        final ByteArrayResource resource = new ByteArrayResource();
+        builder.get().save(resource);
+        return PackedAtlas.load(resource, AtlasIdentifierIndex.IDENTIFIERS_PROJECTION);
+    }
+}
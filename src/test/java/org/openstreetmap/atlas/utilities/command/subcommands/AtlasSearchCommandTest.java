@@ -231,6 +231,71 @@ public class AtlasSearchCommandTest
         }
     }
 
+    @Test
+    public void testIdentifierIndexSearch()
+    {
+        try (FileSystem filesystem = Jimfs.newFileSystem(Configuration.osX()))
+        {
+            setupFilesystem1(filesystem);
+            ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+            ByteArrayOutputStream errContent = new ByteArrayOutputStream();
+            AtlasSearchCommand command = new AtlasSearchCommand();
+            command.setNewFileSystem(filesystem);
+            command.setNewOutStream(new PrintStream(outContent));
+            command.setNewErrStream(new PrintStream(errContent));
+
+            // The index is built, and only the atlas with the identifier is loaded
+            Assert.assertEquals(0,
+                    command.runSubcommand("/Users/foo/test.atlas", "/Users/foo/test2.atlas",
+                            "--verbose", "--id=2000000",
+                            "--identifier-index=/Users/foo/identifiers.index"));
+            Assert.assertEquals("find: indexing /Users/foo/test.atlas\n"
+                    + "find: loading /Users/foo/test.atlas\n"
+                    + "find: indexing /Users/foo/test2.atlas\n"
+                    + "find: skipping /Users/foo/test2.atlas\n"
+                    + "find: processing atlas /Users/foo/test.atlas (1/1)\n"
+                    + "find: saved identifier index of 2 atlas(es) to /Users/foo/identifiers.index\n",
+                    errContent.toString());
+            Assert.assertTrue(outContent.toString().contains("identifier: 2000000"));
+
+            // The saved index is used as is
+            outContent = new ByteArrayOutputStream();
+            errContent = new ByteArrayOutputStream();
+            command = new AtlasSearchCommand();
+            command.setNewFileSystem(filesystem);
+            command.setNewOutStream(new PrintStream(outContent));
+            command.setNewErrStream(new PrintStream(errContent));
+            Assert.assertEquals(0,
+                    command.runSubcommand("/Users/foo/test.atlas", "/Users/foo/test2.atlas",
+                            "--verbose", "--osmid=1", "--type=POINT",
+                            "--identifier-index=/Users/foo/identifiers.index"));
+            Assert.assertEquals("find: loading /Users/foo/test.atlas\n"
+                    + "find: loading /Users/foo/test2.atlas\n"
+                    + "find: processing atlas /Users/foo/test.atlas (1/2)\n"
+                    + "find: processing atlas /Users/foo/test2.atlas (2/2)\n",
+                    errContent.toString());
+
+            // No atlas has the identifier, so none is loaded
+            outContent = new ByteArrayOutputStream();
+            errContent = new ByteArrayOutputStream();
+            command = new AtlasSearchCommand();
+            command.setNewFileSystem(filesystem);
+            command.setNewOutStream(new PrintStream(outContent));
+            command.setNewErrStream(new PrintStream(errContent));
+            Assert.assertEquals(1,
+                    command.runSubcommand("/Users/foo/test.atlas", "/Users/foo/test2.atlas",
+                            "--verbose", "--id=123", "--strict",
+                            "--identifier-index=/Users/foo/identifiers.index"));
+            Assert.assertEquals("find: skipping /Users/foo/test.atlas\n"
+                    + "find: skipping /Users/foo/test2.atlas\n", errContent.toString());
+            Assert.assertEquals("", outContent.toString());
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("FileSystem operation failed", exception);
+        }
+    }
+
     @Test
     public void testInOutEdgeSearch()
     {
@@ -0,0 +1,101 @@
+package org.openstreetmap.atlas.utilities.command.subcommands;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileSystem;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlasBuilder;
+import org.openstreetmap.atlas.streaming.resource.File;
+import org.openstreetmap.atlas.utilities.collections.Maps;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+/**
+ * @author agent
+ */
+public class AtlasToArrowCommandTest
+{
+    private static final byte[] ARROW_MAGIC = { 'A', 'R', 'R', 'O', 'W', '1' };
+
+    @Test
+    public void testExport()
+    {
+        try (FileSystem filesystem = Jimfs.newFileSystem(Configuration.osX()))
+        {
+            setupFilesystem(filesystem);
+            final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+            final ByteArrayOutputStream errContent = new ByteArrayOutputStream();
+            final AtlasToArrowCommand command = new AtlasToArrowCommand();
+            command.setNewFileSystem(filesystem);
+            command.setNewOutStream(new PrintStream(outContent));
+            command.setNewErrStream(new PrintStream(errContent));
+
+            command.runSubcommand("/Users/foo/binary.atlas", "--verbose", "--output-directory=/Users/foo",
+                    "--batch-size=1");
+
+            Assert.assertTrue(outContent.toString().isEmpty());
+            Assert.assertEquals("atlas2arrow: loading /Users/foo/binary.atlas\n"
+                    + "atlas2arrow: processing atlas /Users/foo/binary.atlas (1/1)\n"
+                    + "atlas2arrow: exporting /Users/foo/binary.atlas...\n"
+                    + "atlas2arrow: saved 2 rows to /Users/foo/binary.arrow\n",
+                    errContent.toString());
+            final byte[] contents = new File("/Users/foo/binary.arrow", filesystem)
+                    .readBytesAndClose();
+            for (int index = 0; index < ARROW_MAGIC.length; index++)
+            {
+                Assert.assertEquals(ARROW_MAGIC[index], contents[index]);
+                Assert.assertEquals(ARROW_MAGIC[index],
+                        contents[contents.length - ARROW_MAGIC.length + index]);
+            }
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("FileSystem operation failed", exception);
+        }
+    }
+
+    @Test
+    public void testInvalidBatchSize()
+    {
+        try (FileSystem filesystem = Jimfs.newFileSystem(Configuration.osX()))
+        {
+            setupFilesystem(filesystem);
+            final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+            final ByteArrayOutputStream errContent = new ByteArrayOutputStream();
+            final AtlasToArrowCommand command = new AtlasToArrowCommand();
+            command.setNewFileSystem(filesystem);
+            command.setNewOutStream(new PrintStream(outContent));
+            command.setNewErrStream(new PrintStream(errContent));
+
+            command.runSubcommand("/Users/foo/binary.atlas", "--output-directory=/Users/foo",
+                    "--batch-size=zero");
+
+            Assert.assertEquals(
+                    "atlas2arrow: error: invalid batch-size, expected a positive integer\n",
+                    errContent.toString());
+            Assert.assertFalse(new File("/Users/foo/binary.arrow", filesystem).exists());
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("FileSystem operation failed", exception);
+        }
+    }
+
+    private void setupFilesystem(final FileSystem filesystem)
+    {
+        final PackedAtlasBuilder builder = new PackedAtlasBuilder();
+        builder.addPoint(1000000L, Location.forWkt("POINT(1 1)"), Maps.hashMap("foo", "bar"));
+        builder.addPoint(2000000L, Location.forWkt("POINT(2 2)"), Maps.hashMap());
+        final Atlas atlas = builder.get();
+        final File atlasBinaryFile = new File("/Users/foo/binary.atlas", filesystem);
+        assert atlas != null;
+        atlas.save(atlasBinaryFile);
+    }
+}
@@ -0,0 +1,110 @@
+package org.openstreetmap.atlas.utilities.compression;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class StringDictionaryTest
+{
+    @Test
+    public void testAddAndLookup()
+    {
+        final StringDictionary dictionary = new StringDictionary();
+        Assert.assertEquals(0, dictionary.add("highway"));
+        Assert.assertEquals(1, dictionary.add("primary"));
+        Assert.assertEquals(0, dictionary.add("highway"));
+        Assert.assertEquals(2, dictionary.size());
+        Assert.assertEquals(1, dictionary.indexOf("primary"));
+        Assert.assertEquals(StringDictionary.NOT_FOUND, dictionary.indexOf("secondary"));
+        Assert.assertEquals("highway", dictionary.word(0));
+        Assert.assertNull(dictionary.word(2));
+        Assert.assertNull(dictionary.word(StringDictionary.NOT_FOUND));
+    }
+
+    @Test
+    public void testEquals()
+    {
+        final StringDictionary dictionary = new StringDictionary();
+        final StringDictionary other = new StringDictionary();
+        for (final String word : new String[] { "a", "bc", null, "" })
+        {
+            dictionary.add(word);
+            other.add(word);
+        }
+        Assert.assertEquals(dictionary, other);
+        Assert.assertEquals(dictionary.hashCode(), other.hashCode());
+
+        // Same bytes, different words
+        final StringDictionary split = new StringDictionary();
+        split.add("ab");
+        split.add("c");
+        split.add(null);
+        split.add("");
+        Assert.assertNotEquals(dictionary, split);
+    }
+
+    @Test
+    public void testFromIntegerDictionary()
+    {
+        final IntegerDictionary<String> legacy = new IntegerDictionary<>();
+        legacy.add("natural");
+        legacy.add(null);
+        legacy.add("water");
+        final StringDictionary dictionary = StringDictionary.from(legacy);
+        Assert.assertEquals(legacy.size(), dictionary.size());
+        for (int index = 0; index < legacy.size(); index++)
+        {
+            Assert.assertEquals(legacy.word(index), dictionary.word(index));
+        }
+        Assert.assertEquals(2, dictionary.indexOf("water"));
+    }
+
+    @Test
+    public void testGrowth()
+    {
+        final StringDictionary dictionary = new StringDictionary();
+        final int count = 10_000;
+        for (int index = 0; index < count; index++)
+        {
+            Assert.assertEquals(index, dictionary.add("word" + index));
+        }
+        Assert.assertEquals(count, dictionary.size());
+        for (int index = 0; index < count; index++)
+        {
+            Assert.assertEquals(index, dictionary.indexOf("word" + index));
+            Assert.assertEquals("word" + index, dictionary.word(index));
+        }
+    }
+
+    @Test
+    public void testNullAndEmpty()
+    {
+        final StringDictionary dictionary = new StringDictionary();
+        Assert.assertEquals(StringDictionary.NOT_FOUND, dictionary.indexOf(null));
+        Assert.assertEquals(0, dictionary.add(""));
+        Assert.assertEquals(1, dictionary.add(null));
+        Assert.assertEquals(1, dictionary.add(null));
+        Assert.assertEquals(0, dictionary.indexOf(""));
+        Assert.assertEquals(1, dictionary.indexOf(null));
+        Assert.assertEquals("", dictionary.word(0));
+        Assert.assertNull(dictionary.word(1));
+        Assert.assertArrayEquals(new byte[0], dictionary.bytes(0));
+        Assert.assertNull(dictionary.bytes(1));
+    }
+
+    @Test
+    public void testUnicode()
+    {
+        final StringDictionary dictionary = new StringDictionary();
+        final String word = "東京 Straße";
+        dictionary.add("name");
+        dictionary.add(word);
+        Assert.assertEquals(1, dictionary.indexOf(word));
+        Assert.assertEquals(word, dictionary.word(1));
+        Assert.assertArrayEquals(word.getBytes(StandardCharsets.UTF_8), dictionary.bytes(1));
+    }
+}
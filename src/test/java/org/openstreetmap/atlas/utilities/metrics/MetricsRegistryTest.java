@@ -0,0 +1,126 @@
+package org.openstreetmap.atlas.utilities.metrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.multi.MultiAtlas;
+import org.openstreetmap.atlas.geography.atlas.packed.RandomPackedAtlasBuilder;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
+import org.openstreetmap.atlas.utilities.scalars.Duration;
+
+/**
+ * @author agent
+ */
+public class MetricsRegistryTest
+{
+    @Test
+    public void testDisabled()
+    {
+        final MetricsRegistry registry = new MetricsRegistry(false);
+        final Counter counter = registry.counter("counter");
+        final LatencyHistogram latency = registry.latency("latency");
+        counter.increment();
+        latency.stop(latency.start());
+        latency.record(Duration.ONE_SECOND);
+        Assert.assertEquals(0, counter.count());
+        Assert.assertEquals(0, latency.count());
+
+        // A section started while disabled is not recorded when the registry is enabled meanwhile
+        final long start = latency.start();
+        registry.setEnabled(true);
+        latency.stop(start);
+        Assert.assertEquals(0, latency.count());
+    }
+
+    @Test
+    public void testEnabled()
+    {
+        final MetricsRegistry registry = new MetricsRegistry(true);
+        final Counter counter = registry.counter("atlas.counter");
+        Assert.assertSame(counter, registry.counter("atlas.counter"));
+        counter.increment();
+        counter.add(2);
+        Assert.assertEquals(3, counter.count());
+
+        final LatencyHistogram latency = registry.latency("atlas.latency");
+        latency.record(500L);
+        latency.record(Duration.milliseconds(3));
+        latency.record(Long.MAX_VALUE / 2);
+        Assert.assertEquals(3, latency.count());
+        final long[] buckets = latency.bucketCounts();
+        Assert.assertEquals(1, buckets[0]);
+        Assert.assertEquals(1, buckets[buckets.length - 1]);
+        Assert.assertEquals(3, buckets[0] + buckets[6] + buckets[buckets.length - 1]);
+
+        Assert.assertEquals(Long.valueOf(3), registry.getCounts().get("atlas.counter"));
+        Assert.assertEquals(Long.valueOf(3), registry.getLatencyCounts().get("atlas.latency"));
+        final String text = registry.toPrometheusText();
+        Assert.assertTrue(text.contains("# TYPE atlas_counter_total counter\natlas_counter_total 3"));
+        Assert.assertTrue(text.contains("atlas_latency_seconds_bucket{le=\"1.0E-6\"} 1"));
+        Assert.assertTrue(text.contains("atlas_latency_seconds_bucket{le=\"+Inf\"} 3"));
+        Assert.assertTrue(text.contains("atlas_latency_seconds_count 3"));
+
+        registry.reset();
+        Assert.assertEquals(0, counter.count());
+        Assert.assertEquals(0, latency.count());
+    }
+
+    @Test
+    public void testHotPaths()
+    {
+        final MetricsRegistry registry = MetricsRegistry.global();
+        final boolean wasEnabled = registry.isEnabled();
+        registry.setEnabled(true);
+        try
+        {
+            final long constructions = registry.latency("atlas.multi.construction").count();
+            final long queries = registry.latency("atlas.spatial.index.query").count();
+            final Atlas atlas = new MultiAtlas(RandomPackedAtlasBuilder.generate(100, 0),
+                    RandomPackedAtlasBuilder.generate(100, 1000));
+            Iterables.size(atlas.pointsWithin(atlas.bounds()));
+            Assert.assertEquals(constructions + 1,
+                    registry.latency("atlas.multi.construction").count());
+            Assert.assertTrue(registry.latency("atlas.spatial.index.query").count() > queries);
+        }
+        finally
+        {
+            registry.setEnabled(wasEnabled);
+        }
+    }
+
+    @Test
+    public void testHttpEndpoint() throws IOException
+    {
+        final MetricsRegistry registry = new MetricsRegistry(true);
+        registry.counter("served").increment();
+        try (MetricsHttpEndpoint endpoint = new MetricsHttpEndpoint(registry, 0))
+        {
+            final URL url = new URL(
+                    "http://localhost:" + endpoint.getPort() + MetricsHttpEndpoint.PATH);
+            try (InputStream input = url.openStream())
+            {
+                final String text = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+                Assert.assertEquals(registry.toPrometheusText(), text);
+                Assert.assertTrue(text.contains("served_total 1"));
+            }
+        }
+    }
+
+    @Test
+    public void testMeanBelowOneMillisecond()
+    {
+        final MetricsRegistry registry = new MetricsRegistry(true);
+        final LatencyHistogram latency = registry.latency("atlas.latency");
+        Assert.assertEquals(0L, latency.meanNanoseconds());
+        latency.record(500L);
+        latency.record(2_500L);
+        Assert.assertEquals(1_500L, latency.meanNanoseconds());
+        Assert.assertEquals("atlas.latency: 2 in 3.000 microseconds, mean 1.500 microseconds",
+                latency.toString());
+    }
+}
@@ -0,0 +1,202 @@
+package org.openstreetmap.atlas.utilities.threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.utilities.scalars.Duration;
+
+/**
+ * @author agent
+ */
+public class TaskPoolTest
+{
+    @Test
+    public void testBackpressure() throws InterruptedException
+    {
+        final int maximumPendingTasks = 3;
+        final AtomicInteger pending = new AtomicInteger();
+        final AtomicInteger maximumPending = new AtomicInteger();
+        try (TaskPool pool = new TaskPool(2, "testBackpressure", Duration.ONE_MINUTE,
+                maximumPendingTasks))
+        {
+            for (int index = 0; index < 50; index++)
+            {
+                maximumPending.accumulateAndGet(pending.incrementAndGet(), Math::max);
+                pool.queue(() ->
+                {
+                    Thread.sleep(2);
+                    pending.decrementAndGet();
+                    return true;
+                });
+            }
+        }
+        // The count is incremented before queuing, hence the one extra task
+        Assert.assertTrue(maximumPending.get() <= maximumPendingTasks + 1);
+        Assert.assertEquals(0, pending.get());
+    }
+
+    @Test
+    public void testCallables() throws InterruptedException, ExecutionException
+    {
+        final List<Callable<Integer>> callables = new ArrayList<>();
+        IntStream.range(0, 1_000).forEach(value -> callables.add(() -> value * 2));
+        try (TaskPool pool = new TaskPool(4, "testCallables"))
+        {
+            final List<Integer> values = pool.queueAll(callables).get();
+            Assert.assertEquals(1_000, values.size());
+            IntStream.range(0, 1_000)
+                    .forEach(value -> Assert.assertEquals(value * 2, (int) values.get(value)));
+            Assert.assertEquals(1_000, pool.numberOfCompletedTasks());
+        }
+    }
+
+    @Test
+    public void testCancelAll() throws InterruptedException
+    {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        try (TaskPool pool = new TaskPool(1, "testCancelAll"))
+        {
+            final CompletableFuture<Boolean> running = pool
+                    .queue(() -> sleepUntilInterrupted(started, interrupted));
+            final CompletableFuture<Boolean> waiting = pool.queue(() -> true);
+            started.await();
+            pool.cancelAll();
+            Assert.assertTrue(running.isCancelled());
+            Assert.assertTrue(waiting.isCancelled());
+            interrupted.await();
+        }
+    }
+
+    @Test
+    public void testCancelledBeforeStart() throws InterruptedException
+    {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final TaskPool pool = new TaskPool(1, "testCancelledBeforeStart");
+        try
+        {
+            pool.queue(() ->
+            {
+                started.countDown();
+                release.await();
+                return true;
+            });
+            final CompletableFuture<Boolean> waiting = pool.queue(() -> true);
+            started.await();
+            waiting.cancel(true);
+            release.countDown();
+        }
+        finally
+        {
+            pool.close();
+        }
+        // The cancelled task never ran, so it is not counted
+        Assert.assertEquals(1, pool.numberOfCompletedTasks());
+    }
+
+    @Test
+    public void testFailureCancelsSiblings() throws InterruptedException
+    {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final List<Callable<Boolean>> callables = new ArrayList<>();
+        callables.add(() -> sleepUntilInterrupted(started, interrupted));
+        callables.add(() ->
+        {
+            started.await();
+            throw new CoreException("Fail");
+        });
+        try (TaskPool pool = new TaskPool(2, "testFailureCancelsSiblings"))
+        {
+            final CompletableFuture<List<Boolean>> results = pool.queueAll(callables);
+            try
+            {
+                results.get();
+                Assert.fail("Expected a failure");
+            }
+            catch (final ExecutionException exception)
+            {
+                Assert.assertTrue(exception.getCause() instanceof CoreException);
+            }
+            interrupted.await();
+        }
+    }
+
+    @Test(expected = CoreException.class)
+    public void testFailureCaught()
+    {
+        try (TaskPool pool = new TaskPool(2, "testFailureCaught"))
+        {
+            // Cast to Runnable otherwise it assumes it is a Callable.
+            pool.queue((Runnable) () ->
+            {
+                throw new CoreException("Fail");
+            });
+        }
+    }
+
+    @Test
+    public void testTimeout() throws InterruptedException
+    {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        try (TaskPool pool = new TaskPool(1, "testTimeout"))
+        {
+            final CompletableFuture<Boolean> result = pool
+                    .queue(() -> sleepUntilInterrupted(started, interrupted),
+                            Duration.milliseconds(50));
+            try
+            {
+                result.get();
+                Assert.fail("Expected a timeout");
+            }
+            catch (final ExecutionException exception)
+            {
+                Assert.assertTrue(exception.getCause() instanceof TimeoutException);
+            }
+            interrupted.await();
+        }
+    }
+
+    @Test
+    public void testTiming()
+    {
+        try (TaskPool pool = new TaskPool(2, "testTiming"))
+        {
+            pool.queue(() -> Duration.milliseconds(20).sleep()).join();
+            pool.queue(() -> Duration.milliseconds(10).sleep()).join();
+            Assert.assertEquals(2, pool.numberOfCompletedTasks());
+            Assert.assertTrue(pool.longestTaskTime().isMoreThanOrEqualsTo(
+                    Duration.milliseconds(20)));
+            Assert.assertTrue(pool.totalTaskTime().isMoreThanOrEqualsTo(
+                    Duration.milliseconds(30)));
+        }
+    }
+
+    private boolean sleepUntilInterrupted(final CountDownLatch started,
+            final CountDownLatch interrupted)
+    {
+        started.countDown();
+        try
+        {
+            Thread.sleep(Duration.ONE_MINUTE.asMilliseconds());
+            return true;
+        }
+        catch (final InterruptedException exception)
+        {
+            interrupted.countDown();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.openstreetmap.atlas.utilities.threads;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class VirtualThreadsTest
+{
+    @Test
+    public void testExecutor()
+    {
+        final ExecutorService executor = VirtualThreads.newExecutor("testExecutor");
+        try
+        {
+            final String name = CompletableFuture
+                    .supplyAsync(() -> Thread.currentThread().getName(), executor).join();
+            Assert.assertTrue(name, name.startsWith("testExecutor-"));
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        Assert.assertEquals("done", CompletableFuture
+                .supplyAsync(() -> "done", VirtualThreads.shared()).join());
+    }
+}
@@ -0,0 +1,96 @@
+package org.openstreetmap.atlas.utilities.timezone;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.Polygon;
+import org.openstreetmap.atlas.geography.Rectangle;
+
+/**
+ * Test the {@link TimeZoneGrid} of a {@link TimeZoneMap} with made up time zone boundaries, which
+ * does not need the time zone shape file.
+ *
+ * @author agent
+ */
+public class TimeZoneMapTest
+{
+    private static final Rectangle BOUND = Rectangle.forString("0,0:10,20");
+    private static final int GRID_DIMENSION = 16;
+
+    @Test
+    public void testGridMatchesPolygons()
+    {
+        final TimeZoneMap withGrid = new TimeZoneMap(BOUND, boundaries(), GRID_DIMENSION);
+        final TimeZoneMap withoutGrid = new TimeZoneMap(BOUND, boundaries(), 0);
+        Assert.assertTrue(withGrid.numberOfResolvedGridCells() > 0);
+        Assert.assertEquals(0, withoutGrid.numberOfResolvedGridCells());
+        for (final Location location : locations())
+        {
+            Assert.assertEquals(location.toString(), withoutGrid.timeZone(location).getID(),
+                    withGrid.timeZone(location).getID());
+        }
+    }
+
+    @Test
+    public void testInvalidGridDimension()
+    {
+        final List<TimeZoneBoundary> boundaries = boundaries();
+        Assert.assertThrows(CoreException.class, () -> new TimeZoneMap(BOUND, boundaries, -1));
+    }
+
+    @Test
+    public void testNestedAndAdjacentZones()
+    {
+        final TimeZoneMap map = new TimeZoneMap(BOUND, boundaries(), GRID_DIMENSION);
+        Assert.assertEquals("America/Denver", map.timeZone(Location.forString("1,1")).getID());
+        // The smallest boundary wins
+        Assert.assertEquals("America/Phoenix", map.timeZone(Location.forString("3,3")).getID());
+        Assert.assertEquals("Europe/Paris", map.timeZone(Location.forString("1,15")).getID());
+        // On the border of two zones
+        Assert.assertEquals("America/Phoenix",
+                map.timeZone(Location.forString("2.5,3")).getID());
+    }
+
+    @Test
+    public void testParallelQueries()
+    {
+        final TimeZoneMap map = new TimeZoneMap(BOUND, boundaries(), GRID_DIMENSION);
+        final List<Location> locations = locations();
+        final List<String> sequential = locations.stream().map(map::timeZone)
+                .map(TimeZone::getID).collect(Collectors.toList());
+        final List<String> parallel = locations.parallelStream().map(map::timeZone)
+                .map(TimeZone::getID).collect(Collectors.toList());
+        Assert.assertEquals(sequential, parallel);
+    }
+
+    private List<TimeZoneBoundary> boundaries()
+    {
+        return Arrays.asList(
+                new TimeZoneBoundary(TimeZone.getTimeZone("America/Denver"),
+                        Polygon.wkt("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0))")),
+                new TimeZoneBoundary(TimeZone.getTimeZone("America/Phoenix"),
+                        Polygon.wkt("POLYGON ((2.5 2.5, 5 2.5, 4 5, 2.5 5, 2.5 2.5))")),
+                new TimeZoneBoundary(TimeZone.getTimeZone("Europe/Paris"),
+                        Polygon.wkt("POLYGON ((10 0, 20 0, 20 8, 10 8, 10 0))")));
+    }
+
+    private List<Location> locations()
+    {
+        final List<Location> result = new ArrayList<>();
+        for (double latitude = 0; latitude <= 10; latitude += 0.15)
+        {
+            for (double longitude = 0; longitude <= 20; longitude += 0.15)
+            {
+                result.add(Location.forString(latitude + "," + longitude));
+            }
+        }
+        return result;
+    }
+}